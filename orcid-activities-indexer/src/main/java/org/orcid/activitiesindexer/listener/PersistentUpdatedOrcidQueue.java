@@ -0,0 +1,145 @@
+/**
+ * =============================================================================
+ *
+ * ORCID (R) Open Source
+ * http://orcid.org
+ *
+ * Copyright (c) 2012-2014 ORCID, Inc.
+ * Licensed under an MIT-Style License (MIT)
+ * http://orcid.org/open-source-license
+ *
+ * This copyright and license information (including a link to the full license)
+ * shall be included in its entirety in all copies or substantial portion of
+ * the software.
+ *
+ * =============================================================================
+ */
+package org.orcid.activitiesindexer.listener;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.orcid.activitiesindexer.persistence.entities.PendingUpdateEntity;
+import org.orcid.activitiesindexer.persistence.managers.PendingUpdatesManager;
+import org.orcid.utils.listener.LastModifiedMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Durable alternative to UpdatedOrcidExpringQueue. Updated records are kept
+ * in the pending_updates table until they have been inactive for
+ * lastUpdateSecondsToWait seconds and UpdatedOrcidWorker processed them, so
+ * nothing is lost on restart.
+ * 
+ * A record is claimed for leaseSeconds before it is processed, so several
+ * nodes can drain the same table; if a node dies while processing a record,
+ * the record is picked up again once the lease expires. A record that
+ * changes while it is processed stays in the queue to be processed again.
+ */
+@Component
+public class PersistentUpdatedOrcidQueue {
+
+    Logger LOG = LoggerFactory.getLogger(PersistentUpdatedOrcidQueue.class);
+
+    @Value("${org.orcid.listener.persistentQueue.enabled:false}")
+    private boolean enabled;
+
+    @Value("${org.orcid.listener.lastUpdateSecondsToWait}")
+    private int secondsToWait;
+
+    @Value("${org.orcid.message-listener.updated_orcid.threads:5}")
+    private int maxThreads;
+
+    @Value("${org.orcid.listener.persistentQueue.leaseSeconds:900}")
+    private int leaseSeconds;
+
+    @Resource
+    private PendingUpdatesManager pendingUpdatesManager;
+
+    @Resource
+    private UpdatedOrcidWorker updatedOrcidWorker;
+
+    private ExecutorService executor;
+
+    private Semaphore availableThreads;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(maxThreads);
+        availableThreads = new Semaphore(maxThreads);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void enqueue(LastModifiedMessage message) {
+        pendingUpdatesManager.enqueue(message);
+    }
+
+    /**
+     * Hands the records that are ready to UpdatedOrcidWorker, never claiming
+     * more records than there are free threads
+     */
+    @Scheduled(fixedDelayString = "${org.orcid.listener.persistentQueue.pollMillis:5000}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        int free = availableThreads.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        List<PendingUpdateEntity> ready = pendingUpdatesManager.getReady(secondsToWait, free);
+        int claimed = 0;
+        for (PendingUpdateEntity element : ready) {
+            if (!availableThreads.tryAcquire()) {
+                break;
+            }
+            if (!pendingUpdatesManager.claim(element, leaseSeconds)) {
+                // Changed or claimed by another node
+                availableThreads.release();
+                continue;
+            }
+            claimed++;
+            executor.execute(() -> process(element));
+        }
+        if (claimed > 0) {
+            LOG.info("Persistent queue: processing " + claimed + " records, depth " + getDepth() + ", oldest record waiting for " + (getOldestAge() / 1000) + " seconds");
+        }
+    }
+
+    public long getDepth() {
+        return pendingUpdatesManager.getDepth();
+    }
+
+    public long getOldestAge() {
+        return pendingUpdatesManager.getOldestAge();
+    }
+
+    private void process(PendingUpdateEntity element) {
+        try {
+            updatedOrcidWorker.process(new LastModifiedMessage(element.getId(), element.getLastUpdated()));
+            pendingUpdatesManager.complete(element);
+        } catch (Exception e) {
+            LOG.error("Unable to process " + element.getId() + " from the persistent queue, it will be retried", e);
+            pendingUpdatesManager.release(element);
+        } finally {
+            availableThreads.release();
+        }
+    }
+}
@@ -53,6 +53,9 @@ public class UpdatedOrcidListener extends BaseListener implements MessageListene
     @Resource
     public UpdatedOrcidExpringQueue<UpdatedOrcidWorker> cacheQueue;
 
+    @Resource
+    private PersistentUpdatedOrcidQueue persistentQueue;
+
     /**
      * Queues incoming messages for processing, eventually handled by
      * UpdatedOrcidWorker
@@ -64,6 +67,10 @@ public class UpdatedOrcidListener extends BaseListener implements MessageListene
         Map<String, String> map = getMapFromMessage(message);
         LastModifiedMessage lastModifiedMessage = new LastModifiedMessage(map);
         LOG.info("Activities indexer: recieved " + updateOrcidsTopicName + " message for orcid " + lastModifiedMessage.getOrcid() + " " + lastModifiedMessage.getLastUpdated());
+        if (persistentQueue.isEnabled()) {
+            persistentQueue.enqueue(lastModifiedMessage);
+            return;
+        }
         LastModifiedMessage existingMessage = cacheQueue.getCache().getIfPresent(lastModifiedMessage.getOrcid());
         if (existingMessage == null || lastModifiedMessage.getLastUpdated().after(existingMessage.getLastUpdated())) {
             cacheQueue.getCache().put(lastModifiedMessage.getOrcid(), lastModifiedMessage);
@@ -43,7 +43,14 @@ public class UpdatedOrcidWorker implements RemovalListener<String, LastModifiedM
         if (removal.wasEvicted()) {
             LastModifiedMessage m = removal.getValue();
             LOG.info("Removing " + removal.getKey() + " from UpdatedOrcidCacheQueue '" + m.getLastUpdated() + "' Removal cause " + removal.getCause());
-            s3Processor.accept(m);
+            process(m);
         }
     }
+
+    /**
+     * Populates the Amazon S3 buckets with the given record
+     */
+    public void process(LastModifiedMessage m) {
+        s3Processor.accept(m);
+    }
 }
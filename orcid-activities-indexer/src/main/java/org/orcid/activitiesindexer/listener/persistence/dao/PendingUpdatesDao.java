@@ -0,0 +1,125 @@
+/**
+ * =============================================================================
+ *
+ * ORCID (R) Open Source
+ * http://orcid.org
+ *
+ * Copyright (c) 2012-2014 ORCID, Inc.
+ * Licensed under an MIT-Style License (MIT)
+ * http://orcid.org/open-source-license
+ *
+ * This copyright and license information (including a link to the full license)
+ * shall be included in its entirety in all copies or substantial portion of
+ * the software.
+ *
+ * =============================================================================
+ */
+package org.orcid.activitiesindexer.listener.persistence.dao;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+
+import org.orcid.activitiesindexer.persistence.entities.PendingUpdateEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PendingUpdatesDao {
+
+    private static final String UPSERT = "INSERT INTO pending_updates (orcid, date_created, last_modified, last_updated) "
+            + "VALUES (:orcid, CAST(:now AS TIMESTAMP WITH TIME ZONE), CAST(:now AS TIMESTAMP WITH TIME ZONE), CAST(:lastUpdated AS TIMESTAMP WITH TIME ZONE)) "
+            + "ON CONFLICT (orcid) DO UPDATE SET last_updated = GREATEST(pending_updates.last_updated, EXCLUDED.last_updated), last_modified = EXCLUDED.last_modified";
+
+    // The test DB doesn't support ON CONFLICT, nor nulls in GREATEST
+    private static final String UPSERT_HSQLDB = "MERGE INTO pending_updates p "
+            + "USING (VALUES (CAST(:orcid AS VARCHAR(19)), CAST(:now AS TIMESTAMP WITH TIME ZONE), CAST(:lastUpdated AS TIMESTAMP WITH TIME ZONE))) AS v (orcid, now, last_updated) "
+            + "ON p.orcid = v.orcid "
+            + "WHEN MATCHED THEN UPDATE SET p.last_modified = v.now, p.last_updated = GREATEST(COALESCE(p.last_updated, v.last_updated), COALESCE(v.last_updated, p.last_updated)) "
+            + "WHEN NOT MATCHED THEN INSERT (orcid, date_created, last_modified, last_updated) VALUES (v.orcid, v.now, v.now, v.last_updated)";
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    private boolean hsqldb;
+
+    @Value("${org.orcid.message-listener.db.dialect}")
+    public void setDialect(String dialect) {
+        this.hsqldb = dialect.contains("HSQL");
+    }
+
+    public PendingUpdateEntity find(String orcid) {
+        return entityManager.find(PendingUpdateEntity.class, orcid);
+    }
+
+    /**
+     * Adds the record, or restarts its wait time if it is already there,
+     * keeping the most recent last updated date. It is a single statement, so
+     * concurrent messages for the same new record don't collide on the
+     * primary key.
+     */
+    public void upsert(String orcid, Date lastUpdated, Date now) {
+        Query query = entityManager.createNativeQuery(hsqldb ? UPSERT_HSQLDB : UPSERT);
+        query.setParameter("orcid", orcid);
+        query.setParameter("lastUpdated", lastUpdated, TemporalType.TIMESTAMP);
+        query.setParameter("now", now, TemporalType.TIMESTAMP);
+        query.executeUpdate();
+    }
+
+    /**
+     * @return records that didn't change since the given date and are not
+     *         being processed, oldest first
+     */
+    public List<PendingUpdateEntity> getReady(Date notModifiedSince, Date now, int batchSize) {
+        TypedQuery<PendingUpdateEntity> query = entityManager.createQuery(
+                "FROM PendingUpdateEntity WHERE lastModified <= :notModifiedSince AND (claimedUntil IS NULL OR claimedUntil < :now) ORDER BY lastModified",
+                PendingUpdateEntity.class);
+        query.setParameter("notModifiedSince", notModifiedSince);
+        query.setParameter("now", now);
+        query.setMaxResults(batchSize);
+        return query.getResultList();
+    }
+
+    /**
+     * Marks the record as being processed, unless it changed or another node
+     * claimed it in the meantime
+     */
+    public boolean claim(String orcid, Date lastModified, Date now, Date claimedUntil) {
+        Query query = entityManager.createQuery(
+                "UPDATE PendingUpdateEntity SET claimedUntil = :claimedUntil WHERE id = :orcid AND lastModified = :lastModified AND (claimedUntil IS NULL OR claimedUntil < :now)");
+        query.setParameter("orcid", orcid);
+        query.setParameter("lastModified", lastModified);
+        query.setParameter("now", now);
+        query.setParameter("claimedUntil", claimedUntil);
+        return query.executeUpdate() > 0;
+    }
+
+    /**
+     * Removes the record, unless it changed while it was being processed
+     */
+    public boolean remove(String orcid, Date lastModified) {
+        Query query = entityManager.createQuery("DELETE FROM PendingUpdateEntity WHERE id = :orcid AND lastModified = :lastModified");
+        query.setParameter("orcid", orcid);
+        query.setParameter("lastModified", lastModified);
+        return query.executeUpdate() > 0;
+    }
+
+    public boolean release(String orcid) {
+        Query query = entityManager.createQuery("UPDATE PendingUpdateEntity SET claimedUntil = NULL WHERE id = :orcid");
+        query.setParameter("orcid", orcid);
+        return query.executeUpdate() > 0;
+    }
+
+    public long count() {
+        return entityManager.createQuery("SELECT COUNT(*) FROM PendingUpdateEntity", Long.class).getSingleResult();
+    }
+
+    public Date getOldestDateCreated() {
+        return entityManager.createQuery("SELECT MIN(dateCreated) FROM PendingUpdateEntity", Date.class).getSingleResult();
+    }
+}
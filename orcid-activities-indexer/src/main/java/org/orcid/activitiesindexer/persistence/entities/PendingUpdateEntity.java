@@ -0,0 +1,86 @@
+/**
+ * =============================================================================
+ *
+ * ORCID (R) Open Source
+ * http://orcid.org
+ *
+ * Copyright (c) 2012-2014 ORCID, Inc.
+ * Licensed under an MIT-Style License (MIT)
+ * http://orcid.org/open-source-license
+ *
+ * This copyright and license information (including a link to the full license)
+ * shall be included in its entirety in all copies or substantial portion of
+ * the software.
+ *
+ * =============================================================================
+ */
+package org.orcid.activitiesindexer.persistence.entities;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * A record waiting to be processed by the activities indexer. lastModified is
+ * the time the last change was received, the record is processed once it is
+ * older than the configured wait time. claimedUntil is set while a node
+ * processes the record, so it is picked up again if that node dies.
+ */
+@Entity
+@Table(name = "pending_updates")
+public class PendingUpdateEntity {
+    private String orcid;
+    private Date dateCreated;
+    private Date lastModified;
+    private Date lastUpdated;
+    private Date claimedUntil;
+
+    @Id
+    @Column(name = "orcid", length = 19)
+    public String getId() {
+        return orcid;
+    }
+
+    public void setId(String orcid) {
+        this.orcid = orcid;
+    }
+
+    @Column(name = "date_created")
+    public Date getDateCreated() {
+        return dateCreated;
+    }
+
+    public void setDateCreated(Date dateCreated) {
+        this.dateCreated = dateCreated;
+    }
+
+    @Column(name = "last_modified")
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    @Column(name = "last_updated")
+    public Date getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(Date lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    @Column(name = "claimed_until")
+    public Date getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Date claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * =============================================================================
+ *
+ * ORCID (R) Open Source
+ * http://orcid.org
+ *
+ * Copyright (c) 2012-2014 ORCID, Inc.
+ * Licensed under an MIT-Style License (MIT)
+ * http://orcid.org/open-source-license
+ *
+ * This copyright and license information (including a link to the full license)
+ * shall be included in its entirety in all copies or substantial portion of
+ * the software.
+ *
+ * =============================================================================
+ */
+package org.orcid.activitiesindexer.persistence.managers;
+
+import java.util.Date;
+import java.util.List;
+
+import org.orcid.activitiesindexer.listener.persistence.dao.PendingUpdatesDao;
+import org.orcid.activitiesindexer.persistence.entities.PendingUpdateEntity;
+import org.orcid.utils.listener.LastModifiedMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class PendingUpdatesManager {
+
+    @Autowired
+    private PendingUpdatesDao dao;
+
+    /**
+     * Adds the record to the queue, or restarts its wait time if it is
+     * already there, keeping the most recent last updated date
+     */
+    @Transactional
+    public void enqueue(LastModifiedMessage message) {
+        dao.upsert(message.getOrcid(), message.getLastUpdated(), new Date());
+    }
+
+    /**
+     * @return records that didn't change in the last secondsToWait seconds
+     *         and are not being processed
+     */
+    public List<PendingUpdateEntity> getReady(int secondsToWait, int batchSize) {
+        long now = System.currentTimeMillis();
+        return dao.getReady(new Date(now - secondsToWait * 1000L), new Date(now), batchSize);
+    }
+
+    @Transactional
+    public boolean claim(PendingUpdateEntity element, int leaseSeconds) {
+        long now = System.currentTimeMillis();
+        return dao.claim(element.getId(), element.getLastModified(), new Date(now), new Date(now + leaseSeconds * 1000L));
+    }
+
+    /**
+     * Removes a processed record from the queue. If it changed while it was
+     * processed it stays in the queue, so the latest changes are processed
+     * too.
+     */
+    @Transactional
+    public void complete(PendingUpdateEntity element) {
+        if (!dao.remove(element.getId(), element.getLastModified())) {
+            dao.release(element.getId());
+        }
+    }
+
+    @Transactional
+    public void release(PendingUpdateEntity element) {
+        dao.release(element.getId());
+    }
+
+    public long getDepth() {
+        return dao.count();
+    }
+
+    /**
+     * @return how long the oldest record has been waiting, in millis
+     */
+    public long getOldestAge() {
+        Date oldest = dao.getOldestDateCreated();
+        return oldest == null ? 0 : System.currentTimeMillis() - oldest.getTime();
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * =============================================================================
+ *
+ * ORCID (R) Open Source
+ * http://orcid.org
+ *
+ * Copyright (c) 2012-2014 ORCID, Inc.
+ * Licensed under an MIT-Style License (MIT)
+ * http://orcid.org/open-source-license
+ *
+ * This copyright and license information (including a link to the full license)
+ * shall be included in its entirety in all copies or substantial portion of
+ * the software.
+ *
+ * =============================================================================
+ */
+package org.orcid.activitiesindexer.persistence.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.orcid.activitiesindexer.listener.persistence.dao.PendingUpdatesDao;
+import org.orcid.activitiesindexer.persistence.entities.PendingUpdateEntity;
+import org.orcid.test.OrcidJUnit4ClassRunner;
+import org.orcid.utils.listener.LastModifiedMessage;
+import org.springframework.test.context.ContextConfiguration;
+
+@RunWith(OrcidJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { "classpath:orcid-activities-indexer-test-context.xml" })
+public class PendingUpdatesManagerTest {
+    @Resource
+    private PendingUpdatesManager pendingUpdatesManager;
+
+    @Resource
+    private PendingUpdatesDao pendingUpdatesDao;
+
+    @Test
+    public void enqueueKeepsLatestLastUpdatedTest() throws InterruptedException {
+        String orcid = "0000-0000-0000-1001";
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date(2000L)));
+        PendingUpdateEntity first = pendingUpdatesDao.find(orcid);
+        assertNotNull(first);
+        assertEquals(2000L, first.getLastUpdated().getTime());
+
+        Thread.sleep(5);
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date(1000L)));
+        PendingUpdateEntity second = pendingUpdatesDao.find(orcid);
+        assertEquals(2000L, second.getLastUpdated().getTime());
+        // The wait time is restarted anyway
+        assertTrue(second.getLastModified().after(first.getLastModified()));
+        assertEquals(first.getDateCreated(), second.getDateCreated());
+
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date(3000L)));
+        assertEquals(3000L, pendingUpdatesDao.find(orcid).getLastUpdated().getTime());
+        cleanUp(orcid);
+    }
+
+    @Test
+    public void concurrentEnqueueOfANewRecordTest() throws Exception {
+        String orcid = "0000-0000-0000-1007";
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i <= threads; i++) {
+            Date lastUpdated = new Date(i * 1000L);
+            futures.add(executor.submit(() -> {
+                start.await();
+                pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, lastUpdated));
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                // Fails if any of the inserts collided
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        PendingUpdateEntity element = pendingUpdatesDao.find(orcid);
+        assertNotNull(element);
+        assertEquals(threads * 1000L, element.getLastUpdated().getTime());
+        cleanUp(orcid);
+    }
+
+    @Test
+    public void recordsAreReadyOnlyAfterTheWaitTimeTest() {
+        String orcid = "0000-0000-0000-1002";
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date()));
+        assertFalse(contains(pendingUpdatesManager.getReady(60, 10), orcid));
+        assertTrue(contains(pendingUpdatesManager.getReady(0, 10), orcid));
+        cleanUp(orcid);
+    }
+
+    @Test
+    public void claimAndCompleteTest() {
+        String orcid = "0000-0000-0000-1003";
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date()));
+        PendingUpdateEntity element = find(pendingUpdatesManager.getReady(0, 10), orcid);
+        assertTrue(pendingUpdatesManager.claim(element, 60));
+        // Claimed records are neither ready nor claimable again
+        assertFalse(contains(pendingUpdatesManager.getReady(0, 10), orcid));
+        assertFalse(pendingUpdatesManager.claim(element, 60));
+        pendingUpdatesManager.complete(element);
+        assertNull(pendingUpdatesDao.find(orcid));
+    }
+
+    @Test
+    public void changesWhileProcessingAreNotLostTest() throws InterruptedException {
+        String orcid = "0000-0000-0000-1004";
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date()));
+        PendingUpdateEntity element = find(pendingUpdatesManager.getReady(0, 10), orcid);
+        assertTrue(pendingUpdatesManager.claim(element, 60));
+        Thread.sleep(5);
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date()));
+        pendingUpdatesManager.complete(element);
+        PendingUpdateEntity remaining = pendingUpdatesDao.find(orcid);
+        assertNotNull(remaining);
+        assertNull(remaining.getClaimedUntil());
+        assertTrue(contains(pendingUpdatesManager.getReady(0, 10), orcid));
+        cleanUp(orcid);
+    }
+
+    @Test
+    public void expiredClaimsAreReadyAgainTest() throws InterruptedException {
+        String orcid = "0000-0000-0000-1005";
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date()));
+        PendingUpdateEntity element = find(pendingUpdatesManager.getReady(0, 10), orcid);
+        assertTrue(pendingUpdatesManager.claim(element, 0));
+        Thread.sleep(5);
+        assertTrue(contains(pendingUpdatesManager.getReady(0, 10), orcid));
+        cleanUp(orcid);
+    }
+
+    @Test
+    public void releaseTest() {
+        String orcid = "0000-0000-0000-1006";
+        pendingUpdatesManager.enqueue(new LastModifiedMessage(orcid, new Date()));
+        PendingUpdateEntity element = find(pendingUpdatesManager.getReady(0, 10), orcid);
+        assertTrue(pendingUpdatesManager.claim(element, 60));
+        pendingUpdatesManager.release(element);
+        assertTrue(contains(pendingUpdatesManager.getReady(0, 10), orcid));
+        assertTrue(pendingUpdatesManager.getDepth() > 0);
+        cleanUp(orcid);
+    }
+
+    private boolean contains(List<PendingUpdateEntity> elements, String orcid) {
+        return find(elements, orcid) != null;
+    }
+
+    private PendingUpdateEntity find(List<PendingUpdateEntity> elements, String orcid) {
+        for (PendingUpdateEntity element : elements) {
+            if (orcid.equals(element.getId())) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private void cleanUp(String orcid) {
+        PendingUpdateEntity element = pendingUpdatesDao.find(orcid);
+        pendingUpdatesManager.complete(element);
+    }
+}
@@ -0,0 +1,188 @@
+package org.orcid.api.common.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.orcid.api.common.analytics.client.AnalyticsClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the analytics events of the API requests and ships them in
+ * batches from a single background thread.
+ *
+ * The events wait in a bounded buffer, a batch is sent once it reaches the
+ * batch size or once its first event has waited for the flush interval. The
+ * request threads never wait: when the buffer is full the event is dropped
+ * and counted.
+ */
+public class AnalyticsEventBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsEventBuffer.class);
+
+    @Resource
+    private AnalyticsClient analyticsClient;
+
+    private int capacity = 10000;
+
+    private int batchSize = 20;
+
+    private long flushIntervalMillis = 5000;
+
+    private BlockingQueue<AnalyticsProcess> events;
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    // Only used by the flusher thread
+    private boolean dataFailureLogged;
+
+    public void setAnalyticsClient(AnalyticsClient analyticsClient) {
+        this.analyticsClient = analyticsClient;
+    }
+
+    /**
+     * Max number of events waiting to be sent, new events are dropped once it
+     * is reached
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        events = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        flusher = new Thread(this::flushLoop, "analytics-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops the flusher, sending the events still in the buffer
+     */
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(flushIntervalMillis);
+    }
+
+    /**
+     * Adds the event to the buffer without waiting
+     *
+     * @return false if the buffer is full and the event was dropped
+     */
+    public boolean offer(AnalyticsProcess event) {
+        if (events.offer(event)) {
+            return true;
+        }
+        long droppedSoFar = dropped.incrementAndGet();
+        if ((droppedSoFar - 1) % capacity == 0) {
+            LOGGER.warn("Analytics buffer is full, {} events dropped so far", droppedSoFar);
+        }
+        return false;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void flushLoop() {
+        List<AnalyticsProcess> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                AnalyticsProcess first = events.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    events.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    AnalyticsProcess next = events.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            // Stopped, send what is left below
+        }
+        do {
+            events.drainTo(batch, batchSize - batch.size());
+            flush(batch);
+        } while (!events.isEmpty());
+    }
+
+    private void flush(List<AnalyticsProcess> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<AnalyticsData> data = new ArrayList<>(batch.size());
+        for (AnalyticsProcess event : batch) {
+            try {
+                data.add(event.getAnalyticsData());
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                // Log the first failure loudly, the same one usually repeats
+                // for every event
+                if (!dataFailureLogged) {
+                    dataFailureLogged = true;
+                    LOGGER.warn("Unable to get the analytics data of an event, the next failures are logged at debug level", e);
+                } else {
+                    LOGGER.debug("Unable to get the analytics data of an event", e);
+                }
+            }
+        }
+        batch.clear();
+        if (data.isEmpty()) {
+            return;
+        }
+        try {
+            analyticsClient.sendAnalyticsData(data);
+            sent.addAndGet(data.size());
+        } catch (Exception e) {
+            failed.addAndGet(data.size());
+            LOGGER.warn("Error sending a batch of {} analytics events", data.size(), e);
+        }
+    }
+
+}
@@ -84,7 +84,7 @@ public class AnalyticsProcess implements Runnable {
         this.scheme = scheme;
     }
 
-    private AnalyticsData getAnalyticsData() {
+    public AnalyticsData getAnalyticsData() {
         ip = maskIp(ip);
 
         APIEndpointParser parser = new APIEndpointParser(request);
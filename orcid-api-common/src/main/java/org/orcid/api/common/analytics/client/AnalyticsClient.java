@@ -1,8 +1,20 @@
 package org.orcid.api.common.analytics.client;
 
+import java.util.List;
+
 import org.orcid.api.common.analytics.AnalyticsData;
 
 public interface AnalyticsClient {
 
     void sendAnalyticsData(AnalyticsData data);
+
+    /**
+     * Sends a batch of events, one by one unless the client supports sending
+     * them together
+     */
+    default void sendAnalyticsData(List<AnalyticsData> data) {
+        for (AnalyticsData event : data) {
+            sendAnalyticsData(event);
+        }
+    }
 }
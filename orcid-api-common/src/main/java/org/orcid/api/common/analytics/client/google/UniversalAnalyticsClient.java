@@ -5,6 +5,8 @@ import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import javax.ws.rs.HttpMethod;
 
@@ -55,12 +57,22 @@ public class UniversalAnalyticsClient implements AnalyticsClient {
 
     protected static final String SESSION_CONTROL_VALUE = "start";
 
+    /**
+     * Limits of the batch endpoint of the measurement protocol
+     */
+    protected static final int MAX_HITS_PER_BATCH = 20;
+
+    protected static final int MAX_BATCH_BYTES = 16 * 1024;
+
     @Value("${org.orcid.core.api.analytics.trackingCode:}")
     private String analyticsTrackingCode;
 
     @Value("${org.orcid.core.api.analytics.endpoint:}")
     private String analyticsEndpoint;
 
+    @Value("${org.orcid.core.api.analytics.batchEndpoint:}")
+    private String analyticsBatchEndpoint;
+
     @Override
     public void sendAnalyticsData(AnalyticsData data) {
         if (!StringUtils.isBlank(analyticsTrackingCode)) {
@@ -68,14 +80,59 @@ public class UniversalAnalyticsClient implements AnalyticsClient {
         }
     }
 
+    /**
+     * Posts the events to the batch endpoint, as many per request as its
+     * limits allow. Without a batch endpoint they are posted one by one.
+     */
+    @Override
+    public void sendAnalyticsData(List<AnalyticsData> data) {
+        if (StringUtils.isBlank(analyticsTrackingCode)) {
+            return;
+        }
+        if (StringUtils.isBlank(analyticsBatchEndpoint)) {
+            data.forEach(this::recordEvent);
+            return;
+        }
+        StringBuilder batch = new StringBuilder();
+        int hits = 0;
+        int bytes = 0;
+        for (AnalyticsData event : data) {
+            String payload = getEventPayload(event);
+            int payloadBytes = payload.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (hits > 0 && (hits == MAX_HITS_PER_BATCH || bytes + payloadBytes > MAX_BATCH_BYTES)) {
+                postBatch(batch.toString());
+                batch.setLength(0);
+                hits = 0;
+                bytes = 0;
+            }
+            if (hits > 0) {
+                batch.append('\n');
+            }
+            batch.append(payload);
+            hits++;
+            bytes += payloadBytes;
+        }
+        if (hits > 0) {
+            postBatch(batch.toString());
+        }
+    }
+
     private void recordEvent(AnalyticsData data) {
         String payload = getEventPayload(data);
         postData(payload);
     }
 
     protected void postData(String payload) {
+        post(analyticsEndpoint, payload);
+    }
+
+    protected void postBatch(String payload) {
+        post(analyticsBatchEndpoint, payload);
+    }
+
+    private void post(String endpoint, String payload) {
         try {
-            URL url = new URL(analyticsEndpoint);
+            URL url = new URL(endpoint);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod(HttpMethod.POST);
             connection.setDoOutput(true);
@@ -6,12 +6,21 @@ import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 
 /**
+ * Drops the chars that are not allowed in XML 1.0 while writing.
+ * 
+ * Chars are scanned in place (or, for strings, in a reusable buffer) and every
+ * run of valid chars is passed to the underlying writer in a single call, so
+ * the encoder is not invoked once per char.
  * 
  * @author Will Simpson
  *
  */
 public class FilterInvalidXmlCharsOutputStreamWriter extends OutputStreamWriter {
 
+    private static final int BUFFER_SIZE = 1024;
+
+    private char[] buffer;
+
     public FilterInvalidXmlCharsOutputStreamWriter(OutputStream out) {
         super(out);
     }
@@ -22,25 +31,57 @@ public class FilterInvalidXmlCharsOutputStreamWriter extends OutputStreamWriter
 
     @Override
     public void write(int c) throws IOException {
-        // Don't write chars from ASCII controls that are not allowed in XML
-        // 1.0!
-        if ((c != 65535 && c != 65534) && (c > 31 || c == 9 || c == 10 || c == 13)) {
+        if (isValid((char) c)) {
             super.write(c);
         }
     }
 
     @Override
     public void write(char[] cbuf, int off, int len) throws IOException {
-        for (int i = off; i < len + off; i++) {
-            write(cbuf[i]);
+        synchronized (lock) {
+            writeValidRuns(cbuf, off, len);
         }
     }
 
     @Override
     public void write(String str, int off, int len) throws IOException {
-        if (str != null) {
-            write(str.toCharArray(), off, len);
+        if (str == null) {
+            return;
+        }
+        synchronized (lock) {
+            if (buffer == null) {
+                buffer = new char[BUFFER_SIZE];
+            }
+            int end = off + len;
+            while (off < end) {
+                int chunk = Math.min(BUFFER_SIZE, end - off);
+                str.getChars(off, off + chunk, buffer, 0);
+                writeValidRuns(buffer, 0, chunk);
+                off += chunk;
+            }
+        }
+    }
+
+    private void writeValidRuns(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        int runStart = off;
+        for (int i = off; i < end; i++) {
+            if (!isValid(cbuf[i])) {
+                if (i > runStart) {
+                    super.write(cbuf, runStart, i - runStart);
+                }
+                runStart = i + 1;
+            }
         }
+        if (end > runStart) {
+            super.write(cbuf, runStart, end - runStart);
+        }
+    }
+
+    private static boolean isValid(char c) {
+        // Don't write chars from ASCII controls that are not allowed in XML
+        // 1.0!
+        return (c != 65535 && c != 65534) && (c > 31 || c == 9 || c == 10 || c == 13);
     }
 
 }
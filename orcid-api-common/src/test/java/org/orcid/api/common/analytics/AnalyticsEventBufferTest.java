@@ -0,0 +1,206 @@
+package org.orcid.api.common.analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+import org.orcid.api.common.analytics.client.AnalyticsClient;
+
+public class AnalyticsEventBufferTest {
+
+    private RecordingAnalyticsClient analyticsClient = new RecordingAnalyticsClient();
+
+    private AnalyticsEventBuffer buffer;
+
+    @After
+    public void after() throws InterruptedException {
+        analyticsClient.release.countDown();
+        if (buffer != null) {
+            buffer.destroy();
+        }
+    }
+
+    @Test
+    public void testFlushWhenBatchIsFull() throws InterruptedException {
+        buffer = newBuffer(100, 5, 60000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(buffer.offer(newEvent("client-" + i)));
+        }
+
+        assertEquals(5, analyticsClient.nextBatch().size());
+        assertEquals(5, analyticsClient.nextBatch().size());
+        waitUntil(buffer::getSent, 10);
+        assertEquals(0, buffer.getDropped());
+    }
+
+    @Test
+    public void testFlushWhenIntervalElapses() throws InterruptedException {
+        buffer = newBuffer(100, 50, 200);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            buffer.offer(newEvent("client-" + i));
+        }
+
+        List<AnalyticsData> batch = analyticsClient.nextBatch();
+        assertEquals(3, batch.size());
+        assertEquals("client-0", batch.get(0).getClientId());
+        assertEquals("client-2", batch.get(2).getClientId());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+    }
+
+    @Test
+    public void testDropEventsWhenBufferIsFull() throws InterruptedException {
+        buffer = newBuffer(10, 5, 60000);
+        analyticsClient.release = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(newEvent("client-" + i));
+        }
+        // The flusher is stuck sending the first batch
+        assertTrue(analyticsClient.sending.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        int accepted = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (buffer.offer(newEvent("client-" + i))) {
+                accepted++;
+            }
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(10, accepted);
+        assertEquals(990, buffer.getDropped());
+        assertFalse(buffer.offer(newEvent("client")));
+        assertEquals(991, buffer.getDropped());
+
+        analyticsClient.release.countDown();
+        assertEquals(5, analyticsClient.nextBatch().size());
+        assertEquals(5, analyticsClient.nextBatch().size());
+        assertEquals(5, analyticsClient.nextBatch().size());
+        assertTrue(buffer.offer(newEvent("client")));
+    }
+
+    @Test
+    public void testSkipEventsThatFail() throws InterruptedException {
+        buffer = newBuffer(100, 3, 60000);
+        AnalyticsProcess broken = mock(AnalyticsProcess.class);
+        when(broken.getAnalyticsData()).thenThrow(new NullPointerException());
+        buffer.offer(newEvent("client-0"));
+        buffer.offer(broken);
+        buffer.offer(newEvent("client-2"));
+
+        List<AnalyticsData> batch = analyticsClient.nextBatch();
+        assertEquals(2, batch.size());
+        assertEquals("client-0", batch.get(0).getClientId());
+        assertEquals("client-2", batch.get(1).getClientId());
+        assertEquals(1, buffer.getFailed());
+
+        analyticsClient.failing = true;
+        for (int i = 0; i < 3; i++) {
+            buffer.offer(newEvent("client-" + i));
+        }
+        assertEquals(3, analyticsClient.nextBatch().size());
+        waitUntil(buffer::getFailed, 4);
+
+        analyticsClient.failing = false;
+        for (int i = 0; i < 3; i++) {
+            buffer.offer(newEvent("client-" + i));
+        }
+        assertEquals(3, analyticsClient.nextBatch().size());
+        waitUntil(buffer::getSent, 5);
+    }
+
+    @Test
+    public void testFlushPendingEventsOnDestroy() throws InterruptedException {
+        buffer = newBuffer(100, 50, 60000);
+        for (int i = 0; i < 7; i++) {
+            buffer.offer(newEvent("client-" + i));
+        }
+        buffer.destroy();
+
+        assertEquals(7, analyticsClient.nextBatch().size());
+        assertEquals(7, buffer.getSent());
+        buffer = null;
+    }
+
+    private AnalyticsEventBuffer newBuffer(int capacity, int batchSize, long flushIntervalMillis) {
+        AnalyticsEventBuffer buffer = new AnalyticsEventBuffer();
+        buffer.setAnalyticsClient(analyticsClient);
+        buffer.setCapacity(capacity);
+        buffer.setBatchSize(batchSize);
+        buffer.setFlushIntervalMillis(flushIntervalMillis);
+        buffer.start();
+        return buffer;
+    }
+
+    private AnalyticsProcess newEvent(String clientId) {
+        AnalyticsData data = new AnalyticsData();
+        data.setClientId(clientId);
+        AnalyticsProcess event = mock(AnalyticsProcess.class);
+        when(event.getAnalyticsData()).thenReturn(data);
+        return event;
+    }
+
+    /**
+     * The counters are updated once the client returns, after the batch is
+     * recorded
+     */
+    private void waitUntil(LongSupplier counter, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (counter.getAsLong() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, counter.getAsLong());
+    }
+
+    /**
+     * Collects the batches in memory, and can hold the flusher until released
+     * or fail the sends
+     */
+    private static class RecordingAnalyticsClient implements AnalyticsClient {
+
+        private final BlockingQueue<List<AnalyticsData>> batches = new LinkedBlockingQueue<>();
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        private volatile boolean failing;
+
+        @Override
+        public void sendAnalyticsData(AnalyticsData data) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void sendAnalyticsData(List<AnalyticsData> data) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(new ArrayList<>(data));
+            if (failing) {
+                throw new IllegalStateException("Collector unavailable");
+            }
+        }
+
+        public List<AnalyticsData> nextBatch() throws InterruptedException {
+            List<AnalyticsData> batch = batches.poll(5, TimeUnit.SECONDS);
+            assertTrue("No batch sent", batch != null);
+            return batch;
+        }
+    }
+
+}
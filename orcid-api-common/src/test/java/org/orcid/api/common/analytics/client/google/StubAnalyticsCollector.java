@@ -0,0 +1,66 @@
+package org.orcid.api.common.analytics.client.google;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.io.IOUtils;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand in for the measurement protocol collector, records the body of
+ * every request posted to /collect and /batch and answers 200
+ */
+public class StubAnalyticsCollector implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final List<String> collectRequests = new CopyOnWriteArrayList<>();
+
+    private final List<String> batchRequests = new CopyOnWriteArrayList<>();
+
+    public StubAnalyticsCollector() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/collect", exchange -> {
+            collectRequests.add(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/batch", exchange -> {
+            batchRequests.add(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    public String getCollectEndpoint() {
+        return getBaseUrl() + "/collect";
+    }
+
+    public String getBatchEndpoint() {
+        return getBaseUrl() + "/batch";
+    }
+
+    public List<String> getCollectRequests() {
+        return collectRequests;
+    }
+
+    public List<String> getBatchRequests() {
+        return batchRequests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+}
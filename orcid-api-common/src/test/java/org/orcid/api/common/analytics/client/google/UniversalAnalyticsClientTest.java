@@ -3,6 +3,10 @@ package org.orcid.api.common.analytics.client.google;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 import org.orcid.api.common.analytics.AnalyticsData;
@@ -47,6 +51,78 @@ public class UniversalAnalyticsClientTest {
         assertNull(payload); // didn't get sent
     }
     
+    @Test
+    public void testSendAnalyticsDataInBatches() throws Exception {
+        try (StubAnalyticsCollector collector = new StubAnalyticsCollector()) {
+            UniversalAnalyticsClient client = new UniversalAnalyticsClient();
+            ReflectionTestUtils.setField(client, "analyticsTrackingCode", "some-tracking-code");
+            ReflectionTestUtils.setField(client, "analyticsEndpoint", collector.getCollectEndpoint());
+            ReflectionTestUtils.setField(client, "analyticsBatchEndpoint", collector.getBatchEndpoint());
+            client.sendAnalyticsData(getData(45));
+
+            assertTrue(collector.getCollectRequests().isEmpty());
+            List<String> batches = collector.getBatchRequests();
+            assertEquals(3, batches.size());
+            assertEquals(20, batches.get(0).split("\n").length);
+            assertEquals(20, batches.get(1).split("\n").length);
+            assertEquals(5, batches.get(2).split("\n").length);
+            for (String hit : batches.get(2).split("\n")) {
+                String[] params = UriEncoder.decode(hit).split("&");
+                assertEquals(14, params.length);
+                assertEquals(UniversalAnalyticsClient.TRACKING_ID_PARAM + "=some-tracking-code", params[1]);
+            }
+        }
+    }
+
+    @Test
+    public void testSendAnalyticsDataInBatchesUpToMaxBytes() throws Exception {
+        UniversalAnalyticsClientStub client = new UniversalAnalyticsClientStub();
+        ReflectionTestUtils.setField(client, "analyticsTrackingCode", "some-tracking-code");
+        ReflectionTestUtils.setField(client, "analyticsBatchEndpoint", "http://localhost/batch");
+        List<AnalyticsData> data = getData(20);
+        data.forEach(d -> d.setUserAgent(d.getUserAgent() + "-" + new String(new char[1000]).replace('\0', 'a')));
+        client.sendAnalyticsData(data);
+
+        assertTrue(client.getBatches().size() > 1);
+        int hits = 0;
+        for (String batch : client.getBatches()) {
+            assertTrue(batch.length() + 1 <= UniversalAnalyticsClient.MAX_BATCH_BYTES);
+            hits += batch.split("\n").length;
+        }
+        assertEquals(20, hits);
+    }
+
+    @Test
+    public void testSendAnalyticsDataWithoutBatchEndpoint() throws Exception {
+        try (StubAnalyticsCollector collector = new StubAnalyticsCollector()) {
+            UniversalAnalyticsClient client = new UniversalAnalyticsClient();
+            ReflectionTestUtils.setField(client, "analyticsTrackingCode", "some-tracking-code");
+            ReflectionTestUtils.setField(client, "analyticsEndpoint", collector.getCollectEndpoint());
+            client.sendAnalyticsData(getData(3));
+
+            assertEquals(3, collector.getCollectRequests().size());
+            assertTrue(collector.getBatchRequests().isEmpty());
+        }
+    }
+
+    @Test
+    public void testSendAnalyticsDataInBatchesNoTrackingCode() {
+        UniversalAnalyticsClientStub client = new UniversalAnalyticsClientStub();
+        ReflectionTestUtils.setField(client, "analyticsBatchEndpoint", "http://localhost/batch");
+        client.sendAnalyticsData(getData(3));
+        assertTrue(client.getBatches().isEmpty());
+    }
+
+    private List<AnalyticsData> getData(int count) {
+        List<AnalyticsData> data = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AnalyticsData event = getData();
+            event.setClientId("client id " + i);
+            data.add(event);
+        }
+        return data;
+    }
+
     private AnalyticsData getData() {
         AnalyticsData data = new AnalyticsData();
         data.setApiVersion("v2.0");
@@ -68,12 +144,23 @@ public class UniversalAnalyticsClientTest {
     private class UniversalAnalyticsClientStub extends UniversalAnalyticsClient {
         
         private String payload;
+
+        private List<String> batches = new ArrayList<>();
         
         @Override
         protected void postData(String payload) {
             this.payload = payload;
         }
 
+        @Override
+        protected void postBatch(String payload) {
+            batches.add(payload);
+        }
+
+        public List<String> getBatches() {
+            return batches;
+        }
+
         public String getPayload() {
             return payload;
         }
@@ -0,0 +1,59 @@
+package org.orcid.api.common.jaxb;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+public class FilterInvalidXmlCharsOutputStreamWriterTest {
+
+    @Test
+    public void writeStringTest() throws IOException {
+        assertEquals("", write(""));
+        assertEquals("valid text", write("valid text"));
+        assertEquals("tab\tlf\ncr\r", write("tab\tlf\ncr\r"));
+        assertEquals("abc", write("\u0000a\u0001b\u001Fc\u0008"));
+        assertEquals("ab", write("a\uFFFE\uFFFFb"));
+        assertEquals("café 中文 😀", write("café 中文\u000B 😀"));
+    }
+
+    @Test
+    public void writeLongStringTest() throws IOException {
+        // Longer than the internal buffer, with invalid chars on the chunk
+        // boundaries
+        String chunk = StringUtils.repeat('x', 1023) + "\u0002";
+        String input = StringUtils.repeat(chunk, 5) + "é";
+        assertEquals(StringUtils.repeat(StringUtils.repeat('x', 1023), 5) + "é", write(input));
+    }
+
+    @Test
+    public void writeOffsetsTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FilterInvalidXmlCharsOutputStreamWriter writer = new FilterInvalidXmlCharsOutputStreamWriter(out, "UTF-8");
+        writer.write("\u0000abc\u0001def", 2, 5);
+        writer.write("gh\u0003ij".toCharArray(), 1, 3);
+        writer.write('\u0004');
+        writer.write('k');
+        writer.flush();
+        assertEquals("bcdehi" + "k", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private String write(String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FilterInvalidXmlCharsOutputStreamWriter writer = new FilterInvalidXmlCharsOutputStreamWriter(out, "UTF-8");
+        writer.write(input);
+        writer.flush();
+        String fromString = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        out.reset();
+        writer.write(input.toCharArray());
+        writer.flush();
+        assertEquals(fromString, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        return fromString;
+    }
+
+}
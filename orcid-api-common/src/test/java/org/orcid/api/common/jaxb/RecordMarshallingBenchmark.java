@@ -0,0 +1,162 @@
+package org.orcid.api.common.jaxb;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.jaxb.model.common.Relationship;
+import org.orcid.jaxb.model.v3.release.common.Title;
+import org.orcid.jaxb.model.v3.release.record.ExternalID;
+import org.orcid.jaxb.model.v3.release.record.ExternalIDs;
+import org.orcid.jaxb.model.v3.release.record.Record;
+import org.orcid.jaxb.model.v3.release.record.WorkTitle;
+import org.orcid.jaxb.model.v3.release.record.summary.ActivitiesSummary;
+import org.orcid.jaxb.model.v3.release.record.summary.WorkGroup;
+import org.orcid.jaxb.model.v3.release.record.summary.WorkSummary;
+import org.orcid.jaxb.model.v3.release.record.summary.Works;
+
+/**
+ * Measures the cost of marshalling a large record to XML through the filtering
+ * writer, compared with the previous writer that forwarded every char on its
+ * own.
+ * 
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.orcid.api.common.jaxb.RecordMarshallingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecordMarshallingBenchmark {
+
+    @Param({ "100", "2000" })
+    private int works;
+
+    private Record record;
+
+    private Marshaller marshaller;
+
+    @Setup
+    public void setup() throws JAXBException {
+        record = buildRecord(works);
+        marshaller = JAXBContext.newInstance(Record.class).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+    }
+
+    @Benchmark
+    public long filterInvalidXmlCharsOutputStreamWriter() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        marshaller.marshal(record, new FilterInvalidXmlCharsOutputStreamWriter(out, "UTF-8"));
+        return out.count;
+    }
+
+    @Benchmark
+    public long perCharFilter() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        marshaller.marshal(record, new PerCharFilterOutputStreamWriter(out, "UTF-8"));
+        return out.count;
+    }
+
+    private static Record buildRecord(int count) {
+        Works works = new Works();
+        for (int i = 0; i < count; i++) {
+            WorkSummary work = new WorkSummary();
+            work.setPutCode((long) i);
+            work.setPath("/0000-0000-0000-0001/work/" + i);
+            WorkTitle workTitle = new WorkTitle();
+            workTitle.setTitle(new Title("A reasonably long title for the work number " + i + " with some accents: éèüñ"));
+            work.setTitle(workTitle);
+            work.setJournalTitle(new Title("Journal of synthetic records"));
+            ExternalIDs ids = new ExternalIDs();
+            ExternalID id = new ExternalID();
+            id.setType("doi");
+            id.setValue("10.1234/synthetic." + i);
+            id.setRelationship(Relationship.SELF);
+            ids.getExternalIdentifier().add(id);
+            work.setExternalIdentifiers(ids);
+            WorkGroup group = new WorkGroup();
+            group.getIdentifiers().getExternalIdentifier().add(id);
+            group.getWorkSummary().add(work);
+            works.getWorkGroup().add(group);
+        }
+        ActivitiesSummary activitiesSummary = new ActivitiesSummary();
+        activitiesSummary.setWorks(works);
+        Record record = new Record();
+        record.setActivitiesSummary(activitiesSummary);
+        return record;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * The writer as it was before chars were written in runs
+     */
+    private static class PerCharFilterOutputStreamWriter extends OutputStreamWriter {
+
+        PerCharFilterOutputStreamWriter(OutputStream out, String charsetName) throws UnsupportedEncodingException {
+            super(out, charsetName);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if ((c != 65535 && c != 65534) && (c > 31 || c == 9 || c == 10 || c == 13)) {
+                super.write(c);
+            }
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            for (int i = off; i < len + off; i++) {
+                write(cbuf[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            if (str != null) {
+                write(str.toCharArray(), off, len);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(RecordMarshallingBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
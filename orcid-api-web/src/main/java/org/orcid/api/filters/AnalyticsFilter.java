@@ -5,6 +5,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.ext.Provider;
 
+import org.orcid.api.common.analytics.AnalyticsEventBuffer;
 import org.orcid.api.common.analytics.AnalyticsProcess;
 import org.orcid.api.common.analytics.client.AnalyticsClient;
 import org.orcid.core.manager.ClientDetailsEntityCacheManager;
@@ -16,7 +17,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 
@@ -43,7 +43,7 @@ public class AnalyticsFilter implements ContainerResponseFilter, InitializingBea
     private ProfileEntityCacheManager profileEntityCacheManager;
     
     @Inject
-    private ThreadPoolTaskExecutor apiAnalyticsTaskExecutor;
+    private AnalyticsEventBuffer analyticsEventBuffer;
     
     @Context
     private HttpServletRequest httpServletRequest;
@@ -55,7 +55,7 @@ public class AnalyticsFilter implements ContainerResponseFilter, InitializingBea
     public void filter(ContainerRequestContext request, ContainerResponseContext response) {
         if (enableMemberAPIAnalytics) {
             AnalyticsProcess analyticsProcess = getAnalyticsProcess(request, response);
-            apiAnalyticsTaskExecutor.execute(analyticsProcess);
+            analyticsEventBuffer.offer(analyticsProcess);
         }
         return;
     }
@@ -14,6 +14,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.annotation.Resource;
 import javax.persistence.NoResultException;
@@ -830,7 +831,10 @@ public class MemberV3ApiServiceDelegator_GeneralTest extends DBUnitTest {
         result.setOrcidIdentifier(new OrcidIdentifier("some-orcid-id"));
         search.getResults().add(result);
         OrcidSearchManager orcidSearchManager = Mockito.mock(OrcidSearchManagerImpl.class);
-        Mockito.when(orcidSearchManager.findOrcidIds(Matchers.<Map<String, List<String>>> any())).thenReturn(search);
+        Mockito.when(orcidSearchManager.findOrcidIds(Matchers.<Map<String, List<String>>> any(), Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Consumer<String>> getArgument(1).accept("next-cursor");
+            return search;
+        });
 
         OrcidSecurityManager orcidSecurityManager = Mockito.mock(OrcidSecurityManagerImpl.class);
         Mockito.doNothing().when(orcidSecurityManager).checkScopes(Mockito.any(ScopePathType.class));
@@ -846,6 +850,7 @@ public class MemberV3ApiServiceDelegator_GeneralTest extends DBUnitTest {
         assertTrue(response.getEntity() instanceof Search);
         assertEquals(1, ((Search) response.getEntity()).getResults().size());
         assertEquals("some-orcid-id", ((Search) response.getEntity()).getResults().get(0).getOrcidIdentifier().getPath());
+        assertEquals("next-cursor", response.getMetadata().getFirst(OrcidSearchManager.NEXT_CURSOR_MARK_HEADER));
     }
 
     @Test(expected = OrcidBadRequestException.class)
@@ -899,7 +904,7 @@ public class MemberV3ApiServiceDelegator_GeneralTest extends DBUnitTest {
         ExpandedResult result = new ExpandedResult();
         search.getResults().add(result);
         OrcidSearchManager mockSearchManager = Mockito.mock(OrcidSearchManagerImpl.class);
-        Mockito.when(mockSearchManager.expandedSearch(Mockito.any())).thenReturn(search);
+        Mockito.when(mockSearchManager.expandedSearch(Mockito.any(), Mockito.any())).thenReturn(search);
         OrcidSearchManager orcidSearchManager = (OrcidSearchManager) ReflectionTestUtils.getField(serviceDelegator, "orcidSearchManager");
         ReflectionTestUtils.setField(serviceDelegator, "orcidSearchManager", mockSearchManager);
         
@@ -907,7 +912,7 @@ public class MemberV3ApiServiceDelegator_GeneralTest extends DBUnitTest {
         searchQuery.put("q", Arrays.asList("orcid"));
         serviceDelegator.expandedSearchByQuery(searchQuery);
         
-        Mockito.verify(mockSearchManager).expandedSearch(searchParamsCaptor.capture());
+        Mockito.verify(mockSearchManager).expandedSearch(searchParamsCaptor.capture(), Mockito.any());
         Map<String, List<String>> actualParams = searchParamsCaptor.getValue();
         assertNotNull(actualParams);
         assertNotNull(actualParams.keySet());
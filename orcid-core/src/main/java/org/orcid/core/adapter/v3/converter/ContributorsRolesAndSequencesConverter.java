@@ -1,8 +1,10 @@
 package org.orcid.core.adapter.v3.converter;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import ma.glasnost.orika.converter.BidirectionalConverter;
 import ma.glasnost.orika.metadata.Type;
 import org.orcid.core.contributors.roles.ContributorRoleConverter;
@@ -15,6 +17,7 @@ import org.orcid.pojo.ajaxForm.PojoUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,6 +25,11 @@ public class ContributorsRolesAndSequencesConverter extends BidirectionalConvert
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ContributorsRolesAndSequencesConverter.class);
 
+    // Readers are immutable and thread safe, so one is built for all the rows
+    private static final ObjectReader CONTRIBUTOR_READER = new ObjectMapper().readerFor(ContributorsRolesAndSequences.class);
+
+    private final ContributorUtils contributorUtils = new ContributorUtils(null);
+
     private ContributorRoleConverter roleConverter;
 
     public ContributorsRolesAndSequencesConverter(ContributorRoleConverter roleConverter) {
@@ -39,34 +47,88 @@ public class ContributorsRolesAndSequencesConverter extends BidirectionalConvert
     }
 
     public List<ContributorsRolesAndSequences> getContributorsRolesAndSequencesList(String source) {
-        ContributorUtils contributorUtils = new ContributorUtils(null);
-        final ObjectMapper objectMapper = new ObjectMapper();
-        List<ContributorsRolesAndSequences> contributorsRolesAndSequencesResult = new ArrayList<>();
-        try {
-            contributorsRolesAndSequencesResult = objectMapper.readValue(source, new TypeReference<List<ContributorsRolesAndSequences>>(){});
-            if (contributorsRolesAndSequencesResult != null) {
-                for (ContributorsRolesAndSequences contributorsRolesAndSequences : contributorsRolesAndSequencesResult) {
-                    if (contributorsRolesAndSequences.getRolesAndSequences() != null) {
-                        for (ContributorAttributes crs : contributorsRolesAndSequences.getRolesAndSequences()) {
-                            String providedRoleValue = crs.getContributorRole();
-                            if (!PojoUtil.isEmpty(providedRoleValue)) {
-                                CreditRole cr = CreditRole.fromUiValue(providedRoleValue);
-                                if (cr != null) {
-                                    providedRoleValue = cr.name();
-                                }
-                                crs.setContributorRole(contributorUtils.getCreditRole(roleConverter.toRoleValue(providedRoleValue)));
-                            }
-                        }
-                    }
+        return getTopContributors(source, Integer.MAX_VALUE).getContributors();
+    }
+
+    /**
+     * Reads the contributors JSON as a stream, building only the first
+     * maxContributors contributors; the rest are skipped without being
+     * decoded, but still counted
+     */
+    public TopContributors getTopContributors(String source, int maxContributors) {
+        if (PojoUtil.isEmpty(source)) {
+            return new TopContributors(new ArrayList<>(), 0);
+        }
+        List<ContributorsRolesAndSequences> contributors = new ArrayList<>();
+        int total = 0;
+        try (JsonParser parser = CONTRIBUTOR_READER.getFactory().createParser(source)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return new TopContributors(new ArrayList<>(), 0);
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    // Truncated JSON
+                    return new TopContributors(new ArrayList<>(), 0);
                 }
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                if (contributors.size() < maxContributors) {
+                    ContributorsRolesAndSequences contributor = CONTRIBUTOR_READER.readValue(parser);
+                    convertRoles(contributor);
+                    contributors.add(contributor);
+                } else {
+                    parser.skipChildren();
+                }
+                total++;
             }
         } catch (JsonProcessingException | IllegalArgumentException e) {
-            return contributorsRolesAndSequencesResult;
-        } catch (Exception ioe) {
-            LOGGER.error("Unable to process contributors", ioe);
-            throw ioe;
+            return new TopContributors(new ArrayList<>(), 0);
+        } catch (IOException e) {
+            LOGGER.error("Unable to process contributors", e);
+            throw new IllegalStateException(e);
+        }
+        return new TopContributors(contributors, total);
+    }
+
+    private void convertRoles(ContributorsRolesAndSequences contributorsRolesAndSequences) {
+        if (contributorsRolesAndSequences.getRolesAndSequences() != null) {
+            for (ContributorAttributes crs : contributorsRolesAndSequences.getRolesAndSequences()) {
+                String providedRoleValue = crs.getContributorRole();
+                if (!PojoUtil.isEmpty(providedRoleValue)) {
+                    CreditRole cr = CreditRole.fromUiValue(providedRoleValue);
+                    if (cr != null) {
+                        providedRoleValue = cr.name();
+                    }
+                    crs.setContributorRole(contributorUtils.getCreditRole(roleConverter.toRoleValue(providedRoleValue)));
+                }
+            }
+        }
+    }
+
+    /**
+     * The first contributors of a work, and the total number of contributors
+     * in its JSON
+     */
+    public static class TopContributors {
+
+        private final List<ContributorsRolesAndSequences> contributors;
+
+        private final int total;
+
+        public TopContributors(List<ContributorsRolesAndSequences> contributors, int total) {
+            this.contributors = contributors;
+            this.total = total;
+        }
+
+        public List<ContributorsRolesAndSequences> getContributors() {
+            return contributors;
+        }
+
+        public int getTotal() {
+            return total;
         }
-        return contributorsRolesAndSequencesResult;
     }
 
 }
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import ma.glasnost.orika.converter.BidirectionalConverter;
 import ma.glasnost.orika.metadata.Type;
@@ -27,6 +28,8 @@ import ma.glasnost.orika.metadata.Type;
 public class WorkContributorsConverter extends BidirectionalConverter<WorkContributors, String> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WorkContributorsConverter.class);
+
+    private static final ObjectReader CONTRIBUTORS_LIST_READER = new ObjectMapper().readerFor(new TypeReference<List<WorkContributorsList>>(){});
 	
     private ContributorRoleConverter roleConverter;
 
@@ -80,10 +83,12 @@ public class WorkContributorsConverter extends BidirectionalConverter<WorkContri
     }
 
     public List<WorkContributorsList> getContributorsList(String source) {
-        final ObjectMapper objectMapper = new ObjectMapper();
         List<WorkContributorsList> langList = new ArrayList<>();
+        if (PojoUtil.isEmpty(source)) {
+            return langList;
+        }
         try {
-            langList = objectMapper.readValue(source, new TypeReference<List<WorkContributorsList>>(){});
+            langList = CONTRIBUTORS_LIST_READER.readValue(source);
             for (WorkContributorsList workContributorsList : langList) {
                 if (workContributorsList.getContributor() != null && workContributorsList.getContributor().getContributorAttributes() != null) {
                     ContributorAttributes ca = workContributorsList.getContributor().getContributorAttributes();
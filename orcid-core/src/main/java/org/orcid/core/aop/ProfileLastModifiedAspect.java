@@ -8,6 +8,7 @@ import org.apache.commons.lang.StringUtils;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
+import org.orcid.core.cache.impl.ProfileLastModifiedNearCache;
 import org.orcid.core.utils.cache.redis.RedisClient;
 import org.orcid.persistence.dao.ProfileLastModifiedDao;
 import org.orcid.persistence.jpa.entities.IndexingStatus;
@@ -34,6 +35,8 @@ public class ProfileLastModifiedAspect implements PriorityOrdered {
 
     private ProfileLastModifiedDao profileLastModifiedDao;
 
+    private ProfileLastModifiedNearCache lastModifiedNearCache;
+
     private boolean enabled = true;
     
     private String name = "default";
@@ -58,6 +61,10 @@ public class ProfileLastModifiedAspect implements PriorityOrdered {
         this.profileLastModifiedDao = profileLastModifiedDao;
     }
 
+    public void setLastModifiedNearCache(ProfileLastModifiedNearCache lastModifiedNearCache) {
+        this.lastModifiedNearCache = lastModifiedNearCache;
+    }
+
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
@@ -186,7 +193,11 @@ public class ProfileLastModifiedAspect implements PriorityOrdered {
         return REQUEST_PROFILE_LAST_MODIFIED + '_' + name + '_' + orcid;
     }
     
-    public void evictCaches(String orcid) {        
+    public void evictCaches(String orcid) {
+        // Evict the last modified near cache
+        if (lastModifiedNearCache != null) {
+            lastModifiedNearCache.invalidate(orcid);
+        }
         // Evict the summary cache
         redisClient.remove(orcid + "-summary");
     }
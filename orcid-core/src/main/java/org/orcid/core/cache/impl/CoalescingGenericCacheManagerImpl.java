@@ -0,0 +1,157 @@
+package org.orcid.core.cache.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ehcache.Cache;
+import org.orcid.core.cache.GenericCacheManager;
+import org.orcid.core.cache.Retriever;
+import org.orcid.core.utils.FutureUtils;
+import org.orcid.persistence.jpa.entities.OrcidAware;
+
+/**
+ * Generic cache manager that takes the profile last modified date from a
+ * {@link ProfileLastModifiedNearCache} instead of the DB, so a cache hit is a
+ * memory lookup, and that coalesces concurrent misses for the same key into a
+ * single call to the retriever.
+ */
+public class CoalescingGenericCacheManagerImpl<K extends OrcidAware, V> implements GenericCacheManager<K, V> {
+
+    private Cache<GenericCacheKey<K>, V> cache;
+    private Retriever<K, V> retriever;
+
+    private ProfileLastModifiedNearCache lastModifiedNearCache;
+
+    private final ConcurrentMap<GenericCacheKey<K>, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalescedMisses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+
+    public void setCache(Cache<GenericCacheKey<K>, V> cache) {
+        this.cache = cache;
+    }
+
+    public void setRetriever(Retriever<K, V> retriever) {
+        this.retriever = retriever;
+    }
+
+    public void setLastModifiedNearCache(ProfileLastModifiedNearCache lastModifiedNearCache) {
+        this.lastModifiedNearCache = lastModifiedNearCache;
+    }
+
+    @Override
+    public V retrieve(K key) {
+        GenericCacheKey<K> genericKey = createGenericKey(key);
+        if (genericKey == null) {
+            return null;
+        }
+
+        V value = cache.get(genericKey);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(genericKey, pending);
+        if (existing != null) {
+            coalescedMisses.increment();
+            return FutureUtils.join(existing);
+        }
+
+        try {
+            // Another thread may have finished loading between the cache
+            // lookup and registering this load
+            value = cache.get(genericKey);
+            if (value == null) {
+                value = load(key);
+                if (value != null) {
+                    cache.put(genericKey, value);
+                }
+            }
+            pending.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(genericKey, pending);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        GenericCacheKey<K> genericKey = createGenericKey(key);
+        if (genericKey != null) {
+            cache.remove(genericKey);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getCoalescedMissCount() {
+        return coalescedMisses.sum();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    public long getTotalLoadTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalLoadTimeNanos.sum());
+    }
+
+    public double getAverageLoadTimeMillis() {
+        long loadCount = loads.sum();
+        return loadCount == 0 ? 0 : (double) totalLoadTimeNanos.sum() / loadCount / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private V load(K key) {
+        // Note that we retrieve from the retriever using key (which
+        // does not contain profile last modified or release name)
+        // not genericKey.
+        long start = System.nanoTime();
+        try {
+            return retriever.retrieve(key);
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            loads.increment();
+            totalLoadTimeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private GenericCacheKey<K> createGenericKey(K key) {
+        Long lastModified = lastModifiedNearCache.retrieveLastModified(key.getOrcid());
+        if (lastModified == null) {
+            return null;
+        }
+        return new GenericCacheKey<K>(key, lastModified);
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingGenericCacheManagerImpl [hits=" + getHitCount() + ", misses=" + getMissCount() + ", coalescedMisses=" + getCoalescedMissCount() + ", loads="
+                + getLoadCount() + ", loadFailures=" + getLoadFailureCount() + ", totalLoadTimeMillis=" + getTotalLoadTimeMillis() + "]";
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.orcid.core.cache.impl;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ehcache.Cache;
+import org.orcid.persistence.dao.ProfileLastModifiedDao;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, in-process cache of profile last modified dates, used to build the
+ * keys of the generic caches without a DB round trip on every read.
+ *
+ * Entries are evicted by the ProfileLastModifiedAspect every time this node
+ * updates the last modified date of a record; the time to live of the backing
+ * cache bounds how long an update made by another node can go unnoticed.
+ */
+public class ProfileLastModifiedNearCache {
+
+    private Cache<String, Long> cache;
+
+    private ProfileLastModifiedDao profileLastModifiedDao;
+
+    /**
+     * Incremented on every invalidation, so a value loaded from the DB while
+     * an update was in progress is not put back into the cache
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public void setCache(Cache<String, Long> cache) {
+        this.cache = cache;
+    }
+
+    public void setProfileLastModifiedDao(ProfileLastModifiedDao profileLastModifiedDao) {
+        this.profileLastModifiedDao = profileLastModifiedDao;
+    }
+
+    /**
+     * @return the last modified time in millis, or null if the record does
+     *         not exist
+     */
+    public Long retrieveLastModified(String orcid) {
+        Long lastModified = cache.get(orcid);
+        if (lastModified != null) {
+            return lastModified;
+        }
+        long generation = invalidations.get();
+        Date dbDate = profileLastModifiedDao.retrieveLastModifiedDate(orcid);
+        if (dbDate == null) {
+            return null;
+        }
+        lastModified = dbDate.getTime();
+        if (generation == invalidations.get()) {
+            cache.put(orcid, lastModified);
+        }
+        return lastModified;
+    }
+
+    public void invalidate(String orcid) {
+        evict(orcid);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Another request could cache the old date again before the
+            // update is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(orcid);
+                }
+            });
+        }
+    }
+
+    private void evict(String orcid) {
+        invalidations.incrementAndGet();
+        cache.remove(orcid);
+    }
+
+}
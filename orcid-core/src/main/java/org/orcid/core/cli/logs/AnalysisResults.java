@@ -47,8 +47,8 @@ public class AnalysisResults implements Serializable {
         this.clientDetailsDao = clientDetailsDao;
     }
 
-    public void record(String clientDetailsId, ApiLog apiLog) {
-        hitsAnalysed++;
+    public void record(String clientDetailsId, TokenHits tokenHits) {
+        hitsAnalysed += tokenHits.getHits();
 
         ClientStats stats = statsByClient.get(clientDetailsId);
         if (stats == null) {
@@ -56,8 +56,10 @@ public class AnalysisResults implements Serializable {
             stats.setClientDetailsId(clientDetailsId);
             stats.setClientName(clientDetailsDao.getMemberName(clientDetailsId));
         }
-        stats.recordVersionHit(apiLog.getVersion());
-        stats.incrementTotalHits();
+        for (String version : tokenHits.getVersions()) {
+            stats.recordVersionHit(version);
+        }
+        stats.incrementTotalHits(tokenHits.getHits());
         statsByClient.put(clientDetailsId, stats);
     }
 
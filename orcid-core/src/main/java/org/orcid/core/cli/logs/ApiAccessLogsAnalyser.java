@@ -1,5 +1,6 @@
 package org.orcid.core.cli.logs;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -11,15 +12,16 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
-import javax.persistence.NoResultException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
 import org.orcid.persistence.dao.ClientDetailsDao;
 import org.orcid.persistence.dao.OrcidOauth2TokenDetailDao;
-import org.orcid.persistence.jpa.entities.OrcidOauth2TokenDetail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
@@ -30,6 +32,8 @@ public class ApiAccessLogsAnalyser {
 
     private static final int BEARER_TOKEN_LENGTH = 36;
 
+    private static final int TOKEN_BATCH_SIZE = 1000;
+
     private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     @Option(name = "-l", usage = "Comma delimited list of directories of logs")
@@ -50,14 +54,15 @@ public class ApiAccessLogsAnalyser {
     @Option(name = "-s", usage = "Start date (yyyy-MM-dd)")
     private String startDateArg;
 
+    @Option(name = "-t", usage = "Number of threads reading log files, defaults to the number of processors", required = false)
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
     private List<File> logDirs;
 
     private OrcidOauth2TokenDetailDao tokenDao;
 
     private ClassPathXmlApplicationContext applicationContext;
 
-    private Map<String, String> tokenToClientDetails = new HashMap<>();
-
     private AnalysisResults results;
 
     private LogReader logReader;
@@ -110,12 +115,10 @@ public class ApiAccessLogsAnalyser {
     }
 
     void analyse() {
-        LOGGER.info("Analysing log files...");
-        String line = logReader.getNextLine();
-        while (line != null) {
-            analyseLog(line);
-            line = logReader.getNextLine();
-        }
+        LOGGER.info("Analysing log files with {} threads...", numberOfThreads);
+        Map<String, TokenHits> hitsByToken = countHitsByToken();
+        LOGGER.info("Found {} tokens, looking up their clients...", hitsByToken.size());
+        recordHitsByClient(hitsByToken);
         LOGGER.info("Analysis complete");
         try {
             results.outputResults();
@@ -125,7 +128,52 @@ public class ApiAccessLogsAnalyser {
         }
     }
 
-    private void analyseLog(String line) {
+    /**
+     * Each thread takes files from the log reader until there are none left
+     * and counts the hits by token of its files, the counts of all the threads
+     * are merged once they are done
+     */
+    private Map<String, TokenHits> countHitsByToken() {
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            List<Future<Map<String, TokenHits>>> futures = new ArrayList<>();
+            for (int i = 0; i < numberOfThreads; i++) {
+                futures.add(executor.submit(this::countHitsByTokenInFiles));
+            }
+            Map<String, TokenHits> hitsByToken = new HashMap<>();
+            for (Future<Map<String, TokenHits>> future : futures) {
+                for (Map.Entry<String, TokenHits> entry : future.get().entrySet()) {
+                    hitsByToken.merge(entry.getKey(), entry.getValue(), TokenHits::merge);
+                }
+            }
+            return hitsByToken;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error analysing log files", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted analysing log files", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, TokenHits> countHitsByTokenInFiles() throws IOException {
+        Map<String, TokenHits> hitsByToken = new HashMap<>();
+        File file = logReader.getNextFile();
+        while (file != null) {
+            try (BufferedReader reader = logReader.openReader(file)) {
+                String line = reader.readLine();
+                while (line != null) {
+                    analyseLog(line, hitsByToken);
+                    line = reader.readLine();
+                }
+            }
+            file = logReader.getNextFile();
+        }
+        return hitsByToken;
+    }
+
+    private void analyseLog(String line, Map<String, TokenHits> hitsByToken) {
         ApiLog log = ApiLog.parse(line);
         if (log != null) {
             if (debug) {
@@ -133,31 +181,29 @@ public class ApiAccessLogsAnalyser {
             }
 
             if (log.getBearerToken() != null && log.getBearerToken().length() == BEARER_TOKEN_LENGTH) {
-                String client = getClientDetailsId(log.getBearerToken());
-                if (debug) {
-                    LOGGER.info("Found client {}", client);
-                }
-                if (client != null) { // discard if no client token
-                    results.record(client, log);
-                }
+                hitsByToken.computeIfAbsent(log.getBearerToken(), k -> new TokenHits()).record(log.getVersion());
             }
         }
     }
 
-    private String getClientDetailsId(String token) {
-        if (!tokenToClientDetails.containsKey(token)) {
-            OrcidOauth2TokenDetail tokenDetail = null;
-            try {
-                tokenDetail = tokenDao.findByTokenValue(token);
-                tokenToClientDetails.put(token, tokenDetail.getClientDetailsId());
-            } catch (NoResultException e) {
+    /**
+     * Looks up the clients of the tokens in batches, hits of tokens without a
+     * client are discarded
+     */
+    private void recordHitsByClient(Map<String, TokenHits> hitsByToken) {
+        List<String> tokens = new ArrayList<>(hitsByToken.keySet());
+        for (int i = 0; i < tokens.size(); i += TOKEN_BATCH_SIZE) {
+            List<String> batch = tokens.subList(i, Math.min(i + TOKEN_BATCH_SIZE, tokens.size()));
+            for (Object[] row : tokenDao.findClientDetailsIdsByTokenValues(batch)) {
+                String client = (String) row[1];
                 if (debug) {
-                    LOGGER.info("Couldn't find client for token {}", token);
+                    LOGGER.info("Found client {} for token {}", client, row[0]);
+                }
+                if (client != null) {
+                    results.record(client, hitsByToken.get(row[0]));
                 }
-                return null;
             }
         }
-        return tokenToClientDetails.get(token);
     }
 
     private void validateArgs(CmdLineParser parser) throws CmdLineException {
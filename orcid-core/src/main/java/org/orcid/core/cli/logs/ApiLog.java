@@ -8,6 +8,8 @@ public class ApiLog {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ApiLog.class);
 
+    private static final String BEARER = "bearer";
+
     private String method;
 
     private String endpoint;
@@ -94,24 +96,33 @@ public class ApiLog {
             return null;
         }
 
-        String possibleVersion = endpoint.substring(index + 1, nextIndex);
-        if (possibleVersion.matches("v\\d{1,}.*")) {
-            return possibleVersion;
+        // v followed by at least one digit
+        if (nextIndex - index > 2 && endpoint.charAt(index + 1) == 'v' && Character.isDigit(endpoint.charAt(index + 2))) {
+            return endpoint.substring(index + 1, nextIndex);
         }
         return "v1.x";
     }
 
     private static String getBearerToken(String line) {
-        int index = line.toLowerCase().indexOf("bearer");
+        int index = indexOfIgnoreCase(line, BEARER);
         if (index < 0) {
             return null;
         }
-        index += "bearer".length();
+        index += BEARER.length();
 
         int nextIndex = line.indexOf("\"", index);
         return line.substring(index, nextIndex).trim();
     }
 
+    private static int indexOfIgnoreCase(String line, String value) {
+        for (int i = 0; i <= line.length() - value.length(); i++) {
+            if (line.regionMatches(true, i, value, 0, value.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private static HttpStatus getStatus(String line) {
         int index = line.indexOf("\"");
         index = line.indexOf("\"", index + 1);
@@ -29,8 +29,8 @@ public class ClientStats implements Serializable {
         versionsHit.add(version);
     }
     
-    public void incrementTotalHits() {
-        totalHits++;
+    public void incrementTotalHits(long hits) {
+        totalHits += hits;
     }
     
     public List<String> getVersionsHit() {
@@ -2,13 +2,13 @@ package org.orcid.core.cli.logs;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,32 +19,21 @@ public class LogReader {
     
     private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("'api_access_log'.yyyy-MM-dd.'txt'");
 
-    private BufferedReader reader;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private Queue<File> fileQueue = new ConcurrentLinkedQueue<>();
 
-    private List<File> fileQueue = new ArrayList<>();
-    
     public void init(List<File> logDirs, LocalDate startDate, LocalDate endDate) {
         queueDir(logDirs, startDate, endDate);
-        File nextFile = getNextFile();
-        if (nextFile != null) {
-            initReaderWithFile(nextFile);
-        }
     }
 
-    private void initReaderWithFile(File file) {
-        if (reader != null) {
-            try {
-                reader.close();
-            } catch (IOException e) {
-                throw new RuntimeException("Couldn't close buffered reader", e);
-            }
-        }
+    /**
+     * Opens a reader on the given log file, files are read with a larger
+     * buffer than the default as they are read sequentially
+     */
+    public BufferedReader openReader(File file) throws IOException {
         LOGGER.info("Initialising reader with {}", file.getAbsolutePath());
-        try {
-            reader = new BufferedReader(new FileReader(file));
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        return new BufferedReader(new FileReader(file), READ_BUFFER_SIZE);
     }
 
     private void queueDir(List<File> logDirs, LocalDate startDate, LocalDate endDate) {
@@ -65,35 +54,15 @@ public class LogReader {
         }
     }
 
-    public String getNextLine() {
-        if (reader != null) {
-            try {
-                String line = reader.readLine();
-                while (line == null) {
-                    File nextFile = getNextFile();
-                    if (nextFile == null) {
-                        reader.close();
-                        return null;
-                    } else {
-                        initReaderWithFile(nextFile);
-                    }
-                    line = reader.readLine();
-                }
-                return line;
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        } else {
-            return null;
-        }
-    }
-
-    private File getNextFile() {
-        if (fileQueue.size() > 0) {
-            return fileQueue.remove(0);
-        } else {
-            return null;
-        }
+    /**
+     * Hands out the queued files one at a time, safe to call from several
+     * threads
+     * 
+     * @return the next file to read, null once all the files have been handed
+     *         out
+     */
+    public File getNextFile() {
+        return fileQueue.poll();
     }
 
 }
@@ -0,0 +1,37 @@
+package org.orcid.core.cli.logs;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Hits of a single bearer token, counted by one of the analysing threads and
+ * merged once all the log files have been read
+ */
+public class TokenHits {
+
+    private long hits;
+
+    private Set<String> versions = new LinkedHashSet<>();
+
+    public void record(String version) {
+        hits++;
+        if (version != null) {
+            versions.add(version);
+        }
+    }
+
+    public TokenHits merge(TokenHits other) {
+        hits += other.hits;
+        versions.addAll(other.versions);
+        return this;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public Set<String> getVersions() {
+        return versions;
+    }
+
+}
@@ -1,11 +1,23 @@
 package org.orcid.core.manager;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * @author Angel Montenegro
  * */
 public interface SourceNameCacheManager {
 
     public String retrieve(String sourceId) throws IllegalArgumentException;
+
+    /**
+     * Retrieves the names of all the given sources, fetching the ones not
+     * cached yet with a query for the clients and one for the records
+     * 
+     * @return the source names by source id; sources with a private name or
+     *         that don't exist are mapped to null
+     */
+    public Map<String, String> retrieve(Collection<String> sourceIds);
     
     public void removeAll();
     
@@ -6,6 +6,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
@@ -35,10 +39,10 @@ import org.orcid.utils.solr.entities.OrgDisambiguatedSolrDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import com.google.common.collect.Lists;
+
 /**
  * 
  * @author Will Simpson
@@ -82,60 +86,114 @@ public class OrgDisambiguatedManagerImpl implements OrgDisambiguatedManager {
     @Value("${org.orcid.persistence.messaging.updated.disambiguated_org.indexing.batchSize:1000}")
     private int indexingBatchSize;
 
+    @Value("${org.orcid.persistence.messaging.updated.disambiguated_org.indexing.threads:4}")
+    private int indexingThreads;
+
     @Override
     synchronized public void processOrgsForIndexing() {
         LOGGER.info("About to process disambiguated orgs for indexing");
-        List<OrgDisambiguatedEntity> entities = null;
-        int startIndex = 0;
-        do {
-            entities = orgDisambiguatedDaoReadOnly.findOrgsPendingIndexing(startIndex, indexingBatchSize);
-            LOGGER.info("Found chunk of {} disambiguated orgs for indexing", entities.size());
-            for (OrgDisambiguatedEntity entity : entities) {
-                processDisambiguatedOrgInTransaction(entity);
-            }
-            startIndex = startIndex + indexingBatchSize;
-        } while (!entities.isEmpty());
-
+        ExecutorService pool = Executors.newFixedThreadPool(indexingThreads);
+        try {
+            List<OrgDisambiguatedEntity> entities = null;
+            // Indexed orgs drop out of the pending list, so page on the id
+            // instead of using an offset
+            Long lastId = null;
+            do {
+                entities = orgDisambiguatedDaoReadOnly.findOrgsPendingIndexing(lastId, indexingBatchSize);
+                LOGGER.info("Found chunk of {} disambiguated orgs for indexing", entities.size());
+                if (!entities.isEmpty()) {
+                    processDisambiguatedOrgs(entities, pool);
+                    lastId = entities.get(entities.size() - 1).getId();
+                }
+            } while (!entities.isEmpty());
+        } finally {
+            pool.shutdown();
+        }
     }
 
     @Override
     synchronized public void markOrgsForIndexingAsGroup() {
         LOGGER.info("About to process disambiguated orgs for group indexing");
         List<OrgDisambiguatedEntity> entities = null;
-        int startIndex = 0;
+        Long lastId = null;
         do {
-            LOGGER.info("GROUP: Start index is: " + startIndex);
-            entities = orgDisambiguatedDaoReadOnly.findOrgsToGroup(startIndex, indexingBatchSize);
+            LOGGER.info("GROUP: Last id is: " + lastId);
+            entities = orgDisambiguatedDaoReadOnly.findOrgsToGroup(lastId, indexingBatchSize);
             LOGGER.info("GROUP: Found chunk of {} disambiguated orgs for indexing as group", entities.size());
             for (OrgDisambiguatedEntity entity : entities) {
 
                 new OrgGrouping(entity, this).markGroupForIndexing(orgDisambiguatedDao);
             }
-            startIndex = startIndex + indexingBatchSize;
+            if (!entities.isEmpty()) {
+                lastId = entities.get(entities.size() - 1).getId();
+            }
 
         } while (!entities.isEmpty());
 
     }
 
-    private void processDisambiguatedOrgInTransaction(final OrgDisambiguatedEntity entity) {
-        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
-            @Override
-            protected void doInTransactionWithoutResult(TransactionStatus arg0) {
-                processDisambiguatedOrg(orgDisambiguatedDaoReadOnly.find(entity.getId()));
+    /**
+     * Converts the chunk to SOLR documents on the pool, sends them in a single
+     * JMS transaction and updates the indexing status of the whole chunk at
+     * once
+     */
+    private void processDisambiguatedOrgs(List<OrgDisambiguatedEntity> entities, ExecutorService pool) {
+        int partitionSize = Math.max(1, (entities.size() + indexingThreads - 1) / indexingThreads);
+        List<Future<List<OrgDisambiguatedSolrDocument>>> futures = new ArrayList<>();
+        for (List<OrgDisambiguatedEntity> partition : Lists.partition(entities, partitionSize)) {
+            futures.add(pool.submit(() -> convertEntitiesToDocuments(partition)));
+        }
+
+        List<OrgDisambiguatedSolrDocument> documents = new ArrayList<>(entities.size());
+        for (Future<List<OrgDisambiguatedSolrDocument>> future : futures) {
+            try {
+                documents.addAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while indexing disambiguated orgs", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Unable to convert disambiguated orgs for indexing", e.getCause());
             }
-        });
-    }
+        }
 
-    private void processDisambiguatedOrg(OrgDisambiguatedEntity entity) {
-        LOGGER.info("About to index disambiguated org, id={}", entity.getId());
-        OrgDisambiguatedSolrDocument document = convertEntityToDocument(entity);
-        // Send message to the message listener
-        if (!messaging.send(document, updateSolrQueueName)) {
-            LOGGER.error("Unable to send orgs disambiguated message for org: " + document.getOrgDisambiguatedName() + "(" + document.getOrgDisambiguatedId() + ")");
-            orgDisambiguatedDao.updateIndexingStatus(entity.getId(), IndexingStatus.FAILED);
-            return;
+        Set<Long> convertedIds = new HashSet<>();
+        for (OrgDisambiguatedSolrDocument document : documents) {
+            convertedIds.add(Long.valueOf(document.getOrgDisambiguatedId()));
+        }
+        List<Long> failedIds = new ArrayList<>();
+        for (OrgDisambiguatedEntity entity : entities) {
+            if (!convertedIds.contains(entity.getId())) {
+                failedIds.add(entity.getId());
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>(convertedIds);
+        if (!documents.isEmpty()) {
+            // Send message to the message listener
+            if (!messaging.sendOrgs(documents, updateSolrQueueName)) {
+                LOGGER.error("Unable to send orgs disambiguated messages for " + documents.size() + " orgs");
+                failedIds.addAll(sentIds);
+                sentIds.clear();
+            }
         }
-        orgDisambiguatedDao.updateIndexingStatus(entity.getId(), IndexingStatus.DONE);
+        orgDisambiguatedDao.updateIndexingStatus(sentIds, IndexingStatus.DONE);
+        orgDisambiguatedDao.updateIndexingStatus(failedIds, IndexingStatus.FAILED);
+        LOGGER.info("Indexed {} disambiguated orgs, {} failed", sentIds.size(), failedIds.size());
+    }
+
+    private List<OrgDisambiguatedSolrDocument> convertEntitiesToDocuments(List<OrgDisambiguatedEntity> entities) {
+        return transactionTemplate.execute(status -> {
+            List<OrgDisambiguatedSolrDocument> documents = new ArrayList<>(entities.size());
+            for (OrgDisambiguatedEntity entity : entities) {
+                LOGGER.debug("About to index disambiguated org, id={}", entity.getId());
+                try {
+                    documents.add(convertEntityToDocument(entity));
+                } catch (Exception e) {
+                    LOGGER.error("Unable to build the orgs disambiguated document for org: " + entity.getName() + "(" + entity.getId() + ")", e);
+                }
+            }
+            return documents;
+        });
     }
 
     private OrgDisambiguatedSolrDocument convertEntityToDocument(OrgDisambiguatedEntity entity) {
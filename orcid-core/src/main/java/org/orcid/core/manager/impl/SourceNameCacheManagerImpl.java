@@ -1,5 +1,12 @@
 package org.orcid.core.manager.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import javax.annotation.Resource;
 
 import org.apache.commons.lang.StringUtils;
@@ -7,10 +14,12 @@ import org.ehcache.Cache;
 import org.orcid.core.manager.ProfileEntityManager;
 import org.orcid.core.manager.SourceNameCacheManager;
 import org.orcid.core.manager.v3.read_only.RecordNameManagerReadOnly;
+import org.orcid.core.utils.RecordNameUtils;
 import org.orcid.core.utils.ReleaseNameUtils;
 import org.orcid.persistence.dao.ClientDetailsDao;
 import org.orcid.persistence.dao.RecordNameDao;
 import org.orcid.persistence.jpa.entities.ClientDetailsEntity;
+import org.orcid.persistence.jpa.entities.RecordNameEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -76,6 +85,60 @@ public class SourceNameCacheManagerImpl implements SourceNameCacheManager {
         return sourceName;
     }
 
+    @Override
+    public Map<String, String> retrieve(Collection<String> sourceIds) {
+        Map<String, String> sourceNames = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String sourceId : sourceIds) {
+            if (sourceNames.containsKey(sourceId)) {
+                continue;
+            }
+            String sourceName = sourceNameCache.get(getCacheKey(sourceId));
+            if (sourceName == null) {
+                sourceName = getProfileSourceNameFromRequest(sourceId);
+            }
+            if (sourceName == null) {
+                missing.add(sourceId);
+            } else {
+                sourceNames.put(sourceId, StringUtils.EMPTY.equals(sourceName) ? null : sourceName);
+            }
+        }
+        if (missing.isEmpty()) {
+            return sourceNames;
+        }
+
+        LOGGER.debug("Fetching client names from DB: " + missing);
+        for (Object[] client : clientDetailsDao.getNonPublicClientNames(missing)) {
+            String clientId = (String) client[0];
+            String clientName = (String) client[1];
+            missing.remove(clientId);
+            if (clientName != null) {
+                sourceNameCache.put(getCacheKey(clientId), clientName);
+            }
+            sourceNames.put(clientId, StringUtils.EMPTY.equals(clientName) ? null : clientName);
+        }
+        if (missing.isEmpty()) {
+            return sourceNames;
+        }
+
+        LOGGER.debug("Fetching user names from DB: " + missing);
+        ServletRequestAttributes sra = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        for (RecordNameEntity recordName : recordNameDao.getRecordNames(new ArrayList<>(missing))) {
+            String orcid = recordName.getOrcid();
+            String name = RecordNameUtils.getPublicName(recordName);
+            missing.remove(orcid);
+            if (sra != null) {
+                sra.setAttribute(getProfileNameSRAKey(orcid), name != null ? name : StringUtils.EMPTY, ServletRequestAttributes.SCOPE_REQUEST);
+            }
+            sourceNames.put(orcid, StringUtils.EMPTY.equals(name) ? null : name);
+        }
+        for (String sourceId : missing) {
+            LOGGER.warn("Cannot find source name for " + sourceId);
+            sourceNames.put(sourceId, null);
+        }
+        return sourceNames;
+    }
+
     @Override
     public void removeAll() {
         sourceNameCache.clear();
@@ -0,0 +1,328 @@
+package org.orcid.core.manager.impl;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.orcid.core.utils.http.HostConcurrencyLimiter;
+import org.orcid.core.utils.http.HttpRequestUtils;
+import org.orcid.persistence.dao.WebhookDao;
+import org.orcid.persistence.jpa.entities.WebhookEntity;
+import org.orcid.persistence.jpa.entities.keys.WebhookEntityPk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends webhook callbacks without blocking the calling thread.
+ *
+ * Each client has a token bucket limiting the rate of its callbacks, and a max
+ * number of callbacks in progress; callbacks over that limit wait in a queue
+ * of the client and are started as its callbacks in progress finish, so a
+ * client with many callbacks does not hold back the others. The queued
+ * callbacks can be cancelled with {@link #cancelQueued()}. The number of
+ * concurrent requests to each host is limited too, so a slow endpoint only
+ * delays the callbacks sent to it.
+ *
+ * The outcome of the callbacks is not written to the DB one by one, but in
+ * batches, once the calls have finished.
+ */
+public class WebhookDispatcher {
+
+    public enum Outcome {
+        SENT, FAILED
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    @Resource
+    private HttpRequestUtils httpRequestUtils;
+
+    @Resource
+    private WebhookDao webhookDao;
+
+    private int maxPendingPerClient = 50;
+
+    private double requestsPerSecondPerClient = 10;
+
+    private int maxRequestsPerHost = 6;
+
+    private int statusBatchSize = 100;
+
+    private Semaphore pendingPermits = new Semaphore(2000);
+
+    private final ConcurrentMap<String, ClientLimiter> clientLimiters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, HostConcurrencyLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService delayedSends = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "webhook-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Queue<WebhookEntityPk> sent = new ConcurrentLinkedQueue<>();
+
+    private final Queue<WebhookEntityPk> failed = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger unrecorded = new AtomicInteger();
+
+    public void setMaxPendingPerClient(int maxPendingPerClient) {
+        this.maxPendingPerClient = maxPendingPerClient;
+    }
+
+    public void setRequestsPerSecondPerClient(double requestsPerSecondPerClient) {
+        this.requestsPerSecondPerClient = requestsPerSecondPerClient;
+    }
+
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public void setStatusBatchSize(int statusBatchSize) {
+        this.statusBatchSize = statusBatchSize;
+    }
+
+    /**
+     * Max number of callbacks in progress across all the clients,
+     * {@link #dispatch(WebhookEntity)} blocks once it is reached
+     */
+    public void setMaxPending(int maxPending) {
+        this.pendingPermits = new Semaphore(maxPending);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        delayedSends.shutdownNow();
+        recordOutcomes();
+    }
+
+    public CompletableFuture<Outcome> dispatch(WebhookEntity webhook) {
+        String clientId = webhook.getClientDetailsId();
+        ClientLimiter clientLimiter = clientLimiters.computeIfAbsent(clientId, id -> new ClientLimiter(requestsPerSecondPerClient));
+        CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+        Runnable start = () -> start(webhook, clientLimiter, outcome);
+        if (clientLimiter.tryAcquire(maxPendingPerClient, new QueuedCallback(start, outcome))) {
+            pendingPermits.acquireUninterruptibly();
+            start.run();
+        } else {
+            LOGGER.debug("Thread limit reached by Client: {} With ORCID: {}; webhook {} is queued", new Object[] { clientId, webhook.getProfile(), webhook.getUri() });
+        }
+        return outcome;
+    }
+
+    /**
+     * Cancels the outcome of the callbacks still queued over the limit of
+     * their client, they are not sent. The callbacks already started finish
+     * on their own.
+     *
+     * @return the number of callbacks cancelled
+     */
+    public int cancelQueued() {
+        int cancelled = 0;
+        for (ClientLimiter clientLimiter : clientLimiters.values()) {
+            for (QueuedCallback callback : clientLimiter.drainWaiting()) {
+                callback.outcome.cancel(false);
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    private void start(WebhookEntity webhook, ClientLimiter clientLimiter, CompletableFuture<Outcome> outcome) {
+        outcome.whenComplete((result, error) -> {
+            Runnable next = clientLimiter.release();
+            if (next != null) {
+                // The queued callback takes over the permit, it is started
+                // from the dispatcher thread so a run of callbacks failing
+                // right away doesn't recurse
+                delayedSends.execute(next);
+            } else {
+                pendingPermits.release();
+            }
+        });
+        long delayNanos = clientLimiter.reserve();
+        if (delayNanos > 0) {
+            delayedSends.schedule(() -> send(webhook, outcome), delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            send(webhook, outcome);
+        }
+    }
+
+    /**
+     * Writes the outcome of the callbacks finished so far to the DB
+     */
+    public synchronized void recordOutcomes() {
+        List<WebhookEntityPk> sentBatch = drain(sent);
+        List<WebhookEntityPk> failedBatch = drain(failed);
+        unrecorded.addAndGet(-(sentBatch.size() + failedBatch.size()));
+        try {
+            if (!sentBatch.isEmpty()) {
+                webhookDao.markAsSent(sentBatch);
+            }
+            if (!failedBatch.isEmpty()) {
+                webhookDao.markAsFailed(failedBatch);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Unable to record the outcome of {} webhooks", sentBatch.size() + failedBatch.size(), e);
+        }
+    }
+
+    private void send(WebhookEntity webhook, CompletableFuture<Outcome> outcome) {
+        String clientId = webhook.getClientDetailsId();
+        String orcid = webhook.getProfile();
+        String url = webhook.getUri();
+        if (!url.toLowerCase().startsWith("http")) {
+            url = "http://" + url;
+        }
+        LOGGER.info("Processing webhook {} for Client: {} With ORCID: {}", new Object[] { webhook.getUri(), clientId, orcid });
+        String target = url;
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            String host = String.valueOf(new URI(target).getHost());
+            response = hostLimiters.computeIfAbsent(host, h -> new HostConcurrencyLimiter(maxRequestsPerHost)).submit(() -> {
+                try {
+                    return httpRequestUtils.doPostAsync(target);
+                } catch (URISyntaxException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            });
+        } catch (URISyntaxException | RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, error) -> {
+            WebhookEntityPk pk = new WebhookEntityPk(orcid, webhook.getUri());
+            if (error == null && result.statusCode() >= 200 && result.statusCode() < 300) {
+                LOGGER.debug("Webhook {} for Client: {} With ORCID: {} has been processed", new Object[] { webhook.getUri(), clientId, orcid });
+                record(sent, pk);
+                outcome.complete(Outcome.SENT);
+            } else {
+                if (error != null) {
+                    LOGGER.warn("Exception processing webhook '{}' for '{}':'{}'. Error: {}", new Object[] { webhook.getUri(), clientId, orcid, error.getMessage() });
+                } else {
+                    LOGGER.warn("Webhook {} for Client: {} With ORCID: {} could not be processed because of response status code: {}",
+                            new Object[] { webhook.getUri(), clientId, orcid, result.statusCode() });
+                }
+                record(failed, pk);
+                outcome.complete(Outcome.FAILED);
+            }
+        });
+    }
+
+    private void record(Queue<WebhookEntityPk> outcomes, WebhookEntityPk pk) {
+        outcomes.add(pk);
+        if (unrecorded.incrementAndGet() >= statusBatchSize) {
+            recordOutcomes();
+        }
+    }
+
+    private List<WebhookEntityPk> drain(Queue<WebhookEntityPk> queue) {
+        List<WebhookEntityPk> batch = new ArrayList<>();
+        WebhookEntityPk pk;
+        while ((pk = queue.poll()) != null) {
+            batch.add(pk);
+        }
+        return batch;
+    }
+
+    private static class QueuedCallback {
+
+        private final Runnable start;
+
+        private final CompletableFuture<Outcome> outcome;
+
+        QueuedCallback(Runnable start, CompletableFuture<Outcome> outcome) {
+            this.start = start;
+            this.outcome = outcome;
+        }
+    }
+
+    /**
+     * Token bucket limiting the rate of the callbacks of a client, counter of
+     * its callbacks in progress and queue of the ones waiting to start
+     */
+    private static class ClientLimiter {
+
+        private final double tokensPerNano;
+
+        private final double capacity;
+
+        private double tokens;
+
+        private long lastRefill = System.nanoTime();
+
+        private int pending;
+
+        private final Queue<QueuedCallback> waiting = new ArrayDeque<>();
+
+        ClientLimiter(double requestsPerSecond) {
+            this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1, requestsPerSecond);
+            this.tokens = capacity;
+        }
+
+        /**
+         * @return false if the client is at its limit, the callback is then
+         *         queued and returned by {@link #release()} once it can start
+         */
+        synchronized boolean tryAcquire(int maxPending, QueuedCallback callback) {
+            if (pending >= maxPending) {
+                waiting.add(callback);
+                return false;
+            }
+            pending++;
+            return true;
+        }
+
+        /**
+         * @return the next queued callback, that takes the place of the one
+         *         that finished, or null if none is waiting
+         */
+        synchronized Runnable release() {
+            QueuedCallback next = waiting.poll();
+            if (next == null) {
+                pending--;
+                return null;
+            }
+            return next.start;
+        }
+
+        synchronized List<QueuedCallback> drainWaiting() {
+            List<QueuedCallback> drained = new ArrayList<>(waiting);
+            waiting.clear();
+            return drained;
+        }
+
+        /**
+         * Takes a token from the bucket, going into debt if it is empty
+         *
+         * @return how long to wait, in nanos, until the token is available
+         */
+        synchronized long reserve() {
+            if (tokensPerNano <= 0) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            tokens--;
+            return tokens >= 0 ? 0 : (long) (-tokens / tokensPerNano);
+        }
+    }
+
+}
@@ -1,68 +1,50 @@
 package org.orcid.core.manager.impl;
 
-import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.http.HttpResponse;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Resource;
 
 import org.orcid.core.manager.WebhookManager;
-import org.orcid.core.utils.http.HttpRequestUtils;
+import org.orcid.core.manager.impl.WebhookDispatcher.Outcome;
 import org.orcid.persistence.dao.WebhookDao;
 import org.orcid.persistence.jpa.entities.WebhookEntity;
 import org.orcid.persistence.jpa.entities.keys.WebhookEntityPk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.support.TransactionCallbackWithoutResult;
-import org.springframework.transaction.support.TransactionTemplate;
 
 public class WebhookManagerImpl implements WebhookManager {
 
-    private int maxJobsPerClient;
-    private int numberOfWebhookThreads;
     private int retryDelayMinutes;
     private int maxPerRun;
 
-    @Resource
-    private WebhookDao webhookDao;
-    
     @Resource
     private WebhookDao webhookDaoReadOnly;    
 
     @Resource
-    private TransactionTemplate transactionTemplate;
+    private WebhookDao webhookDao;
 
-    private Map<String, Integer> clientWebhooks = new HashMap<String, Integer>();
+    @Resource
+    private WebhookDispatcher webhookDispatcher;
 
-    private Object mainWebhooksLock = new Object();
+    private final ReentrantLock mainWebhooksLock = new ReentrantLock();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WebhookManagerImpl.class);
     
     @Value("${org.orcid.scheduler.webhooks.batchSize:5000}")
     private int webhooksBatchSize;
 
-    @Resource
-    private HttpRequestUtils httpRequestUtils;
-    
-    public void setMaxJobsPerClient(int maxJobs) {
-        this.maxJobsPerClient = maxJobs;
-    }
-
-    public void setNumberOfWebhookThreads(int numberOfWebhookThreads) {
-        this.numberOfWebhookThreads = numberOfWebhookThreads;
-    }
+    @Value("${org.orcid.scheduler.webhooks.awaitSeconds:120}")
+    private int awaitSeconds;
 
     public void setRetryDelayMinutes(int retryDelayMinutes) {
         this.retryDelayMinutes = retryDelayMinutes;
@@ -80,11 +62,17 @@ public class WebhookManagerImpl implements WebhookManager {
     public void processWebhooks() {
         // Only want one of these running at a time, otherwise we will
         // potentially have two threads retrieving the same stuff from the DB
-        // for processing.
-        LOGGER.info("Waiting for main webhooks lock");
-        synchronized (mainWebhooksLock) {
+        // for processing. If a run is still going, it will pick up the
+        // webhooks this one would have processed.
+        if (!mainWebhooksLock.tryLock()) {
+            LOGGER.info("Webhooks are already being processed, skipping this run");
+            return;
+        }
+        try {
             LOGGER.info("Obtained main webhooks lock");
             processWebhooksInternal();
+        } finally {
+            mainWebhooksLock.unlock();
         }
         LOGGER.info("Released main webhooks lock");
     }
@@ -95,13 +83,13 @@ public class WebhookManagerImpl implements WebhookManager {
         Date startTime = new Date();
         long count = webhookDaoReadOnly.countWebhooksReadyToProcess(startTime, retryDelayMinutes);
         LOGGER.info("Total number of webhooks ready to process={}", count);
-        // Create thread pool of size determined by runtime property
-        ExecutorService executorService = createThreadPoolForWebhooks();
         List<WebhookEntity> webhooks = new ArrayList<>(0);
-        Map<WebhookEntityPk, WebhookEntity> mapOfpreviousBatch = null;
+        // Webhooks dispatched in this run, their outcome might not be in the
+        // DB yet
+        Set<WebhookEntityPk> dispatched = new HashSet<>();
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
         int executedCount = 0;
         OUTER: do {
-            mapOfpreviousBatch = WebhookEntity.mapById(webhooks);
             // Get chunk of webhooks to process for records that changed before
             // start time
             webhooks = webhookDaoReadOnly.findWebhooksReadyToProcess(startTime, retryDelayMinutes, webhooksBatchSize);
@@ -114,146 +102,39 @@ public class WebhookManagerImpl implements WebhookManager {
                     LOGGER.info("Reached maxiumum of {} webhooks for this run", executedCount);
                     break OUTER;
                 }
-                // Need to ignore anything in previous chunk
-                if (mapOfpreviousBatch.containsKey(webhook.getId())) {
-                    LOGGER.debug("Skipping webhook as was in previous batch: {}", webhook.getId());
+                // Need to ignore anything already dispatched
+                if (!dispatched.add(webhook.getId())) {
+                    LOGGER.debug("Skipping webhook as was already dispatched: {}", webhook.getId());
                     continue;
                 }
-                // Submit job to thread pool
-                executorService.execute(new Runnable() {
-                    public void run() {
-                        processWebhookInTransaction(webhook);
-                    }
-                });
+                outcomes.add(webhookDispatcher.dispatch(webhook));
                 executedCount++;
             }
             if (executedCount == executedCountAtStartOfChunk) {
-                LOGGER.info("No more webhooks added to pool, because all were in previous chunk");
+                LOGGER.info("No more webhooks dispatched, because all were already dispatched");
                 break;
             }
         } while (!webhooks.isEmpty());
-        executorService.shutdown();
         try {
-            LOGGER.info("Waiting for webhooks thread pool to finish");
-            executorService.awaitTermination(120, TimeUnit.SECONDS);
+            LOGGER.info("Waiting for webhooks to finish");
+            CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[outcomes.size()])).get(awaitSeconds, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             LOGGER.warn("Received an interupt exception whilst waiting for the webhook processing complete", e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The queued ones would still be sent after this run, they are
+            // left for the next one instead
+            int cancelled = webhookDispatcher.cancelQueued();
+            LOGGER.warn("Not all the webhooks finished in {} seconds, {} queued webhooks cancelled", awaitSeconds, cancelled);
         }
+        webhookDispatcher.recordOutcomes();
         LOGGER.info("Finished processing webhooks. Number of webhooks processed={}", executedCount);
     }
 
-    private ExecutorService createThreadPoolForWebhooks() {
-        // The queue size is half the batch size, to make sure the thread pool
-        // has a chance to do some stuff before we go back to the DB for more,
-        return new ThreadPoolExecutor(numberOfWebhookThreads, numberOfWebhookThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(
-                webhooksBatchSize / 2), Executors.defaultThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
-    }
-
-    private void processWebhookInTransaction(final WebhookEntity webhook) {
-        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
-            protected void doInTransactionWithoutResult(TransactionStatus status) {
-                processWebhook(webhook);
-            }
-        });
-    }
-
     @Override
     public void processWebhook(WebhookEntity webhook) {
-        String clientId = webhook.getClientDetailsId();
-        String orcid = webhook.getProfile();
-        String uri = webhook.getUri();
-
-        if (webhookMaxed(clientId)) {
-            LOGGER.warn("Thread limit exceeded by Client: {} With ORCID: {}; cannot process webhook: {}", new Object[] { clientId, orcid, webhook.getUri() });
-            return;
-        }
-
-        increaseWebhook(clientId);
-
-        // Log attempt to process webhook
-        LOGGER.info("Processing webhook {} for Client: {} With ORCID: {}", new Object[] { webhook.getUri(), clientId, orcid });
-        // Execute the request and get the client response
-        try {
-            int statusCode = doPost(uri);
-            if (statusCode >= 200 && statusCode < 300) {
-                LOGGER.debug("Webhook {} for Client: {} With ORCID: {} has been processed", new Object[] { webhook.getUri(), clientId, orcid });
-                webhookDao.markAsSent(orcid, uri);                
-            } else {
-                LOGGER.warn("Webhook {} for Client: {} With ORCID: {} could not be processed because of response status code: {}", new Object[] { webhook.getUri(),
-                        clientId, orcid, statusCode });
-                webhookDao.markAsFailed(orcid, uri);
-            }            
-        } catch(Exception e) {
-            LOGGER.warn("Exception processing webhook '{}' for '{}':'{}'. Error: {}", new Object[] { webhook.getUri(),
-                    clientId, orcid, e.getMessage()});
-            webhookDao.markAsFailed(orcid, uri);
-        } finally {
-            decreaseWebhook(clientId);
-        }
-    }
-
-    /**
-     * Increases webhooks count by 1 for the specific client;
-     * 
-     * @param clientId
-     * */
-    private synchronized void increaseWebhook(String clientId) {
-        clientWebhooks.put(clientId, webhookCount(clientId) + 1);
-    }
-
-    /**
-     * Decreases webhooks count by 1 for the specific client;
-     * 
-     * @param clientId
-     * */
-    private synchronized void decreaseWebhook(String clientId) {
-        clientWebhooks.put(clientId, webhookCount(clientId) - 1);
-    }
-
-    /**
-     * Return the number of webhooks associated with a specific user
-     * 
-     * @param clientId
-     * @return the number of webhooks associated with the client
-     * */
-    private synchronized int webhookCount(String clientId) {
-        if (!clientWebhooks.containsKey(clientId))
-            clientWebhooks.put(clientId, 0);
-        return clientWebhooks.get(clientId);
-    }
-
-    /**
-     * Indicates if the max number of hooks has been reached by a client
-     * 
-     * @param clientId
-     * @return true if there are more than this.maxJobsPerClient threads running
-     *         for a client
-     * */
-    private synchronized boolean webhookMaxed(String clientId) {
-        return webhookCount(clientId) > this.maxJobsPerClient ? true : false;
-    }
-
-    /**
-     * Executes a post request to a specific URL.
-     * 
-     * @param url
-     *            the URL where the post request will be sent
-     * @return httpResponse the response from the URL after executing the
-     *         request
-     * @throws URISyntaxException 
-     * @throws InterruptedException 
-     * */
-    private int doPost(String url) {
-        if (!url.toLowerCase().startsWith("http")) {
-            url = "http://" + url;
-        }
-        try {            
-            HttpResponse<String> response = httpRequestUtils.doPost(url);
-            return response.statusCode();
-        } catch (IOException | InterruptedException | URISyntaxException e) {
-            LOGGER.error(String.format("Error processing webhook %s", url), e);
-        } 
-        return 0;
+        webhookDispatcher.dispatch(webhook).join();
+        webhookDispatcher.recordOutcomes();
     }
 
     @Override
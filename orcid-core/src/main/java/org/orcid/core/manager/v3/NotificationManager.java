@@ -4,6 +4,7 @@ import java.io.UnsupportedEncodingException;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.orcid.core.exception.OrcidNotificationAlreadyReadException;
 import org.orcid.jaxb.model.v3.release.notification.Notification;
@@ -32,6 +33,14 @@ public interface NotificationManager {
     public List<Notification> findNotificationAlertsByOrcid(String orcid);
     
     public List<Notification> findNotificationsToSend(String orcid, Float emailFrequencyDays, Date recordActiveDate);
+
+    /**
+     * Finds the notifications to send for a batch of records
+     * 
+     * @return the notifications to send, by orcid. Records with nothing to
+     *         send are not included
+     */
+    public Map<String, List<Notification>> findNotificationsToSend(Collection<String> orcids);
     
     /**
      * Filters the list of notification alerts by archiving any that have
@@ -2,6 +2,9 @@ package org.orcid.core.manager.v3;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.ws.rs.core.StreamingOutput;
 
 import org.orcid.jaxb.model.v3.release.search.Search;
 import org.orcid.jaxb.model.v3.release.search.expanded.ExpandedSearch;
@@ -24,12 +27,42 @@ public interface OrcidSearchManager {
     static final int MAX_SEARCH_START = 10000;      
 
     static final int MAX_SEARCH_ROWS = 1000; 
-    
-    Search findOrcidIds(Map<String, List<String>> queryParameters);
+
+    /**
+     * Response header with the cursor mark of the next page, returned for
+     * searches paged with the cursorMark param
+     */
+    static final String NEXT_CURSOR_MARK_HEADER = "Next-Cursor-Mark";
+
+    default Search findOrcidIds(Map<String, List<String>> queryParameters) {
+        return findOrcidIds(queryParameters, nextCursorMark -> {
+        });
+    }
+
+    /**
+     * Same as {@link #findOrcidIds(Map)}, a search paged with the cursorMark
+     * param gives the cursor mark of the next page to the consumer
+     */
+    Search findOrcidIds(Map<String, List<String>> queryParameters, Consumer<String> nextCursorMark);
     
     Search findOrcidsByQuery(String query, Integer start, Integer rows);
 
-    String findOrcidIdsAsCSV(Map<String, List<String>> solrParams);
+    /**
+     * Runs the search, the results are read from SOLR as CSV while the
+     * returned output is written. A search paged with the cursorMark param
+     * gives the cursor mark of the next page to the consumer. Writing the
+     * output fails if SOLR answers with an error status.
+     */
+    StreamingOutput findOrcidIdsAsCSV(Map<String, List<String>> solrParams, Consumer<String> nextCursorMark);
+
+    default ExpandedSearch expandedSearch(Map<String, List<String>> solrParams) {
+        return expandedSearch(solrParams, nextCursorMark -> {
+        });
+    }
 
-    ExpandedSearch expandedSearch(Map<String, List<String>> solrParams);
+    /**
+     * Same as {@link #expandedSearch(Map)}, a search paged with the cursorMark
+     * param gives the cursor mark of the next page to the consumer
+     */
+    ExpandedSearch expandedSearch(Map<String, List<String>> solrParams, Consumer<String> nextCursorMark);
 }
\ No newline at end of file
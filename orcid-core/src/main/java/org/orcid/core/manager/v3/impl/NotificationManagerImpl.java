@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -696,6 +697,15 @@ public class NotificationManagerImpl extends ManagerReadOnlyBaseImpl implements
         notifications = notificationDao.findNotificationsToSend(new Date(), orcid, recordActiveDate);          
         return notificationAdapter.toNotification(notifications);
     }
+
+    @Override
+    public Map<String, List<Notification>> findNotificationsToSend(Collection<String> orcids) {
+        Map<String, List<Notification>> notifications = new LinkedHashMap<>();
+        for (NotificationEntity entity : notificationDao.findNotificationsToSend(new Date(), orcids)) {
+            notifications.computeIfAbsent(entity.getOrcid(), orcid -> new ArrayList<>()).add(notificationAdapter.toNotification(entity));
+        }
+        return notifications;
+    }
     
     private String getAssetsUrl() {
         String baseUrl = orcidUrlManager.getBaseUrl();
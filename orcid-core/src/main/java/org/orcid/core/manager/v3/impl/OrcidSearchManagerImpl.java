@@ -1,15 +1,16 @@
 package org.orcid.core.manager.v3.impl;
 
-import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 
 import javax.annotation.Resource;
+import javax.ws.rs.core.StreamingOutput;
 
-import org.apache.http.client.ClientProtocolException;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.orcid.core.exception.ApplicationException;
 import org.orcid.core.manager.v3.OrcidSearchManager;
 import org.orcid.core.manager.v3.OrcidSecurityManager;
@@ -42,10 +43,11 @@ public class OrcidSearchManagerImpl implements OrcidSearchManager {
     private CSVSolrClient csvSolrClient;
 
     @Override
-    public Search findOrcidIds(Map<String, List<String>> queryParameters) {
+    public Search findOrcidIds(Map<String, List<String>> queryParameters, Consumer<String> nextCursorMark) {
         Search search = new Search();
         OrcidSolrResults orcidSolrResults = orcidSolrProfileClient.findByDocumentCriteria(queryParameters);
         setSearchResults(orcidSolrResults, search);
+        setNextCursorMark(orcidSolrResults, nextCursorMark);
         return search;
     }
 
@@ -71,26 +73,35 @@ public class OrcidSearchManagerImpl implements OrcidSearchManager {
     }
 
     @Override
-    public String findOrcidIdsAsCSV(Map<String, List<String>> solrParams) {
+    public StreamingOutput findOrcidIdsAsCSV(Map<String, List<String>> solrParams, Consumer<String> nextCursorMark) {
+        if (solrParams.get(CursorMarkParams.CURSOR_MARK_PARAM) != null) {
+            String cursorMark = orcidSolrProfileClient.findNextCursorMark(solrParams);
+            if (cursorMark != null) {
+                nextCursorMark.accept(cursorMark);
+            }
+        }
         try {
             return csvSolrClient.findCSVByDocumentCriteria(solrParams);
-        } catch (ClientProtocolException e) {
-            throw new ApplicationException(e);
         } catch (URISyntaxException e) {
             throw new ApplicationException(e);
-        } catch (IOException e) {
-            throw new ApplicationException(e);
         }
     }
 
     @Override
-    public ExpandedSearch expandedSearch(Map<String, List<String>> solrParams) {
+    public ExpandedSearch expandedSearch(Map<String, List<String>> solrParams, Consumer<String> nextCursorMark) {
         ExpandedSearch search = new ExpandedSearch();
         OrcidSolrResults orcidSolrResults = orcidSolrProfileClient.findExpandedByDocumentCriteria(solrParams);
         setExpandedSearchResults(orcidSolrResults, search);
+        setNextCursorMark(orcidSolrResults, nextCursorMark);
         return search;
     }
 
+    private void setNextCursorMark(OrcidSolrResults solrResults, Consumer<String> nextCursorMark) {
+        if (solrResults != null && solrResults.getNextCursorMark() != null) {
+            nextCursorMark.accept(solrResults.getNextCursorMark());
+        }
+    }
+
     private void setExpandedSearchResults(OrcidSolrResults solrResults, ExpandedSearch searchResults) {
         if (solrResults != null && solrResults.getResults() != null) {
             searchResults.setNumFound(solrResults.getNumFound());
@@ -2,17 +2,20 @@ package org.orcid.core.manager.v3.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 import javax.annotation.Resource;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.orcid.core.adapter.jsonidentifier.JSONWorkExternalIdentifier;
+import org.orcid.core.adapter.jsonidentifier.JSONWorkExternalIdentifiers;
+import org.orcid.core.adapter.jsonidentifier.converter.ExternalIdentifierTypeConverter;
 import org.orcid.core.adapter.jsonidentifier.converter.JSONWorkExternalIdentifiersConverterV3;
 import org.orcid.core.adapter.v3.converter.ContributorsRolesAndSequencesConverter;
 import org.orcid.core.contributors.roles.works.WorkContributorRoleConverter;
@@ -32,12 +35,14 @@ import org.orcid.core.manager.v3.read_only.impl.WorkManagerReadOnlyImpl;
 import org.orcid.core.manager.v3.validator.ActivityValidator;
 import org.orcid.core.manager.v3.validator.ExternalIDValidator;
 import org.orcid.core.utils.DisplayIndexCalculatorHelper;
+import org.orcid.core.utils.JsonUtils;
 import org.orcid.core.utils.SourceEntityUtils;
 import org.orcid.core.utils.v3.ContributorUtils;
 import org.orcid.core.utils.v3.identifiers.PIDNormalizationService;
 import org.orcid.core.utils.v3.identifiers.PIDResolverService;
 import org.orcid.jaxb.model.common.ActionType;
 import org.orcid.jaxb.model.common.Relationship;
+import org.orcid.jaxb.model.message.WorkExternalIdentifierType;
 import org.orcid.jaxb.model.record.bulk.BulkElement;
 import org.orcid.jaxb.model.v3.release.common.Source;
 import org.orcid.jaxb.model.v3.release.common.TransientNonEmptyString;
@@ -180,16 +185,10 @@ public class WorkManagerImpl extends WorkManagerReadOnlyImpl implements WorkMana
             // If it is the user adding the peer review, allow him to add
             // duplicates
             if (!(activeSource.getSourceOrcid() != null && activeSource.getSourceOrcid().getPath().equals(orcid))) {
-                List<Work> existingWorks = this.findWorks(orcid);       
-                if((existingWorks.size() + 1) > this.maxNumOfActivities) {
+                if((workDao.countWorks(orcid) + 1) > this.maxNumOfActivities) {
                     throw new ExceedMaxNumberOfElementsException();
                 }
-                if (existingWorks != null) {
-                    for (Work existing : existingWorks) {
-                        activityValidator.checkExternalIdentifiersForDuplicates(work, existing, existing.getSource(),
-                                activeSource);
-                    }
-                }
+                checkExternalIdentifiersForDuplicates(work, findExistingExternalIDs(orcid, activeSource), activeSource);
             }
 
         } else {
@@ -230,13 +229,11 @@ public class WorkManagerImpl extends WorkManagerReadOnlyImpl implements WorkMana
     @Transactional
     public WorkBulk createWorks(String orcid, WorkBulk workBulk) {        
         Source activeSource = sourceManager.retrieveActiveSource();
-        List<Work> existingWorks = this.findWorks(orcid);
         
         if(workBulk.getBulk() != null && !workBulk.getBulk().isEmpty()) {
             List<BulkElement> bulk = workBulk.getBulk();
-            Map<ExternalID, Long> extIDPutCodeMap = new HashMap<ExternalID, Long>();
-            Set<ExternalID> existingExternalIdentifiers = buildExistingExternalIdsSet(existingWorks, activeSource, extIDPutCodeMap);            
-            if((existingWorks.size() + bulk.size()) > this.maxNumOfActivities) {
+            ExistingExternalIDs existingExternalIdentifiers = findExistingExternalIDs(orcid, activeSource);
+            if((workDao.countWorks(orcid) + bulk.size()) > this.maxNumOfActivities) {
                 throw new ExceedMaxNumberOfElementsException();
             }
             //Check bulk size
@@ -261,13 +258,11 @@ public class WorkManagerImpl extends WorkManagerReadOnlyImpl implements WorkMana
                                 //normalise the provided ID
                                 extId.setNormalized(new TransientNonEmptyString(norm.normalise(extId.getType(), extId.getValue())));                                
                                 // If the external id exists and is a SELF identifier, then mark it as duplicated                                
-                                if(existingExternalIdentifiers.contains(extId) && Relationship.SELF.equals(extId.getRelationship())) {
-                                    Map<String, String> params = new HashMap<String, String>();
-                                    params.put("clientName", SourceEntityUtils.getSourceName(activeSource));
-                                    if(extIDPutCodeMap.containsKey(extId)) {
-                                        params.put("putCode", String.valueOf(extIDPutCodeMap.get(extId)));
-                                    }                                    
-                                    throw new OrcidDuplicatedActivityException(params);
+                                if(Relationship.SELF.equals(extId.getRelationship())) {
+                                    Long putCode = existingExternalIdentifiers.findDuplicateOfSelf(extId);
+                                    if(putCode != null) {
+                                        throw duplicatedActivity(activeSource, putCode);
+                                    }
                                 }
                             }
                         }
@@ -288,7 +283,7 @@ public class WorkManagerImpl extends WorkManagerReadOnlyImpl implements WorkMana
                         bulk.set(i, updatedWork);
                         
                         //Add the work extIds to the list of existing external identifiers
-                        addExternalIdsToExistingSet(extIDPutCodeMap, updatedWork, existingExternalIdentifiers);
+                        existingExternalIdentifiers.add(updatedWork.getPutCode(), updatedWork.getExternalIdentifiers());
                         items.add(createItem(workEntity, work.getExternalIdentifiers(), ActionType.CREATE));
                     } catch(Exception e) {
                         //Get the exception 
@@ -309,48 +304,53 @@ public class WorkManagerImpl extends WorkManagerReadOnlyImpl implements WorkMana
     }
     
     /**
-     * Return the list of existing external identifiers for the given user where the source matches the given sourceId
+     * Return the external identifiers of the works of the given user where the
+     * source matches the active source, read straight from the external ids
+     * json instead of loading and converting every work
      * 
-     * @param existingWorks
-     *          The list of existing works for the current user
+     * @param orcid
+     *            The record owner
      * @param activeSource
-     *          The client id we are evaluating
-     * @return A set of all the existing external identifiers that belongs to the given user and to the given source id                  
-     * */
-    private Set<ExternalID> buildExistingExternalIdsSet(List<Work> existingWorks, Source activeSource, Map<ExternalID, Long> extIdsPutCodeMap) {
-        Set<ExternalID> existingExternalIds = new HashSet<ExternalID>();        
-        for(Work work : existingWorks) {
-            //If it is the same source
-            if(SourceEntityUtils.isTheSameForDuplicateChecking(activeSource, work.getSource())) {
-                if(work.getExternalIdentifiers() != null && work.getExternalIdentifiers().getExternalIdentifier() != null) {
-                    for(ExternalID extId : work.getExternalIdentifiers().getExternalIdentifier()) {
-                        if(extIdsPutCodeMap != null) {
-                            extIdsPutCodeMap.put(extId, work.getPutCode());
-                        }
-                        //Don't include PART_OF nor FUNDED_BY external ids
-                        if(!Relationship.PART_OF.equals(extId.getRelationship()) && !Relationship.FUNDED_BY.equals(extId.getRelationship())) {
-                            existingExternalIds.add(extId);
-                        }                        
-                    }
-                }
-            }
+     *            The source we are evaluating
+     * @return The normalized external identifiers of the works that belongs to
+     *         the given user and to the active source
+     */
+    private ExistingExternalIDs findExistingExternalIDs(String orcid, Source activeSource) {
+        ExistingExternalIDs existing = new ExistingExternalIDs();
+        WorkEntity sourceFilter = new WorkEntity();
+        sourceFilter.setOrcid(orcid);
+        SourceEntityUtils.populateSourceAwareEntityFromSource(activeSource, sourceFilter);
+        // Works added by a source with the same ids always resolve to the same
+        // source, so if that one doesn't match there is nothing to check
+        if (!SourceEntityUtils.isTheSameForDuplicateChecking(activeSource, sourceFilter, clientDetailsEntityCacheManager)) {
+            return existing;
         }
-        
-        return existingExternalIds;
+        List<Object[]> rows = workDao.getExternalIdentifiersBySource(orcid, sourceFilter.getSourceId(), sourceFilter.getClientSourceId(),
+                sourceFilter.getAssertionOriginClientSourceId());
+        for (Object[] row : rows) {
+            existing.add(((Number) row[0]).longValue(), (String) row[1]);
+        }
+        return existing;
     }
-    
-    private void addExternalIdsToExistingSet(Map<ExternalID, Long> extIDPutCodeMap, Work work, Set<ExternalID> existingExternalIDs) {
-        if(work != null && work.getExternalIdentifiers() != null && work.getExternalIdentifiers().getExternalIdentifier() != null) {
-            for(ExternalID extId : work.getExternalIdentifiers().getExternalIdentifier()) {
-                //Don't include PART_OF nor FUNDED_BY external ids
-                if(!Relationship.PART_OF.equals(extId.getRelationship()) && !Relationship.FUNDED_BY.equals(extId.getRelationship())) {
-                    existingExternalIDs.add(extId);
+
+    private void checkExternalIdentifiersForDuplicates(Work work, ExistingExternalIDs existing, Source activeSource) {
+        if (work.getExternalIdentifiers() != null) {
+            for (ExternalID extId : work.getExternalIdentifiers().getExternalIdentifier()) {
+                extId.setNormalized(new TransientNonEmptyString(norm.normalise(extId.getType(), extId.getValue())));
+                Long putCode = existing.findDuplicateOf(extId, work.getPutCode());
+                if (putCode != null) {
+                    throw duplicatedActivity(activeSource, putCode);
                 }
-                
-                extIDPutCodeMap.put(extId, work.getPutCode());
             }
         }
     }
+
+    private OrcidDuplicatedActivityException duplicatedActivity(Source activeSource, Long putCode) {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("clientName", SourceEntityUtils.getSourceName(activeSource));
+        params.put("putCode", String.valueOf(putCode));
+        return new OrcidDuplicatedActivityException(params);
+    }
     
     @Override
     @Transactional
@@ -378,14 +378,8 @@ public class WorkManagerImpl extends WorkManagerReadOnlyImpl implements WorkMana
         
         if (isApiRequest) {
             activityValidator.validateWork(work, activeSource, false, isApiRequest, originalVisibility);                        
-            List<Work> existingWorks = this.findWorks(orcid);       
-            
-            for (Work existing : existingWorks) {
-                // Dont compare the updated peer review with the DB version
-                if (!existing.getPutCode().equals(work.getPutCode())) {
-                    activityValidator.checkExternalIdentifiersForDuplicates(work, existing, existing.getSource(), activeSource);
-                }
-            }
+            // Dont compare the updated work with the DB version
+            checkExternalIdentifiersForDuplicates(work, findExistingExternalIDs(orcid, activeSource), activeSource);
         } else {
             //validate external ID vocab
             externalIDValidator.validateWork(work.getExternalIdentifiers(), isApiRequest);            
@@ -650,4 +644,88 @@ public class WorkManagerImpl extends WorkManagerReadOnlyImpl implements WorkMana
         }
         return client;
     }
+
+    /**
+     * External identifiers of existing works keyed by type and normalized
+     * value, so checking a new work doesn't depend on the number of works in
+     * the record
+     */
+    private class ExistingExternalIDs {
+
+        private final Map<String, List<Pair<Relationship, Long>>> putCodesByKey = new HashMap<>();
+
+        private final ExternalIdentifierTypeConverter typeConverter = new ExternalIdentifierTypeConverter();
+
+        void add(Long putCode, String externalIdsJson) {
+            JSONWorkExternalIdentifiers extIds = JsonUtils.readObjectFromJsonString(externalIdsJson, JSONWorkExternalIdentifiers.class);
+            if (extIds == null || extIds.getWorkExternalIdentifier() == null) {
+                return;
+            }
+            for (JSONWorkExternalIdentifier extId : extIds.getWorkExternalIdentifier()) {
+                if (extId.getWorkExternalIdentifierId() == null || extId.getWorkExternalIdentifierId().content == null) {
+                    continue;
+                }
+                String type = extId.getWorkExternalIdentifierType() == null ? WorkExternalIdentifierType.OTHER_ID.value()
+                        : typeConverter.convertFrom(extId.getWorkExternalIdentifierType(), null);
+                Relationship relationship = extId.getRelationship() == null ? null : Relationship.fromValue(typeConverter.convertFrom(extId.getRelationship(), null));
+                add(putCode, key(type, extId.getWorkExternalIdentifierId().content), relationship);
+            }
+        }
+
+        void add(Long putCode, ExternalIDs extIds) {
+            if (extIds != null) {
+                for (ExternalID extId : extIds.getExternalIdentifier()) {
+                    if (extId.getValue() != null) {
+                        add(putCode, key(extId.getType(), extId.getValue()), extId.getRelationship());
+                    }
+                }
+            }
+        }
+
+        private void add(Long putCode, String key, Relationship relationship) {
+            putCodesByKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(Pair.of(relationship, putCode));
+        }
+
+        /**
+         * Same rules as ActivityValidator.checkExternalIdentifiersForDuplicates:
+         * both identifiers must be SELF or have no relationship
+         */
+        Long findDuplicateOf(ExternalID extId, Long excludedPutCode) {
+            for (Pair<Relationship, Long> existing : find(extId)) {
+                if (!existing.getRight().equals(excludedPutCode) && areRelationshipsSameAndSelf(existing.getLeft(), extId.getRelationship())) {
+                    return existing.getRight();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * A new SELF identifier is a duplicate of any existing one but PART_OF
+         * and FUNDED_BY identifiers
+         */
+        Long findDuplicateOfSelf(ExternalID extId) {
+            for (Pair<Relationship, Long> existing : find(extId)) {
+                if (!Relationship.PART_OF.equals(existing.getLeft()) && !Relationship.FUNDED_BY.equals(existing.getLeft())) {
+                    return existing.getRight();
+                }
+            }
+            return null;
+        }
+
+        private List<Pair<Relationship, Long>> find(ExternalID extId) {
+            if (extId.getValue() == null) {
+                return Collections.emptyList();
+            }
+            return putCodesByKey.getOrDefault(key(extId.getType(), extId.getValue()), Collections.emptyList());
+        }
+
+        private String key(String type, String value) {
+            String normalized = norm.normalise(type, value);
+            return type + "::" + (StringUtils.isEmpty(normalized) ? value : normalized);
+        }
+
+        private boolean areRelationshipsSameAndSelf(Relationship r1, Relationship r2) {
+            return (r1 == null && r2 == null) || (Relationship.SELF.equals(r1) && Relationship.SELF.equals(r2));
+        }
+    }
 }
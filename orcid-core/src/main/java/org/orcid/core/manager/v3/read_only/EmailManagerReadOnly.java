@@ -1,7 +1,9 @@
 package org.orcid.core.manager.v3.read_only;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.orcid.jaxb.model.v3.release.record.Email;
 import org.orcid.jaxb.model.v3.release.record.Emails;
@@ -17,6 +19,11 @@ public interface EmailManagerReadOnly extends ManagerReadOnlyBase {
 
     boolean emailExists(String email);
 
+    /**
+     * @return the emails in the given collection that exist
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
     String findOrcidIdByEmail(String email);
 
     String findOrcidByVerifiedEmail(String email);
@@ -3,6 +3,8 @@ package org.orcid.core.manager.v3.read_only.impl;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.orcid.core.manager.v3.read_only.ActivitiesSummaryManagerReadOnly;
 import org.orcid.core.manager.v3.read_only.AffiliationsManagerReadOnly;
@@ -10,29 +12,22 @@ import org.orcid.core.manager.v3.read_only.PeerReviewManagerReadOnly;
 import org.orcid.core.manager.v3.read_only.ProfileFundingManagerReadOnly;
 import org.orcid.core.manager.v3.read_only.ResearchResourceManagerReadOnly;
 import org.orcid.core.manager.v3.read_only.WorkManagerReadOnly;
+import org.orcid.core.utils.FutureUtils;
+import org.orcid.core.utils.ReadOnlyFanOutExecutor;
 import org.orcid.jaxb.model.common.Relationship;
 import org.orcid.jaxb.model.v3.release.record.ExternalID;
 import org.orcid.jaxb.model.v3.release.record.GroupAble;
 import org.orcid.jaxb.model.v3.release.record.summary.ActivitiesSummary;
-import org.orcid.jaxb.model.v3.release.record.summary.DistinctionSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Distinctions;
-import org.orcid.jaxb.model.v3.release.record.summary.EducationSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Educations;
-import org.orcid.jaxb.model.v3.release.record.summary.EmploymentSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Employments;
-import org.orcid.jaxb.model.v3.release.record.summary.FundingSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Fundings;
-import org.orcid.jaxb.model.v3.release.record.summary.InvitedPositionSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.InvitedPositions;
-import org.orcid.jaxb.model.v3.release.record.summary.MembershipSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Memberships;
-import org.orcid.jaxb.model.v3.release.record.summary.PeerReviewSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.PeerReviews;
-import org.orcid.jaxb.model.v3.release.record.summary.QualificationSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Qualifications;
 import org.orcid.jaxb.model.v3.release.record.summary.ResearchResourceSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.ResearchResources;
-import org.orcid.jaxb.model.v3.release.record.summary.ServiceSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Services;
 import org.orcid.jaxb.model.v3.release.record.summary.WorkSummary;
 import org.orcid.jaxb.model.v3.release.record.summary.Works;
@@ -48,6 +43,8 @@ public class ActivitiesSummaryManagerReadOnlyImpl extends ManagerReadOnlyBaseImp
     
     private ResearchResourceManagerReadOnly researchResourceManager;
 
+    private ReadOnlyFanOutExecutor fanOutExecutor;
+
     public void setAffiliationsManager(AffiliationsManagerReadOnly affiliationsManager) {
         this.affiliationsManager = affiliationsManager;
     }
@@ -68,6 +65,10 @@ public class ActivitiesSummaryManagerReadOnlyImpl extends ManagerReadOnlyBaseImp
         this.researchResourceManager = researchResourceManager;
     }  
 
+    public void setFanOutExecutor(ReadOnlyFanOutExecutor fanOutExecutor) {
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
     @Override
     public ActivitiesSummary getActivitiesSummary(String orcid, boolean filterVersionOfIdentifiers) {
         return getActivitiesSummary(orcid, false, filterVersionOfIdentifiers);
@@ -79,54 +80,36 @@ public class ActivitiesSummaryManagerReadOnlyImpl extends ManagerReadOnlyBaseImp
     }
 
     public ActivitiesSummary getActivitiesSummary(String orcid, boolean justPublic, boolean filterVersionOfIdentifiers) {
-        ActivitiesSummary activities = new ActivitiesSummary();
-
-        // Set distinctions
-        List<DistinctionSummary> distinctionsList = affiliationsManager.getDistinctionSummaryList(orcid);
-        Distinctions distinctions =  new Distinctions(affiliationsManager.groupAffiliations(distinctionsList, justPublic));
-        activities.setDistinctions(distinctions);
-        
-        // Set educations
-        List<EducationSummary> educationsList = affiliationsManager.getEducationSummaryList(orcid);
-        Educations educations = new Educations(affiliationsManager.groupAffiliations(educationsList, justPublic));
-        activities.setEducations(educations);
-
-        // Set employments
-        List<EmploymentSummary> employmentList = affiliationsManager.getEmploymentSummaryList(orcid);
-        Employments employments = new Employments(affiliationsManager.groupAffiliations(employmentList, justPublic));
-        activities.setEmployments(employments);
-
-        // Set invited positions
-        List<InvitedPositionSummary> invitedPositionsList = affiliationsManager.getInvitedPositionSummaryList(orcid);
-        InvitedPositions invitedPositions = new InvitedPositions(affiliationsManager.groupAffiliations(invitedPositionsList, justPublic));
-        activities.setInvitedPositions(invitedPositions);
-        
-        // Set memberships
-        List<MembershipSummary> membershipsList = affiliationsManager.getMembershipSummaryList(orcid);
-        Memberships memberships = new Memberships(affiliationsManager.groupAffiliations(membershipsList, justPublic));
-        activities.setMemberships(memberships);
-        
-        // Set qualifications
-        List<QualificationSummary> qualificationsList = affiliationsManager.getQualificationSummaryList(orcid);
-        Qualifications qualifications = new Qualifications(affiliationsManager.groupAffiliations(qualificationsList, justPublic));
-        activities.setQualifications(qualifications);
-        
-        // Set services
-        List<ServiceSummary> servicesList = affiliationsManager.getServiceSummaryList(orcid);
-        Services services = new Services(affiliationsManager.groupAffiliations(servicesList, justPublic));
-        activities.setServices(services);
-        
-        // Set fundings
-        List<FundingSummary> fundingSummaries = fundingManager.getFundingSummaryList(orcid);
-        Fundings fundings = fundingManager.groupFundings(fundingSummaries, justPublic);        
-        activities.setFundings(fundings);
+        // Each section is independent from the others, so when the fan out
+        // executor is enabled they are loaded concurrently
+        CompletableFuture<Distinctions> distinctions = submit(() -> new Distinctions(affiliationsManager.groupAffiliations(affiliationsManager.getDistinctionSummaryList(orcid), justPublic)));
+        CompletableFuture<Educations> educations = submit(() -> new Educations(affiliationsManager.groupAffiliations(affiliationsManager.getEducationSummaryList(orcid), justPublic)));
+        CompletableFuture<Employments> employments = submit(() -> new Employments(affiliationsManager.groupAffiliations(affiliationsManager.getEmploymentSummaryList(orcid), justPublic)));
+        CompletableFuture<InvitedPositions> invitedPositions = submit(() -> new InvitedPositions(affiliationsManager.groupAffiliations(affiliationsManager.getInvitedPositionSummaryList(orcid), justPublic)));
+        CompletableFuture<Memberships> memberships = submit(() -> new Memberships(affiliationsManager.groupAffiliations(affiliationsManager.getMembershipSummaryList(orcid), justPublic)));
+        CompletableFuture<Qualifications> qualifications = submit(() -> new Qualifications(affiliationsManager.groupAffiliations(affiliationsManager.getQualificationSummaryList(orcid), justPublic)));
+        CompletableFuture<Services> services = submit(() -> new Services(affiliationsManager.groupAffiliations(affiliationsManager.getServiceSummaryList(orcid), justPublic)));
+        CompletableFuture<Fundings> fundings = submit(() -> fundingManager.groupFundings(fundingManager.getFundingSummaryList(orcid), justPublic));
+        CompletableFuture<PeerReviews> peerReviews = submit(() -> peerReviewManager.groupPeerReviews(peerReviewManager.getPeerReviewSummaryList(orcid), justPublic));
+        CompletableFuture<Works> works = submit(() -> getWorks(orcid, justPublic, filterVersionOfIdentifiers));
+        CompletableFuture<ResearchResources> researchResources = submit(() -> getResearchResources(orcid, justPublic, filterVersionOfIdentifiers));
 
-        // Set peer reviews
-        List<PeerReviewSummary> peerReviewSummaries = peerReviewManager.getPeerReviewSummaryList(orcid);
-        PeerReviews peerReviews = peerReviewManager.groupPeerReviews(peerReviewSummaries, justPublic);        
-        activities.setPeerReviews(peerReviews);
+        ActivitiesSummary activities = new ActivitiesSummary();
+        activities.setDistinctions(FutureUtils.join(distinctions));
+        activities.setEducations(FutureUtils.join(educations));
+        activities.setEmployments(FutureUtils.join(employments));
+        activities.setInvitedPositions(FutureUtils.join(invitedPositions));
+        activities.setMemberships(FutureUtils.join(memberships));
+        activities.setQualifications(FutureUtils.join(qualifications));
+        activities.setServices(FutureUtils.join(services));
+        activities.setFundings(FutureUtils.join(fundings));
+        activities.setPeerReviews(FutureUtils.join(peerReviews));
+        activities.setWorks(FutureUtils.join(works));
+        activities.setResearchResources(FutureUtils.join(researchResources));
+        return activities;
+    }
 
-        // Set works
+    private Works getWorks(String orcid, boolean justPublic, boolean filterVersionOfIdentifiers) {
         List<WorkSummary> workSummaries = workManager.getWorksSummaryList(orcid);
         
         // Should we filter the version-of identifiers before grouping?
@@ -144,9 +127,10 @@ public class ActivitiesSummaryManagerReadOnlyImpl extends ManagerReadOnlyBaseImp
             }
         }
         
-        Works works = workManager.groupWorks(workSummaries, justPublic);        
-        activities.setWorks(works);
-        
+        return workManager.groupWorks(workSummaries, justPublic);
+    }
+
+    private ResearchResources getResearchResources(String orcid, boolean justPublic, boolean filterVersionOfIdentifiers) {
         List<ResearchResourceSummary> researchResourceSummary = researchResourceManager.getResearchResourceSummaryList(orcid);
         // Should we filter the version-of identifiers before grouping?
         if(filterVersionOfIdentifiers) {            
@@ -162,9 +146,13 @@ public class ActivitiesSummaryManagerReadOnlyImpl extends ManagerReadOnlyBaseImp
                 }
             }
         }
-        ResearchResources researchResources = researchResourceManager.groupResearchResources(researchResourceSummary, justPublic);
-        activities.setResearchResources(researchResources);
+        return researchResourceManager.groupResearchResources(researchResourceSummary, justPublic);
+    }
 
-        return activities;
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (fanOutExecutor == null) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        return fanOutExecutor.submit(task);
     }
 }
@@ -1,11 +1,14 @@
 package org.orcid.core.manager.v3.read_only.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -57,6 +60,19 @@ public class EmailManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
         return emailDao.emailExists(emailKeys.get(EmailManager.HASH));
     }
 
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Map<String, String> emailsByHash = new HashMap<>();
+        for (String email : emails) {
+            emailsByHash.put(getEmailKeys(email).get(EmailManager.HASH), email);
+        }
+        Set<String> existing = new HashSet<>();
+        for (String hash : emailDao.findExistingEmailHashes(emailsByHash.keySet())) {
+            existing.add(emailsByHash.get(hash));
+        }
+        return existing;
+    }
+
     @Override
     public String findOrcidIdByEmail(String email) {
         Map<String, String> emailKeys = getEmailKeys(email);
@@ -1,5 +1,8 @@
 package org.orcid.core.manager.v3.read_only.impl;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 import javax.annotation.Resource;
 
 import org.orcid.core.manager.ProfileEntityCacheManager;
@@ -10,6 +13,8 @@ import org.orcid.core.manager.v3.read_only.EmailManagerReadOnly;
 import org.orcid.core.manager.v3.read_only.PersonDetailsManagerReadOnly;
 import org.orcid.core.manager.v3.read_only.RecordManagerReadOnly;
 import org.orcid.core.utils.DateUtils;
+import org.orcid.core.utils.FutureUtils;
+import org.orcid.core.utils.ReadOnlyFanOutExecutor;
 import org.orcid.core.utils.SourceEntityUtils;
 import org.orcid.jaxb.model.common.AvailableLocales;
 import org.orcid.jaxb.model.common.OrcidType;
@@ -22,6 +27,7 @@ import org.orcid.jaxb.model.v3.release.record.DeactivationDate;
 import org.orcid.jaxb.model.v3.release.record.Email;
 import org.orcid.jaxb.model.v3.release.record.Emails;
 import org.orcid.jaxb.model.v3.release.record.History;
+import org.orcid.jaxb.model.v3.release.record.Person;
 import org.orcid.jaxb.model.v3.release.record.Preferences;
 import org.orcid.jaxb.model.v3.release.record.Record;
 import org.orcid.jaxb.model.v3.release.record.SubmissionDate;
@@ -51,6 +57,8 @@ public class RecordManagerReadOnlyImpl implements RecordManagerReadOnly {
     protected ActivitiesSummaryManagerReadOnly activitiesSummaryManager;
 
     protected PersonDetailsManagerReadOnly personDetailsManager;
+
+    protected ReadOnlyFanOutExecutor fanOutExecutor;
     
     public void setProfileEntityCacheManager(ProfileEntityCacheManager profileEntityCacheManager) {
         this.profileEntityCacheManager = profileEntityCacheManager;
@@ -68,6 +76,10 @@ public class RecordManagerReadOnlyImpl implements RecordManagerReadOnly {
         this.personDetailsManager = personDetailsManager;
     }
 
+    public void setFanOutExecutor(ReadOnlyFanOutExecutor fanOutExecutor) {
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
     @Override
     public Record getPublicRecord(String orcid, boolean filterVersionOfIdentifiers) {
         Record record = new Record();
@@ -75,8 +87,9 @@ public class RecordManagerReadOnlyImpl implements RecordManagerReadOnly {
         record.setHistory(getHistory(orcid));
         record.setOrcidIdentifier(getOrcidIdentifier(orcid));
         record.setPreferences(getPreferences(orcid));
+        CompletableFuture<Person> person = submitPersonDetails(() -> personDetailsManager.getPublicPersonDetails(orcid));
         record.setActivitiesSummary(activitiesSummaryManager.getPublicActivitiesSummary(orcid, filterVersionOfIdentifiers));
-        record.setPerson(personDetailsManager.getPublicPersonDetails(orcid));        
+        record.setPerson(person == null ? personDetailsManager.getPublicPersonDetails(orcid) : FutureUtils.join(person));        
         return record;
     }
 
@@ -87,10 +100,25 @@ public class RecordManagerReadOnlyImpl implements RecordManagerReadOnly {
         record.setHistory(getHistory(orcid));
         record.setOrcidIdentifier(getOrcidIdentifier(orcid));
         record.setPreferences(getPreferences(orcid));
+        CompletableFuture<Person> person = submitPersonDetails(() -> personDetailsManager.getPersonDetails(orcid, false));
         record.setActivitiesSummary(activitiesSummaryManager.getActivitiesSummary(orcid, filterVersionOfIdentifiers));
-        record.setPerson(personDetailsManager.getPersonDetails(orcid, false));
+        record.setPerson(person == null ? personDetailsManager.getPersonDetails(orcid, false) : FutureUtils.join(person));
         return record;
     }
+
+    /**
+     * Loads the person details in the background while the activities are
+     * assembled in the calling thread, which fans them out itself.
+     * 
+     * @return null if the fan out executor is not enabled, in which case the
+     *         person details must be loaded by the caller
+     */
+    private CompletableFuture<Person> submitPersonDetails(Supplier<Person> task) {
+        if (fanOutExecutor == null || !fanOutExecutor.isEnabled()) {
+            return null;
+        }
+        return fanOutExecutor.submit(task);
+    }
     
     @Override
     public OrcidIdentifier getOrcidIdentifier(String orcid) {
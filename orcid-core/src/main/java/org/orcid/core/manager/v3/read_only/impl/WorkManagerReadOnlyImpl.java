@@ -4,8 +4,13 @@ import java.math.BigInteger;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
@@ -13,6 +18,7 @@ import javax.annotation.Resource;
 import org.orcid.core.adapter.jsonidentifier.converter.JSONWorkExternalIdentifiersConverterV3;
 import org.orcid.core.adapter.v3.JpaJaxbWorkAdapter;
 import org.orcid.core.adapter.v3.converter.ContributorsRolesAndSequencesConverter;
+import org.orcid.core.adapter.v3.converter.ContributorsRolesAndSequencesConverter.TopContributors;
 import org.orcid.core.adapter.v3.converter.WorkContributorsConverter;
 import org.orcid.core.contributors.roles.works.WorkContributorRoleConverter;
 import org.orcid.core.exception.ExceedMaxNumberOfPutCodesException;
@@ -27,9 +33,9 @@ import org.orcid.core.manager.v3.read_only.WorkManagerReadOnly;
 import org.orcid.core.togglz.Features;
 import org.orcid.core.utils.v3.ContributorUtils;
 import org.orcid.core.utils.v3.activities.ActivitiesGroup;
-import org.orcid.core.utils.v3.activities.ActivitiesGroupGenerator;
+import org.orcid.core.utils.v3.activities.DisjointSetActivitiesGroupGenerator;
+import org.orcid.core.utils.v3.activities.DisjointSetWorkGroupAndGroupingSuggestionGenerator;
 import org.orcid.core.utils.v3.activities.WorkComparators;
-import org.orcid.core.utils.v3.activities.WorkGroupAndGroupingSuggestionGenerator;
 import org.orcid.jaxb.model.record.bulk.BulkElement;
 import org.orcid.jaxb.model.v3.release.record.ExternalID;
 import org.orcid.jaxb.model.v3.release.record.ExternalIDs;
@@ -54,6 +60,9 @@ import org.orcid.pojo.ajaxForm.PojoUtil;
 import org.orcid.pojo.grouping.WorkGroupingSuggestion;
 import org.springframework.beans.factory.annotation.Value;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements WorkManagerReadOnly {
     
     public static final String BULK_PUT_CODES_DELIMITER = ",";
@@ -99,6 +108,10 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
 
     @Value("${org.orcid.core.work.contributors.ui.max:50}")
     private int maxContributorsForUI;
+
+    // Decoded top contributors by put code and last modified, so a changed
+    // work is decoded again
+    private final Cache<String, TopContributors> topContributorsCache = CacheBuilder.newBuilder().maximumSize(20000).expireAfterAccess(30, TimeUnit.MINUTES).build();
     
     public WorkManagerReadOnlyImpl(@Value("${org.orcid.core.works.bulk.read.max:100}") Integer bulkReadSize) {
         this.maxWorksToRead = (bulkReadSize == null) ? 100 : bulkReadSize;
@@ -199,8 +212,9 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
         // Filter the contributors list
         for (WorkSummaryExtended wse : wseList) {
             if (wse.getContributorsGroupedByOrcid() != null && wse.getContributorsGroupedByOrcid().size() > 0) {
+                // The number of contributors is set when decoding them, as
+                // only the top ones are kept
                 contributorUtils.filterContributorsGroupedByOrcidPrivateData(wse.getContributorsGroupedByOrcid(), maxContributorsForUI);
-                wse.setNumberOfContributors(wse.getContributorsGroupedByOrcid().size());
             } else {
                 contributorUtils.filterContributorPrivateData(wse.getContributors().getContributor(), maxContributorsForUI);
                 List<ContributorsRolesAndSequences> contributorsGroupedByOrcid = contributorUtils.getContributorsGroupedByOrcid(wse.getContributors().getContributor(), maxContributorsForUI);
@@ -214,6 +228,19 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
     private List<WorkSummaryExtended> retrieveWorkSummaryExtended(String orcid) {
         List<WorkSummaryExtended> workSummaryExtendedList = new ArrayList<>();
         List<Object[]> list = workDao.getWorksByOrcid(orcid);
+
+        // Resolve the assertion origins and the source names of all the works
+        // at once
+        Map<String, Boolean> userOboClients = new HashMap<>();
+        Set<String> sourceIds = new HashSet<>();
+        for (Object[] q1 : list) {
+            String clientSourceId = isEmpty(q1[11]);
+            String assertionOriginSourceId = getAssertionOriginSourceId(orcid, clientSourceId, isEmpty(q1[12]), userOboClients);
+            addIfNotEmpty(sourceIds, firstNotEmpty(isEmpty(q1[13]), assertionOriginSourceId));
+            addIfNotEmpty(sourceIds, firstNotEmpty(clientSourceId, isEmpty(q1[10])));
+        }
+        Map<String, String> sourceNames = sourceNameCacheManager.retrieve(sourceIds);
+
         for(Object[] q1 : list){
             BigInteger putCode = (BigInteger) q1[0];
             String workType = isEmpty(q1[1]);
@@ -236,28 +263,17 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
             if (externalIdsJson != null) {
                 externalIDs = jsonWorkExternalIdentifiersConverterV3.convertFrom(externalIdsJson,null);
             }
-            String sourceName = null;
-            String assertionOriginName = null;
-            if (clientSourceId != null) {
-                assertionOriginSourceId = contributorUtils.getAssertionOriginOrcid(clientSourceId, orcid, putCode.longValue(), clientDetailsEntityCacheManager, workDao);
-            }
-            if (!PojoUtil.isEmpty(assertionOriginSourceId)) {
-                assertionOriginName = contributorUtils.getSourceName(assertionOriginSourceId, sourceNameCacheManager);
-            }
-            if (!PojoUtil.isEmpty(assertionOriginClientSourceId)) {
-                assertionOriginName = contributorUtils.getSourceName(assertionOriginClientSourceId, sourceNameCacheManager);
-            }
-            if (!PojoUtil.isEmpty(sourceId)){
-                sourceName = contributorUtils.getSourceName(sourceId, sourceNameCacheManager);
-            }
-            if (!PojoUtil.isEmpty(clientSourceId)) {
-                sourceName = contributorUtils.getSourceName(clientSourceId, sourceNameCacheManager);
-            }
+            assertionOriginSourceId = getAssertionOriginSourceId(orcid, clientSourceId, assertionOriginSourceId, userOboClients);
+            String assertionOriginName = getSourceName(sourceNames, firstNotEmpty(assertionOriginClientSourceId, assertionOriginSourceId));
+            String sourceName = getSourceName(sourceNames, firstNotEmpty(clientSourceId, sourceId));
             List<WorkContributorsList> contributorList = new ArrayList<>();
             List<ContributorsRolesAndSequences> contributorsRolesAndSequencesList = new ArrayList<>();
+            int numberOfContributors = 0;
 
             if (contributors != null && !"".equals(contributors)) {
-                contributorsRolesAndSequencesList = contributorsRolesAndSequencesConverter.getContributorsRolesAndSequencesList(contributors);
+                TopContributors topContributors = getTopContributors(putCode, lastModifiedDate, contributors);
+                contributorsRolesAndSequencesList = copyOf(topContributors.getContributors());
+                numberOfContributors = topContributors.getTotal();
             } else {
                 contributorList = workContributorsConverter.getContributorsList(contributors);
             }
@@ -277,11 +293,69 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
                     .contributors(contributorList)
                     .topContributors(contributorsRolesAndSequencesList)
                     .build();
+            wse.setNumberOfContributors(numberOfContributors);
             workSummaryExtendedList.add(wse);
         }
         return workSummaryExtendedList;
     }
 
+    /**
+     * The assertion origin of works added by a user OBO client is the owner
+     * of the record, there is no need to load the work to find it
+     */
+    private String getAssertionOriginSourceId(String orcid, String clientSourceId, String assertionOriginSourceId, Map<String, Boolean> userOboClients) {
+        if (clientSourceId == null) {
+            return assertionOriginSourceId;
+        }
+        boolean userObo = userOboClients.computeIfAbsent(clientSourceId, id -> clientDetailsEntityCacheManager.retrieve(id).isUserOBOEnabled());
+        return userObo ? orcid : null;
+    }
+
+    private String firstNotEmpty(String first, String second) {
+        if (!PojoUtil.isEmpty(first)) {
+            return first;
+        }
+        return PojoUtil.isEmpty(second) ? null : second;
+    }
+
+    private void addIfNotEmpty(Set<String> sourceIds, String sourceId) {
+        if (sourceId != null) {
+            sourceIds.add(sourceId);
+        }
+    }
+
+    private String getSourceName(Map<String, String> sourceNames, String sourceId) {
+        return sourceId == null ? null : sourceNames.get(sourceId);
+    }
+
+    private TopContributors getTopContributors(BigInteger putCode, Timestamp lastModified, String contributors) {
+        String key = putCode + "_" + (lastModified == null ? 0 : lastModified.getTime());
+        try {
+            // One more than the UI shows, as when the top contributors are stored
+            return topContributorsCache.get(key, () -> contributorsRolesAndSequencesConverter.getTopContributors(contributors, maxContributorsForUI + 1));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Copies the cached contributors, as their names and emails are filtered
+     * for each request
+     */
+    private List<ContributorsRolesAndSequences> copyOf(List<ContributorsRolesAndSequences> cached) {
+        List<ContributorsRolesAndSequences> copy = new ArrayList<>(cached.size());
+        for (ContributorsRolesAndSequences contributor : cached) {
+            ContributorsRolesAndSequences c = new ContributorsRolesAndSequences();
+            c.setContributorOrcid(contributor.getContributorOrcid());
+            c.setCreditName(contributor.getCreditName());
+            c.setContributorEmail(contributor.getContributorEmail());
+            c.setContributorAttributes(contributor.getContributorAttributes());
+            c.setRolesAndSequences(contributor.getRolesAndSequences());
+            copy.add(c);
+        }
+        return copy;
+    }
+
     /**
      * Get the list of works specified by the list of put codes
      * 
@@ -305,7 +379,7 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
      */
     @Override
     public Works groupWorksAndGenerateGroupingSuggestions(List<WorkSummary> summaries, String orcid) {
-        WorkGroupAndGroupingSuggestionGenerator groupGenerator = new WorkGroupAndGroupingSuggestionGenerator();
+        DisjointSetWorkGroupAndGroupingSuggestionGenerator groupGenerator = new DisjointSetWorkGroupAndGroupingSuggestionGenerator();
         for (WorkSummary work : summaries) {
             groupGenerator.group(work);
         }
@@ -317,7 +391,7 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
 
     @Override
     public WorksExtended groupWorksExtendedAndGenerateGroupingSuggestions(List<WorkSummaryExtended> summaries, String orcid) {
-        WorkGroupAndGroupingSuggestionGenerator groupGenerator = new WorkGroupAndGroupingSuggestionGenerator();
+        DisjointSetWorkGroupAndGroupingSuggestionGenerator groupGenerator = new DisjointSetWorkGroupAndGroupingSuggestionGenerator();
         for (WorkSummaryExtended work : summaries) {
             groupGenerator.group(work);
         }
@@ -339,7 +413,7 @@ public class WorkManagerReadOnlyImpl extends ManagerReadOnlyBaseImpl implements
      */
     @Override
     public Works groupWorks(List<WorkSummary> works, boolean justPublic) {
-        ActivitiesGroupGenerator groupGenerator = new ActivitiesGroupGenerator();
+        DisjointSetActivitiesGroupGenerator groupGenerator = new DisjointSetActivitiesGroupGenerator();
         for (WorkSummary work : works) {
             if (justPublic && !work.getVisibility().equals(org.orcid.jaxb.model.v3.release.common.Visibility.PUBLIC)) {
                 // If it is just public and the work is not public, just ignore
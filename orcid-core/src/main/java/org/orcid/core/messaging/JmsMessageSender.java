@@ -1,8 +1,15 @@
 package org.orcid.core.messaging;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Resource;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
 
 import org.orcid.core.utils.listener.LastModifiedMessage;
 import org.orcid.utils.solr.entities.OrgDisambiguatedSolrDocument;
@@ -10,6 +17,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jms.JmsException;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -82,6 +90,70 @@ public class JmsMessageSender {
         return false;
     }
     
+    /**Sends every message to every one of the selected queues in a single
+     * JMS transaction, so either all of them are sent or none is
+     * 
+     * @param messages the messages
+     * @param destinations the destination queues
+     * @return true if all messages were sent successfully 
+     */
+    public boolean send(List<LastModifiedMessage> messages, List<String> destinations){
+        List<Object> payloads = new ArrayList<>(messages.size());
+        for (LastModifiedMessage mess : messages){
+            payloads.add(mess.getMap());
+        }
+        return sendInTransaction(payloads, destinations);
+    }
+    
+    /**Sends a batch of OrgDisambiguatedSolrDocument to the selected queue in
+     * a single JMS transaction, so either all of them are sent or none is
+     * 
+     * @param documents the documents
+     * @param destination the destination queue
+     * @return true if all documents were sent successfully 
+     */
+    public boolean sendOrgs(List<OrgDisambiguatedSolrDocument> documents, String destination){
+        return sendInTransaction(new ArrayList<Object>(documents), Collections.singletonList(destination));
+    }
+    
+    private boolean sendInTransaction(List<Object> payloads, List<String> destinations){
+        if (!isEnabled() || pauseForAWhile){
+            LOG.info("Not sending messages: isEnabled="+isEnabled()+" pauseForAWhile="+pauseForAWhile);
+            return false;
+        }
+        Connection connection = null;
+        Session session = null;
+        try{
+            connection = jmsTemplate.getConnectionFactory().createConnection();
+            session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            for (String destination : destinations){
+                MessageProducer producer = session.createProducer(jmsTemplate.getDestinationResolver().resolveDestinationName(session, destination, false));
+                try{
+                    for (Object payload : payloads){
+                        producer.send(jmsTemplate.getMessageConverter().toMessage(payload, session));
+                    }
+                } finally {
+                    JmsUtils.closeMessageProducer(producer);
+                }
+            }
+            session.commit();
+            return true;
+        } catch(JMSException | JmsException e) {
+            LOG.error("Couldnt send a batch of " + payloads.size() + " messages to the message queues " + destinations, e);
+            try{
+                if (session != null){
+                    JmsUtils.rollbackIfNecessary(session);
+                }
+            } catch(JMSException re) {
+                LOG.error("Couldnt rollback the batch", re);
+            }
+        } finally {
+            JmsUtils.closeSession(session);
+            JmsUtils.closeConnection(connection);
+        }
+        return false;
+    }
+    
     /**Sends a OrgDisambiguatedSolrDocument to the selected queue
      * 
      * @param mess the message
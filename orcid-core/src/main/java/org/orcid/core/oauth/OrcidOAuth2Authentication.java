@@ -3,6 +3,7 @@ package org.orcid.core.oauth;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.provider.AuthorizationRequest;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
 import org.springframework.util.Assert;
 
 /**
@@ -36,6 +37,12 @@ public class OrcidOAuth2Authentication extends OAuth2Authentication {
         this.activeToken = activeToken;
     }
 
+    public OrcidOAuth2Authentication(OAuth2Request storedRequest, Authentication userAuthentication, String activeToken) {
+        super(storedRequest, userAuthentication);
+        Assert.hasText(activeToken, "The active token must have a value.");
+        this.activeToken = activeToken;
+    }
+
     public String getActiveToken() {
         return activeToken;
     }
@@ -0,0 +1,138 @@
+package org.orcid.core.oauth.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.orcid.core.oauth.OrcidOAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * In JVM cache of the authentications already built for API access tokens,
+ * checked before Redis and the token table.
+ *
+ * Entries are keyed by the SHA-256 of the token and live for a few seconds.
+ * Revocations are broadcast through the {@link TokenInvalidationChannel}, the
+ * TTL bounds how long a change made outside of the token services, like
+ * locking a client, takes to be seen.
+ */
+public class AccessTokenNearCache {
+
+    private boolean enabled = true;
+
+    private int maxSize = 10000;
+
+    private int ttlSeconds = 30;
+
+    private TokenInvalidationChannel tokenInvalidationChannel;
+
+    private Cache<String, CachedAuthentication> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).build();
+        tokenInvalidationChannel.subscribe(cache::invalidate);
+    }
+
+    /**
+     * Returns a copy of the cached authentication, or null if the token is
+     * not cached or has expired
+     */
+    public OAuth2Authentication get(String tokenValue) {
+        if (!enabled) {
+            return null;
+        }
+        String key = hash(tokenValue);
+        CachedAuthentication cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiration <= System.currentTimeMillis()) {
+            // Let the token store deal with the expired token
+            cache.invalidate(key);
+            return null;
+        }
+        return copy(cached.authentication);
+    }
+
+    public void put(String tokenValue, OAuth2Authentication authentication, Long expiration) {
+        if (enabled && authentication != null) {
+            cache.put(hash(tokenValue), new CachedAuthentication(copy(authentication), expiration == null ? Long.MAX_VALUE : expiration));
+        }
+    }
+
+    /**
+     * Drops the token from the cache of every node
+     */
+    public void invalidate(String tokenValue) {
+        if (enabled && tokenValue != null) {
+            String key = hash(tokenValue);
+            evict(key);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Another request could cache the token again before the
+                // change is committed
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(key);
+                    }
+                });
+            }
+        }
+    }
+
+    private void evict(String key) {
+        cache.invalidate(key);
+        tokenInvalidationChannel.publish(key);
+    }
+
+    // Spring security sets the request details on the authentication it gets,
+    // so every request gets its own copy
+    private OAuth2Authentication copy(OAuth2Authentication authentication) {
+        if (authentication instanceof OrcidOAuth2Authentication) {
+            return new OrcidOAuth2Authentication(authentication.getOAuth2Request(), authentication.getUserAuthentication(),
+                    ((OrcidOAuth2Authentication) authentication).getActiveToken());
+        }
+        return new OAuth2Authentication(authentication.getOAuth2Request(), authentication.getUserAuthentication());
+    }
+
+    private String hash(String tokenValue) {
+        return Hashing.sha256().hashString(tokenValue, StandardCharsets.UTF_8).toString();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setTtlSeconds(int ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public void setTokenInvalidationChannel(TokenInvalidationChannel tokenInvalidationChannel) {
+        this.tokenInvalidationChannel = tokenInvalidationChannel;
+    }
+
+    private static class CachedAuthentication {
+
+        private final OAuth2Authentication authentication;
+
+        private final long expiration;
+
+        private CachedAuthentication(OAuth2Authentication authentication, long expiration) {
+            this.authentication = authentication;
+            this.expiration = expiration;
+        }
+    }
+
+}
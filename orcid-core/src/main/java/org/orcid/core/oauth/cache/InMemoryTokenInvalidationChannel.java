@@ -0,0 +1,27 @@
+package org.orcid.core.oauth.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the invalidations to the listeners of the same JVM, used by the
+ * tests and by single node deployments
+ */
+public class InMemoryTokenInvalidationChannel implements TokenInvalidationChannel {
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String tokenHash) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(tokenHash);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+}
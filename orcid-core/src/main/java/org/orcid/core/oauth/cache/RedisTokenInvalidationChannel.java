@@ -0,0 +1,119 @@
+package org.orcid.core.oauth.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.orcid.core.utils.cache.redis.RedisClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Broadcasts the invalidations through a Redis pub/sub channel. The
+ * subscription blocks a connection, so it runs on its own daemon thread and
+ * is opened again if the connection drops.
+ */
+public class RedisTokenInvalidationChannel implements TokenInvalidationChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisTokenInvalidationChannel.class);
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private RedisClient redisClient;
+
+    private String channel = "orcid-token-invalidation";
+
+    private volatile boolean running;
+
+    private volatile JedisPubSub pubSub;
+
+    private Thread subscriber;
+
+    @PostConstruct
+    public void init() {
+        if (!redisClient.isEnabled()) {
+            LOGGER.warn("Redis is not available, token invalidations will not be shared with other nodes until it is");
+        }
+        running = true;
+        subscriber = new Thread(this::listen, "token-invalidation-subscriber");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        JedisPubSub current = pubSub;
+        if (current != null && current.isSubscribed()) {
+            current.unsubscribe();
+        }
+        if (subscriber != null) {
+            subscriber.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(String tokenHash) {
+        // Messages are also delivered back to this node
+        boolean published = false;
+        try {
+            published = redisClient.publish(channel, tokenHash);
+        } catch (RuntimeException e) {
+            LOGGER.error("Unable to publish token invalidation", e);
+        }
+        if (!published) {
+            notifyListeners(tokenHash);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private void listen() {
+        while (running) {
+            pubSub = new JedisPubSub() {
+                @Override
+                public void onMessage(String channel, String message) {
+                    notifyListeners(message);
+                }
+            };
+            try {
+                redisClient.subscribe(channel, pubSub);
+            } catch (RuntimeException e) {
+                LOGGER.error("Token invalidation subscription lost, reconnecting", e);
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void notifyListeners(String tokenHash) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(tokenHash);
+        }
+    }
+
+    public void setRedisClient(RedisClient redisClient) {
+        this.redisClient = redisClient;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.orcid.core.oauth.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the hashes of revoked or modified access tokens to every node,
+ * so they can drop them from their token near cache
+ */
+public interface TokenInvalidationChannel {
+
+    void publish(String tokenHash);
+
+    void subscribe(Consumer<String> listener);
+
+}
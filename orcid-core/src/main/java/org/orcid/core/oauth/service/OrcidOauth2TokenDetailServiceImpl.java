@@ -1,5 +1,6 @@
 package org.orcid.core.oauth.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -10,6 +11,7 @@ import javax.persistence.NoResultException;
 
 import org.orcid.core.constants.RevokeReason;
 import org.orcid.core.oauth.OrcidOauth2TokenDetailService;
+import org.orcid.core.oauth.cache.AccessTokenNearCache;
 import org.orcid.core.utils.cache.redis.RedisClient;
 import org.orcid.jaxb.model.message.ScopePathType;
 import org.orcid.persistence.dao.OrcidOauth2TokenDetailDao;
@@ -42,6 +44,9 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
     
     @Value("${org.orcid.core.utils.cache.redis.enabled:true}") 
     private boolean isTokenCacheEnabled;
+    
+    @Resource
+    private AccessTokenNearCache accessTokenNearCache;
 
     @Override
     public void setOrcidOauth2TokenDetailDao(OrcidOauth2TokenDetailDao orcidOauth2TokenDetailDao) {
@@ -131,6 +136,7 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
     @Transactional
     public void disableAccessToken(String accessToken) {
         orcidOauth2TokenDetailDao.disableAccessToken(accessToken);
+        accessTokenNearCache.invalidate(accessToken);
     }
     
     @Override
@@ -140,6 +146,7 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
         if(isTokenCacheEnabled) {
             redisClient.remove(accessToken);
         }
+        accessTokenNearCache.invalidate(accessToken);
         // Revoke the token
         orcidOauth2TokenDetailDao.revokeAccessToken(accessToken);
     }
@@ -172,6 +179,7 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
                     Set<ScopePathType> tokenScopes = ScopePathType.getScopesFromSpaceSeparatedString(token.getScope());
                     if(scopesToDisable.equals(tokenScopes)) {
                         orcidOauth2TokenDetailDao.disableAccessTokenById(token.getId(), userOrcid);
+                        accessTokenNearCache.invalidate(token.getTokenValue());
                     }                
                 }            
             }
@@ -188,7 +196,11 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
     @Override
     @Transactional
     public void disableAccessTokenByRefreshToken(String refreshTokenValue) {
+        OrcidOauth2TokenDetail token = findByRefreshTokenValue(refreshTokenValue);
         orcidOauth2TokenDetailDao.disableAccessTokenByRefreshToken(refreshTokenValue);
+        if(token != null) {
+            accessTokenNearCache.invalidate(token.getTokenValue());
+        }
     }
 
     @Override
@@ -239,9 +251,10 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
         // Remove them from the cache
         for(String accessToken : tokensToDisable) {
             LOGGER.info("Token {} will be disabled because auth code {} was reused", accessToken, authorizationCode);
-            if(isTokenCacheEnabled) {
-                redisClient.remove(accessToken);
-            }            
+            accessTokenNearCache.invalidate(accessToken);
+        }
+        if(isTokenCacheEnabled) {
+            redisClient.remove(tokensToDisable);
         }
         // Disable them
         return orcidOauth2TokenDetailDao.disableAccessTokenByCodeAndClient(authorizationCode, clientID, reason.name());
@@ -250,7 +263,14 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
     @Override
     @Transactional
     public void disableAccessTokenByUserOrcid(String userOrcid, RevokeReason reason) {
+        // Read the tokens before the update locks them
+        List<OrcidOauth2TokenDetail> userTokens = findByUserName(userOrcid);
         orcidOauth2TokenDetailDao.disableAccessTokenByUserOrcid(userOrcid, reason.name());
+        if(userTokens != null) {
+            for(OrcidOauth2TokenDetail token : userTokens) {
+                accessTokenNearCache.invalidate(token.getTokenValue());
+            }
+        }
     }
 
     @Override
@@ -259,11 +279,14 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
         // As a security measure, remove any user tokens from the cache
         List<OrcidOauth2TokenDetail> userTokens = findByUserName(userOrcid);
         if(userTokens != null && !userTokens.isEmpty()) {
+            List<String> tokenValues = new ArrayList<>();
             for(OrcidOauth2TokenDetail token : userTokens) {
                 if(clientDetailsId.equals(token.getClientDetailsId())) {
-                    redisClient.remove(token.getTokenValue());
+                    tokenValues.add(token.getTokenValue());
+                    accessTokenNearCache.invalidate(token.getTokenValue());
                 }
             }
+            redisClient.remove(tokenValues);
         }
         // And then disable all user tokens
         orcidOauth2TokenDetailDao.disableClientAccessTokensByUserOrcid(userOrcid, clientDetailsId);
@@ -272,6 +295,8 @@ public class OrcidOauth2TokenDetailServiceImpl implements OrcidOauth2TokenDetail
     @Override
     @Transactional
     public boolean updateScopes(String acessToken, Set<String> newScopes) {
-        return orcidOauth2TokenDetailDao.updateScopes(acessToken, OAuth2Utils.formatParameterList(newScopes));        
+        boolean updated = orcidOauth2TokenDetailDao.updateScopes(acessToken, OAuth2Utils.formatParameterList(newScopes));
+        accessTokenNearCache.invalidate(acessToken);
+        return updated;
     }
 }
@@ -17,6 +17,7 @@ import org.orcid.core.oauth.OrcidOAuth2Authentication;
 import org.orcid.core.oauth.OrcidOauth2AuthInfo;
 import org.orcid.core.oauth.OrcidOauth2UserAuthentication;
 import org.orcid.core.oauth.OrcidRandomValueTokenServices;
+import org.orcid.core.oauth.cache.AccessTokenNearCache;
 import org.orcid.core.togglz.Features;
 import org.orcid.core.utils.JsonUtils;
 import org.orcid.core.utils.cache.redis.RedisClient;
@@ -97,6 +98,9 @@ public class OrcidRandomValueTokenServicesImpl extends DefaultTokenServices impl
     @Value("${org.orcid.core.utils.cache.redis.enabled:true}") 
     private boolean isTokenCacheEnabled;
     
+    @Resource
+    private AccessTokenNearCache accessTokenNearCache;
+    
     public boolean isCustomSupportRefreshToken() {
         return customSupportRefreshToken;
     }
@@ -289,16 +293,27 @@ public class OrcidRandomValueTokenServicesImpl extends DefaultTokenServices impl
                 throw new InvalidTokenException("Invalid access token: " + accessTokenValue + ", revoke reason: " + revokeReason);
             }
         } else {
+            // Check the authentications already built by this node
+            OAuth2Authentication nearCached = accessTokenNearCache.get(accessTokenValue);
+            if(nearCached != null) {
+                return nearCached;
+            }
             // Get the token from the cache
             Map<String, String> cachedAccessToken = getTokenFromCache(accessTokenValue);
+            OAuth2Authentication authentication;
+            Long expiration;
             if(cachedAccessToken != null) {
-                 return orcidTokenStore.readAuthenticationFromCachedToken(cachedAccessToken);                 
+                 authentication = orcidTokenStore.readAuthenticationFromCachedToken(cachedAccessToken);
+                 expiration = Long.valueOf(cachedAccessToken.get(OrcidOauth2Constants.TOKEN_EXPIRATION_TIME));
             }  else {
                 // Fallback to database if it is not in the cache
                 OAuth2AccessToken accessToken = orcidTokenStore.readAccessToken(accessTokenValue);
                 validateTokenExpirationAndClientStatus(accessToken, accessTokenValue);
-                return orcidTokenStore.readAuthentication(accessTokenValue);
-            }            
+                authentication = orcidTokenStore.readAuthentication(accessTokenValue);
+                expiration = accessToken.getExpiration() == null ? null : accessToken.getExpiration().getTime();
+            }
+            accessTokenNearCache.put(accessTokenValue, authentication, expiration);
+            return authentication;
         }
     }
         
@@ -426,6 +441,7 @@ public class OrcidRandomValueTokenServicesImpl extends DefaultTokenServices impl
         // Revoke the old token when required
         if (revokeOld) {
             orcidOauth2TokenDetailDao.disableAccessToken(parentTokenValue);
+            accessTokenNearCache.invalidate(parentTokenValue);
         }
 
         // Save the changes
@@ -1,61 +1,92 @@
 package org.orcid.core.solr;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.http.HttpEntity;
-import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
 
-public class CSVSolrClient extends OrcidSolrClient {
+/**
+ * Runs CSV searches against SOLR. A single pooled HTTP client is shared by
+ * all requests, and responses are copied to the caller's output stream as
+ * they arrive instead of being buffered in memory.
+ */
+public class CSVSolrClient extends OrcidSolrClient implements Closeable {
 
     private String baseUrl;
 
+    private CloseableHttpClient httpClient;
+
     public CSVSolrClient(String url) {
-        this.baseUrl = url;
+        this(url, 20, 1000, 0);
     }
 
-    public String findCSVByDocumentCriteria(Map<String, List<String>> queryMap) throws URISyntaxException, ClientProtocolException, IOException {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
+    public CSVSolrClient(String url, int maxConnections, int connectionTimeout, int socketTimeout) {
+        this.baseUrl = url;
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(connectionTimeout).setSocketTimeout(socketTimeout).build();
+        this.httpClient = HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).build();
+    }
 
-        try {
-            URIBuilder builder = new URIBuilder(baseUrl + "/select?");
-            builder.setParameter("wt", "csv");
-            builder.setParameter("q", queryMap.get("q") != null ? queryMap.get("q").get(0) : "");
-            builder.setParameter("fl", getFieldList(queryMap.get("fl") != null ? queryMap.get("fl").get(0) : null));
+    /**
+     * Runs the CSV search, the results are copied from the SOLR response to
+     * the stream the returned output is written to. A search paged with the
+     * cursorMark param is sorted with the ORCID id as tie-breaker and ignores
+     * start.
+     * 
+     * The request is only sent once the output is written, so no pooled
+     * connection is held by an output that is never written.
+     */
+    public StreamingOutput findCSVByDocumentCriteria(Map<String, List<String>> queryMap) throws URISyntaxException {
+        boolean cursor = queryMap.get(CursorMarkParams.CURSOR_MARK_PARAM) != null;
+        URIBuilder builder = new URIBuilder(baseUrl + "/select?");
+        builder.setParameter("wt", "csv");
+        builder.setParameter("q", queryMap.get("q") != null ? queryMap.get("q").get(0) : "");
+        builder.setParameter("fl", getFieldList(queryMap.get("fl") != null ? queryMap.get("fl").get(0) : null));
 
-            // add and filter other allowed params
-            for (String key : queryMap.keySet()) {
-                if (allowedParam(key, queryMap.get(key) != null ? queryMap.get(key).get(0) : null)) {
-                    builder.setParameter(key, queryMap.get(key).get(0));
-                }
+        // add and filter other allowed params
+        for (String key : queryMap.keySet()) {
+            if (allowedParam(key, queryMap.get(key) != null ? queryMap.get(key).get(0) : null) && !(cursor && CommonParams.START.equals(key))) {
+                builder.setParameter(key, queryMap.get(key).get(0));
             }
+        }
+        if (cursor) {
+            builder.setParameter(CommonParams.SORT, getCursorSort(queryMap.get(CommonParams.SORT) != null ? queryMap.get(CommonParams.SORT).get(0) : null));
+        }
 
-            HttpGet get = new HttpGet(builder.build());
-            CloseableHttpResponse response = httpClient.execute(get);
-
-            try {
+        HttpGet get = new HttpGet(builder.build());
+        return out -> {
+            try (CloseableHttpResponse response = httpClient.execute(get)) {
+                int status = response.getStatusLine().getStatusCode();
+                if (status < 200 || status >= 300) {
+                    throw new IOException("SOLR CSV search failed with status " + status);
+                }
                 HttpEntity entity = response.getEntity();
                 if (entity != null) {
-                    // return it as a String
-                    String result = EntityUtils.toString(entity);
-                    return result;
+                    entity.writeTo(out);
                 }
-            } finally {
-                response.close();
             }
-        } finally {
-            httpClient.close();
-        }
+        };
+    }
 
-        return null;
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
     }
 
     private boolean allowedParam(String key, String value) {
@@ -2,6 +2,20 @@ package org.orcid.core.solr;
 
 public abstract class OrcidSolrClient {
 
+    /**
+     * Adds the ORCID id to the sort as the tie-breaker SOLR needs to page
+     * with a cursor
+     */
+    protected String getCursorSort(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            sort = "score desc";
+        }
+        if (!sort.matches("(^|.*[\\s,])" + SolrConstants.ORCID + "\\s+(asc|desc).*")) {
+            sort = sort + "," + SolrConstants.ORCID + " asc";
+        }
+        return sort;
+    }
+
     // generate or filter specified fl param to only include allowed values
     protected String getFieldList(String requestedFieldList) {
         String[] specifiedFields = new String[0];
@@ -17,6 +17,8 @@ import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.orcid.core.solr.OrcidSolrResult;
 import org.orcid.core.solr.OrcidSolrResults;
 import org.springframework.dao.NonTransientDataAccessResourceException;
@@ -107,9 +109,21 @@ public class OrcidSolrProfileClient extends OrcidSolrClient {
             solrQuery.add(queryKey, queryVals.get(0));
         }
         solrQuery.setFields(fieldList);
+        if (solrQuery.get(CursorMarkParams.CURSOR_MARK_PARAM) != null) {
+            solrQuery.set(CommonParams.SORT, getCursorSort(solrQuery.get(CommonParams.SORT)));
+            solrQuery.remove(CommonParams.START);
+        }
         return querySolr(solrQuery);
     }
 
+    /**
+     * Runs the search with fl=orcid only to get the cursor mark of the page
+     * that follows it, for the CSV searches which don't return it
+     */
+    public String findNextCursorMark(Map<String, List<String>> queryMap) {
+        return findByDocumentCriteria(queryMap, ORCID).getNextCursorMark();
+    }
+
     private OrcidSolrResults querySolr(SolrQuery query) {
         OrcidSolrResults orcidSolrResults = new OrcidSolrResults();
         List<OrcidSolrResult> orcidSolrResultsList = new ArrayList<>();
@@ -130,6 +144,7 @@ public class OrcidSolrProfileClient extends OrcidSolrClient {
                 orcidSolrResultsList.add(orcidSolrResult);
             }
             orcidSolrResults.setNumFound(queryResponse.getResults().getNumFound());
+            orcidSolrResults.setNextCursorMark(queryResponse.getNextCursorMark());
 
         } catch (SolrServerException | IOException se) {
             throw new NonTransientDataAccessResourceException("Error retrieving from SOLR Server", se);
@@ -11,6 +11,7 @@ public class OrcidSolrResults {
 
     private long numFound;
     private List<OrcidSolrResult> results;
+    private String nextCursorMark;
 
     public long getNumFound() {
         return numFound;
@@ -28,4 +29,12 @@ public class OrcidSolrResults {
         this.results = results;
     }
 
+    public String getNextCursorMark() {
+        return nextCursorMark;
+    }
+
+    public void setNextCursorMark(String nextCursorMark) {
+        this.nextCursorMark = nextCursorMark;
+    }
+
 }
@@ -25,6 +25,12 @@ public class SolrBeanFactory {
     @Value("${org.orcid.persistence.solr.allowCompression:true}")
     private Boolean allowCompression;
     
+    @Value("${org.orcid.persistence.solr.csv.maxConnections:20}")
+    private Integer csvMaxConnections;
+    
+    @Value("${org.orcid.persistence.solr.csv.socketTimeout:60000}")
+    private Integer csvSocketTimeout;
+    
     @Resource(name = "responseParser")
     private XMLResponseParser responseParser;
     
@@ -64,6 +70,6 @@ public class SolrBeanFactory {
     
     @Bean(name = "solrCSVProfileClient")
     public CSVSolrClient solrCSVClient() {
-        return new CSVSolrClient(solrReadOnlyUrl + DEFAULT_COLLECTION);
+        return new CSVSolrClient(solrReadOnlyUrl + DEFAULT_COLLECTION, csvMaxConnections, connectionTimeout, csvSocketTimeout);
     }
 }
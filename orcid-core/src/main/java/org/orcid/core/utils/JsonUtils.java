@@ -7,6 +7,7 @@ import java.io.Reader;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -128,6 +129,18 @@ public class JsonUtils {
         }
     }  
     
+    /**
+     * Creates a streaming parser for the given file, so big files can be read
+     * one element at a time with {@link JsonParser#readValueAsTree()}
+     */
+    public static JsonParser createParser(File file) {
+        try {
+            return mapper.getFactory().createParser(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating JsonParser for file", e);
+        }
+    }
+
     public static JsonNode read(Reader reader) {
         try {
             return mapper.readTree(reader);
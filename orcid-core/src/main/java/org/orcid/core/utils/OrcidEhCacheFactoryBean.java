@@ -12,6 +12,8 @@ import org.ehcache.config.builders.ResourcePoolsBuilder;
 import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.orcid.core.utils.cache.ehcache.CompressedJavaSerializer;
+import org.orcid.core.utils.cache.ehcache.SnapshotCopier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.FactoryBean;
@@ -38,8 +40,14 @@ public class OrcidEhCacheFactoryBean implements FactoryBean<Cache<?, ?>>, Initia
 
     private long maxMegaBytesOnDisk = 0;
 
+    private long maxMegaBytesOffHeap = 0;
+
     private boolean copyValues = true;
 
+    private boolean snapshotValues = false;
+
+    private boolean compressValues = false;
+
     private CacheLoaderWriter<Serializable, Serializable> cacheLoaderWriter;
 
     private Cache<?, ?> cache;
@@ -84,6 +92,14 @@ public class OrcidEhCacheFactoryBean implements FactoryBean<Cache<?, ?>>, Initia
         this.timeToIdleSeconds = timeToIdleSeconds;
     }
 
+    /**
+     * Same setting as timeToIdleSeconds, which despite its name sets the time
+     * to live of the entries
+     */
+    public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+        this.timeToIdleSeconds = timeToLiveSeconds;
+    }
+
     public long getMaxMegaBytesOnDisk() {
         return maxMegaBytesOnDisk;
     }
@@ -92,6 +108,18 @@ public class OrcidEhCacheFactoryBean implements FactoryBean<Cache<?, ?>>, Initia
         this.maxMegaBytesOnDisk = maxMegaBytesOnDisk;
     }
 
+    public long getMaxMegaBytesOffHeap() {
+        return maxMegaBytesOffHeap;
+    }
+
+    /**
+     * Adds an off heap tier between the heap and the disk tiers. Remember the
+     * JVM needs -XX:MaxDirectMemorySize big enough to hold it.
+     */
+    public void setMaxMegaBytesOffHeap(long maxMegaBytesOffHeap) {
+        this.maxMegaBytesOffHeap = maxMegaBytesOffHeap;
+    }
+
     public boolean isCopyValues() {
         return copyValues;
     }
@@ -100,6 +128,30 @@ public class OrcidEhCacheFactoryBean implements FactoryBean<Cache<?, ?>>, Initia
         this.copyValues = copyValues;
     }
 
+    public boolean isSnapshotValues() {
+        return snapshotValues;
+    }
+
+    /**
+     * Values are copied once when put in the cache, and returned by reference
+     * afterwards, so they must not be modified by the code reading them. Takes
+     * precedence over copyValues.
+     */
+    public void setSnapshotValues(boolean snapshotValues) {
+        this.snapshotValues = snapshotValues;
+    }
+
+    public boolean isCompressValues() {
+        return compressValues;
+    }
+
+    /**
+     * Compresses the values stored off heap and on disk
+     */
+    public void setCompressValues(boolean compressValues) {
+        this.compressValues = compressValues;
+    }
+
     public void setCacheLoaderWriter(CacheLoaderWriter<Serializable, Serializable> cacheLoaderWriter) {
         this.cacheLoaderWriter = cacheLoaderWriter;
     }
@@ -130,15 +182,23 @@ public class OrcidEhCacheFactoryBean implements FactoryBean<Cache<?, ?>>, Initia
             } else {
                 resourcePoolsBuilder = resourcePoolsBuilder.heap(this.maxElementsInMemory, EntryUnit.ENTRIES);
             }
+            if (this.maxMegaBytesOffHeap > 0) {
+                resourcePoolsBuilder = resourcePoolsBuilder.offheap(this.maxMegaBytesOffHeap, MemoryUnit.MB);
+            }
             if (this.maxMegaBytesOnDisk > 0) {
                 resourcePoolsBuilder = resourcePoolsBuilder.disk(this.maxMegaBytesOnDisk, MemoryUnit.MB);
             }
             CacheConfigurationBuilder<Serializable, Serializable> cacheConfigurationBuilder = CacheConfigurationBuilder
                     .newCacheConfigurationBuilder(Serializable.class, Serializable.class, resourcePoolsBuilder)
                     .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.of(this.timeToIdleSeconds, ChronoUnit.SECONDS)));
-            if (this.copyValues) {
+            if (this.snapshotValues) {
+                cacheConfigurationBuilder = cacheConfigurationBuilder.withValueCopier(new SnapshotCopier());
+            } else if (this.copyValues) {
                 cacheConfigurationBuilder = cacheConfigurationBuilder.withValueSerializingCopier();
             }
+            if (this.compressValues) {
+                cacheConfigurationBuilder = cacheConfigurationBuilder.withValueSerializer(new CompressedJavaSerializer(getClass().getClassLoader()));
+            }
             if (this.cacheLoaderWriter != null) {
                 cacheConfigurationBuilder = cacheConfigurationBuilder.withLoaderWriter(this.cacheLoaderWriter);
             }
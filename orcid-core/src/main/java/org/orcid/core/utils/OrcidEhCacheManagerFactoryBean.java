@@ -8,6 +8,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.ehcache.PersistentCacheManager;
 import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.core.spi.service.StatisticsService;
 import org.orcid.core.manager.impl.OrcidUrlManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +22,8 @@ public class OrcidEhCacheManagerFactoryBean implements FactoryBean<PersistentCac
 
     private static PersistentCacheManager persistentCacheManager;
 
+    private StatisticsService statisticsService;
+
     @Resource
     private OrcidUrlManager orcidUrlManager;
 
@@ -43,11 +46,24 @@ public class OrcidEhCacheManagerFactoryBean implements FactoryBean<PersistentCac
         if (persistentCacheManager == null) {
             String storagePath = getStoragePath();
             LOGGER.info("Cache manager dir: {}", storagePath);
-            persistentCacheManager = CacheManagerBuilder.newCacheManagerBuilder().with(CacheManagerBuilder.persistence(storagePath)).build(true);
+            CacheManagerBuilder<PersistentCacheManager> builder = CacheManagerBuilder.newCacheManagerBuilder().with(CacheManagerBuilder.persistence(storagePath));
+            if (statisticsService != null) {
+                builder = builder.using(statisticsService);
+            }
+            persistentCacheManager = builder.build(true);
         }
         return persistentCacheManager;
     }
 
+    /**
+     * Collects the statistics of the caches. The cache manager is shared by
+     * every context of the JVM, so only the service of the context that builds
+     * it gets them.
+     */
+    public void setStatisticsService(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
     @Override
     public Class<?> getObjectType() {
         return PersistentCacheManager.class;
@@ -0,0 +1,80 @@
+package org.orcid.core.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Runs independent sections of a read only request (the activity types of a
+ * record, the person details...) concurrently, each one in its own read only
+ * transaction.
+ *
+ * The request attributes and the security context of the calling thread are
+ * made available to the tasks, since they are used as request scoped caches
+ * (last modified dates, source names) and to check visibility.
+ *
+ * Tasks must not submit tasks themselves and wait for them, otherwise the pool
+ * could be exhausted by tasks waiting on each other. When it is disabled, or
+ * there is no executor, tasks run in the calling thread as soon as they are
+ * submitted, so the behaviour is the same as calling them one after another.
+ */
+public class ReadOnlyFanOutExecutor {
+
+    private Executor executor;
+
+    private TransactionTemplate transactionTemplate;
+
+    private boolean enabled = true;
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled && executor != null;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (!isEnabled()) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return CompletableFuture.supplyAsync(() -> runInContext(task, requestAttributes, securityContext), executor);
+    }
+
+    private <T> T runInContext(Supplier<T> task, RequestAttributes requestAttributes, SecurityContext securityContext) {
+        RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+        SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            if (transactionTemplate == null) {
+                return task.get();
+            }
+            return transactionTemplate.execute(status -> task.get());
+        } finally {
+            RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+            SecurityContextHolder.setContext(previousSecurityContext);
+        }
+    }
+
+}
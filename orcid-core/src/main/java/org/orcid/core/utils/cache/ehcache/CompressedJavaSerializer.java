@@ -0,0 +1,93 @@
+package org.orcid.core.utils.cache.ehcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+
+/**
+ * Java serialization followed by deflate compression, for caches with large
+ * values (like work entities with big contributors JSON) stored off heap or on
+ * disk.
+ */
+public class CompressedJavaSerializer implements Serializer<Serializable> {
+
+    private final ClassLoader classLoader;
+
+    public CompressedJavaSerializer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public ByteBuffer serialize(Serializable object) throws SerializerException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (ObjectOutputStream oout = new ObjectOutputStream(new DeflaterOutputStream(bout, deflater))) {
+            oout.writeObject(object);
+        } catch (IOException e) {
+            throw new SerializerException(e);
+        } finally {
+            deflater.end();
+        }
+        return ByteBuffer.wrap(bout.toByteArray());
+    }
+
+    @Override
+    public Serializable read(ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+        Inflater inflater = new Inflater();
+        try (ObjectInputStream oin = new ClassLoaderAwareObjectInputStream(new InflaterInputStream(toInputStream(binary), inflater), classLoader)) {
+            return (Serializable) oin.readObject();
+        } catch (IOException e) {
+            throw new SerializerException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public boolean equals(Serializable object, ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+        return object.equals(read(binary));
+    }
+
+    private InputStream toInputStream(ByteBuffer binary) {
+        ByteBuffer buffer = binary.duplicate();
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    private static class ClassLoaderAwareObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        ClassLoaderAwareObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.orcid.core.utils.cache.ehcache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.ehcache.CacheManager;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports, for every cache in the core cache manager, the number of entries
+ * and bytes allocated and occupied in each tier, along with hit/miss counts.
+ */
+public class EhCacheStatisticsReporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EhCacheStatisticsReporter.class);
+
+    private CacheManager cacheManager;
+
+    private StatisticsService statisticsService;
+
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void setStatisticsService(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    public List<String> createReport() {
+        List<String> report = new ArrayList<>();
+        for (String cacheName : new TreeSet<>(cacheManager.getRuntimeConfiguration().getCacheConfigurations().keySet())) {
+            CacheStatistics cacheStatistics;
+            try {
+                cacheStatistics = statisticsService.getCacheStatistics(cacheName);
+            } catch (IllegalArgumentException e) {
+                // Cache created through the service of another context
+                continue;
+            }
+            StringBuilder line = new StringBuilder(cacheName);
+            line.append(": hits=").append(cacheStatistics.getCacheHits());
+            line.append(", misses=").append(cacheStatistics.getCacheMisses());
+            line.append(", puts=").append(cacheStatistics.getCachePuts());
+            line.append(", evictions=").append(cacheStatistics.getCacheEvictions());
+            for (Map.Entry<String, TierStatistics> tier : cacheStatistics.getTierStatistics().entrySet()) {
+                TierStatistics tierStatistics = tier.getValue();
+                line.append(", ").append(tier.getKey()).append("[mappings=").append(tierStatistics.getMappings());
+                line.append(", allocatedBytes=").append(tierStatistics.getAllocatedByteSize());
+                line.append(", occupiedBytes=").append(tierStatistics.getOccupiedByteSize()).append(']');
+            }
+            report.add(line.toString());
+        }
+        return report;
+    }
+
+    public void logReport() {
+        for (String line : createReport()) {
+            LOGGER.info(line);
+        }
+    }
+
+}
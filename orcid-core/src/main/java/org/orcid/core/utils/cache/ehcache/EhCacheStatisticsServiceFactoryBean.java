@@ -0,0 +1,29 @@
+package org.orcid.core.utils.cache.ehcache;
+
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.impl.internal.statistics.DefaultStatisticsService;
+import org.springframework.beans.factory.FactoryBean;
+
+/**
+ * Creates the statistics service of the cache manager. Ehcache only ships
+ * an internal implementation of the service, this is the single place that
+ * refers to it, everything else uses the StatisticsService interface.
+ */
+public class EhCacheStatisticsServiceFactoryBean implements FactoryBean<StatisticsService> {
+
+    @Override
+    public StatisticsService getObject() {
+        return new DefaultStatisticsService();
+    }
+
+    @Override
+    public Class<?> getObjectType() {
+        return StatisticsService.class;
+    }
+
+    @Override
+    public boolean isSingleton() {
+        return true;
+    }
+
+}
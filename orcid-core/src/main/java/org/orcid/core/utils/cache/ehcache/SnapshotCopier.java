@@ -0,0 +1,27 @@
+package org.orcid.core.utils.cache.ehcache;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.ehcache.spi.copy.Copier;
+
+/**
+ * Copies values once, when they are put in the cache, and hands out the
+ * cached snapshot by reference on every read.
+ * 
+ * Only suitable for caches whose values are never modified by the code that
+ * reads them.
+ */
+public class SnapshotCopier implements Copier<Serializable> {
+
+    @Override
+    public Serializable copyForRead(Serializable obj) {
+        return obj;
+    }
+
+    @Override
+    public Serializable copyForWrite(Serializable obj) {
+        return SerializationUtils.clone(obj);
+    }
+
+}
@@ -4,28 +4,48 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.orcid.utils.alerting.SlackManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import redis.clients.jedis.DefaultJedisClientConfig;
 import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.params.SetParams;
 
 public class RedisClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(RedisClient.class);
-    
+
     private static final int DEFAULT_CACHE_EXPIRY = 60;
     private static final int DEFAULT_TIMEOUT = 10000;
-    
+    private static final int DEFAULT_RECONNECT_INTERVAL = 30;
+
     private final String redisHost;
     private final int redisPort;
     private final String redisPassword;
@@ -33,19 +53,44 @@ public class RedisClient {
     private final int clientTimeoutInMillis;
     private JedisPool pool;
     private SetParams defaultSetParams;
-    
+
     @Resource
     private SlackManager slackManager;
-    
-    // Assume the connection to Redis is disabled by default    
-    private boolean enabled = false;
-    
+
+    // Assume the connection to Redis is disabled by default
+    private volatile boolean enabled = false;
+
+    private boolean ssl = true;
+
+    // While Redis is down the client tries to connect again on this interval
+    private int reconnectIntervalInSecs = DEFAULT_RECONNECT_INTERVAL;
+
+    // Number of values kept in memory to serve reads while Redis is down, 0 to disable it
+    private int localCacheSize = 0;
+
+    private Cache<String, String> localCache;
+
+    private ScheduledExecutorService reconnectExecutor;
+
+    private final AtomicBoolean reconnecting = new AtomicBoolean(false);
+
+    // Keys that could not be removed while Redis was down, they are removed
+    // before the client is enabled again so revoked values are not served
+    private final Set<String> pendingRemovals = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder commandNanos = new LongAdder();
+
     public RedisClient(String redisHost, int redisPort, String password) {
         this.redisHost = redisHost;
         this.redisPort = redisPort;
         this.redisPassword = password;
         this.cacheExpiryInSecs = DEFAULT_CACHE_EXPIRY;
-        this.clientTimeoutInMillis = DEFAULT_TIMEOUT;        
+        this.clientTimeoutInMillis = DEFAULT_TIMEOUT;
     }
 
     public RedisClient(String redisHost, int redisPort, String password, int cacheExpiryInSecs) {
@@ -53,7 +98,7 @@ public class RedisClient {
         this.redisPort = redisPort;
         this.redisPassword = password;
         this.cacheExpiryInSecs = cacheExpiryInSecs;
-        this.clientTimeoutInMillis = DEFAULT_TIMEOUT;        
+        this.clientTimeoutInMillis = DEFAULT_TIMEOUT;
     }
 
     public RedisClient(String redisHost, int redisPort, String password, int cacheExpiryInSecs, int clientTimeoutInMillis) {
@@ -66,11 +111,19 @@ public class RedisClient {
 
     @PostConstruct
     private void init() {
+        if (localCacheSize > 0) {
+            localCache = CacheBuilder.newBuilder().maximumSize(localCacheSize).expireAfterWrite(cacheExpiryInSecs, TimeUnit.SECONDS).build();
+        }
+        reconnectExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
         try {
             JedisClientConfig config = DefaultJedisClientConfig.builder().connectionTimeoutMillis(this.clientTimeoutInMillis).timeoutMillis(this.clientTimeoutInMillis)
-                    .socketTimeoutMillis(this.clientTimeoutInMillis).password(this.redisPassword).ssl(true).build();        
-            pool = new JedisPool(new HostAndPort(this.redisHost, this.redisPort), config);            
-            defaultSetParams = new SetParams().ex(this.cacheExpiryInSecs);  
+                    .socketTimeoutMillis(this.clientTimeoutInMillis).password(this.redisPassword).ssl(this.ssl).build();
+            pool = new JedisPool(new HostAndPort(this.redisHost, this.redisPort), config);
+            defaultSetParams = new SetParams().ex(this.cacheExpiryInSecs);
             // Pool test
             try(Jedis jedis = pool.getResource()) {
                 if(jedis.isConnected()) {
@@ -81,64 +134,350 @@ public class RedisClient {
             }
         } catch(Exception e) {
             LOG.error("Exception initializing Redis client", e);
-            try {
-                // Lets try to get the host name 
-                InetAddress id = InetAddress.getLocalHost();  
-                slackManager.sendSystemAlert("Unable to start Redis client on " + id.getHostName());
-            } catch(UnknownHostException uhe) {
-                // Lets try to get the IP address
-                try(final DatagramSocket socket = new DatagramSocket()){
-                    socket.connect(InetAddress.getByName("8.8.8.8"), 10002);
-                    String ip = socket.getLocalAddress().getHostAddress();
-                    slackManager.sendSystemAlert("Unable to start Redis client on IP " + ip);
-                  } catch(SocketException | UnknownHostException se) {
-                      slackManager.sendSystemAlert("Unable to start Redis client - Couldn't identify the machine");
-                  }               
-            }
+            sendStartupAlert();
+        }
+        if (!enabled && pool != null) {
+            scheduleReconnect();
+        }
+    }
+
+    @PreDestroy
+    private void destroy() {
+        enabled = false;
+        if (reconnectExecutor != null) {
+            reconnectExecutor.shutdownNow();
+        }
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private void sendStartupAlert() {
+        try {
+            // Lets try to get the host name
+            InetAddress id = InetAddress.getLocalHost();
+            slackManager.sendSystemAlert("Unable to start Redis client on " + id.getHostName());
+        } catch(UnknownHostException uhe) {
+            // Lets try to get the IP address
+            try(final DatagramSocket socket = new DatagramSocket()){
+                socket.connect(InetAddress.getByName("8.8.8.8"), 10002);
+                String ip = socket.getLocalAddress().getHostAddress();
+                slackManager.sendSystemAlert("Unable to start Redis client on IP " + ip);
+              } catch(SocketException | UnknownHostException se) {
+                  slackManager.sendSystemAlert("Unable to start Redis client - Couldn't identify the machine");
+              }
+        }
+    }
+
+    /**
+     * Stops using Redis and keeps trying to connect again in the background
+     */
+    private void connectionLost(JedisConnectionException e) {
+        errors.increment();
+        if (enabled) {
+            LOG.error("Lost the connection to the Redis cache", e);
+            enabled = false;
+            // The idle connections are broken too
+            pool.clear();
+        }
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (reconnecting.compareAndSet(false, true) && !reconnectExecutor.isShutdown()) {
+            reconnectExecutor.schedule(this::reconnect, reconnectIntervalInSecs, TimeUnit.SECONDS);
+        }
+    }
+
+    private void reconnect() {
+        try (Jedis jedis = pool.getResource()) {
+            jedis.ping();
+            removePending(jedis);
+            enabled = true;
+            // Removes that failed while the client was being enabled
+            removePending(jedis);
+            reconnecting.set(false);
+            LOG.info("Reconnected to the Redis cache");
+        } catch (Exception e) {
+            LOG.debug("Redis cache is still unavailable", e);
+            reconnectExecutor.schedule(this::reconnect, reconnectIntervalInSecs, TimeUnit.SECONDS);
+        }
+    }
+
+    private void removePending(Jedis jedis) {
+        if (pendingRemovals.isEmpty()) {
+            return;
+        }
+        String[] keys = pendingRemovals.toArray(new String[0]);
+        jedis.del(keys);
+        for (String key : keys) {
+            pendingRemovals.remove(key);
+        }
+        LOG.info("Removed {} keys that could not be removed while Redis was unavailable", keys.length);
+    }
+
+    /**
+     * Runs the command on a pooled connection, returning null if Redis is
+     * not available
+     */
+    private <T> T execute(Function<Jedis, T> command) {
+        if (!enabled || pool == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try (Jedis jedis = pool.getResource()) {
+            return command.apply(jedis);
+        } catch (JedisConnectionException e) {
+            connectionLost(e);
+            return null;
+        } finally {
+            commands.increment();
+            commandNanos.add(System.nanoTime() - start);
         }
     }
 
     public boolean set(String key, String value) {
         return set(key, value, defaultSetParams);
     }
-    
+
     public boolean set(String key, String value, int cacheExpiryInSecs) {
         SetParams params = new SetParams().ex(cacheExpiryInSecs);
         return set(key, value, params);
     }
 
     private boolean set(String key, String value, SetParams params) {
-        if(enabled && pool != null) {
-            try (Jedis jedis = pool.getResource()) {
-                LOG.debug("Setting Key: {}", key);
-                String result = jedis.set(key, value, params);
-                return "OK".equalsIgnoreCase(result);
-            }
+        putLocal(key, value);
+        String result = execute(jedis -> {
+            LOG.debug("Setting Key: {}", key);
+            return jedis.set(key, value, params);
+        });
+        return "OK".equalsIgnoreCase(result);
+    }
+
+    /**
+     * Sets all the values in a single pipeline
+     */
+    public boolean set(Map<String, String> values) {
+        return set(values, defaultSetParams);
+    }
+
+    public boolean set(Map<String, String> values, int cacheExpiryInSecs) {
+        return set(values, new SetParams().ex(cacheExpiryInSecs));
+    }
+
+    private boolean set(Map<String, String> values, SetParams params) {
+        if (values.isEmpty()) {
+            return true;
         }
-        return false;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            putLocal(entry.getKey(), entry.getValue());
+        }
+        Boolean result = execute(jedis -> {
+            LOG.debug("Setting {} keys", values.size());
+            Pipeline pipeline = jedis.pipelined();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                pipeline.set(entry.getKey(), entry.getValue(), params);
+            }
+            pipeline.sync();
+            return true;
+        });
+        return Boolean.TRUE.equals(result);
     }
-    
+
     public String get(String key) {
-        if(enabled && pool != null) {
-            try (Jedis jedis = pool.getResource()) {
-                LOG.debug("Reading Key: {}" , key);
+        if (enabled && pool != null) {
+            String value = execute(jedis -> {
+                LOG.debug("Reading Key: {}", key);
                 return jedis.get(key);
+            });
+            // The connection could have been lost while reading
+            if (enabled) {
+                countLookup(value);
+                putLocal(key, value);
+                return value;
             }
-        }        
-        return null;
+        }
+        return getLocal(key);
     }
-    
-    public boolean remove(String key) {
+
+    /**
+     * Reads all the keys with a single command, the keys that are not cached
+     * are not part of the result
+     */
+    public Map<String, String> get(Collection<String> keys) {
+        Map<String, String> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        String[] keyArray = keys.toArray(new String[keys.size()]);
         if (enabled && pool != null) {
-            try (Jedis jedis = pool.getResource()) {
-                LOG.debug("Removing Key: {}", key);
-                if (jedis.exists(key)) {
-                    return jedis.del(key) > 0;
-                } else {
-                    return true;
+            List<String> values = execute(jedis -> {
+                LOG.debug("Reading {} keys", keyArray.length);
+                return jedis.mget(keyArray);
+            });
+            if (values != null) {
+                for (int i = 0; i < keyArray.length; i++) {
+                    String value = values.get(i);
+                    countLookup(value);
+                    if (value != null) {
+                        result.put(keyArray[i], value);
+                        putLocal(keyArray[i], value);
+                    }
                 }
+                return result;
+            }
+        }
+        for (String key : keyArray) {
+            String value = getLocal(key);
+            if (value != null) {
+                result.put(key, value);
             }
         }
+        return result;
+    }
+
+    /**
+     * Removes the key, if Redis is not available the key is removed once the
+     * client connects again
+     */
+    public boolean remove(String key) {
+        removeLocal(key);
+        if (pool == null) {
+            return true;
+        }
+        pendingRemovals.add(key);
+        Long removed = execute(jedis -> {
+            LOG.debug("Removing Key: {}", key);
+            return jedis.del(key);
+        });
+        if (removed != null) {
+            pendingRemovals.remove(key);
+        }
+        // A missing key is removed as well
         return true;
     }
+
+    /**
+     * Removes all the keys with a single command
+     */
+    public boolean remove(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return true;
+        }
+        for (String key : keys) {
+            removeLocal(key);
+        }
+        if (pool == null) {
+            return true;
+        }
+        pendingRemovals.addAll(keys);
+        Long removed = execute(jedis -> {
+            LOG.debug("Removing {} keys", keys.size());
+            return jedis.del(keys.toArray(new String[keys.size()]));
+        });
+        if (removed != null) {
+            pendingRemovals.removeAll(keys);
+        }
+        return true;
+    }
+
+    /**
+     * Publishes the message on the channel, returns false if Redis is not
+     * available
+     */
+    public boolean publish(String channel, String message) {
+        Long receivers = execute(jedis -> jedis.publish(channel, message));
+        return receivers != null;
+    }
+
+    /**
+     * Subscribes to the channel, blocking the calling thread until the
+     * subscription is cancelled or the connection is lost
+     */
+    public void subscribe(String channel, JedisPubSub pubSub) {
+        if (enabled && pool != null) {
+            try (Jedis jedis = pool.getResource()) {
+                jedis.subscribe(pubSub, channel);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void countLookup(String value) {
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+    }
+
+    private void putLocal(String key, String value) {
+        if (localCache != null && value != null) {
+            localCache.put(key, value);
+        }
+    }
+
+    private String getLocal(String key) {
+        if (localCache == null) {
+            return null;
+        }
+        String value = localCache.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+        }
+        return value;
+    }
+
+    private void removeLocal(String key) {
+        if (localCache != null) {
+            localCache.invalidate(key);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Reads served by the local cache while Redis was down
+     */
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getCommands() {
+        return commands.sum();
+    }
+
+    public double getAverageLatencyMillis() {
+        long count = commands.sum();
+        return count == 0 ? 0 : commandNanos.sum() / (count * 1000000.0);
+    }
+
+    public void setSsl(boolean ssl) {
+        this.ssl = ssl;
+    }
+
+    public void setReconnectIntervalInSecs(int reconnectIntervalInSecs) {
+        this.reconnectIntervalInSecs = reconnectIntervalInSecs;
+    }
+
+    /**
+     * Must stay 0 on the API nodes, otherwise a token revoked on another node
+     * while Redis is down is still served from the local cache
+     */
+    public void setLocalCacheSize(int localCacheSize) {
+        this.localCacheSize = localCacheSize;
+    }
 }
@@ -0,0 +1,76 @@
+package org.orcid.core.utils.http;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of concurrent requests to a single host, without blocking
+ * the calling thread: requests over the limit are started when one of the
+ * running ones completes.
+ */
+public class HostConcurrencyLimiter {
+
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+
+    private int available;
+
+    public HostConcurrencyLimiter(int maxConcurrent) {
+        this.available = Math.max(1, maxConcurrent);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> started;
+            try {
+                started = request.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+        boolean runNow;
+        synchronized (this) {
+            runNow = available > 0;
+            if (runNow) {
+                available--;
+            } else {
+                waiting.add(start);
+            }
+        }
+        if (runNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of requests waiting for a running one to complete
+     */
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                available++;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -19,6 +20,9 @@ public class HttpRequestUtils {
 
     @Value("${org.orcid.http.timeout:15}")
     private int connectionTimeout;
+
+    // Shared by the async requests, so connections are pooled
+    private volatile HttpClient asyncClient;
     
     public HttpResponse<String> doGet(String url) throws IOException, InterruptedException, URISyntaxException {
         HttpRequest request = HttpRequest.newBuilder(new URI(url)).GET().build();        
@@ -60,4 +64,33 @@ public class HttpRequestUtils {
         
         return response;
     }
+
+    /**
+     * Same as {@link #doPost(String)} without blocking the calling thread. The
+     * requests share a single client, so connections to the same host are
+     * reused.
+     */
+    public CompletableFuture<HttpResponse<Void>> doPostAsync(String url) throws URISyntaxException {
+        Duration timeout = Duration.ofSeconds(connectionTimeout);
+        HttpRequest request = HttpRequest.newBuilder(new URI(url))
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .timeout(timeout)
+                    .build();
+        return getAsyncClient().sendAsync(request, BodyHandlers.discarding());
+    }
+
+    private HttpClient getAsyncClient() {
+        HttpClient client = asyncClient;
+        if (client == null) {
+            synchronized (this) {
+                client = asyncClient;
+                if (client == null) {
+                    client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(connectionTimeout)).build();
+                    asyncClient = client;
+                }
+            }
+        }
+        return client;
+    }
 }
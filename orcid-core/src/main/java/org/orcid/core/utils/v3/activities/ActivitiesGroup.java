@@ -27,6 +27,11 @@ public class ActivitiesGroup {
         activities.add(activity);
     }
 
+    ActivitiesGroup(Set<GroupAble> groupKeys, Set<GroupableActivity> activities) {
+        this.groupKeys = groupKeys;
+        this.activities = activities;
+    }
+
     public Set<GroupAble> getGroupKeys() {
         if (groupKeys == null)
             groupKeys = new HashSet<GroupAble>();
@@ -0,0 +1,194 @@
+package org.orcid.core.utils.v3.activities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.orcid.jaxb.model.v3.release.record.GroupAble;
+import org.orcid.jaxb.model.v3.release.record.GroupableActivity;
+
+/**
+ * Groups activities like {@link ActivitiesGroupGenerator}, but keeps track of
+ * the groups with a disjoint-set (union-find) forest over the activities, so
+ * merging two groups takes almost constant time instead of time proportional
+ * to the size and the number of groups.
+ * 
+ * The resulting groups, their order, keys and activities are the same
+ * {@link ActivitiesGroupGenerator} produces; the {@link ActivitiesGroup}
+ * objects are only built when {@link #getGroups()} is called.
+ */
+public class DisjointSetActivitiesGroupGenerator {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<GroupableActivity> activities = new ArrayList<>();
+
+    private int[] parent = new int[INITIAL_CAPACITY];
+
+    private int[] size = new int[INITIAL_CAPACITY];
+
+    /**
+     * For each root, the position in which the group it represents was
+     * created, so groups keep the order ActivitiesGroupGenerator gives them
+     */
+    private int[] groupOrder = new int[INITIAL_CAPACITY];
+
+    private int groupCount = 0;
+
+    /**
+     * Activity that brought each group key in. Keeps the first instance of
+     * every key, in the order they were found.
+     */
+    private final Map<GroupAble, Integer> keyOwners = new LinkedHashMap<>();
+
+    private List<ActivitiesGroup> groups;
+
+    private Map<Integer, ActivitiesGroup> groupsByRoot;
+
+    public void group(GroupableActivity activity) {
+        addActivity(activity);
+    }
+
+    public List<ActivitiesGroup> getGroups() {
+        if (groups == null) {
+            buildGroups();
+        }
+        return groups;
+    }
+
+    /**
+     * @return the index of the activity, to be used with
+     *         {@link #getGroup(int)}
+     */
+    protected int addActivity(GroupableActivity activity) {
+        int element = newElement(activity);
+        List<GroupAble> activityKeys = getGroupAbleKeys(activity);
+
+        // Like ActivitiesGroupGenerator, the group of the first matching key
+        // (in hash set order) is the one the others are merged into
+        int survivor = -1;
+        for (GroupAble key : new HashSet<>(activityKeys)) {
+            Integer owner = keyOwners.get(key);
+            if (owner != null) {
+                int root = find(owner);
+                survivor = survivor < 0 ? root : union(survivor, root);
+            }
+        }
+
+        for (GroupAble key : activityKeys) {
+            keyOwners.putIfAbsent(key, element);
+        }
+
+        if (survivor < 0) {
+            groupOrder[element] = groupCount++;
+        } else {
+            union(survivor, element);
+        }
+        groups = null;
+        groupsByRoot = null;
+        return element;
+    }
+
+    protected ActivitiesGroup getGroup(int element) {
+        getGroups();
+        return groupsByRoot.get(find(element));
+    }
+
+    private int newElement(GroupableActivity activity) {
+        int element = activities.size();
+        if (element == parent.length) {
+            int capacity = parent.length * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            size = Arrays.copyOf(size, capacity);
+            groupOrder = Arrays.copyOf(groupOrder, capacity);
+        }
+        activities.add(activity);
+        parent[element] = element;
+        size[element] = 1;
+        return element;
+    }
+
+    private List<GroupAble> getGroupAbleKeys(GroupableActivity activity) {
+        List<GroupAble> keys = new ArrayList<>();
+        if (activity != null && activity.getExternalIdentifiers() != null) {
+            for (GroupAble extId : activity.getExternalIdentifiers().getExternalIdentifier()) {
+                // Dont add grouping keys that dont pass the validation
+                if (extId.isGroupAble()) {
+                    keys.add(extId);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private int find(int element) {
+        while (parent[element] != element) {
+            // Path halving
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the group of other into the group of survivor, which keeps its
+     * position in the list of groups
+     * 
+     * @return the root of the merged group
+     */
+    private int union(int survivor, int other) {
+        int survivorRoot = find(survivor);
+        int otherRoot = find(other);
+        if (survivorRoot == otherRoot) {
+            return survivorRoot;
+        }
+        int order = groupOrder[survivorRoot];
+        int root;
+        if (size[survivorRoot] < size[otherRoot]) {
+            parent[survivorRoot] = otherRoot;
+            size[otherRoot] += size[survivorRoot];
+            root = otherRoot;
+        } else {
+            parent[otherRoot] = survivorRoot;
+            size[survivorRoot] += size[otherRoot];
+            root = survivorRoot;
+        }
+        groupOrder[root] = order;
+        return root;
+    }
+
+    private void buildGroups() {
+        Map<Integer, Set<GroupAble>> keysByRoot = new HashMap<>();
+        for (Map.Entry<GroupAble, Integer> entry : keyOwners.entrySet()) {
+            keysByRoot.computeIfAbsent(find(entry.getValue()), k -> new HashSet<>()).add(entry.getKey());
+        }
+
+        Map<Integer, Set<GroupableActivity>> activitiesByRoot = new HashMap<>();
+        for (int i = 0; i < activities.size(); i++) {
+            activitiesByRoot.computeIfAbsent(find(i), k -> new HashSet<>()).add(activities.get(i));
+        }
+
+        ActivitiesGroup[] orderedGroups = new ActivitiesGroup[groupCount];
+        groupsByRoot = new HashMap<>();
+        for (Map.Entry<Integer, Set<GroupableActivity>> entry : activitiesByRoot.entrySet()) {
+            int root = entry.getKey();
+            Set<GroupAble> groupKeys = keysByRoot.getOrDefault(root, new HashSet<>());
+            ActivitiesGroup group = new ActivitiesGroup(groupKeys, entry.getValue());
+            orderedGroups[groupOrder[root]] = group;
+            groupsByRoot.put(root, group);
+        }
+
+        groups = new ArrayList<>(activitiesByRoot.size());
+        for (ActivitiesGroup group : orderedGroups) {
+            if (group != null) {
+                groups.add(group);
+            }
+        }
+    }
+
+}
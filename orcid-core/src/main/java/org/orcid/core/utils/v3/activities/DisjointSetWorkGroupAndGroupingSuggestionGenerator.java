@@ -0,0 +1,91 @@
+package org.orcid.core.utils.v3.activities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.orcid.jaxb.model.v3.release.record.ExternalID;
+import org.orcid.jaxb.model.v3.release.record.GroupableActivity;
+import org.orcid.jaxb.model.v3.release.record.WorkTitle;
+import org.orcid.jaxb.model.v3.release.record.summary.WorkSummary;
+import org.orcid.pojo.WorkSummaryExtended;
+import org.orcid.pojo.grouping.WorkGroupingSuggestion;
+
+/**
+ * Disjoint-set version of {@link WorkGroupAndGroupingSuggestionGenerator}.
+ * Works are mapped to their normalized title when they are grouped, and the
+ * groups sharing a title are only resolved when the suggestions are requested,
+ * so merging groups doesn't need to scan the titles.
+ */
+public class DisjointSetWorkGroupAndGroupingSuggestionGenerator extends DisjointSetActivitiesGroupGenerator {
+
+    private Map<String, List<Integer>> potentialGroupingSuggestions = new HashMap<>();
+
+    @Override
+    public void group(GroupableActivity activity) {
+        if (!(activity instanceof WorkSummary || activity instanceof WorkSummaryExtended)) {
+            throw new IllegalArgumentException("Argument must be of type WorkSummary");
+        }
+
+        WorkSummary workSummary = (WorkSummary) activity;
+        int element = addActivity(activity);
+        if (!workTitleEmpty(workSummary.getTitle())) {
+            String title = transformForTitleComparison(workSummary.getTitle().getTitle().getContent());
+            potentialGroupingSuggestions.computeIfAbsent(title, k -> new ArrayList<>()).add(element);
+        }
+    }
+
+    public List<WorkGroupingSuggestion> getGroupingSuggestions(String orcid) {
+        List<WorkGroupingSuggestion> suggestions = new ArrayList<>();
+        for (String title : potentialGroupingSuggestions.keySet()) {
+            List<Integer> elements = potentialGroupingSuggestions.get(title);
+            if (elements.size() < 2) {
+                continue;
+            }
+            Set<ActivitiesGroup> groups = new LinkedHashSet<>();
+            for (Integer element : elements) {
+                groups.add(getGroup(element));
+            }
+            if (groups.size() > 1) {
+                WorkGroupingSuggestion suggestion = new WorkGroupingSuggestion();
+                suggestion.setOrcid(orcid);
+                List<Long> putCodes = new ArrayList<>();
+
+                boolean groupableExternalIdFound = false;
+                for (ActivitiesGroup group : groups) {
+                    for (GroupableActivity activity : group.getActivities()) {
+                        WorkSummary workSummary = (WorkSummary) activity;
+                        putCodes.add(workSummary.getPutCode());
+                        if (!groupableExternalIdFound && workSummary.getExternalIdentifiers() != null) {
+                            for (ExternalID externalId : workSummary.getExternalIdentifiers().getExternalIdentifier()) {
+                                if (externalId.isGroupAble()) {
+                                    groupableExternalIdFound = true;
+                                    break;
+                                }
+                            }
+                        }
+                    }
+                }
+
+                // without at least one groupable external id present works can't be grouped
+                if (groupableExternalIdFound) {
+                    suggestion.setPutCodes(putCodes);
+                    suggestions.add(suggestion);
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    private String transformForTitleComparison(String titleContent) {
+        return titleContent.toLowerCase().replaceAll("\\s", "");
+    }
+
+    private boolean workTitleEmpty(WorkTitle workTitle) {
+        return workTitle == null || workTitle.getTitle() == null || workTitle.getTitle().getContent() == null || workTitle.getTitle().getContent().isEmpty();
+    }
+
+}
@@ -2,150 +2,164 @@ package org.orcid.core.utils.v3.identifiers;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.List;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import javax.annotation.PostConstruct;
 
 import org.orcid.core.exception.UnexpectedResponseCodeException;
+import org.orcid.core.utils.http.HostConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 @Component
 public class PIDResolverCache {
 
-    //recursively follow up to 4 http->https or https->http redirects
-    public static HttpURLConnection doProtocolRedirect(HttpURLConnection con, int count) throws IOException{
-        Map<String, List<String>> requestProperties = con.getRequestProperties();
-        int code = con.getResponseCode();
-        if ((code == HttpURLConnection.HTTP_SEE_OTHER 
-                || code == HttpURLConnection.HTTP_MOVED_PERM 
-                || code == HttpURLConnection.HTTP_MOVED_TEMP) && count < 3){
-            count ++;
-            //need to manually follow 3xx from one protocol to another.
-            String loc = con.getHeaderField("Location");
-            
-            HttpURLConnection conRedirect = (HttpURLConnection) new URL(loc).openConnection();
-            conRedirect.setRequestMethod(con.getRequestMethod());
-            for (String key : requestProperties.keySet()) {
-                for (String value : requestProperties.get(key)) {
-                    conRedirect.addRequestProperty(key, value);
-                }
-            }
-            conRedirect.setInstanceFollowRedirects(true);
-            return doProtocolRedirect(conRedirect, count);
-        }
-        return con;
-    }
-    
+    @Value("${org.orcid.core.utils.v3.identifiers.PIDResolverCache.maxRequestsPerHost:8}")
+    private int maxRequestsPerHost;
+
+    @Value("${org.orcid.core.utils.v3.identifiers.PIDResolverCache.timeoutSeconds:15}")
+    private int timeoutSeconds;
+
+    // Same limit the HttpClient applies when it follows redirects
+    private static final int MAX_REDIRECTS = 5;
+
+    // Shared clients, so connections to the resolvers are pooled and kept
+    // alive between checks. The first one follows redirects from one protocol
+    // to another as well, it is only used for GET requests: it would turn a
+    // HEAD into a GET after a 303, so the 200 check follows them itself.
+    private HttpClient followRedirectsClient;
+    private HttpClient noRedirectsClient;
+
+    private final ConcurrentMap<String, HostConcurrencyLimiter> hostLimiters = new ConcurrentHashMap<>();
+
     //these caches ensure we only attempt to resolve once if multiple requests to resolve are made.
+    //they hold the pending check as well, so concurrent requests for the same url share it.
+    //negative results are cached too: failures and timeouts complete with false.
     //checks for a 200 at the end of a redirect chain (does not handle cookies!)
-    LoadingCache<String, Boolean> is200 = CacheBuilder.newBuilder().expireAfterWrite(20, TimeUnit.MINUTES).maximumSize(10000).build(
-            new CacheLoader<String, Boolean>() {
-                public Boolean load(String url){
-                    try {
-                        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
-                        con.setRequestMethod("HEAD");
-                        con.setInstanceFollowRedirects(true);
-                        con = doProtocolRedirect(con, 0);
-                        return (con.getResponseCode() == HttpURLConnection.HTTP_OK);            
-                    } catch (IOException e) {
-                        //nothing
-                    }  
-                    return false;
-                }
-              });
-    
+    Cache<String, CompletableFuture<Boolean>> is200 = CacheBuilder.newBuilder().expireAfterWrite(20, TimeUnit.MINUTES).maximumSize(10000).build();
+
     //checks the link resolves directly to a 303
-    LoadingCache<String, Boolean> is303 = CacheBuilder.newBuilder().expireAfterWrite(20, TimeUnit.MINUTES).maximumSize(10000).build(
-            new CacheLoader<String, Boolean>() {
-                public Boolean load(String url){
-                    try {
-                        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
-                        con.setRequestMethod("HEAD");
-                        con.setInstanceFollowRedirects(false);
-                        return (con.getResponseCode() == HttpURLConnection.HTTP_SEE_OTHER);
-                    } catch (IOException e) {
-                        //nope.
-                    }  
-                    return false;
-                }
-            });
-    
+    Cache<String, CompletableFuture<Boolean>> is303 = CacheBuilder.newBuilder().expireAfterWrite(20, TimeUnit.MINUTES).maximumSize(10000).build();
+
     //checks the link resolves directly to metadata via content negotiation.
-    LoadingCache<String, Boolean> isValidDOI = CacheBuilder.newBuilder().expireAfterWrite(20, TimeUnit.MINUTES).maximumSize(10000).build(
-            new CacheLoader<String, Boolean>() {
-                public Boolean load(String url){
-                    try {
-                        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
-                        con.addRequestProperty("Accept", "application/vnd.citationstyles.csl+json");
-                        con.setRequestMethod("HEAD");
-                        con.setInstanceFollowRedirects(false);
-                        return (con.getResponseCode() == HttpURLConnection.HTTP_SEE_OTHER || con.getResponseCode() == HttpURLConnection.HTTP_MOVED_TEMP || con.getResponseCode() == HttpURLConnection.HTTP_MOVED_PERM);
-                    } catch (IOException e) {
-                        //nope.
-                    }  
-                    return false;
-                }
-            });
-    
+    Cache<String, CompletableFuture<Boolean>> isValidDOI = CacheBuilder.newBuilder().expireAfterWrite(20, TimeUnit.MINUTES).maximumSize(10000).build();
+
+    @PostConstruct
+    public void init() {
+        followRedirectsClient = HttpClient.newBuilder().followRedirects(Redirect.ALWAYS).connectTimeout(Duration.ofSeconds(timeoutSeconds)).build();
+        noRedirectsClient = HttpClient.newBuilder().followRedirects(Redirect.NEVER).connectTimeout(Duration.ofSeconds(timeoutSeconds)).build();
+    }
+
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public void setTimeoutSeconds(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
     public boolean isHttp200(String url){
-        try {
-            return is200.get(url);
-        } catch (ExecutionException e) {
-            return false;
-        }
+        return isHttp200Async(url).join();
     }
 
     public boolean isHttp303(String url) {
-        try {
-            return is303.get(url);
-        } catch (ExecutionException e) {
-            return false;
-        }
+        return isHttp303Async(url).join();
     }
     
     public boolean isValidDOI(String url) {
+        return isValidDOIAsync(url).join();
+    }
+
+    public CompletableFuture<Boolean> isHttp200Async(String url) {
+        return check(is200, url, uri -> headFollowingRedirects(uri, MAX_REDIRECTS), code -> code == HttpURLConnection.HTTP_OK);
+    }
+
+    public CompletableFuture<Boolean> isHttp303Async(String url) {
+        return check(is303, url, uri -> head(uri, Map.of()), code -> code == HttpURLConnection.HTTP_SEE_OTHER);
+    }
+
+    public CompletableFuture<Boolean> isValidDOIAsync(String url) {
+        return check(isValidDOI, url, uri -> head(uri, Map.of("Accept", "application/vnd.citationstyles.csl+json")),
+                code -> code == HttpURLConnection.HTTP_SEE_OTHER || code == HttpURLConnection.HTTP_MOVED_TEMP || code == HttpURLConnection.HTTP_MOVED_PERM);
+    }
+
+    private CompletableFuture<Boolean> check(Cache<String, CompletableFuture<Boolean>> cache, String url,
+            Function<URI, CompletableFuture<HttpResponse<Void>>> request, IntPredicate expectedCode) {
         try {
-            return isValidDOI.get(url);
-        } catch (ExecutionException e) {
-            return false;
+            return cache.get(url, () -> request.apply(URI.create(url)).thenApply(response -> expectedCode.test(response.statusCode())).exceptionally(e -> false));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            return CompletableFuture.completedFuture(false);
         }
     }
-    
+
+    /**
+     * Sends HEAD requests along the redirect chain, keeping the HEAD method
+     * after a 303 as well
+     */
+    private CompletableFuture<HttpResponse<Void>> headFollowingRedirects(URI uri, int redirectsLeft) {
+        return head(uri, Map.of()).thenCompose(response -> {
+            Optional<String> location = response.headers().firstValue("Location");
+            if (redirectsLeft > 0 && isRedirect(response.statusCode()) && location.isPresent()) {
+                return headFollowingRedirects(uri.resolve(location.get()), redirectsLeft - 1);
+            }
+            return CompletableFuture.completedFuture(response);
+        });
+    }
+
+    private boolean isRedirect(int code) {
+        return code == HttpURLConnection.HTTP_MOVED_PERM || code == HttpURLConnection.HTTP_MOVED_TEMP || code == HttpURLConnection.HTTP_SEE_OTHER || code == 307
+                || code == 308;
+    }
+
+    private CompletableFuture<HttpResponse<Void>> head(URI uri, Map<String, String> headers) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).method("HEAD", BodyPublishers.noBody()).timeout(Duration.ofSeconds(timeoutSeconds));
+        headers.forEach(builder::header);
+        HttpRequest request = builder.build();
+        HostConcurrencyLimiter limiter = hostLimiters.computeIfAbsent(String.valueOf(request.uri().getHost()), host -> new HostConcurrencyLimiter(maxRequestsPerHost));
+        return limiter.submit(() -> noRedirectsClient.sendAsync(request, BodyHandlers.discarding()));
+    }
+
     public InputStream get(String url, String accept) throws IOException {
-        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
-        con.addRequestProperty("Accept", accept);
-        con.setRequestMethod("GET");
-        con.setInstanceFollowRedirects(true);
-        con = doProtocolRedirect(con, 0);
-        if(con.getResponseCode() == HttpURLConnection.HTTP_OK) {
-            return con.getInputStream();
-        }
-        
-        throw new UnexpectedResponseCodeException(con.getResponseCode());
+        return get(url, Map.of("Accept", accept));
     }
     
     public InputStream get(String url, Map<String, String> headers) throws IOException {
-        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
-        
-        for(Map.Entry<String, String> header : headers.entrySet()) {
-            con.addRequestProperty(header.getKey(), header.getValue());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).GET().timeout(Duration.ofSeconds(timeoutSeconds));
+        headers.forEach(builder::header);
+        HttpResponse<InputStream> response;
+        try {
+            response = followRedirectsClient.send(builder.build(), BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
         }
-        
-        con.setRequestMethod("GET");
-        con.setInstanceFollowRedirects(true);
-        con = doProtocolRedirect(con, 0);
-        if(con.getResponseCode() == HttpURLConnection.HTTP_OK) {
-            return con.getInputStream();
+        if (response.statusCode() == HttpURLConnection.HTTP_OK) {
+            return response.body();
         }
-        
-        throw new UnexpectedResponseCodeException(con.getResponseCode());
+        response.body().close();
+        throw new UnexpectedResponseCodeException(response.statusCode());
     }
-        
+
 }
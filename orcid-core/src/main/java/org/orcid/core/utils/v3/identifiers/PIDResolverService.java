@@ -7,11 +7,15 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.orcid.core.manager.IdentifierTypeManager;
+import org.orcid.core.utils.FutureUtils;
 import org.orcid.core.utils.v3.identifiers.resolvers.LinkResolver;
 import org.orcid.core.utils.v3.identifiers.resolvers.MetadataResolver;
 import org.orcid.jaxb.model.common.Relationship;
@@ -87,17 +91,62 @@ public class PIDResolverService {
      *         attempted (i.e. there is a resolver that can handle the type)
      */
     public PIDResolutionResult resolve(String apiTypeName, String value) {
-        PIDResolutionResult result = PIDResolutionResult.NOT_ATTEMPTED;
-        if (apiTypeName == null || value == null)
-            return result;
+        // Throw what the resolver threw, as the serial resolution did
+        return FutureUtils.join(resolveAsync(apiTypeName, value));
+    }
+
+    /**
+     * Same as {@link #resolve(String, String)} without blocking the calling
+     * thread. All the resolvers that can handle the type are started at once,
+     * they only check the PID, but the result is picked in the resolvers
+     * order, so it is the same one the serial resolution would return.
+     * 
+     * @param type
+     *            the api type name
+     * @param value
+     *            the url value
+     * @return the resolution result
+     */
+    public CompletableFuture<PIDResolutionResult> resolveAsync(String apiTypeName, String value) {
+        if (apiTypeName == null || value == null || !linkResolverMap.containsKey(apiTypeName))
+            return CompletableFuture.completedFuture(PIDResolutionResult.NOT_ATTEMPTED);
 
+        List<CompletableFuture<PIDResolutionResult>> attempts = new ArrayList<CompletableFuture<PIDResolutionResult>>();
         for (LinkResolver r : linkResolverMap.get(apiTypeName)) {
-            result = r.resolve(apiTypeName, value);
-            if (result.isResolved()) {
-                return result;
+            try {
+                attempts.add(r.resolveAsync(apiTypeName, value));
+            } catch (RuntimeException e) {
+                // Only reported if the resolvers before this one did not
+                // resolve the value
+                attempts.add(CompletableFuture.failedFuture(e));
             }
         }
-        return result;
+        return firstResolved(attempts, 0, PIDResolutionResult.NOT_ATTEMPTED);
+    }
+
+    /**
+     * Resolves a batch of PIDs concurrently, for bulk imports. A PID that
+     * fails to resolve, because its value is invalid for example, is reported
+     * as not attempted instead of failing the whole batch.
+     * 
+     * @param pids
+     *            pairs of api type name and value
+     * @return the resolution results, in the same order as the PIDs
+     */
+    public CompletableFuture<List<PIDResolutionResult>> resolveAll(List<Pair<String, String>> pids) {
+        List<CompletableFuture<PIDResolutionResult>> results = new ArrayList<CompletableFuture<PIDResolutionResult>>(pids.size());
+        for (Pair<String, String> pid : pids) {
+            results.add(resolveAsync(pid.getLeft(), pid.getRight()).exceptionally(e -> PIDResolutionResult.NOT_ATTEMPTED));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[results.size()]))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<PIDResolutionResult> firstResolved(List<CompletableFuture<PIDResolutionResult>> attempts, int index, PIDResolutionResult last) {
+        if (index == attempts.size()) {
+            return CompletableFuture.completedFuture(last);
+        }
+        return attempts.get(index).thenCompose(result -> result.isResolved() ? CompletableFuture.completedFuture(result) : firstResolved(attempts, index + 1, result));
     }
 
     /**
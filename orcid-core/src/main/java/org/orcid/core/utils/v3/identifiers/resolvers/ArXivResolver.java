@@ -10,6 +10,7 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Resource;
 import javax.ws.rs.core.MediaType;
@@ -86,6 +87,11 @@ public class ArXivResolver implements LinkResolver, MetadataResolver {
         return new PIDResolutionResult(false, false, true, null);// unreachable?
     }
 
+    @Override
+    public CompletableFuture<PIDResolutionResult> resolveAsync(String apiTypeName, String value) {
+        return resolveNormalisedURLAsync(normalizationService, apiTypeName, value, cache::isHttp200Async);
+    }
+
     @Override
     public WorkExtended resolveMetadata(String apiTypeName, String value) {
         PIDResolutionResult rr = this.resolve(apiTypeName, value);
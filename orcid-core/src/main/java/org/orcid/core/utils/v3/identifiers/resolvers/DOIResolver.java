@@ -10,6 +10,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Resource;
 
@@ -96,6 +97,11 @@ public class DOIResolver implements LinkResolver, MetadataResolver {
         return new PIDResolutionResult(false, false, true, null);// unreachable?
     }
 
+    @Override
+    public CompletableFuture<PIDResolutionResult> resolveAsync(String apiTypeName, String value) {
+        return resolveNormalisedURLAsync(normalizationService, apiTypeName, value, cache::isValidDOIAsync);
+    }
+
     /**
      * Uses content negotiation to get work metadata from a DOI see
      * https://crosscite.org/docs.html#sec-4 Uses
@@ -2,6 +2,7 @@ package org.orcid.core.utils.v3.identifiers.resolvers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -60,5 +61,10 @@ public class Http200Resolver implements LinkResolver {
         
         return new PIDResolutionResult(false,false,true,null);//unreachable?        
     }
+
+    @Override
+    public CompletableFuture<PIDResolutionResult> resolveAsync(String apiTypeName, String value) {
+        return resolveNormalisedURLAsync(normalizationService, apiTypeName, value, cache::isHttp200Async);
+    }
     
 }
@@ -1,6 +1,7 @@
 package org.orcid.core.utils.v3.identifiers.resolvers;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Resource;
 
@@ -55,4 +56,13 @@ public class ISBNOCLCResolver implements LinkResolver {
         }
         return new PIDResolutionResult(false,false,true,null);//unreachable?
     }
+
+    @Override
+    public CompletableFuture<PIDResolutionResult> resolveAsync(String apiTypeName, String value) {
+        if (disableIsbnResolution) {
+            // Only the format is checked, no request is made
+            return LinkResolver.super.resolveAsync(apiTypeName, value);
+        }
+        return resolveNormalisedURLAsync(normalizationService, apiTypeName, value, cache::isHttp303Async);
+    }
 }
@@ -1,7 +1,11 @@
 package org.orcid.core.utils.v3.identifiers.resolvers;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+import org.apache.commons.lang3.StringUtils;
+import org.orcid.core.utils.v3.identifiers.PIDNormalizationService;
 import org.orcid.pojo.PIDResolutionResult;
 
 public interface LinkResolver {
@@ -24,4 +28,41 @@ public interface LinkResolver {
      */
     public PIDResolutionResult resolve(String apiTypeName, String value);
 
+    /**
+     * Same as {@link #resolve(String, String)}, for resolvers that can check
+     * the value without blocking the calling thread. By default the value is
+     * resolved in the calling thread.
+     * 
+     * @param apiTypeName
+     * @param value
+     * @return
+     */
+    public default CompletableFuture<PIDResolutionResult> resolveAsync(String apiTypeName, String value) {
+        return CompletableFuture.completedFuture(resolve(apiTypeName, value));
+    }
+
+    /**
+     * Resolves the value by checking the URL it normalises to, for the
+     * resolvers that only need that URL to respond as expected.
+     * 
+     * @param normalizationService
+     * @param apiTypeName
+     * @param value
+     * @param urlCheck
+     *            completes with true if the normalised URL resolved
+     * @return
+     */
+    public default CompletableFuture<PIDResolutionResult> resolveNormalisedURLAsync(PIDNormalizationService normalizationService, String apiTypeName, String value,
+            Function<String, CompletableFuture<Boolean>> urlCheck) {
+        if (StringUtils.isEmpty(value) || StringUtils.isEmpty(normalizationService.normalise(apiTypeName, value)))
+            return CompletableFuture.completedFuture(PIDResolutionResult.NOT_ATTEMPTED);
+
+        String normUrl = normalizationService.generateNormalisedURL(apiTypeName, value);
+        if (!StringUtils.isEmpty(normUrl)) {
+            return urlCheck.apply(normUrl).thenApply(resolved -> resolved ? new PIDResolutionResult(true, true, true, normUrl) : new PIDResolutionResult(false, true, true, null));
+        }
+
+        return CompletableFuture.completedFuture(new PIDResolutionResult(false, false, true, null));
+    }
+
 }
@@ -13,6 +13,7 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Resource;
 import javax.ws.rs.core.MediaType;
@@ -100,6 +101,11 @@ public class PubMedResolver implements LinkResolver, MetadataResolver {
         return new PIDResolutionResult(false, false, true, null);// unreachable?
     }
 
+    @Override
+    public CompletableFuture<PIDResolutionResult> resolveAsync(String apiTypeName, String value) {
+        return resolveNormalisedURLAsync(normalizationService, apiTypeName, value, cache::isHttp200Async);
+    }
+
     @Override
     public WorkExtended resolveMetadata(String apiTypeName, String value) {
         PIDResolutionResult rr = this.resolve(apiTypeName, value);
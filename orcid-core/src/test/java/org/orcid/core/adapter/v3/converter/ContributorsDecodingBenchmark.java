@@ -0,0 +1,88 @@
+package org.orcid.core.adapter.v3.converter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.core.adapter.v3.converter.ContributorsRolesAndSequencesConverter.TopContributors;
+import org.orcid.core.contributors.roles.credit.CreditRole;
+import org.orcid.core.contributors.roles.works.WorkContributorRoleConverter;
+import org.orcid.jaxb.model.v3.release.common.ContributorAttributes;
+import org.orcid.jaxb.model.v3.release.common.ContributorOrcid;
+import org.orcid.jaxb.model.v3.release.common.CreditName;
+import org.orcid.pojo.ContributorsRolesAndSequences;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares decoding the whole top contributors JSON of large consortium
+ * papers, with a new ObjectMapper per work, with the streaming decoder that
+ * stops after the contributors shown in the UI.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.orcid.core.adapter.v3.converter.ContributorsDecodingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContributorsDecodingBenchmark {
+
+    @Param({ "10", "1000", "5000" })
+    private int contributors;
+
+    private ContributorsRolesAndSequencesConverter converter;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        converter = new ContributorsRolesAndSequencesConverter(new WorkContributorRoleConverter());
+        List<ContributorsRolesAndSequences> list = new ArrayList<>();
+        for (int i = 0; i < contributors; i++) {
+            ContributorsRolesAndSequences crs = new ContributorsRolesAndSequences();
+            crs.setContributorOrcid(new ContributorOrcid(String.format("0000-0000-%04d-%04d", i / 10000, i % 10000)));
+            crs.setCreditName(new CreditName("Contributor number " + i));
+            ContributorAttributes ca = new ContributorAttributes();
+            ca.setContributorRole(CreditRole.WRITING_REVIEW_EDITING.value());
+            crs.getRolesAndSequences().add(ca);
+            list.add(crs);
+        }
+        json = converter.convertTo(list, null);
+    }
+
+    @Benchmark
+    public List<ContributorsRolesAndSequences> decodeAll() throws Exception {
+        return new ObjectMapper().readValue(json, new TypeReference<List<ContributorsRolesAndSequences>>() {
+        });
+    }
+
+    @Benchmark
+    public TopContributors decodeTop51() {
+        return converter.getTopContributors(json, 51);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(ContributorsDecodingBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.orcid.core.adapter.v3.converter.ContributorsRolesAndSequencesConverter.TopContributors;
 import org.orcid.core.contributors.roles.ContributorRoleConverter;
 import org.orcid.core.contributors.roles.credit.CreditRole;
 import org.orcid.jaxb.model.v3.release.common.ContributorAttributes;
@@ -17,6 +18,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class ContributorsRolesAndSequencesConverterTest {
 
@@ -58,6 +60,40 @@ public class ContributorsRolesAndSequencesConverterTest {
         assertEquals(contributors, contributorsRolesAndSequencesConverter.getContributorsRolesAndSequencesList(contributorsJsonWithoutRoles));
     }
 
+    @Test
+    public void getTopContributors() {
+        String json = contributorsJson(5);
+        TopContributors topContributors = contributorsRolesAndSequencesConverter.getTopContributors(json, 3);
+        assertEquals(5, topContributors.getTotal());
+        assertEquals(3, topContributors.getContributors().size());
+        assertEquals("0000-0000-0000-0000", topContributors.getContributors().get(0).getContributorOrcid().getPath());
+        assertEquals("Contributor 2", topContributors.getContributors().get(2).getCreditName().getContent());
+
+        topContributors = contributorsRolesAndSequencesConverter.getTopContributors(json, 10);
+        assertEquals(5, topContributors.getTotal());
+        assertEquals(5, topContributors.getContributors().size());
+    }
+
+    @Test
+    public void getTopContributorsFromEmptyOrInvalidJson() {
+        assertEquals(0, contributorsRolesAndSequencesConverter.getTopContributors(null, 3).getTotal());
+        assertEquals(0, contributorsRolesAndSequencesConverter.getTopContributors("[]", 3).getTotal());
+        TopContributors topContributors = contributorsRolesAndSequencesConverter.getTopContributors(contributorsJson(5).substring(0, 100), 3);
+        assertEquals(0, topContributors.getTotal());
+        assertTrue(topContributors.getContributors().isEmpty());
+    }
+
+    private String contributorsJson(int contributors) {
+        List<ContributorsRolesAndSequences> list = new ArrayList<>();
+        for (int i = 0; i < contributors; i++) {
+            ContributorsRolesAndSequences crs = new ContributorsRolesAndSequences();
+            crs.setContributorOrcid(new ContributorOrcid("0000-0000-0000-000" + i));
+            crs.setCreditName(new CreditName("Contributor " + i));
+            list.add(crs);
+        }
+        return contributorsRolesAndSequencesConverter.convertTo(list, null);
+    }
+
     private List<ContributorsRolesAndSequences> getContributorsRolesAndSequences() {
         ContributorsRolesAndSequences crs = new ContributorsRolesAndSequences();
         crs.setContributorOrcid(new ContributorOrcid("0000-0000-0000-000X"));
@@ -0,0 +1,196 @@
+package org.orcid.core.cache.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orcid.core.cache.OrcidString;
+import org.orcid.core.cache.Retriever;
+import org.orcid.persistence.dao.ProfileLastModifiedDao;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+public class CoalescingGenericCacheManagerImplTest {
+
+    private static final String ORCID = "0000-0000-0000-0001";
+
+    private CacheManager cacheManager;
+
+    private ProfileLastModifiedDao profileLastModifiedDao;
+
+    private ProfileLastModifiedNearCache lastModifiedNearCache;
+
+    private CoalescingGenericCacheManagerImpl<OrcidString, String> genericCacheManager;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Before
+    public void before() {
+        cacheManager = CacheManagerBuilder.newCacheManagerBuilder().build(true);
+        Cache lastModifiedCache = cacheManager.createCache("last-modified",
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(100)).build());
+        Cache valuesCache = cacheManager.createCache("values",
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(100)).build());
+
+        profileLastModifiedDao = mock(ProfileLastModifiedDao.class);
+        when(profileLastModifiedDao.retrieveLastModifiedDate(ORCID)).thenReturn(new Date(1000L));
+
+        lastModifiedNearCache = new ProfileLastModifiedNearCache();
+        lastModifiedNearCache.setCache(lastModifiedCache);
+        lastModifiedNearCache.setProfileLastModifiedDao(profileLastModifiedDao);
+
+        genericCacheManager = new CoalescingGenericCacheManagerImpl<>();
+        genericCacheManager.setCache(valuesCache);
+        genericCacheManager.setLastModifiedNearCache(lastModifiedNearCache);
+    }
+
+    @After
+    public void after() {
+        cacheManager.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void hitsDoNotQueryTheDbTest() {
+        Retriever<OrcidString, String> retriever = mock(Retriever.class);
+        when(retriever.retrieve(any())).thenReturn("value");
+        genericCacheManager.setRetriever(retriever);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("value", genericCacheManager.retrieve(new OrcidString(ORCID)));
+        }
+
+        verify(profileLastModifiedDao, times(1)).retrieveLastModifiedDate(ORCID);
+        verify(retriever, times(1)).retrieve(any());
+        assertEquals(4, genericCacheManager.getHitCount());
+        assertEquals(1, genericCacheManager.getMissCount());
+        assertEquals(1, genericCacheManager.getLoadCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void invalidationReloadsTest() {
+        Retriever<OrcidString, String> retriever = mock(Retriever.class);
+        when(retriever.retrieve(any())).thenReturn("old", "new");
+        genericCacheManager.setRetriever(retriever);
+
+        assertEquals("old", genericCacheManager.retrieve(new OrcidString(ORCID)));
+        assertEquals("old", genericCacheManager.retrieve(new OrcidString(ORCID)));
+
+        when(profileLastModifiedDao.retrieveLastModifiedDate(ORCID)).thenReturn(new Date(2000L));
+        lastModifiedNearCache.invalidate(ORCID);
+
+        assertEquals("new", genericCacheManager.retrieve(new OrcidString(ORCID)));
+        verify(profileLastModifiedDao, times(2)).retrieveLastModifiedDate(ORCID);
+        verify(retriever, times(2)).retrieve(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void invalidationIsRepeatedAfterCommitTest() {
+        Retriever<OrcidString, String> retriever = mock(Retriever.class);
+        when(retriever.retrieve(any())).thenReturn("old", "new");
+        genericCacheManager.setRetriever(retriever);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lastModifiedNearCache.invalidate(ORCID);
+            // A concurrent reader caches the date before the update is
+            // committed
+            assertEquals("old", genericCacheManager.retrieve(new OrcidString(ORCID)));
+
+            when(profileLastModifiedDao.retrieveLastModifiedDate(ORCID)).thenReturn(new Date(2000L));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("new", genericCacheManager.retrieve(new OrcidString(ORCID)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void unknownRecordTest() {
+        Retriever<OrcidString, String> retriever = mock(Retriever.class);
+        genericCacheManager.setRetriever(retriever);
+        assertNull(genericCacheManager.retrieve(new OrcidString("0000-0000-0000-0002")));
+        verify(retriever, never()).retrieve(any());
+    }
+
+    @Test
+    public void concurrentMissesAreCoalescedTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        genericCacheManager.setRetriever(key -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "value";
+        });
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> genericCacheManager.retrieve(new OrcidString(ORCID))));
+            loading.await(10, TimeUnit.SECONDS);
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> genericCacheManager.retrieve(new OrcidString(ORCID))));
+            }
+            // Give the waiting threads a chance to join the in flight load
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, genericCacheManager.getLoadCount());
+    }
+
+    @Test
+    public void failuresArePropagatedToWaitersTest() {
+        genericCacheManager.setRetriever(key -> {
+            throw new IllegalArgumentException("Invalid orcid " + key.getOrcid());
+        });
+        try {
+            genericCacheManager.retrieve(new OrcidString(ORCID));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid orcid " + ORCID, e.getMessage());
+        }
+        assertEquals(1, genericCacheManager.getLoadFailureCount());
+    }
+
+}
@@ -3,23 +3,29 @@ package org.orcid.core.cli.logs;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
-
-import javax.persistence.NoResultException;
+import java.util.List;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.orcid.core.utils.JsonUtils;
 import org.orcid.persistence.dao.ClientDetailsDao;
 import org.orcid.persistence.dao.OrcidOauth2TokenDetailDao;
-import org.orcid.persistence.jpa.entities.OrcidOauth2TokenDetail;
 import org.springframework.test.util.ReflectionTestUtils;
 
 public class ApiAccessLogsAnalyserTest {
@@ -46,8 +52,8 @@ public class ApiAccessLogsAnalyserTest {
     @Mock
     private ClientDetailsDao clientDetailsDao;
 
-    @Mock
-    private LogReader logReader;
+    @Rule
+    public TemporaryFolder logDir = new TemporaryFolder();
 
     private ByteArrayOutputStream output;
     
@@ -66,41 +72,39 @@ public class ApiAccessLogsAnalyserTest {
 
         ReflectionTestUtils.setField(analyser, "tokenDao", tokenDao);
         ReflectionTestUtils.setField(analyser, "results", results);
+
+        // The lines of the first day are split across two log dirs
+        File dir1 = logDir.newFolder("dir-1");
+        File dir2 = logDir.newFolder("dir-2");
+        writeLog(dir1, "2017-10-17",
+                "127.0.0.1 - - [17/Oct/2017:00:00:01 +0000] \"GET /orcid-api-web/v2.1/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_1 + "\" \"-\" \"-\" \"-\"",
+                "127.0.0.1 - - [17/Oct/2017:00:00:02 +0000] \"GET /orcid-api-web/v2.1/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_1 + "\" \"-\" \"-\" \"-\"",
+                "127.0.0.1 - - [17/Oct/2017:00:00:03 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 401 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + BAD_TOKEN + "\" \"-\" \"-\" \"-\"");
+        writeLog(dir2, "2017-10-17",
+                "127.0.0.1 - - [17/Oct/2017:00:00:04 +0000] \"GET /orcid-api-web/v3.0_rc1/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_1 + "\" \"-\" \"-\" \"-\"",
+                "127.0.0.1 - - [17/Oct/2017:00:00:05 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_1 + "\" \"-\" \"-\" \"-\"",
+                "127.0.0.1 - - [17/Oct/2017:00:00:06 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_2 + "\" \"-\" \"-\" \"-\"");
+        writeLog(dir1, "2017-10-18",
+                "127.0.0.1 - - [17/Oct/2017:00:00:07 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_2 + "\" \"-\" \"-\" \"-\"",
+                "127.0.0.1 - - [17/Oct/2017:00:00:08 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_2 + "\" \"-\" \"-\" \"-\"",
+                "???d??? 127.0.0.1 - - 10.183.248.6 Thu 10-17-2017 00:00:08.238 UTC \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer " + TOKEN_2 + "\" \"-\" \"-\" \"-\"");
+        writeLog(dir2, "2017-10-18");
+        LogReader logReader = new LogReader();
+        logReader.init(Arrays.asList(dir1, dir2), LocalDate.of(2017, 10, 17), LocalDate.of(2017, 10, 18));
         ReflectionTestUtils.setField(analyser, "logReader", logReader);
-        ReflectionTestUtils.setField(analyser, "logDirs", Arrays.asList(new File("Not a real file")));
-
-        Mockito.when(logReader.getNextLine())
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:01 +0000] \"GET /orcid-api-web/v2.1/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_1 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:02 +0000] \"GET /orcid-api-web/v2.1/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_1 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:03 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 401 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + BAD_TOKEN + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:04 +0000] \"GET /orcid-api-web/v3.0_rc1/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_1 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:05 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_1 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:06 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_2 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:07 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_2 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "127.0.0.1 - - [17/Oct/2017:00:00:08 +0000] \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_2 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(
-                        "???d??? 127.0.0.1 - - 10.183.248.6 Thu 10-17-2017 00:00:08.238 UTC \"GET /orcid-api-web/v2.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"bearer "
-                                + TOKEN_2 + "\" \"-\" \"-\" \"-\"\n")
-                .thenReturn(null);
-        Mockito.when(tokenDao.findByTokenValue(Mockito.eq(TOKEN_1))).thenReturn(getOrcidOauth2TokenDetailClientA());
-        Mockito.when(tokenDao.findByTokenValue(Mockito.eq(TOKEN_2))).thenReturn(getOrcidOauth2TokenDetailClientB());
-        Mockito.when(tokenDao.findByTokenValue(Mockito.eq(BAD_TOKEN))).thenThrow(new NoResultException());
+        ReflectionTestUtils.setField(analyser, "numberOfThreads", 2);
+
+        Mockito.when(tokenDao.findClientDetailsIdsByTokenValues(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> tokens = invocation.getArgument(0);
+            List<Object[]> rows = new ArrayList<>();
+            if (tokens.contains(TOKEN_1)) {
+                rows.add(new Object[] { TOKEN_1, CLIENT_DETAILS_1 });
+            }
+            if (tokens.contains(TOKEN_2)) {
+                rows.add(new Object[] { TOKEN_2, CLIENT_DETAILS_2 });
+            }
+            return rows;
+        });
         Mockito.when(clientDetailsDao.getMemberName(Mockito.eq(CLIENT_DETAILS_1))).thenReturn(CLIENT_DETAILS_NAME_1);
         Mockito.when(clientDetailsDao.getMemberName(Mockito.eq(CLIENT_DETAILS_2))).thenReturn(CLIENT_DETAILS_NAME_2);
     }
@@ -134,20 +138,48 @@ public class ApiAccessLogsAnalyserTest {
         assertEquals(2, summary.getNumV2Clients());
         assertEquals(1, summary.getNumV3Clients());
         assertEquals(1, summary.getNumClientsUsingMultipleVersions());
+
+        // All the tokens are looked up in a single query
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(tokenDao, Mockito.times(1)).findClientDetailsIdsByTokenValues(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        assertTrue(captor.getValue().containsAll(Arrays.asList(TOKEN_1, TOKEN_2, BAD_TOKEN)));
+        Mockito.verify(clientDetailsDao, Mockito.times(1)).getMemberName(CLIENT_DETAILS_1);
     }
 
-    private OrcidOauth2TokenDetail getOrcidOauth2TokenDetailClientB() {
-        OrcidOauth2TokenDetail token = new OrcidOauth2TokenDetail();
-        token.setClientDetailsId(CLIENT_DETAILS_2);
-        token.setTokenValue(TOKEN_2);
-        return token;
+    @Test
+    public void testTokensAreLookedUpInBatches() throws IOException {
+        File dir = logDir.newFolder("batches");
+        String[] lines = new String[2500];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "127.0.0.1 - - [17/Oct/2017:00:00:01 +0000] \"GET /orcid-api-web/v3.0/0000-0001-8120-7596/record HTTP/1.0\" 200 3695 0.046 \"-\" \"-\" \"-\" - \"application/vnd.orcid+xml;charset=UTF-8\" \"-\" \"10.183.248.6\" \"http-nio-8080-exec-85\" \"Bearer "
+                    + String.format("00000000-0000-0000-0000-%012d", i) + "\" \"-\" \"-\" \"-\"";
+        }
+        writeLog(dir, "2017-10-19", lines);
+        LogReader logReader = new LogReader();
+        logReader.init(Arrays.asList(dir), LocalDate.of(2017, 10, 19), LocalDate.of(2017, 10, 19));
+        ReflectionTestUtils.setField(analyser, "logReader", logReader);
+        Mockito.when(tokenDao.findClientDetailsIdsByTokenValues(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> tokens = invocation.getArgument(0);
+            List<Object[]> rows = new ArrayList<>();
+            for (String token : tokens) {
+                rows.add(new Object[] { token, CLIENT_DETAILS_1 });
+            }
+            return rows;
+        });
+
+        analyser.analyse();
+
+        Mockito.verify(tokenDao, Mockito.times(3)).findClientDetailsIdsByTokenValues(Mockito.anyList());
+        AnalysisResults output = JsonUtils.readObjectFromJsonString(this.output.toString(), AnalysisResults.class);
+        assertEquals(2500, output.getHitsAnalysed());
+        assertEquals(1, output.getClientResults().size());
+        assertEquals(2500, output.getClientResults().get(0).getTotalHits());
+        assertEquals(Arrays.asList("v3.0"), output.getClientResults().get(0).getVersionsHit());
     }
 
-    private OrcidOauth2TokenDetail getOrcidOauth2TokenDetailClientA() {
-        OrcidOauth2TokenDetail token = new OrcidOauth2TokenDetail();
-        token.setClientDetailsId(CLIENT_DETAILS_1);
-        token.setTokenValue(TOKEN_1);
-        return token;
+    private void writeLog(File dir, String date, String... lines) throws IOException {
+        Files.write(new File(dir, "api_access_log." + date + ".txt").toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
     }
 
 }
@@ -4,11 +4,24 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 
@@ -20,13 +33,16 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.orcid.core.BaseTest;
+import org.orcid.core.messaging.JmsMessageSender;
 import org.orcid.jaxb.model.message.Iso3166Country;
 import org.orcid.persistence.dao.OrgDisambiguatedDao;
 import org.orcid.persistence.dao.OrgDisambiguatedExternalIdentifierDao;
+import org.orcid.persistence.jpa.entities.IndexingStatus;
 import org.orcid.persistence.jpa.entities.OrgDisambiguatedEntity;
 import org.orcid.persistence.jpa.entities.OrgDisambiguatedExternalIdentifierEntity;
 import org.orcid.pojo.OrgDisambiguated;
 import org.orcid.test.TargetProxyHelper;
+import org.orcid.utils.solr.entities.OrgDisambiguatedSolrDocument;
 
 public class OrgDisambiguatedManagerTest extends BaseTest {
 
@@ -48,6 +64,12 @@ public class OrgDisambiguatedManagerTest extends BaseTest {
     @Mock
     private OrgDisambiguatedExternalIdentifierDao mockOrgDisambiguatedExternalIdentifierDao;
 
+    @Resource(name = "jmsMessageSender")
+    private JmsMessageSender messaging;
+
+    @Mock
+    private JmsMessageSender mockMessaging;
+
     @Before
     public void before() {
         MockitoAnnotations.initMocks(this);
@@ -63,6 +85,7 @@ public class OrgDisambiguatedManagerTest extends BaseTest {
     public void after() {
         TargetProxyHelper.injectIntoProxy(orgDisambiguatedManager, "orgDisambiguatedDaoReadOnly", orgDisambiguatedDaoReadOnly);
         TargetProxyHelper.injectIntoProxy(orgDisambiguatedManager, "orgDisambiguatedDao", orgDisambiguatedDao);
+        TargetProxyHelper.injectIntoProxy(orgDisambiguatedManager, "messaging", messaging);
     }
 
     @Test
@@ -233,6 +256,52 @@ public class OrgDisambiguatedManagerTest extends BaseTest {
         assertEquals("1234567812345678", updated.getIdentifier());
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testProcessOrgsForIndexing() {
+        TargetProxyHelper.injectIntoProxy(orgDisambiguatedManager, "messaging", mockMessaging);
+        when(mockOrgDisambiguatedDaoReadOnly.findOrgsPendingIndexing(isNull(), anyInt())).thenReturn(Arrays.asList(getOrgToIndex(1L), getOrgToIndex(2L)));
+        when(mockOrgDisambiguatedDaoReadOnly.findOrgsPendingIndexing(eq(2L), anyInt())).thenReturn(Arrays.asList(getOrgToIndex(3L)));
+        when(mockOrgDisambiguatedDaoReadOnly.findOrgsPendingIndexing(eq(3L), anyInt())).thenReturn(Collections.emptyList());
+        when(mockMessaging.sendOrgs(anyList(), anyString())).thenReturn(true);
+
+        orgDisambiguatedManager.processOrgsForIndexing();
+
+        ArgumentCaptor<List<OrgDisambiguatedSolrDocument>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockMessaging, times(2)).sendOrgs(captor.capture(), anyString());
+        List<String> sent = captor.getAllValues().stream().flatMap(List::stream).map(OrgDisambiguatedSolrDocument::getOrgDisambiguatedId).collect(Collectors.toList());
+        assertEquals(Arrays.asList("1", "2", "3"), sent);
+        assertEquals("name", captor.getAllValues().get(0).get(0).getOrgDisambiguatedName());
+        verify(mockOrgDisambiguatedDao).updateIndexingStatus(Arrays.asList(1L, 2L), IndexingStatus.DONE);
+        verify(mockOrgDisambiguatedDao).updateIndexingStatus(Arrays.asList(3L), IndexingStatus.DONE);
+        verify(mockOrgDisambiguatedDao, times(2)).updateIndexingStatus(Collections.emptyList(), IndexingStatus.FAILED);
+        verify(mockOrgDisambiguatedDao, never()).updateIndexingStatus(anyLong(), any());
+    }
+
+    @Test
+    public void testProcessOrgsForIndexingMarksChunkAsFailedIfNotSent() {
+        TargetProxyHelper.injectIntoProxy(orgDisambiguatedManager, "messaging", mockMessaging);
+        when(mockOrgDisambiguatedDaoReadOnly.findOrgsPendingIndexing(isNull(), anyInt())).thenReturn(Arrays.asList(getOrgToIndex(1L), getOrgToIndex(2L)));
+        when(mockOrgDisambiguatedDaoReadOnly.findOrgsPendingIndexing(eq(2L), anyInt())).thenReturn(Collections.emptyList());
+        when(mockMessaging.sendOrgs(anyList(), anyString())).thenReturn(false);
+
+        orgDisambiguatedManager.processOrgsForIndexing();
+
+        // Failed orgs are not fetched again in the same run
+        verify(mockOrgDisambiguatedDaoReadOnly, times(2)).findOrgsPendingIndexing(any(), anyInt());
+        verify(mockOrgDisambiguatedDao).updateIndexingStatus(Collections.emptyList(), IndexingStatus.DONE);
+        ArgumentCaptor<List<Long>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockOrgDisambiguatedDao).updateIndexingStatus(captor.capture(), eq(IndexingStatus.FAILED));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), new HashSet<>(captor.getValue()));
+    }
+
+    private OrgDisambiguatedEntity getOrgToIndex(Long id) {
+        OrgDisambiguatedEntity org = getOrgDisambiguatedEntity(false);
+        org.setId(id);
+        org.setSourceType("WDB");
+        return org;
+    }
+
     private void assertOrgValues(OrgDisambiguated org) {
         assertNotNull(org);
         assertEquals("city", org.getCity());
@@ -3,11 +3,14 @@ package org.orcid.core.manager;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Map;
 
 import javax.annotation.Resource;
 
@@ -224,4 +227,36 @@ public class SourceNameCacheManagerTest extends BaseTest {
         verify(mock_clientDetailsDao, times(1)).existsAndIsNotPublicClient(client);
         verify(mock_clientDetailsDao, times(1)).find(client);
     } 
+
+    @Test
+    public void testRetrieveBatch() {
+        when(mock_clientDetailsDao.getNonPublicClientNames(Mockito.anyCollection())).thenReturn(Arrays.<Object[]> asList(new Object[] { OLD_FORMAT_CLIENT_ID, "Am a CLIENT!!!!" }));
+        when(mock_recordNameDao.getRecordNames(Mockito.anyList())).thenReturn(Arrays.asList(recordName(USER_PUBLIC_NAME, Visibility.PUBLIC), recordName(USER_PRIVATE_NAME, Visibility.PRIVATE)));
+
+        Map<String, String> names = sourceNameCacheManager.retrieve(Arrays.asList(OLD_FORMAT_CLIENT_ID, USER_PUBLIC_NAME, USER_PRIVATE_NAME, INVALID_USER, USER_PUBLIC_NAME));
+        assertEquals(4, names.size());
+        assertEquals("Am a CLIENT!!!!", names.get(OLD_FORMAT_CLIENT_ID));
+        assertEquals("Credit name for " + USER_PUBLIC_NAME, names.get(USER_PUBLIC_NAME));
+        assertNull(names.get(USER_PRIVATE_NAME));
+        assertTrue(names.containsKey(INVALID_USER));
+        assertNull(names.get(INVALID_USER));
+        verify(mock_clientDetailsDao, times(1)).getNonPublicClientNames(Mockito.anyCollection());
+        verify(mock_recordNameDao, times(1)).getRecordNames(Mockito.anyList());
+
+        // Client names are cached, record names are kept for the request
+        names = sourceNameCacheManager.retrieve(Arrays.asList(OLD_FORMAT_CLIENT_ID, USER_PUBLIC_NAME));
+        assertEquals("Am a CLIENT!!!!", names.get(OLD_FORMAT_CLIENT_ID));
+        assertEquals("Credit name for " + USER_PUBLIC_NAME, names.get(USER_PUBLIC_NAME));
+        verify(mock_clientDetailsDao, times(1)).getNonPublicClientNames(Mockito.anyCollection());
+        verify(mock_recordNameDao, times(1)).getRecordNames(Mockito.anyList());
+        sourceNameCacheManager.remove(OLD_FORMAT_CLIENT_ID);
+    }
+
+    private RecordNameEntity recordName(String orcid, Visibility visibility) {
+        RecordNameEntity recordName = new RecordNameEntity();
+        recordName.setCreditName("Credit name for " + orcid);
+        recordName.setOrcid(orcid);
+        recordName.setVisibility(visibility.name());
+        return recordName;
+    }
 }
@@ -0,0 +1,164 @@
+package org.orcid.core.manager.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orcid.core.manager.impl.WebhookDispatcher.Outcome;
+import org.orcid.core.utils.http.HttpRequestUtils;
+import org.orcid.persistence.dao.WebhookDao;
+import org.orcid.persistence.jpa.entities.WebhookEntity;
+import org.orcid.persistence.jpa.entities.keys.WebhookEntityPk;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class WebhookDispatcherTest {
+
+    private HttpRequestUtils httpRequestUtils;
+
+    private WebhookDao webhookDao;
+
+    private WebhookDispatcher dispatcher;
+
+    private List<CompletableFuture<HttpResponse<Void>>> responses;
+
+    @Before
+    public void before() throws Exception {
+        httpRequestUtils = mock(HttpRequestUtils.class);
+        webhookDao = mock(WebhookDao.class);
+        dispatcher = new WebhookDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "httpRequestUtils", httpRequestUtils);
+        ReflectionTestUtils.setField(dispatcher, "webhookDao", webhookDao);
+        dispatcher.setRequestsPerSecondPerClient(0);
+        dispatcher.setStatusBatchSize(100);
+        responses = new CopyOnWriteArrayList<>();
+        when(httpRequestUtils.doPostAsync(anyString())).thenAnswer(invocation -> {
+            CompletableFuture<HttpResponse<Void>> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+    }
+
+    @After
+    public void after() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void limitsConcurrentRequestsPerHostTest() throws Exception {
+        dispatcher.setMaxRequestsPerHost(2);
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            outcomes.add(dispatcher.dispatch(webhook("client-" + i, "http://slow.orcid.org/" + i)));
+        }
+        // Another host is not blocked by the slow one
+        outcomes.add(dispatcher.dispatch(webhook("client-3", "http://fast.orcid.org")));
+        verify(httpRequestUtils, times(3)).doPostAsync(anyString());
+        verify(httpRequestUtils, never()).doPostAsync(eq("http://slow.orcid.org/2"));
+
+        responses.get(0).complete(response(200));
+        verify(httpRequestUtils, times(1)).doPostAsync(eq("http://slow.orcid.org/2"));
+        assertEquals(Outcome.SENT, outcomes.get(0).get());
+        assertFalse(outcomes.get(2).isDone());
+    }
+
+    @Test
+    public void queuesClientsOverTheirPendingLimitTest() throws Exception {
+        dispatcher.setMaxPendingPerClient(2);
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            outcomes.add(dispatcher.dispatch(webhook("client", "http://qa-1.orcid.org/" + i)));
+        }
+        verify(httpRequestUtils, times(2)).doPostAsync(anyString());
+        // Other clients are not affected
+        CompletableFuture<Outcome> other = dispatcher.dispatch(webhook("other", "http://qa-2.orcid.org/1"));
+        verify(httpRequestUtils, times(3)).doPostAsync(anyString());
+        responses.get(2).complete(response(200));
+        assertEquals(Outcome.SENT, other.get());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])).isDone() && System.currentTimeMillis() < deadline) {
+            assertTrue(responses.stream().filter(r -> !r.isDone()).count() <= 2);
+            responses.stream().filter(r -> !r.isDone()).findFirst().ifPresent(r -> r.complete(response(200)));
+            Thread.sleep(10);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Outcome.SENT, outcomes.get(i).get(1, TimeUnit.SECONDS));
+            verify(httpRequestUtils).doPostAsync(eq("http://qa-1.orcid.org/" + i));
+        }
+    }
+
+    @Test
+    public void cancelQueuedTest() throws Exception {
+        dispatcher.setMaxPendingPerClient(1);
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            outcomes.add(dispatcher.dispatch(webhook("client", "http://qa-1.orcid.org/" + i)));
+        }
+        assertEquals(2, dispatcher.cancelQueued());
+        assertTrue(outcomes.get(1).isCancelled());
+        assertTrue(outcomes.get(2).isCancelled());
+
+        // The callback in progress finishes and nothing else is sent
+        responses.get(0).complete(response(200));
+        assertEquals(Outcome.SENT, outcomes.get(0).get(1, TimeUnit.SECONDS));
+        verify(httpRequestUtils, times(1)).doPostAsync(anyString());
+        assertEquals(0, dispatcher.cancelQueued());
+
+        // The client can send again
+        CompletableFuture<Outcome> next = dispatcher.dispatch(webhook("client", "http://qa-1.orcid.org/3"));
+        verify(httpRequestUtils, times(2)).doPostAsync(anyString());
+        responses.get(1).complete(response(200));
+        assertEquals(Outcome.SENT, next.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void recordsOutcomesInBatchesTest() throws Exception {
+        dispatcher.setStatusBatchSize(3);
+        dispatcher.dispatch(webhook("client", "http://qa-1.orcid.org/1"));
+        dispatcher.dispatch(webhook("client", "http://qa-1.orcid.org/2"));
+        dispatcher.dispatch(webhook("client", "http://qa-1.orcid.org/3"));
+        responses.get(0).complete(response(200));
+        responses.get(1).complete(response(404));
+        verify(webhookDao, never()).markAsSent(anyList());
+        verify(webhookDao, never()).markAsFailed(anyList());
+
+        responses.get(2).completeExceptionally(new RuntimeException("Error"));
+        verify(webhookDao, times(1)).markAsSent(eq(List.of(new WebhookEntityPk("0000-0000-0000-0001", "http://qa-1.orcid.org/1"))));
+        verify(webhookDao, times(1)).markAsFailed(
+                eq(List.of(new WebhookEntityPk("0000-0000-0000-0001", "http://qa-1.orcid.org/2"), new WebhookEntityPk("0000-0000-0000-0001", "http://qa-1.orcid.org/3"))));
+    }
+
+    private WebhookEntity webhook(String clientId, String uri) {
+        WebhookEntity webhook = new WebhookEntity();
+        webhook.setClientDetailsId(clientId);
+        webhook.setProfile("0000-0000-0000-0001");
+        webhook.setUri(uri);
+        return webhook;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<Void> response(int statusCode) {
+        HttpResponse<Void> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        return response;
+    }
+
+}
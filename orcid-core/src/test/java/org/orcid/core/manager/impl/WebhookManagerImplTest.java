@@ -12,6 +12,7 @@ import java.net.http.HttpResponse;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Resource;
 
@@ -25,6 +26,7 @@ import org.orcid.core.utils.http.HttpRequestUtils;
 import org.orcid.persistence.dao.WebhookDao;
 import org.orcid.persistence.jpa.entities.ClientDetailsEntity;
 import org.orcid.persistence.jpa.entities.WebhookEntity;
+import org.orcid.persistence.jpa.entities.keys.WebhookEntityPk;
 import org.orcid.test.TargetProxyHelper;
 
 public class WebhookManagerImplTest extends BaseTest {
@@ -32,6 +34,9 @@ public class WebhookManagerImplTest extends BaseTest {
     @Resource
     private WebhookManager webhookManager;
     
+    @Resource
+    private WebhookDispatcher webhookDispatcher;
+    
     @Resource
     private WebhookDao webhookDao;
     
@@ -42,10 +47,10 @@ public class WebhookManagerImplTest extends BaseTest {
     private HttpRequestUtils httpRequestUtilsMock;
     
     @Mock 
-    HttpResponse<String> mockResponseOk;
+    HttpResponse<Void> mockResponseOk;
     
     @Mock 
-    HttpResponse<String> mockResponseNotFound;
+    HttpResponse<Void> mockResponseNotFound;
     
     private static final List<String> DATA_FILES = Arrays.asList("/data/SourceClientDetailsEntityData.xml",
             "/data/ProfileEntityData.xml", "/data/WorksEntityData.xml", "/data/ClientDetailsEntityData.xml",
@@ -68,16 +73,16 @@ public class WebhookManagerImplTest extends BaseTest {
         clientDetails.setGroupProfileId(orcid);
         clientDetails.setId("123456789");
         
-        TargetProxyHelper.injectIntoProxy(webhookManager, "httpRequestUtils", httpRequestUtilsMock);
-        TargetProxyHelper.injectIntoProxy(webhookManager, "webhookDao", webhookDaoMock);
+        TargetProxyHelper.injectIntoProxy(webhookDispatcher, "httpRequestUtils", httpRequestUtilsMock);
+        TargetProxyHelper.injectIntoProxy(webhookDispatcher, "webhookDao", webhookDaoMock);
         
         when(mockResponseOk.statusCode()).thenReturn(200);
         when(mockResponseNotFound.statusCode()).thenReturn(404);
         
-        when(httpRequestUtilsMock.doPost(anyString())).thenThrow(new HttpConnectTimeoutException("Error"));
-        when(httpRequestUtilsMock.doPost(eq("http://qa-1.orcid.org"))).thenReturn(mockResponseOk);
-        when(httpRequestUtilsMock.doPost(eq("http://unexisting.orcid.com"))).thenReturn(mockResponseNotFound);   
-        when(httpRequestUtilsMock.doPost(eq("http://nowhere.com/orcid/4444-4444-4444-4443"))).thenReturn(mockResponseOk);        
+        when(httpRequestUtilsMock.doPostAsync(anyString())).thenReturn(CompletableFuture.failedFuture(new HttpConnectTimeoutException("Error")));
+        when(httpRequestUtilsMock.doPostAsync(eq("http://qa-1.orcid.org"))).thenReturn(CompletableFuture.completedFuture(mockResponseOk));
+        when(httpRequestUtilsMock.doPostAsync(eq("http://unexisting.orcid.com"))).thenReturn(CompletableFuture.completedFuture(mockResponseNotFound));   
+        when(httpRequestUtilsMock.doPostAsync(eq("http://nowhere.com/orcid/4444-4444-4444-4443"))).thenReturn(CompletableFuture.completedFuture(mockResponseOk));        
     }
     
     @Test
@@ -89,7 +94,7 @@ public class WebhookManagerImplTest extends BaseTest {
         for(int i = 0; i < 4; i++) {
             webhookManager.processWebhook(webhook);
         }
-        verify(webhookDaoMock, times(4)).markAsSent(eq(orcid), eq("http://qa-1.orcid.org"));
+        verify(webhookDaoMock, times(4)).markAsSent(eq(List.of(new WebhookEntityPk(orcid, "http://qa-1.orcid.org"))));
     }
 
     @Test
@@ -101,7 +106,7 @@ public class WebhookManagerImplTest extends BaseTest {
         for (int i = 0; i < 4; i++) {
             webhookManager.processWebhook(webhook);
         }
-        verify(webhookDaoMock, times(4)).markAsFailed(eq(orcid), eq("http://unexisting.orcid.com"));
+        verify(webhookDaoMock, times(4)).markAsFailed(eq(List.of(new WebhookEntityPk(orcid, "http://unexisting.orcid.com"))));
     }
 
     @Test
@@ -111,12 +116,12 @@ public class WebhookManagerImplTest extends BaseTest {
         webhook.setUri("InvalidUrl");
         webhook.setProfile(orcid);
         webhookManager.processWebhook(webhook);
-        verify(webhookDaoMock, times(1)).markAsFailed(orcid, "InvalidUrl");
+        verify(webhookDaoMock, times(1)).markAsFailed(List.of(new WebhookEntityPk(orcid, "InvalidUrl")));
     }
     
     @Test
     public void testProcessWebhooks() {
-        TargetProxyHelper.injectIntoProxy(webhookManager, "webhookDao", webhookDao);
+        TargetProxyHelper.injectIntoProxy(webhookDispatcher, "webhookDao", webhookDao);
         
         Date now = new Date();
         List<WebhookEntity> webhooks = webhookDao.findWebhooksReadyToProcess(now, 5, 10);
@@ -125,7 +130,7 @@ public class WebhookManagerImplTest extends BaseTest {
         webhooks = webhookDao.findWebhooksReadyToProcess(now, 5, 10);
         assertEquals(0, webhooks.size());
         
-        TargetProxyHelper.injectIntoProxy(webhookManager, "webhookDao", webhookDaoMock);        
+        TargetProxyHelper.injectIntoProxy(webhookDispatcher, "webhookDao", webhookDaoMock);        
     }
     
 }
@@ -6,6 +6,8 @@ import static org.junit.Assert.assertNotNull;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Resource;
 
@@ -22,6 +24,8 @@ import org.orcid.core.manager.ClientDetailsEntityCacheManager;
 import org.orcid.core.manager.ClientDetailsManager;
 import org.orcid.core.manager.SourceNameCacheManager;
 import org.orcid.core.manager.v3.read_only.RecordNameManagerReadOnly;
+import org.orcid.core.manager.v3.read_only.impl.ActivitiesSummaryManagerReadOnlyImpl;
+import org.orcid.core.utils.ReadOnlyFanOutExecutor;
 import org.orcid.jaxb.model.v3.release.record.summary.ActivitiesSummary;
 import org.orcid.persistence.dao.RecordNameDao;
 import org.orcid.persistence.jpa.entities.ClientDetailsEntity;
@@ -29,6 +33,7 @@ import org.orcid.test.DBUnitTest;
 import org.orcid.test.OrcidJUnit4ClassRunner;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @RunWith(OrcidJUnit4ClassRunner.class)
 @ContextConfiguration(locations = { "classpath:test-orcid-core-context.xml" })
@@ -43,6 +48,12 @@ public class ActivitiesSummaryManagerTest extends DBUnitTest {
     @Resource(name = "activitiesSummaryManagerV3")
     private ActivitiesSummaryManager activitiesSummaryManager;
     
+    @Resource(name = "activitiesSummaryManagerReadOnlyV3")
+    private ActivitiesSummaryManagerReadOnlyImpl activitiesSummaryManagerReadOnly;
+    
+    @Resource(name = "transactionManagerReadOnly")
+    private PlatformTransactionManager transactionManagerReadOnly;
+    
     @Resource
     private ClientDetailsEntityCacheManager clientDetailsEntityCacheManager;
     
@@ -146,6 +157,26 @@ public class ActivitiesSummaryManagerTest extends DBUnitTest {
         assertEquals(5, summary.getWorks().getWorkGroup().size());
     }
     
+    @Test
+    public void testGetActivitiesSummaryInParallel() {
+        ActivitiesSummary serialSummary = activitiesSummaryManagerReadOnly.getActivitiesSummary(ORCID, false);
+        ActivitiesSummary serialPublicSummary = activitiesSummaryManagerReadOnly.getPublicActivitiesSummary(ORCID, true);
+        
+        ReadOnlyFanOutExecutor previousFanOutExecutor = (ReadOnlyFanOutExecutor) ReflectionTestUtils.getField(activitiesSummaryManagerReadOnly, "fanOutExecutor");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ReadOnlyFanOutExecutor fanOutExecutor = new ReadOnlyFanOutExecutor();
+        fanOutExecutor.setExecutor(executor);
+        fanOutExecutor.setTransactionManager(transactionManagerReadOnly);
+        activitiesSummaryManagerReadOnly.setFanOutExecutor(fanOutExecutor);
+        try {
+            assertEquals(serialSummary, activitiesSummaryManagerReadOnly.getActivitiesSummary(ORCID, false));
+            assertEquals(serialPublicSummary, activitiesSummaryManagerReadOnly.getPublicActivitiesSummary(ORCID, true));
+        } finally {
+            activitiesSummaryManagerReadOnly.setFanOutExecutor(previousFanOutExecutor);
+            executor.shutdownNow();
+        }
+    }
+    
     @Test
     public void testGetPublicActivitiesSummary() {
         ActivitiesSummary summary = activitiesSummaryManager.getPublicActivitiesSummary(ORCID, false);
@@ -363,6 +363,36 @@ public class WorkManagerTest extends BaseTest {
         workManager.removeWorks(orcid, Arrays.asList(putCode1, putCode2, putCode2, putCode4));
     }
     
+    @Test
+    public void testCreateDupWorkDoesntLoadExistingWorks() {
+        String orcid = "0000-0000-0000-0003";
+        Work work = new Work();
+        work.setWorkTitle(new WorkTitle());
+        work.getWorkTitle().setTitle(new Title("Work # 1"));
+        ExternalIDs extIds = new ExternalIDs();
+        ExternalID extId = new ExternalID();
+        extId.setRelationship(Relationship.SELF);
+        extId.setType("isbn");
+        extId.setValue("isbn-dup-check");
+        extIds.getExternalIdentifier().add(extId);
+        work.setWorkExternalIdentifiers(extIds);
+        work.setWorkType(WorkType.BOOK);
+        Long putCode = workManager.createWork(orcid, work, true).getPutCode();
+
+        WorkEntityCacheManager cacheManagerMock = Mockito.mock(WorkEntityCacheManager.class);
+        ReflectionTestUtils.setField(workManager, "workEntityCacheManager", cacheManagerMock);
+        work.setPutCode(null);
+        try {
+            workManager.createWork(orcid, work, true);
+            fail();
+        } catch (OrcidDuplicatedActivityException e) {
+            assertEquals(String.valueOf(putCode), e.getParams().get("putCode"));
+        } finally {
+            workManager.removeWorks(orcid, Arrays.asList(putCode));
+        }
+        Mockito.verifyNoInteractions(cacheManagerMock);
+    }
+
     @Test
     public void testCreateWorksWithBulk_OneSelfOneVersionOf_NoDupError() {
         String orcid = "0000-0000-0000-0003";
@@ -507,12 +537,10 @@ public class WorkManagerTest extends BaseTest {
         work.setExternalIdentifiersJson("{\"workExternalIdentifier\":[{\"relationship\":\"SELF\", \"workExternalIdentifierType\":\"ISBN\",\"workExternalIdentifierId\":{\"content\":\"1234\"}}]}");
         work.setClientSourceId(CLIENT_1_ID);        
         
-        WorkEntityCacheManager cacheManagerMock = Mockito.mock(WorkEntityCacheManager.class);
-        // no work where user is source
-        List<MinimizedWorkEntity> works = new ArrayList<>();
-        works.add(work);
-        Mockito.when(cacheManagerMock.retrieveMinimizedWorks(Mockito.anyString(), Mockito.anyLong())).thenReturn(works);
-        ReflectionTestUtils.setField(workManager, "workEntityCacheManager", cacheManagerMock);
+        // Only the external ids of the works added by the same source are read
+        List<Object[]> works = new ArrayList<>();
+        works.add(new Object[] { work.getId(), work.getExternalIdentifiersJson() });
+        Mockito.when(mockDao.getExternalIdentifiersBySource(orcid, null, CLIENT_1_ID, null)).thenReturn(works);
 
         WorkBulk bulk = new WorkBulk();
         // Work # 1
@@ -558,12 +586,10 @@ public class WorkManagerTest extends BaseTest {
         work.setExternalIdentifiersJson("{\"workExternalIdentifier\":[{\"relationship\":\"PART_OF\", \"workExternalIdentifierType\":\"ISBN\",\"workExternalIdentifierId\":{\"content\":\"1234\"}}]}");
         work.setClientSourceId(CLIENT_1_ID);        
         
-        WorkEntityCacheManager cacheManagerMock = Mockito.mock(WorkEntityCacheManager.class);
-        // no work where user is source
-        List<MinimizedWorkEntity> works = new ArrayList<>();
-        works.add(work);
-        Mockito.when(cacheManagerMock.retrieveMinimizedWorks(Mockito.anyString(), Mockito.anyLong())).thenReturn(works);
-        ReflectionTestUtils.setField(workManager, "workEntityCacheManager", cacheManagerMock);
+        // Only the external ids of the works added by the same source are read
+        List<Object[]> works = new ArrayList<>();
+        works.add(new Object[] { work.getId(), work.getExternalIdentifiersJson() });
+        Mockito.when(mockDao.getExternalIdentifiersBySource(orcid, null, CLIENT_1_ID, null)).thenReturn(works);
 
         WorkBulk bulk = new WorkBulk();
         // Work # 1
@@ -604,12 +630,10 @@ public class WorkManagerTest extends BaseTest {
         work.setExternalIdentifiersJson("{\"workExternalIdentifier\":[{\"relationship\":\"SELF\", \"workExternalIdentifierType\":\"ISBN\",\"workExternalIdentifierId\":{\"content\":\"1234\"}}]}");
         work.setClientSourceId(CLIENT_1_ID);        
         
-        WorkEntityCacheManager cacheManagerMock = Mockito.mock(WorkEntityCacheManager.class);
-        // no work where user is source
-        List<MinimizedWorkEntity> works = new ArrayList<>();
-        works.add(work);
-        Mockito.when(cacheManagerMock.retrieveMinimizedWorks(Mockito.anyString(), Mockito.anyLong())).thenReturn(works);
-        ReflectionTestUtils.setField(workManager, "workEntityCacheManager", cacheManagerMock);
+        // Only the external ids of the works added by the same source are read
+        List<Object[]> works = new ArrayList<>();
+        works.add(new Object[] { work.getId(), work.getExternalIdentifiersJson() });
+        Mockito.when(mockDao.getExternalIdentifiersBySource(orcid, null, CLIENT_1_ID, null)).thenReturn(works);
 
         WorkBulk bulk = new WorkBulk();
         // Work # 1
@@ -2,6 +2,7 @@ package org.orcid.core.manager.v3.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -127,6 +128,22 @@ public class OrcidSearchManagerImplTest extends BaseTest {
         assertEquals("three@three.com", result3.getEmails()[0]);
     }
 
+    @Test
+    public void testFindOrcidIdsWithACursorMark() {
+        OrcidSolrResults results = multipleResultsForQuery();
+        results.setNextCursorMark("cursor-2");
+        when(mockOrcidSolrProfileClient.findByDocumentCriteria(any())).thenReturn(results);
+        List<String> nextCursorMarks = new ArrayList<>();
+        Search search = orcidSearchManager.findOrcidIds(new HashMap<>(), nextCursorMarks::add);
+        assertEquals(2, search.getResults().size());
+        assertEquals(Arrays.asList("cursor-2"), nextCursorMarks);
+
+        when(mockOrcidSolrProfileClient.findByDocumentCriteria(any())).thenReturn(multipleResultsForQuery());
+        nextCursorMarks.clear();
+        orcidSearchManager.findOrcidIds(new HashMap<>(), nextCursorMarks::add);
+        assertTrue(nextCursorMarks.isEmpty());
+    }
+
     @Test
     public void testFindOrcidIdsNoResults() {
         when(mockOrcidSolrProfileClient.findByDocumentCriteria(any())).thenReturn(new OrcidSolrResults());
@@ -0,0 +1,93 @@
+package org.orcid.core.oauth.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.orcid.core.oauth.OrcidOAuth2Authentication;
+import org.springframework.security.oauth2.provider.AuthorizationRequest;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+public class AccessTokenNearCacheTest {
+
+    private InMemoryTokenInvalidationChannel channel;
+
+    private AccessTokenNearCache node1;
+
+    private AccessTokenNearCache node2;
+
+    @Before
+    public void before() {
+        channel = new InMemoryTokenInvalidationChannel();
+        node1 = newCache(channel);
+        node2 = newCache(channel);
+    }
+
+    @Test
+    public void getReturnsCopyOfCachedAuthentication() {
+        OAuth2Authentication authentication = authentication("token-1");
+        node1.put("token-1", authentication, System.currentTimeMillis() + 60000);
+
+        OAuth2Authentication first = node1.get("token-1");
+        OAuth2Authentication second = node1.get("token-1");
+        assertNotNull(first);
+        assertTrue(first instanceof OrcidOAuth2Authentication);
+        assertEquals("token-1", ((OrcidOAuth2Authentication) first).getActiveToken());
+        assertEquals("client-id", first.getOAuth2Request().getClientId());
+        assertNotSame(authentication, first);
+        assertNotSame(first, second);
+        assertNull(node1.get("token-2"));
+    }
+
+    @Test
+    public void expiredTokensAreNotReturned() {
+        node1.put("token-1", authentication("token-1"), System.currentTimeMillis() - 1);
+        assertNull(node1.get("token-1"));
+        node1.put("token-2", authentication("token-2"), null);
+        assertNotNull(node1.get("token-2"));
+    }
+
+    @Test
+    public void invalidateRemovesTokenFromEveryNode() {
+        node1.put("token-1", authentication("token-1"), System.currentTimeMillis() + 60000);
+        node2.put("token-1", authentication("token-1"), System.currentTimeMillis() + 60000);
+        node2.put("token-2", authentication("token-2"), System.currentTimeMillis() + 60000);
+
+        node1.invalidate("token-1");
+
+        assertNull(node1.get("token-1"));
+        assertNull(node2.get("token-1"));
+        assertNotNull(node2.get("token-2"));
+    }
+
+    @Test
+    public void disabledCacheKeepsNothing() {
+        AccessTokenNearCache cache = new AccessTokenNearCache();
+        cache.setEnabled(false);
+        cache.setTokenInvalidationChannel(channel);
+        cache.init();
+        cache.put("token-1", authentication("token-1"), System.currentTimeMillis() + 60000);
+        assertNull(cache.get("token-1"));
+    }
+
+    private AccessTokenNearCache newCache(TokenInvalidationChannel channel) {
+        AccessTokenNearCache cache = new AccessTokenNearCache();
+        cache.setTokenInvalidationChannel(channel);
+        cache.init();
+        return cache;
+    }
+
+    private OAuth2Authentication authentication(String tokenValue) {
+        AuthorizationRequest request = new AuthorizationRequest("client-id", new HashSet<>(Arrays.asList("/read-limited")));
+        request.setApproved(true);
+        return new OrcidOAuth2Authentication(request, null, tokenValue);
+    }
+
+}
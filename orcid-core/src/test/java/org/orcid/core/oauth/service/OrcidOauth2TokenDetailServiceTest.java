@@ -15,6 +15,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -27,6 +28,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.orcid.core.common.manager.EmailFrequencyManager;
 import org.orcid.core.constants.RevokeReason;
@@ -250,10 +252,9 @@ public class OrcidOauth2TokenDetailServiceTest extends DBUnitTest {
         // Disable tokens with authCode and CLIENT_ID_1
         orcidOauth2TokenDetailService.disableAccessTokenByCodeAndClient(authCode, CLIENT_ID_1, RevokeReason.AUTH_CODE_REUSED);
         
-        verify(redisClientMock, times(1)).remove("token-1");
-        verify(redisClientMock, times(1)).remove("token-2");
-        verify(redisClientMock, times(1)).remove("token-3");
-        verify(redisClientMock, times(1)).remove("token-4");
+        // All the tokens are removed from the cache with a single command
+        verify(redisClientMock, times(1)).remove(Mockito.<Collection<String>> argThat(
+                tokens -> tokens.size() == 4 && tokens.containsAll(Arrays.asList("token-1", "token-2", "token-3", "token-4"))));
         
         // Tokens 1, 2, 3 and 4 should be revoked
         OrcidOauth2TokenDetail t1 = orcidOauth2TokenDetailService.findIgnoringDisabledByTokenValue("token-1");
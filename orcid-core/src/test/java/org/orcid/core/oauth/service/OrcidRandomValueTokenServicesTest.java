@@ -418,6 +418,27 @@ public class OrcidRandomValueTokenServicesTest extends DBUnitTest {
         }               
     }    
     
+    @Test
+    public void revokedTokenIsRemovedFromNearCacheTest() {
+        MockHttpServletRequest mockHttpServletRequest = new MockHttpServletRequest();
+        RequestAttributes attrs = new ServletRequestAttributes(mockHttpServletRequest);
+        RequestContextHolder.setRequestAttributes(attrs);
+        mockHttpServletRequest.setMethod(RequestMethod.GET.name());
+
+        String tokenValue = "near-cache-token-" + Math.random();
+        OrcidOauth2TokenDetail token = buildToken(tokenValue, "/read-limited");
+        token.setTokenExpiration(oneHoursTime());
+        orcidOauthTokenDetailService.createNew(token);
+
+        OAuth2Authentication first = tokenServices.loadAuthentication(tokenValue);
+        OAuth2Authentication second = tokenServices.loadAuthentication(tokenValue);
+        assertEquals(first.getOAuth2Request(), second.getOAuth2Request());
+        assertEquals("4444-4444-4444-4442", second.getName());
+
+        orcidOauthTokenDetailService.revokeAccessToken(tokenValue);
+        catchInvalidTokenExceptionOnLoadAuthentication(tokenValue, "Invalid access token: " + tokenValue);
+    }
+
     private void catchInvalidTokenExceptionOnLoadAuthentication(String invalidTokenValue, String expectedMessage) {
         try {
             tokenServices.loadAuthentication(invalidTokenValue);
@@ -0,0 +1,133 @@
+package org.orcid.core.solr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class CSVSolrClientTest {
+
+    private HttpServer server;
+
+    private List<String> queries = new ArrayList<>();
+
+    private CSVSolrClient client;
+
+    @Before
+    public void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/profile/select", exchange -> {
+            queries.add(exchange.getRequestURI().getQuery());
+            if (exchange.getRequestURI().getQuery().contains("q=empty")) {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+            if (exchange.getRequestURI().getQuery().contains("q=broken")) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/plain;charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write("orcid,given-names\n".getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < 1000; i++) {
+                    body.write(("0000-0000-0000-" + String.format("%04d", i) + ",Jösé\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        });
+        server.start();
+        client = new CSVSolrClient("http://localhost:" + server.getAddress().getPort() + "/profile");
+    }
+
+    @After
+    public void after() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void findCSVByDocumentCriteriaTest() throws Exception {
+        String csv = findCSV(params());
+        assertTrue(csv.startsWith("orcid,given-names\n0000-0000-0000-0000,Jösé\n"));
+        assertEquals(1001, csv.split("\n").length);
+        assertTrue(queries.get(0).contains("wt=csv"));
+        assertTrue(queries.get(0).contains("q=family-name:Smith"));
+        assertTrue(queries.get(0).contains("fl=orcid,given-names,"));
+    }
+
+    @Test
+    public void connectionsAreReusedTest() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            assertTrue(findCSV(params()).endsWith("0000-0000-0000-0999,Jösé\n"));
+        }
+        assertEquals(50, queries.size());
+    }
+
+    @Test
+    public void findCSVWithACursorMarkTest() throws Exception {
+        Map<String, List<String>> params = params();
+        params.put("start", Arrays.asList("5000"));
+        params.put("cursorMark", Arrays.asList("*"));
+        findCSV(params);
+        assertTrue(queries.get(0).contains("cursorMark=*"));
+        assertTrue(queries.get(0), queries.get(0).contains("sort=score+desc,orcid+asc"));
+        assertFalse(queries.get(0).contains("start="));
+    }
+
+    @Test
+    public void noContentTest() throws Exception {
+        Map<String, List<String>> params = params();
+        params.put("q", Arrays.asList("empty"));
+        assertEquals("", findCSV(params));
+    }
+
+    @Test(expected = IOException.class)
+    public void errorStatusIsNotCopiedTest() throws Exception {
+        Map<String, List<String>> params = params();
+        params.put("q", Arrays.asList("broken"));
+        findCSV(params);
+    }
+
+    @Test
+    public void searchRunsWhenTheOutputIsWrittenTest() throws Exception {
+        StreamingOutput output = client.findCSVByDocumentCriteria(params());
+        assertTrue(queries.isEmpty());
+        output.write(new ByteArrayOutputStream());
+        assertEquals(1, queries.size());
+    }
+
+    private String findCSV(Map<String, List<String>> params) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        client.findCSVByDocumentCriteria(params).write(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private Map<String, List<String>> params() {
+        Map<String, List<String>> params = new HashMap<>();
+        params.put("q", Arrays.asList("family-name:Smith"));
+        params.put("fl", Arrays.asList("orcid,given-names"));
+        params.put("rows", Arrays.asList("1000"));
+        return params;
+    }
+
+}
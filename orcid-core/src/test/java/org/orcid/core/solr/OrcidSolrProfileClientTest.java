@@ -1,10 +1,15 @@
 package org.orcid.core.solr;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Resource;
 
@@ -17,6 +22,7 @@ import org.apache.solr.common.params.SolrParams;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -46,6 +52,8 @@ public class OrcidSolrProfileClientTest {
     @Resource
     private OrcidSolrProfileClient orcidSolrProfileClient;
 
+    private QueryResponse mockResponse;
+
     @Before
     public void before() throws SolrServerException, IOException {
         MockitoAnnotations.initMocks(this);
@@ -57,7 +65,7 @@ public class OrcidSolrProfileClientTest {
         solrDocument.setField("orcid", ORCID);
         solrDocumentList.add(solrDocument);
 
-        QueryResponse mockResponse = Mockito.mock(QueryResponse.class);
+        mockResponse = Mockito.mock(QueryResponse.class);
         when(mockResponse.getResults()).thenReturn(solrDocumentList);
         when(mockSolrClient.query(Mockito.any(SolrParams.class))).thenReturn(mockResponse);
     }
@@ -68,4 +76,56 @@ public class OrcidSolrProfileClientTest {
         assertEquals(ORCID, result.getOrcid());
         assertTrue(0.0f == result.getRelevancyScore());
     }
+
+    @Test
+    public void searchWithACursorMark() throws Exception {
+        when(mockResponse.getNextCursorMark()).thenReturn("cursor-2");
+        Map<String, List<String>> params = searchParams("cursor-test", "50");
+        params.put("cursorMark", Arrays.asList("cursor-1"));
+
+        OrcidSolrResults results = orcidSolrProfileClient.findByDocumentCriteria(params);
+        assertEquals("cursor-2", results.getNextCursorMark());
+
+        ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+        Mockito.verify(mockSolrClient).query(captor.capture());
+        assertEquals("cursor-1", captor.getValue().get("cursorMark"));
+        assertEquals("score desc,orcid asc", captor.getValue().get("sort"));
+        assertNull(captor.getValue().get("start"));
+    }
+
+    @Test
+    public void searchWithACursorMarkKeepsTheRequestedSort() throws Exception {
+        Map<String, List<String>> params = searchParams("cursor-test", null);
+        params.put("cursorMark", Arrays.asList("*"));
+        params.put("sort", Arrays.asList("family-name asc"));
+        orcidSolrProfileClient.findByDocumentCriteria(params);
+
+        params.put("sort", Arrays.asList("orcid desc"));
+        orcidSolrProfileClient.findByDocumentCriteria(params);
+
+        ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+        Mockito.verify(mockSolrClient, Mockito.times(2)).query(captor.capture());
+        assertEquals("family-name asc,orcid asc", captor.getAllValues().get(0).get("sort"));
+        assertEquals("orcid desc", captor.getAllValues().get(1).get("sort"));
+    }
+
+    @Test
+    public void searchWithoutACursorMark() throws Exception {
+        orcidSolrProfileClient.findByDocumentCriteria(searchParams("no-cursor-test", "10"));
+        ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+        Mockito.verify(mockSolrClient).query(captor.capture());
+        assertNull(captor.getValue().get("cursorMark"));
+        assertNull(captor.getValue().get("sort"));
+        assertEquals("10", captor.getValue().get("start"));
+    }
+
+    private Map<String, List<String>> searchParams(String query, String start) {
+        Map<String, List<String>> params = new HashMap<>();
+        params.put("q", Arrays.asList(query));
+        params.put("rows", Arrays.asList("10"));
+        if (start != null) {
+            params.put("start", Arrays.asList(start));
+        }
+        return params;
+    }
 }
@@ -0,0 +1,92 @@
+package org.orcid.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orcid.core.utils.cache.ehcache.CompressedJavaSerializer;
+
+public class OrcidEhCacheFactoryBeanTest {
+
+    private CacheManager cacheManager;
+
+    @Before
+    public void before() {
+        cacheManager = CacheManagerBuilder.newCacheManagerBuilder().build(true);
+    }
+
+    @After
+    public void after() {
+        cacheManager.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void snapshotValuesTest() throws Exception {
+        Cache<Serializable, Serializable> cache = (Cache<Serializable, Serializable>) createCache("snapshot", true, false, 0);
+        ArrayList<String> value = new ArrayList<>(List.of("a", "b"));
+        cache.put("key", value);
+        // Changes made by the writer after the put are not visible
+        value.add("c");
+        Serializable first = cache.get("key");
+        Serializable second = cache.get("key");
+        assertEquals(List.of("a", "b"), first);
+        assertSame(first, second);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void copyValuesTest() throws Exception {
+        Cache<Serializable, Serializable> cache = (Cache<Serializable, Serializable>) createCache("copy", false, false, 0);
+        cache.put("key", new ArrayList<>(List.of("a", "b")));
+        assertNotSame(cache.get("key"), cache.get("key"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void offHeapCompressedTest() throws Exception {
+        Cache<Serializable, Serializable> cache = (Cache<Serializable, Serializable>) createCache("off-heap", true, true, 2);
+        for (int i = 0; i < 500; i++) {
+            cache.put("key-" + i, "{\"contributor\":[" + StringUtils.repeat("{\"creditName\":{\"content\":\"Author " + i + "\"}},", 50) + "]}");
+        }
+        for (int i = 0; i < 500; i++) {
+            assertTrue(((String) cache.get("key-" + i)).contains("Author " + i));
+        }
+    }
+
+    @Test
+    public void compressedJavaSerializerTest() throws Exception {
+        CompressedJavaSerializer serializer = new CompressedJavaSerializer(getClass().getClassLoader());
+        String json = StringUtils.repeat("{\"creditName\":{\"content\":\"Author\"}},", 1000);
+        ByteBuffer buffer = serializer.serialize(json);
+        assertTrue(buffer.remaining() < json.length() / 10);
+        assertEquals(json, serializer.read(buffer));
+        assertTrue(serializer.equals(json, buffer));
+    }
+
+    private Cache<?, ?> createCache(String name, boolean snapshotValues, boolean compressValues, long maxMegaBytesOffHeap) throws Exception {
+        OrcidEhCacheFactoryBean factoryBean = new OrcidEhCacheFactoryBean();
+        factoryBean.setCacheManager(cacheManager);
+        factoryBean.setCacheName(name);
+        factoryBean.setMaxElementsInMemory(10);
+        factoryBean.setSnapshotValues(snapshotValues);
+        factoryBean.setCompressValues(compressValues);
+        factoryBean.setMaxMegaBytesOffHeap(maxMegaBytesOffHeap);
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+
+}
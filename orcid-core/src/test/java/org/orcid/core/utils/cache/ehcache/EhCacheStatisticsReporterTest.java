@@ -0,0 +1,62 @@
+package org.orcid.core.utils.cache.ehcache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EhCacheStatisticsReporterTest {
+
+    private CacheManager cacheManager;
+
+    private EhCacheStatisticsReporter reporter;
+
+    @Before
+    public void before() {
+        StatisticsService statisticsService = new EhCacheStatisticsServiceFactoryBean().getObject();
+        cacheManager = CacheManagerBuilder.newCacheManagerBuilder().using(statisticsService).build(true);
+        reporter = new EhCacheStatisticsReporter();
+        reporter.setCacheManager(cacheManager);
+        reporter.setStatisticsService(statisticsService);
+    }
+
+    @After
+    public void after() {
+        cacheManager.close();
+    }
+
+    @Test
+    public void createReportTest() {
+        Cache<String, String> b = cacheManager.createCache("b",
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, ResourcePoolsBuilder.heap(10)).build());
+        cacheManager.createCache("a", CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, ResourcePoolsBuilder.heap(10)).build());
+        b.put("key", "value");
+        b.get("key");
+        b.get("key");
+        b.get("other");
+
+        List<String> report = reporter.createReport();
+        assertEquals(2, report.size());
+        assertTrue(report.get(0).startsWith("a: hits=0, misses=0, puts=0"));
+        assertTrue(report.get(1), report.get(1).startsWith("b: hits=2, misses=1, puts=1"));
+        assertTrue(report.get(1), report.get(1).contains("OnHeap[mappings=1"));
+    }
+
+    @Test
+    public void skipCachesUnknownToTheServiceTest() {
+        cacheManager.createCache("a", CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, ResourcePoolsBuilder.heap(10)).build());
+        reporter.setStatisticsService(new EhCacheStatisticsServiceFactoryBean().getObject());
+        assertTrue(reporter.createReport().isEmpty());
+    }
+
+}
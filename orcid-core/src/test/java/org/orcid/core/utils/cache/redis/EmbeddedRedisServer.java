@@ -0,0 +1,211 @@
+package org.orcid.core.utils.cache.redis;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal server speaking the Redis protocol, with the few commands the
+ * RedisClient uses, so it can be tested without a Redis instance
+ */
+public class EmbeddedRedisServer {
+
+    private final Map<String, String> data = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<>();
+
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+
+    private final List<Thread> handlers = new CopyOnWriteArrayList<>();
+
+    // Guarded by this, no command changes the data once the server is stopped
+    private boolean running;
+
+    private ServerSocket serverSocket;
+
+    private int port;
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress("127.0.0.1", port));
+        port = serverSocket.getLocalPort();
+        synchronized (this) {
+            running = true;
+        }
+        Thread acceptor = new Thread(this::accept, "embedded-redis-" + port);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Stops the server, the commands still in flight are rejected and the
+     * client handlers are finished when it returns
+     */
+    public void stop() throws IOException, InterruptedException {
+        synchronized (this) {
+            running = false;
+        }
+        serverSocket.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+        for (Thread handler : handlers) {
+            handler.join();
+        }
+        clients.clear();
+        handlers.clear();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public Map<String, String> getData() {
+        return data;
+    }
+
+    public int getCommandCount(String command) {
+        AtomicInteger count = commandCounts.get(command);
+        return count == null ? 0 : count.get();
+    }
+
+    public void resetCommandCounts() {
+        commandCounts.clear();
+    }
+
+    private void accept() {
+        ServerSocket server = serverSocket;
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                clients.add(client);
+                Thread handler = new Thread(() -> handle(client), "embedded-redis-client");
+                handler.setDaemon(true);
+                handlers.add(handler);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket client) {
+        try (Socket socket = client) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            List<String> command;
+            while ((command = readCommand(in)) != null) {
+                String reply = execute(command);
+                if (reply == null) {
+                    // Stopped
+                    return;
+                }
+                out.write(reply.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Connection closed
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private synchronized String execute(List<String> command) {
+        if (!running) {
+            return null;
+        }
+        String name = command.get(0).toUpperCase();
+        commandCounts.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+        switch (name) {
+        case "AUTH":
+            return "+OK\r\n";
+        case "PING":
+            return "+PONG\r\n";
+        case "GET":
+            return bulk(data.get(command.get(1)));
+        case "SET":
+            data.put(command.get(1), command.get(2));
+            return "+OK\r\n";
+        case "MGET":
+            StringBuilder values = new StringBuilder("*" + (command.size() - 1) + "\r\n");
+            for (int i = 1; i < command.size(); i++) {
+                values.append(bulk(data.get(command.get(i))));
+            }
+            return values.toString();
+        case "DEL":
+            int deleted = 0;
+            for (int i = 1; i < command.size(); i++) {
+                if (data.remove(command.get(i)) != null) {
+                    deleted++;
+                }
+            }
+            return ":" + deleted + "\r\n";
+        case "EXISTS":
+            return ":" + (data.containsKey(command.get(1)) ? 1 : 0) + "\r\n";
+        case "PUBLISH":
+            return ":0\r\n";
+        default:
+            return "-ERR unknown command '" + name + "'\r\n";
+        }
+    }
+
+    private String bulk(String value) {
+        if (value == null) {
+            return "$-1\r\n";
+        }
+        return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+    }
+
+    private List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        int count = Integer.parseInt(header.substring(1));
+        List<String> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            byte[] value = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int r = in.read(value, read, length - read);
+                if (r < 0) {
+                    return null;
+                }
+                read += r;
+            }
+            // Trailing CRLF
+            in.read();
+            in.read();
+            command.add(new String(value, StandardCharsets.UTF_8));
+        }
+        return command;
+    }
+
+    private String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\r') {
+                in.read();
+                return line.toString(StandardCharsets.UTF_8.name());
+            }
+            line.write(b);
+        }
+        return null;
+    }
+
+}
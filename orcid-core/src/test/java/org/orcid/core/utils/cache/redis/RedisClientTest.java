@@ -0,0 +1,175 @@
+package org.orcid.core.utils.cache.redis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orcid.utils.alerting.SlackManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RedisClientTest {
+
+    private EmbeddedRedisServer server;
+
+    private RedisClient client;
+
+    private SlackManager slackManager;
+
+    @Before
+    public void before() throws Exception {
+        server = new EmbeddedRedisServer();
+        server.start();
+        slackManager = mock(SlackManager.class);
+    }
+
+    @After
+    public void after() throws Exception {
+        if (client != null) {
+            ReflectionTestUtils.invokeMethod(client, "destroy");
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testSetGetAndRemove() {
+        client = startClient(0);
+        assertTrue(client.isEnabled());
+
+        assertTrue(client.set("key-1", "value-1"));
+        assertEquals("value-1", client.get("key-1"));
+        assertNull(client.get("key-2"));
+        assertEquals(1, client.getHits());
+        assertEquals(1, client.getMisses());
+
+        assertTrue(client.remove("key-1"));
+        assertTrue(client.remove("key-2"));
+        assertNull(client.get("key-1"));
+        // Removing takes a single command
+        assertEquals(2, server.getCommandCount("DEL"));
+        assertEquals(0, server.getCommandCount("EXISTS"));
+        assertTrue(client.getAverageLatencyMillis() > 0);
+    }
+
+    @Test
+    public void testBatchOperations() {
+        client = startClient(0);
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            values.put("key-" + i, "value-" + i);
+        }
+        long commandsBefore = client.getCommands();
+        assertTrue(client.set(values));
+        assertEquals(commandsBefore + 1, client.getCommands());
+        assertEquals(10, server.getCommandCount("SET"));
+        assertEquals(values, server.getData());
+
+        Map<String, String> read = client.get(Arrays.asList("key-1", "key-5", "missing"));
+        assertEquals(2, read.size());
+        assertEquals("value-1", read.get("key-1"));
+        assertEquals("value-5", read.get("key-5"));
+        assertEquals(1, server.getCommandCount("MGET"));
+        assertEquals(0, server.getCommandCount("GET"));
+        assertEquals(2, client.getHits());
+        assertEquals(1, client.getMisses());
+
+        assertTrue(client.remove(Arrays.asList("key-1", "key-2", "missing")));
+        assertEquals(1, server.getCommandCount("DEL"));
+        assertEquals(8, server.getData().size());
+        assertFalse(server.getData().containsKey("key-1"));
+    }
+
+    @Test
+    public void testReconnectsInTheBackground() throws Exception {
+        server.stop();
+        client = startClient(0);
+        assertFalse(client.isEnabled());
+        verify(slackManager).sendSystemAlert(anyString());
+        assertNull(client.get("key-1"));
+        assertFalse(client.set("key-1", "value-1"));
+
+        server.start();
+        waitUntilEnabled();
+        assertTrue(client.set("key-1", "value-1"));
+        assertEquals("value-1", client.get("key-1"));
+    }
+
+    @Test
+    public void testRemovesWhileRedisIsDownAreAppliedOnReconnect() throws Exception {
+        client = startClient(0);
+        assertTrue(client.set(values("key-1", "key-2", "key-3", "key-4")));
+
+        server.stop();
+        assertTrue(client.remove("key-1"));
+        assertFalse(client.isEnabled());
+        assertTrue(client.remove(Arrays.asList("key-2", "key-3")));
+        assertEquals(4, server.getData().size());
+
+        server.start();
+        waitUntilEnabled();
+        assertEquals(1, server.getData().size());
+        assertEquals("value", client.get("key-4"));
+        assertNull(client.get("key-1"));
+    }
+
+    @Test
+    public void testLocalCacheServesReadsWhileRedisIsDown() throws Exception {
+        client = startClient(100);
+        assertTrue(client.set("key-1", "value-1"));
+        client.set("key-2", "value-2");
+        client.remove("key-2");
+
+        server.stop();
+        assertEquals("value-1", client.get("key-1"));
+        assertFalse(client.isEnabled());
+        assertNull(client.get("key-2"));
+        assertEquals(1, client.getLocalHits());
+        assertTrue(client.getErrors() > 0);
+
+        Map<String, String> read = client.get(Arrays.asList("key-1", "key-2"));
+        assertEquals(1, read.size());
+        assertEquals("value-1", read.get("key-1"));
+
+        // Once Redis is back the reads go to it again
+        server.start();
+        waitUntilEnabled();
+        server.getData().remove("key-1");
+        assertNull(client.get("key-1"));
+    }
+
+    private RedisClient startClient(int localCacheSize) {
+        RedisClient redisClient = new RedisClient("127.0.0.1", server.getPort(), "password", 60, 2000);
+        redisClient.setSsl(false);
+        redisClient.setReconnectIntervalInSecs(1);
+        redisClient.setLocalCacheSize(localCacheSize);
+        ReflectionTestUtils.setField(redisClient, "slackManager", slackManager);
+        ReflectionTestUtils.invokeMethod(redisClient, "init");
+        return redisClient;
+    }
+
+    private Map<String, String> values(String... keys) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            values.put(key, "value");
+        }
+        return values;
+    }
+
+    private void waitUntilEnabled() throws InterruptedException {
+        for (int i = 0; i < 100 && !client.isEnabled(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(client.isEnabled());
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.orcid.core.utils.v3.activities;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.jaxb.model.v3.release.record.summary.WorkSummary;
+import org.orcid.pojo.grouping.WorkGroupingSuggestion;
+
+/**
+ * Compares WorkGroupAndGroupingSuggestionGenerator with the disjoint-set based
+ * generator on synthetic records.
+ * 
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.orcid.core.utils.v3.activities.ActivitiesGroupGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ActivitiesGroupGeneratorBenchmark {
+
+    @Param({ "1000", "10000", "50000" })
+    private int works;
+
+    private List<WorkSummary> summaries;
+
+    @Setup
+    public void setup() {
+        summaries = SyntheticWorkSummaries.generate(works, 42);
+    }
+
+    @Benchmark
+    public List<WorkGroupingSuggestion> workGroupAndGroupingSuggestionGenerator() {
+        WorkGroupAndGroupingSuggestionGenerator generator = new WorkGroupAndGroupingSuggestionGenerator();
+        for (WorkSummary summary : summaries) {
+            generator.group(summary);
+        }
+        generator.getGroups();
+        return generator.getGroupingSuggestions("0000-0000-0000-0001");
+    }
+
+    @Benchmark
+    public List<WorkGroupingSuggestion> disjointSetWorkGroupAndGroupingSuggestionGenerator() {
+        DisjointSetWorkGroupAndGroupingSuggestionGenerator generator = new DisjointSetWorkGroupAndGroupingSuggestionGenerator();
+        for (WorkSummary summary : summaries) {
+            generator.group(summary);
+        }
+        generator.getGroups();
+        return generator.getGroupingSuggestions("0000-0000-0000-0001");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(ActivitiesGroupGeneratorBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
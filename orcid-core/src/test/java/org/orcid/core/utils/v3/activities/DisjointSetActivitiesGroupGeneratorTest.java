@@ -0,0 +1,84 @@
+package org.orcid.core.utils.v3.activities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.orcid.jaxb.model.v3.release.record.summary.FundingSummary;
+import org.orcid.jaxb.model.v3.release.record.summary.WorkSummary;
+import org.orcid.pojo.grouping.WorkGroupingSuggestion;
+
+public class DisjointSetActivitiesGroupGeneratorTest {
+
+    @Test
+    public void sameGroupsAsActivitiesGroupGeneratorTest() {
+        for (long seed = 0; seed < 20; seed++) {
+            List<WorkSummary> works = SyntheticWorkSummaries.generate(500, seed);
+            ActivitiesGroupGenerator expected = new ActivitiesGroupGenerator();
+            DisjointSetActivitiesGroupGenerator actual = new DisjointSetActivitiesGroupGenerator();
+            for (WorkSummary work : works) {
+                expected.group(work);
+                actual.group(work);
+            }
+            assertSameGroups(expected.getGroups(), actual.getGroups());
+        }
+    }
+
+    @Test
+    public void sameGroupsAndSuggestionsAsWorkGroupAndGroupingSuggestionGeneratorTest() {
+        for (long seed = 0; seed < 20; seed++) {
+            List<WorkSummary> works = SyntheticWorkSummaries.generate(500, seed);
+            WorkGroupAndGroupingSuggestionGenerator expected = new WorkGroupAndGroupingSuggestionGenerator();
+            DisjointSetWorkGroupAndGroupingSuggestionGenerator actual = new DisjointSetWorkGroupAndGroupingSuggestionGenerator();
+            for (WorkSummary work : works) {
+                expected.group(work);
+                actual.group(work);
+            }
+            assertSameGroups(expected.getGroups(), actual.getGroups());
+
+            Set<Set<Long>> expectedSuggestions = toPutCodeSets(expected.getGroupingSuggestions("0000-0000-0000-0001"));
+            Set<Set<Long>> actualSuggestions = toPutCodeSets(actual.getGroupingSuggestions("0000-0000-0000-0001"));
+            assertTrue(expectedSuggestions.size() > 0);
+            assertEquals(expectedSuggestions, actualSuggestions);
+        }
+    }
+
+    @Test
+    public void groupsAreUpdatedAfterNewActivitiesTest() {
+        List<WorkSummary> works = SyntheticWorkSummaries.generate(100, 1);
+        ActivitiesGroupGenerator expected = new ActivitiesGroupGenerator();
+        DisjointSetActivitiesGroupGenerator actual = new DisjointSetActivitiesGroupGenerator();
+        for (WorkSummary work : works) {
+            expected.group(work);
+            actual.group(work);
+            assertSameGroups(expected.getGroups(), actual.getGroups());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyWorksCanBeGroupedTest() {
+        new DisjointSetWorkGroupAndGroupingSuggestionGenerator().group(new FundingSummary());
+    }
+
+    private Set<Set<Long>> toPutCodeSets(List<WorkGroupingSuggestion> suggestions) {
+        Set<Set<Long>> putCodeSets = new HashSet<>();
+        for (WorkGroupingSuggestion suggestion : suggestions) {
+            assertEquals("0000-0000-0000-0001", suggestion.getOrcid());
+            putCodeSets.add(new HashSet<>(suggestion.getPutCodes()));
+        }
+        return putCodeSets;
+    }
+
+    private void assertSameGroups(List<ActivitiesGroup> expected, List<ActivitiesGroup> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getActivities(), actual.get(i).getActivities());
+            assertEquals(expected.get(i).getGroupKeys(), actual.get(i).getGroupKeys());
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.orcid.core.utils.v3.activities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.orcid.jaxb.model.common.Relationship;
+import org.orcid.jaxb.model.v3.release.common.Title;
+import org.orcid.jaxb.model.v3.release.record.ExternalID;
+import org.orcid.jaxb.model.v3.release.record.ExternalIDs;
+import org.orcid.jaxb.model.v3.release.record.WorkTitle;
+import org.orcid.jaxb.model.v3.release.record.summary.WorkSummary;
+
+/**
+ * Builds records with many works that share external identifiers and titles,
+ * for grouping tests and benchmarks
+ */
+public class SyntheticWorkSummaries {
+
+    private static final String[] TYPES = { "doi", "pmid", "isbn", "eid" };
+
+    public static List<WorkSummary> generate(int count, long seed) {
+        Random random = new Random(seed);
+        int idPool = Math.max(1, count / 2);
+        int titlePool = Math.max(1, count / 3);
+        List<WorkSummary> works = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            WorkSummary work = new WorkSummary();
+            work.setPutCode((long) i);
+            if (random.nextInt(10) > 0) {
+                WorkTitle workTitle = new WorkTitle();
+                workTitle.setTitle(new Title("Title " + random.nextInt(titlePool)));
+                work.setTitle(workTitle);
+            }
+            ExternalIDs ids = new ExternalIDs();
+            int idCount = random.nextInt(4);
+            for (int j = 0; j < idCount; j++) {
+                ExternalID id = new ExternalID();
+                id.setType(TYPES[random.nextInt(TYPES.length)]);
+                id.setValue(String.valueOf(random.nextInt(idPool)));
+                id.setRelationship(random.nextInt(8) == 0 ? Relationship.PART_OF : Relationship.SELF);
+                ids.getExternalIdentifier().add(id);
+            }
+            work.setExternalIdentifiers(ids);
+            works.add(work);
+        }
+        return works;
+    }
+
+}
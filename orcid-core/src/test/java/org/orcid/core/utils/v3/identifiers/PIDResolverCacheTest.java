@@ -0,0 +1,168 @@
+package org.orcid.core.utils.v3.identifiers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orcid.core.exception.UnexpectedResponseCodeException;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class PIDResolverCacheTest {
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor = Executors.newFixedThreadPool(20);
+
+    private String baseUrl;
+
+    private Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    private List<String> methods = new CopyOnWriteArrayList<>();
+
+    private AtomicInteger running = new AtomicInteger();
+
+    private AtomicInteger maxRunning = new AtomicInteger();
+
+    private PIDResolverCache cache;
+
+    @Before
+    public void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            methods.add(exchange.getRequestMethod() + " " + path);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                if (path.startsWith("/slow")) {
+                    Thread.sleep(100);
+                }
+                if (path.startsWith("/redirect")) {
+                    exchange.getResponseHeaders().add("Location", baseUrl + "/ok");
+                    exchange.sendResponseHeaders(302, -1);
+                } else if (path.startsWith("/see-other")) {
+                    exchange.getResponseHeaders().add("Location", baseUrl + "/ok");
+                    exchange.sendResponseHeaders(303, -1);
+                } else if (path.startsWith("/doi")) {
+                    boolean csl = "application/vnd.citationstyles.csl+json".equals(exchange.getRequestHeaders().getFirst("Accept"));
+                    exchange.getResponseHeaders().add("Location", baseUrl + "/ok");
+                    exchange.sendResponseHeaders(csl ? 302 : 404, -1);
+                } else if (path.startsWith("/ok") || path.startsWith("/slow")) {
+                    byte[] body = "metadata".getBytes(StandardCharsets.UTF_8);
+                    if ("HEAD".equals(exchange.getRequestMethod())) {
+                        exchange.sendResponseHeaders(200, -1);
+                    } else {
+                        exchange.sendResponseHeaders(200, body.length);
+                        exchange.getResponseBody().write(body);
+                    }
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        cache = new PIDResolverCache();
+        cache.setMaxRequestsPerHost(2);
+        cache.setTimeoutSeconds(10);
+        cache.init();
+    }
+
+    @After
+    public void after() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void isHttp200Test() {
+        assertTrue(cache.isHttp200(baseUrl + "/ok"));
+        assertTrue(cache.isHttp200(baseUrl + "/redirect"));
+        assertFalse(cache.isHttp200(baseUrl + "/missing"));
+        assertFalse(cache.isHttp200("http://localhost:1/unreachable"));
+        assertFalse(cache.isHttp200("not a url"));
+    }
+
+    @Test
+    public void isHttp200KeepsHeadAfterSeeOtherTest() {
+        assertTrue(cache.isHttp200(baseUrl + "/see-other"));
+        assertEquals(Arrays.asList("HEAD /see-other", "HEAD /ok"), methods);
+    }
+
+    @Test
+    public void isHttp303AndValidDOITest() {
+        assertTrue(cache.isHttp303(baseUrl + "/see-other"));
+        assertFalse(cache.isHttp303(baseUrl + "/redirect"));
+        assertTrue(cache.isValidDOI(baseUrl + "/doi"));
+        assertFalse(cache.isValidDOI(baseUrl + "/ok"));
+        // The checks do not follow the redirects
+        assertEquals(1, requests.get("/ok").get());
+    }
+
+    @Test
+    public void negativeResultsAreCachedTest() {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(cache.isHttp200(baseUrl + "/missing"));
+        }
+        assertEquals(1, requests.get("/missing").get());
+    }
+
+    @Test
+    public void concurrentChecksAreSharedAndLimitedPerHostTest() throws Exception {
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            checks.add(cache.isHttp200Async(baseUrl + "/slow/" + i));
+            checks.add(cache.isHttp200Async(baseUrl + "/slow/" + i));
+        }
+        CompletableFuture.allOf(checks.toArray(new CompletableFuture[checks.size()])).get(30, TimeUnit.SECONDS);
+        for (CompletableFuture<Boolean> check : checks) {
+            assertTrue(check.get());
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, requests.get("/slow/" + i).get());
+        }
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void getTest() throws IOException {
+        try (InputStream body = cache.get(baseUrl + "/redirect", "application/json")) {
+            assertEquals("metadata", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try {
+            cache.get(baseUrl + "/missing", "application/json");
+            fail();
+        } catch (UnexpectedResponseCodeException e) {
+            assertEquals(404, e.getReceivedCode());
+        }
+    }
+
+}
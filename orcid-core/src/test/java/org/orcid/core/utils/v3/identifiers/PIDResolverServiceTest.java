@@ -7,12 +7,17 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.orcid.core.utils.v3.identifiers.resolvers.LinkResolver;
 import org.orcid.core.utils.v3.identifiers.resolvers.MetadataResolver;
 import org.orcid.jaxb.model.common.Relationship;
 import org.orcid.jaxb.model.common.WorkType;
@@ -303,6 +308,39 @@ public class PIDResolverServiceTest {
         assertEquals(Relationship.PART_OF, work.getExternalIdentifiers().getExternalIdentifier().get(0).getRelationship());
     }
 
+    @Test
+    public void testResolveAll() throws Exception {
+        resolverService = new PIDResolverService();
+
+        // Resolves slowly, but first in order
+        LinkResolver doiResolver = Mockito.mock(LinkResolver.class);
+        CompletableFuture<PIDResolutionResult> slowDoi = new CompletableFuture<>();
+        Mockito.when(doiResolver.resolveAsync(Mockito.eq("doi"), Mockito.anyString())).thenReturn(slowDoi);
+        Mockito.when(doiResolver.resolveAsync("doi", "invalid")).thenThrow(new IllegalArgumentException());
+        LinkResolver fallbackResolver = Mockito.mock(LinkResolver.class);
+        Mockito.when(fallbackResolver.resolveAsync(Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new PIDResolutionResult(true, false, true, "https://fallback")));
+
+        Map<String, LinkedList<LinkResolver>> resolverMap = new HashMap<>();
+        resolverMap.put("doi", new LinkedList<>(List.of(doiResolver, fallbackResolver)));
+        resolverMap.put("agr", new LinkedList<>(List.of(fallbackResolver)));
+        ReflectionTestUtils.setField(resolverService, "linkResolverMap", resolverMap);
+
+        CompletableFuture<List<PIDResolutionResult>> results = resolverService
+                .resolveAll(List.of(Pair.of("doi", "10.1/1"), Pair.of("agr", "word"), Pair.of("doi", "invalid"), Pair.of("unknown", "value")));
+        // The first resolver in order wins, even if another one is faster
+        assertFalse(results.isDone());
+        slowDoi.complete(new PIDResolutionResult(true, true, true, "https://doi.org/10.1/1"));
+
+        List<PIDResolutionResult> resolved = results.get(10, TimeUnit.SECONDS);
+        assertEquals(4, resolved.size());
+        assertEquals("https://doi.org/10.1/1", resolved.get(0).getGeneratedUrl());
+        assertEquals("https://fallback", resolved.get(1).getGeneratedUrl());
+        // The invalid doi does not fail the whole batch
+        assertEquals(PIDResolutionResult.NOT_ATTEMPTED, resolved.get(2));
+        assertEquals(PIDResolutionResult.NOT_ATTEMPTED, resolved.get(3));
+    }
+
     private WorkExtended getBookChapterWorkWithISBNExternalIdentifier() {
         WorkExtended work = new WorkExtended();
         work.setWorkType(WorkType.BOOK_CHAPTER);
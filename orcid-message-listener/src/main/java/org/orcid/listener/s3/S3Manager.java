@@ -16,8 +16,11 @@
  */
 package org.orcid.listener.s3;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Resource;
@@ -50,6 +53,9 @@ public class S3Manager {
 
     @Value("${org.orcid.message-listener.index.s3.search.max_elements:3000}")
     private Integer maxElements;
+
+    @Value("${org.orcid.message-listener.v3.pipelined_sync.enabled:false}")
+    private boolean batchDeletes;
     
     @Resource
     private ORCIDMarshaller marshaller; 
@@ -61,6 +67,10 @@ public class S3Manager {
     public void setMarshaller(ORCIDMarshaller m) {
         this.marshaller = m;
     }
+
+    public void setBatchDeletes(boolean batchDeletes) {
+        this.batchDeletes = batchDeletes;
+    }
     
     public void uploadV2RecordSummary(String orcid, org.orcid.jaxb.model.record_v2.Record record) throws JAXBException, JsonProcessingException, AmazonClientException, AmazonServiceException {
         Date lastModified = DateUtils.convertToDate(record.getHistory().getLastModifiedDate().getValue());
@@ -240,48 +250,62 @@ public class S3Manager {
         return s3MessagingService.safelyRemoveV3Activity(orcid, getElementName(orcid, putCode, type));
     }
 
+    /**
+     * Removes the given activities using multi object delete requests
+     * 
+     * @return true if all the activities were removed
+     */
+    public boolean removeV3Activities(String orcid, Collection<String> putCodes, ActivityType type) throws AmazonClientException, AmazonServiceException {
+        List<String> elementNames = new ArrayList<String>(putCodes.size());
+        for (String putCode : putCodes) {
+            elementNames.add(getElementName(orcid, putCode, type));
+        }
+        return s3MessagingService.safelyRemoveV3Activities(orcid, elementNames);
+    }
+
     public boolean clearV3Activities(String orcid) throws AmazonClientException, AmazonServiceException {
         String prefix = orcid.substring(16) + "/" + orcid;
         final ListObjectsV2Request req = new ListObjectsV2Request().withBucketName(s3MessagingService.getV3ActivitiesBucketName(orcid)).withPrefix(prefix)
                 .withMaxKeys(maxElements);
-        ListObjectsV2Result objects;
-        boolean anyFailed = false;
-        do {
-            objects = s3MessagingService.listObjects(req);
-            for (S3ObjectSummary objectSummary : objects.getObjectSummaries()) {
-                String elementName = objectSummary.getKey();
-                boolean removed = s3MessagingService.safelyRemoveV3Activity(orcid, elementName);
-                if(!removed) {
-                    anyFailed = true;
-                }
-            }
-            req.setContinuationToken(objects.getNextContinuationToken());
-        } while (objects.isTruncated());
-        // If nothing failed, then all activities were properly removed
-        return !anyFailed;
+        return clearV3Activities(orcid, req);
     }
     
     public boolean clearV3ActivitiesByType(String orcid, ActivityType type) throws AmazonClientException, AmazonServiceException {
         String prefix = buildPrefix(orcid, type);
         
         ListObjectsV2Request req = new ListObjectsV2Request().withBucketName(s3MessagingService.getV3ActivitiesBucketName(orcid)).withPrefix(prefix).withMaxKeys(maxElements);
-
+        return clearV3Activities(orcid, req);
+    }        
+    
+    private boolean clearV3Activities(String orcid, ListObjectsV2Request req) throws AmazonClientException, AmazonServiceException {
         ListObjectsV2Result objects;
         boolean anyFailed = false;
         do {
             objects = s3MessagingService.listObjects(req);
-            for (S3ObjectSummary objectSummary : objects.getObjectSummaries()) {
-                String elementName = objectSummary.getKey();
-                boolean removed = s3MessagingService.safelyRemoveV3Activity(orcid, elementName);
-                if(!removed) {
+            if (batchDeletes) {
+                // Remove each page of results with multi object delete
+                // requests
+                List<String> elementNames = new ArrayList<String>();
+                for (S3ObjectSummary objectSummary : objects.getObjectSummaries()) {
+                    elementNames.add(objectSummary.getKey());
+                }
+                if (!elementNames.isEmpty() && !s3MessagingService.safelyRemoveV3Activities(orcid, elementNames)) {
                     anyFailed = true;
                 }
+            } else {
+                for (S3ObjectSummary objectSummary : objects.getObjectSummaries()) {
+                    String elementName = objectSummary.getKey();
+                    boolean removed = s3MessagingService.safelyRemoveV3Activity(orcid, elementName);
+                    if(!removed) {
+                        anyFailed = true;
+                    }
+                }
             }
             req.setContinuationToken(objects.getNextContinuationToken());
         } while (objects.isTruncated());
         // If nothing failed, then all activities were properly removed
         return !anyFailed;
-    }        
+    }
     
     /**
      * 
@@ -5,7 +5,15 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.xml.bind.JAXBException;
 
@@ -80,6 +88,27 @@ public class S3MessageProcessorAPIV3 {
     @Resource
     private Api30RecordStatusManager api30RecordStatusManager;
 
+    @Value("${org.orcid.message-listener.v3.pipelined_sync.enabled:false}")
+    private boolean isPipelinedSyncEnabled;
+
+    @Value("${org.orcid.message-listener.v3.pipelined_sync.threads:32}")
+    private int syncThreads;
+
+    @Value("${org.orcid.message-listener.v3.pipelined_sync.max_concurrent_fetches_per_record:8}")
+    private int maxConcurrentFetchesPerRecord;
+
+    private ExecutorService syncExecutor;
+
+    @PostConstruct
+    public void init() {
+        syncExecutor = Executors.newFixedThreadPool(syncThreads);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        syncExecutor.shutdown();
+    }
+
     public void update(String orcid) {
         Boolean isSummaryOk = false;
         List<ActivityType> failedElements = new ArrayList<ActivityType>();
@@ -94,7 +123,10 @@ public class S3MessageProcessorAPIV3 {
 
             if (record != null) {
                 isSummaryOk = updateSummary(record);
+                long start = System.currentTimeMillis();
                 updateActivities(record, failedElements);
+                LOG.info("Activities for record " + orcid + " processed in " + (System.currentTimeMillis() - start) + " ms" + (isPipelinedSyncEnabled ? " (pipelined)" : "")
+                        + ", failed types: " + failedElements);
                 api30RecordStatusManager.save(orcid, isSummaryOk, failedElements);
             }
         }
@@ -507,6 +539,9 @@ public class S3MessageProcessorAPIV3 {
     }
 
     private boolean processActivities(String orcid, List<? extends Activity> activities, Map<String, S3ObjectSummary> existingElements, ActivityType type) {
+        if (isPipelinedSyncEnabled) {
+            return processActivitiesPipelined(orcid, activities, existingElements, type);
+        }
         try {
             for (Activity x : activities) {
                 processActivity(orcid, x, existingElements, type);
@@ -530,6 +565,81 @@ public class S3MessageProcessorAPIV3 {
         return false;
     }
 
+    /**
+     * Fetches and uploads the modified activities concurrently, with at most
+     * maxConcurrentFetchesPerRecord of them in flight, then removes the ones
+     * that are no longer in the record with multi object delete requests
+     */
+    private boolean processActivitiesPipelined(String orcid, List<? extends Activity> activities, Map<String, S3ObjectSummary> existingElements, ActivityType type) {
+        Semaphore permits = new Semaphore(maxConcurrentFetchesPerRecord);
+        List<Future<Void>> pending = new ArrayList<Future<Void>>();
+        boolean anyFailed = false;
+        try {
+            for (Activity x : activities) {
+                String putCode = String.valueOf(x.getPutCode());
+                Date summaryLastModified = DateUtils.convertToDate(x.getLastModifiedDate().getValue());
+                // Remove it from the existingElements list since it is
+                // processed here
+                S3ObjectSummary existingObject = existingElements.remove(putCode);
+                if (existingObject != null && !summaryLastModified.after(existingObject.getLastModified())) {
+                    continue;
+                }
+                permits.acquire();
+                try {
+                    pending.add(syncExecutor.submit(() -> {
+                        try {
+                            byte[] activity = fetchActivity(orcid, x.getPutCode(), type);
+                            if (activity != null) {
+                                s3Manager.uploadV3Activity(orcid, putCode, type, summaryLastModified, activity);
+                            }
+                            return null;
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while processing activities " + type.getValue() + " for orcid " + orcid, e);
+            anyFailed = true;
+        } catch (Exception e) {
+            LOG.error("Unable to fetch activities " + type.getValue() + " for orcid " + orcid, e);
+            anyFailed = true;
+        }
+
+        // Wait for all the submitted activities, even if one failed, so
+        // nothing is still being uploaded when the status is saved
+        for (Future<Void> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                anyFailed = true;
+            } catch (ExecutionException e) {
+                LOG.error("Unable to fetch activities " + type.getValue() + " for orcid " + orcid, e.getCause());
+                anyFailed = true;
+            }
+        }
+
+        if (anyFailed) {
+            return false;
+        }
+
+        // Remove from S3 all element that still exists on the
+        // existingElements map
+        try {
+            return existingElements.isEmpty() || s3Manager.removeV3Activities(orcid, existingElements.keySet(), type);
+        } catch (Exception e) {
+            LOG.error("Unable to remove activities " + type.getValue() + " for orcid " + orcid, e);
+        }
+        return false;
+    }
+
     private void processActivity(String orcid, Activity activityFromSummary, Map<String, S3ObjectSummary> existingElements, ActivityType type)
             throws AmazonClientException, AmazonServiceException, JAXBException, IOException, InterruptedException {
         Long summaryPutCode = activityFromSummary.getPutCode();
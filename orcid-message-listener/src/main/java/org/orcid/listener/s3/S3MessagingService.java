@@ -2,7 +2,9 @@ package org.orcid.listener.s3;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.xml.bind.JAXBException;
@@ -20,8 +22,11 @@ import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 
 @Component
@@ -29,6 +34,9 @@ public class S3MessagingService {
 
     Logger LOG = LoggerFactory.getLogger(S3MessagingService.class);
 
+    // Max number of keys S3 accepts in a multi object delete request
+    private static final int MAX_KEYS_PER_DELETE_REQUEST = 1000;
+
     private final AmazonS3 s3;
 
     private final String v2SummariesBucketName;
@@ -135,6 +143,38 @@ public class S3MessagingService {
         return safelyRemoveV3Activity(orcid, elementName, true);
     }
     
+    /**
+     * Removes the given activities using multi object delete requests of up
+     * to 1000 keys. Keys that couldn't be removed in batch are removed one by
+     * one with {@link #safelyRemoveV3Activity(String, String)}
+     * 
+     * @return true if all the elements were removed
+     */
+    public boolean safelyRemoveV3Activities(String orcid, List<String> elementNames) {
+        String bucketName = getV3ActivitiesBucketName(orcid);
+        boolean allRemoved = true;
+        for (int i = 0; i < elementNames.size(); i += MAX_KEYS_PER_DELETE_REQUEST) {
+            List<String> batch = elementNames.subList(i, Math.min(i + MAX_KEYS_PER_DELETE_REQUEST, elementNames.size()));
+            List<String> failed = new ArrayList<String>();
+            try {
+                s3.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(batch.toArray(new String[batch.size()])).withQuiet(true));
+            } catch (MultiObjectDeleteException e) {
+                for (DeleteError error : e.getErrors()) {
+                    failed.add(error.getKey());
+                }
+            } catch (Exception e) {
+                LOG.warn("Unable to remove " + batch.size() + " elements in batch for " + orcid + ", removing them one by one", e);
+                failed.addAll(batch);
+            }
+            for (String elementName : failed) {
+                if (!safelyRemoveV3Activity(orcid, elementName)) {
+                    allRemoved = false;
+                }
+            }
+        }
+        return allRemoved;
+    }
+    
     private boolean safelyRemoveV2Activity(String elementName, boolean retry) {
         try {
             removeV2Activity(elementName);
@@ -0,0 +1,327 @@
+package org.orcid.listener.solr;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Collects the documents sent to a SOLR core and sends them in batches, with
+ * commitWithin instead of a commit per document.
+ *
+ * A batch is sent when it reaches the max batch size or when the window
+ * started by its first document ends. Batches are sent one after another by a
+ * single thread, retrying with an exponential backoff when they fail, so a
+ * document is never overwritten by an older version of itself.
+ *
+ * Documents with the same content hash as the last version this writer
+ * indexed are skipped. The hashes expire, so documents removed from the index
+ * by other means are eventually indexed again.
+ */
+public class SolrBatchWriter<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SolrBatchWriter.class);
+
+    private final String name;
+
+    private final SolrClient solrClient;
+
+    private final Function<T, String> idFunction;
+
+    private int maxBatchSize = 100;
+
+    private long windowMillis = 1000;
+
+    private int commitWithinMillis = 10000;
+
+    private int maxRetries = 5;
+
+    private long retryBackoffMillis = 500;
+
+    private Semaphore pendingPermits = new Semaphore(1000);
+
+    private Cache<String, HashCode> indexedHashes = CacheBuilder.newBuilder().maximumSize(100000).expireAfterWrite(60, TimeUnit.MINUTES).build();
+
+    private final Map<String, Pending<T>> buffer = new LinkedHashMap<>();
+
+    // Number of batches being sent per document id, guarded by buffer
+    private final Map<String, Integer> sending = new HashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService sender;
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    public SolrBatchWriter(String name, SolrClient solrClient, Function<T, String> idFunction) {
+        this.name = name;
+        this.solrClient = solrClient;
+        this.idFunction = idFunction;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "solr-batch-" + name + "-timer"));
+        this.sender = Executors.newSingleThreadExecutor(r -> new Thread(r, "solr-batch-" + name + "-sender"));
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void setCommitWithinMillis(int commitWithinMillis) {
+        this.commitWithinMillis = commitWithinMillis;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public void setRetryBackoffMillis(long retryBackoffMillis) {
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    /**
+     * Max number of documents waiting to be sent, callers block once it is
+     * reached
+     */
+    public void setMaxPending(int maxPending) {
+        this.pendingPermits = new Semaphore(maxPending);
+    }
+
+    public void setHashCache(long maxSize, long expiryMinutes) {
+        this.indexedHashes = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(expiryMinutes, TimeUnit.MINUTES).build();
+    }
+
+    /**
+     * Adds the document to the current batch
+     *
+     * @return a future that completes with true when the batch containing the
+     *         document is indexed, with false if the document was skipped
+     *         because it did not change, or exceptionally if the batch could
+     *         not be indexed
+     */
+    public CompletableFuture<Boolean> add(T document) {
+        String id = idFunction.apply(document);
+        HashCode hash = hash(document);
+        pendingPermits.acquireUninterruptibly();
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        result.whenComplete((indexed, error) -> pendingPermits.release());
+        boolean full;
+        synchronized (buffer) {
+            // Another version of the document may be waiting or being sent
+            if (!buffer.containsKey(id) && !sending.containsKey(id) && hash.equals(indexedHashes.getIfPresent(id))) {
+                result.complete(false);
+                return result;
+            }
+            Pending<T> superseded = buffer.remove(id);
+            Pending<T> pending = new Pending<>(id, document, hash, result);
+            if (superseded != null) {
+                // Only the latest version of the document is sent
+                pending.results.addAll(superseded.results);
+            }
+            buffer.put(id, pending);
+            full = buffer.size() >= maxBatchSize;
+            if (full) {
+                cancelScheduledFlush();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) {
+            flush();
+        }
+        return result;
+    }
+
+    /**
+     * Deletes the document from the index, dropping its pending version if
+     * any. The deletion is sent after the batches already being sent, so the
+     * document is not added back by one of them.
+     */
+    public void delete(String id) throws SolrServerException, IOException {
+        Pending<T> dropped;
+        synchronized (buffer) {
+            dropped = buffer.remove(id);
+        }
+        indexedHashes.invalidate(id);
+        if (dropped != null) {
+            dropped.complete(false);
+        }
+        Future<?> deletion = sender.submit(() -> {
+            solrClient.deleteById(id, commitWithinMillis);
+            return null;
+        });
+        try {
+            deletion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted deleting " + id + " from SOLR " + name);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SolrServerException) {
+                throw (SolrServerException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SolrServerException(cause);
+        }
+    }
+
+    /**
+     * Sends the documents collected so far
+     */
+    public void flush() {
+        List<Pending<T>> batch;
+        synchronized (buffer) {
+            cancelScheduledFlush();
+            if (buffer.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(buffer.values());
+            buffer.clear();
+            for (Pending<T> pending : batch) {
+                sending.merge(pending.id, 1, Integer::sum);
+            }
+        }
+        sender.execute(() -> {
+            Exception error = send(batch);
+            synchronized (buffer) {
+                for (Pending<T> pending : batch) {
+                    sending.computeIfPresent(pending.id, (id, count) -> count == 1 ? null : count - 1);
+                    if (error == null) {
+                        indexedHashes.put(pending.id, pending.hash);
+                    } else {
+                        indexedHashes.invalidate(pending.id);
+                    }
+                }
+            }
+            if (error == null) {
+                for (Pending<T> pending : batch) {
+                    pending.complete(true);
+                }
+            } else {
+                NonTransientDataAccessResourceException failure = new NonTransientDataAccessResourceException("Error persisting batch to SOLR " + name, error);
+                for (Pending<T> pending : batch) {
+                    pending.fail(failure);
+                }
+            }
+        });
+    }
+
+    public void shutdown() {
+        flush();
+        sender.shutdown();
+        scheduler.shutdown();
+        try {
+            sender.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return null if the batch was sent, or the last error otherwise
+     */
+    private Exception send(List<Pending<T>> batch) {
+        List<T> documents = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            documents.add(pending.document);
+        }
+        for (int attempt = 0;; attempt++) {
+            try {
+                solrClient.addBeans(documents, commitWithinMillis);
+                return null;
+            } catch (SolrServerException | IOException | RuntimeException e) {
+                if (attempt >= maxRetries) {
+                    LOG.error("Unable to send batch of " + batch.size() + " documents to SOLR " + name + " after " + (attempt + 1) + " attempts", e);
+                    return e;
+                }
+                long backoff = retryBackoffMillis << Math.min(attempt, 16);
+                LOG.warn("Unable to send batch of {} documents to SOLR {}, retrying in {} ms: {}", new Object[] { batch.size(), name, backoff, e.getMessage() });
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    // Shutting down, try one last time
+                    attempt = maxRetries - 1;
+                }
+            }
+        }
+    }
+
+    private HashCode hash(T document) {
+        SolrInputDocument inputDocument = solrClient.getBinder().toSolrInputDocument(document);
+        return Hashing.murmur3_128().hashString(inputDocument.toString(), StandardCharsets.UTF_8);
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    int getBufferedCount() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    private static class Pending<T> {
+        final String id;
+        final T document;
+        final HashCode hash;
+        final List<CompletableFuture<Boolean>> results = new ArrayList<>(1);
+
+        Pending(String id, T document, HashCode hash, CompletableFuture<Boolean> result) {
+            this.id = id;
+            this.document = document;
+            this.hash = hash;
+            this.results.add(result);
+        }
+
+        void complete(boolean indexed) {
+            for (CompletableFuture<Boolean> result : results) {
+                result.complete(indexed);
+            }
+        }
+
+        void fail(Throwable error) {
+            for (CompletableFuture<Boolean> result : results) {
+                result.completeExceptionally(error);
+            }
+        }
+    }
+
+}
@@ -6,7 +6,11 @@ import static org.orcid.utils.solr.entities.SolrConstants.PROFILE_LAST_MODIFIED_
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.apache.solr.client.solrj.SolrClient;
@@ -36,9 +40,74 @@ public class SolrIndexUpdater {
     @Value("${org.orcid.persistence.messaging.solr_indexing.auto_commit:false}")
     boolean autoCommit;
     
+    @Value("${org.orcid.messaging.solr_indexing.batch.enabled:false}")
+    boolean batchEnabled;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.max_size:100}")
+    int batchMaxSize;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.window_millis:1000}")
+    long batchWindowMillis;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.commit_within_millis:10000}")
+    int batchCommitWithinMillis;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.max_pending:1000}")
+    int batchMaxPending;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.max_retries:5}")
+    int batchMaxRetries;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.retry_backoff_millis:500}")
+    long batchRetryBackoffMillis;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.hash_cache.max_size:100000}")
+    long hashCacheMaxSize;
+    
+    @Value("${org.orcid.messaging.solr_indexing.batch.hash_cache.expiry_minutes:60}")
+    long hashCacheExpiryMinutes;
+    
+    private SolrBatchWriter<OrcidSolrDocument> recordsWriter;
+    
+    private SolrBatchWriter<OrgDisambiguatedSolrDocument> orgsWriter;
+    
+    @PostConstruct
+    public void init() {
+        if (batchEnabled) {
+            recordsWriter = createWriter("profile", solrClient, OrcidSolrDocument::getOrcid);
+            orgsWriter = createWriter("org", solrOrgsClient, doc -> String.valueOf(doc.getOrgDisambiguatedId()));
+        }
+    }
+    
+    @PreDestroy
+    public void destroy() {
+        if (recordsWriter != null) {
+            recordsWriter.shutdown();
+        }
+        if (orgsWriter != null) {
+            orgsWriter.shutdown();
+        }
+    }
+    
+    private <T> SolrBatchWriter<T> createWriter(String name, SolrClient client, Function<T, String> idFunction) {
+        SolrBatchWriter<T> writer = new SolrBatchWriter<T>(name, client, idFunction);
+        writer.setMaxBatchSize(batchMaxSize);
+        writer.setWindowMillis(batchWindowMillis);
+        writer.setCommitWithinMillis(batchCommitWithinMillis);
+        writer.setMaxPending(batchMaxPending);
+        writer.setMaxRetries(batchMaxRetries);
+        writer.setRetryBackoffMillis(batchRetryBackoffMillis);
+        writer.setHashCache(hashCacheMaxSize, hashCacheExpiryMinutes);
+        return writer;
+    }
+    
     public void delete(String orgDisambiguatedId) {
         try {            
-            solrOrgsClient.deleteById(orgDisambiguatedId);            
+            if (orgsWriter != null) {
+                orgsWriter.delete(orgDisambiguatedId);
+            } else {
+                solrOrgsClient.deleteById(orgDisambiguatedId);
+            }
         } catch (SolrServerException se) {
             throw new NonTransientDataAccessResourceException("Error persisting org " + orgDisambiguatedId + " to SOLR Server", se);
         } catch (IOException ioe) {
@@ -56,6 +125,21 @@ public class SolrIndexUpdater {
         }
     } 
     
+    /**
+     * Adds the org to the current batch when batching is enabled, otherwise
+     * persists it right away
+     * 
+     * @return a future that completes once the org is indexed, or skipped
+     *         because it did not change
+     */
+    public CompletableFuture<Boolean> persistAsync(OrgDisambiguatedSolrDocument orgDisambiguatedSolrDocument) {
+        if (orgsWriter != null) {
+            return orgsWriter.add(orgDisambiguatedSolrDocument);
+        }
+        persist(orgDisambiguatedSolrDocument);
+        return CompletableFuture.completedFuture(true);
+    }
+    
     public void persist(OrcidSolrDocument orcidSolrDocument) {
         try {
             solrClient.addBean(orcidSolrDocument);
@@ -69,8 +153,27 @@ public class SolrIndexUpdater {
         }
     } 
     
+    /**
+     * Adds the record to the current batch when batching is enabled, otherwise
+     * persists it right away
+     * 
+     * @return a future that completes once the record is indexed, or skipped
+     *         because it did not change
+     */
+    public CompletableFuture<Boolean> persistAsync(OrcidSolrDocument orcidSolrDocument) {
+        if (recordsWriter != null) {
+            return recordsWriter.add(orcidSolrDocument);
+        }
+        persist(orcidSolrDocument);
+        return CompletableFuture.completedFuture(true);
+    }
+    
     public void removeFromSolr(OrcidSolrDocument orcidSolrDocument) {
         try {
+            if (recordsWriter != null) {
+                recordsWriter.delete(orcidSolrDocument.getOrcid());
+                return;
+            }
             solrClient.deleteById(orcidSolrDocument.getOrcid());
             if(autoCommit) {
                 solrClient.commit();
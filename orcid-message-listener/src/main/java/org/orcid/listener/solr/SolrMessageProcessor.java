@@ -88,8 +88,14 @@ public class SolrMessageProcessor implements Consumer<LastModifiedMessage> {
                 }
             }            
             
-            solrUpdater.persist(recordConv.convert(record, researchResourcesList));
-            manager.setSolrOk(orcid);
+            solrUpdater.persistAsync(recordConv.convert(record, researchResourcesList)).whenComplete((indexed, error) -> {
+                if (error == null) {
+                    manager.setSolrOk(orcid);
+                } else {
+                    LOG.error("Unable to persist record " + orcid + " in SOLR", error);
+                    manager.setSolrFail(orcid);
+                }
+            });
         } catch(LockedRecordException lre) {
             LOG.error("Record " + orcid + " is locked");
             solrUpdater.processInvalidRecord(orcid);
@@ -35,6 +35,9 @@ public class SolrOrgsMessageProcessor implements Consumer<OrgDisambiguatedSolrDo
     @Resource
     private SolrIndexUpdater solrUpdater;
 
+    @Value("${org.orcid.messaging.solr_indexing.batch.retry_backoff_millis:500}")
+    private long retryBackoffMillis;
+
     @Value("${org.orcid.core.slack.webhookUrl:}")
     private String webhookUrl;
 
@@ -60,19 +63,39 @@ public class SolrOrgsMessageProcessor implements Consumer<OrgDisambiguatedSolrDo
             if("DEPRECATED".equals(t.getOrgDisambiguatedStatus()) || "OBSOLETE".equals(t.getOrgDisambiguatedStatus()) || "PART_OF_GROUP".equals(t.getOrgDisambiguatedStatus()) || "REMOVED".equals(t.getOrgDisambiguatedStatus())) {
                 solrUpdater.delete(String.valueOf(t.getOrgDisambiguatedId()));
             } else {
-                solrUpdater.persist(t);                
+                // When batching is enabled, the batch has already been retried
+                // if it fails
+                solrUpdater.persistAsync(t).whenComplete((indexed, error) -> {
+                    if (error != null) {
+                        LOG.error("Unable to persists org " + t.getOrgDisambiguatedId() + " in SOLR", error);
+                        sendFailureAlert(t);
+                    }
+                });
             }                        
         } catch (Exception e) {
             LOG.error("Unable to persists org " + t.getOrgDisambiguatedId() + " in SOLR");
             LOG.error(e.getMessage(), e);
             if (retryCount > MAX_RETRY_COUNT) {
-                sendSystemAlert("SOLR Index error: Unable to persist org with disambiguated org id = " + t.getOrgDisambiguatedId() + " and name " + t.getOrgDisambiguatedName() + " in SOLR");
+                sendFailureAlert(t);
             } else {
+                backOff(retryCount);
                 process(t, retryCount + 1);
             }
         }
     }
 
+    private void backOff(int retryCount) {
+        try {
+            Thread.sleep(retryBackoffMillis << retryCount);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendFailureAlert(OrgDisambiguatedSolrDocument t) {
+        sendSystemAlert("SOLR Index error: Unable to persist org with disambiguated org id = " + t.getOrgDisambiguatedId() + " and name " + t.getOrgDisambiguatedName() + " in SOLR");
+    }
+
     private void sendSystemAlert(String message) {
         if (StringUtils.isNotBlank(webhookUrl)) {
             Map<String, String> bodyMap = new HashMap<>();
@@ -1,5 +1,6 @@
 package org.orcid.listener.clients;
 
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -9,6 +10,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.Date;
+import java.util.List;
 
 import javax.ws.rs.core.MediaType;
 import javax.xml.bind.JAXBException;
@@ -178,4 +180,33 @@ public class S3ManagerTest {
         verify(s3MessagingService, times(1)).safelyRemoveV3Activity(eq("0000-0000-0000-0000"), eq("0000-0000-0000-0000/work/1.xml"));
         verify(s3MessagingService, times(1)).safelyRemoveV3Activity(eq("0000-0000-0000-0000"), eq("0000-0000-0000-0000/work/2.xml"));
     }
+    
+    @Test
+    public void clearV3ActivitiesByTypeInBatchTest() throws JAXBException {
+        S3ObjectSummary o1 = new S3ObjectSummary();
+        o1.setKey("0000-0000-0000-0000/work/1.xml");
+        S3ObjectSummary o2 = new S3ObjectSummary();
+        o2.setKey("0000-0000-0000-0000/work/2.xml");
+        ListObjectsV2Result r = new ListObjectsV2Result();
+        r.getObjectSummaries().add(o1);
+        r.getObjectSummaries().add(o2);
+        when(s3MessagingService.listObjects(any())).thenReturn(r);
+        when(s3MessagingService.safelyRemoveV3Activities(any(), any())).thenReturn(true);
+        
+        s3.setBatchDeletes(true);
+        assertTrue(s3.clearV3ActivitiesByType("0000-0000-0000-0000", ActivityType.DISTINCTIONS));
+        
+        verify(s3MessagingService, times(1)).safelyRemoveV3Activities(eq("0000-0000-0000-0000"), eq(List.of("0000-0000-0000-0000/work/1.xml", "0000-0000-0000-0000/work/2.xml")));
+        verify(s3MessagingService, times(0)).safelyRemoveV3Activity(any(), any());
+    }
+    
+    @Test
+    public void removeV3ActivitiesTest() throws JAXBException {
+        when(s3MessagingService.safelyRemoveV3Activities(any(), any())).thenReturn(true);
+        
+        assertTrue(s3.removeV3Activities("0000-0000-0000-0000", List.of("1", "2"), ActivityType.WORKS));
+        
+        verify(s3MessagingService, times(1)).safelyRemoveV3Activities(eq("0000-0000-0000-0000"),
+                eq(List.of("000/0000-0000-0000-0000/works/0000-0000-0000-0000_works_1.xml", "000/0000-0000-0000-0000/works/0000-0000-0000-0000_works_2.xml")));
+    }
 }
@@ -15,6 +15,7 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -119,6 +120,7 @@ public class S3MessageProcessorAPIV3Test {
     public void before() throws LockedRecordException, DeprecatedRecordException, ExecutionException, IOException, InterruptedException {
         MockitoAnnotations.initMocks(this);
         TargetProxyHelper.injectIntoProxy(processor, "isV3IndexingEnabled", true);
+        TargetProxyHelper.injectIntoProxy(processor, "isPipelinedSyncEnabled", false);
         TargetProxyHelper.injectIntoProxy(processor, "orcid30ApiClient", mock_orcid30ApiClient);
         TargetProxyHelper.injectIntoProxy(processor, "api30RecordStatusManager", mock_api30RecordStatusManager);
         TargetProxyHelper.injectIntoProxy(processor, "s3Manager", mock_s3Manager);
@@ -2050,6 +2052,58 @@ public class S3MessageProcessorAPIV3Test {
         verify(mock_s3Manager, times(0)).removeV3Activity(any(), any(), any());
     }
 
+    @Test
+    public void pipelinedSyncUploadsAllActivitiesTest() throws Exception {
+        TargetProxyHelper.injectIntoProxy(processor, "isPipelinedSyncEnabled", true);
+        process(orcid);
+
+        verify(mock_s3Manager, times(1)).uploadV3RecordSummary(eq(orcid), any());
+        for (ActivityType type : ActivityType.values()) {
+            verify(mock_s3Manager, times(1)).uploadV3Activity(eq(orcid), eq("0"), eq(type), any(Date.class), any());
+        }
+        verify(mock_s3Manager, times(0)).removeV3Activities(any(), any(), any());
+        verifyErrorAndClearWasntCalled();
+        final ArgumentCaptor<ArrayList<ActivityType>> captor = ArgumentCaptor.forClass(ArrayList.class);
+        verify(mock_api30RecordStatusManager, times(1)).save(eq(orcid), eq(true), captor.capture());
+        assertTrue(captor.getValue().isEmpty());
+    }
+
+    @Test
+    public void pipelinedSyncRemovesDeletedActivitiesInBatchTest() throws Exception {
+        TargetProxyHelper.injectIntoProxy(processor, "isPipelinedSyncEnabled", true);
+        when(mock_s3Manager.searchActivities(eq(orcid), eq(APIVersion.V3))).thenReturn(getMapOfActivities_AddOneExtraOfType(ActivityType.WORKS));
+        when(mock_s3Manager.removeV3Activities(eq(orcid), any(), eq(ActivityType.WORKS))).thenReturn(true);
+        process(orcid);
+
+        verify(mock_s3Manager, times(0)).uploadV3Activity(any(), any(), any(), any(Date.class), any());
+        final ArgumentCaptor<Collection<String>> putCodesCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(mock_s3Manager, times(1)).removeV3Activities(eq(orcid), putCodesCaptor.capture(), eq(ActivityType.WORKS));
+        assertEquals(List.of("1"), new ArrayList<String>(putCodesCaptor.getValue()));
+        verify(mock_s3Manager, times(0)).removeV3Activity(any(), any(), any());
+        verifyErrorAndClearWasntCalled();
+        final ArgumentCaptor<ArrayList<ActivityType>> captor = ArgumentCaptor.forClass(ArrayList.class);
+        verify(mock_api30RecordStatusManager, times(1)).save(eq(orcid), eq(true), captor.capture());
+        assertTrue(captor.getValue().isEmpty());
+    }
+
+    @Test
+    public void pipelinedSyncFetchFailureTest() throws Exception {
+        TargetProxyHelper.injectIntoProxy(processor, "isPipelinedSyncEnabled", true);
+        when(mock_s3Manager.searchActivities(eq(orcid), eq(APIVersion.V3))).thenReturn(getMapOfActivities_AddOneExtraOfType(ActivityType.WORKS));
+        when(mock_orcid30ApiClient.fetchActivity(eq(orcid), eq(0L), eq("work"))).thenThrow(new IOException("error"));
+        Record r = getRecord();
+        r.getActivitiesSummary().getWorks().getWorkGroup().get(0).getWorkSummary().get(0).getLastModifiedDate().setValue(after);
+        when(mock_orcid30ApiClient.fetchPublicRecord(any())).thenReturn(r);
+        process(orcid);
+
+        verify(mock_s3Manager, times(0)).uploadV3Activity(any(), any(), eq(ActivityType.WORKS), any(Date.class), any());
+        // Deleted activities are not removed if any activity failed
+        verify(mock_s3Manager, times(0)).removeV3Activities(any(), any(), any());
+        final ArgumentCaptor<ArrayList<ActivityType>> captor = ArgumentCaptor.forClass(ArrayList.class);
+        verify(mock_api30RecordStatusManager, times(1)).save(eq(orcid), eq(true), captor.capture());
+        assertEquals(List.of(ActivityType.WORKS), captor.getValue());
+    }
+
     private void verifyErrorAndClearWasntCalled() throws AmazonServiceException, JsonProcessingException, AmazonClientException, JAXBException {
         verify(mock_s3Manager, times(0)).uploadV3OrcidError(any(), any());
         verify(mock_s3Manager, times(0)).clearV3ActivitiesByType(any(), any());
@@ -0,0 +1,146 @@
+package org.orcid.listener.solr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.beans.DocumentObjectBinder;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.orcid.utils.solr.entities.OrcidSolrDocument;
+
+public class SolrBatchWriterTest {
+
+    private SolrClient solrClient;
+
+    private SolrBatchWriter<OrcidSolrDocument> writer;
+
+    @Before
+    public void before() {
+        solrClient = mock(SolrClient.class);
+        when(solrClient.getBinder()).thenReturn(new DocumentObjectBinder());
+        writer = new SolrBatchWriter<OrcidSolrDocument>("profile", solrClient, OrcidSolrDocument::getOrcid);
+        writer.setMaxBatchSize(3);
+        writer.setWindowMillis(60000);
+        writer.setCommitWithinMillis(5000);
+        writer.setMaxRetries(2);
+        writer.setRetryBackoffMillis(10);
+    }
+
+    @After
+    public void after() {
+        writer.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void sendsFullBatchesInOneRequestTest() throws Exception {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(writer.add(document("0000-0000-0000-000" + i, "name")));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.get(10, TimeUnit.SECONDS));
+        }
+        ArgumentCaptor<Collection<?>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(solrClient, times(1)).addBeans(batch.capture(), eq(5000));
+        assertEquals(3, batch.getValue().size());
+        verify(solrClient, never()).commit();
+    }
+
+    @Test
+    public void sendsPartialBatchesAfterTheWindowTest() throws Exception {
+        writer.setWindowMillis(50);
+        assertTrue(writer.add(document("0000-0000-0000-0001", "name")).get(10, TimeUnit.SECONDS));
+        verify(solrClient, times(1)).addBeans(anyCollection(), eq(5000));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void onlyTheLatestVersionIsSentTest() throws Exception {
+        CompletableFuture<Boolean> first = writer.add(document("0000-0000-0000-0001", "old"));
+        CompletableFuture<Boolean> second = writer.add(document("0000-0000-0000-0001", "new"));
+        writer.flush();
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+        ArgumentCaptor<Collection<OrcidSolrDocument>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(solrClient, times(1)).addBeans(batch.capture(), eq(5000));
+        assertEquals(1, batch.getValue().size());
+        assertEquals("new", batch.getValue().iterator().next().getGivenNames());
+    }
+
+    @Test
+    public void unchangedDocumentsAreSkippedTest() throws Exception {
+        CompletableFuture<Boolean> result = writer.add(document("0000-0000-0000-0001", "name"));
+        writer.flush();
+        assertTrue(result.get(10, TimeUnit.SECONDS));
+        // Same content as the indexed version
+        assertFalse(writer.add(document("0000-0000-0000-0001", "name")).get(10, TimeUnit.SECONDS));
+        // Changed
+        result = writer.add(document("0000-0000-0000-0001", "other"));
+        writer.flush();
+        assertTrue(result.get(10, TimeUnit.SECONDS));
+        verify(solrClient, times(2)).addBeans(anyCollection(), eq(5000));
+    }
+
+    @Test
+    public void failedBatchesAreRetriedTest() throws Exception {
+        when(solrClient.addBeans(anyCollection(), eq(5000))).thenThrow(new IOException("unavailable")).thenReturn(new UpdateResponse());
+        CompletableFuture<Boolean> result = writer.add(document("0000-0000-0000-0001", "name"));
+        writer.flush();
+        assertTrue(result.get(10, TimeUnit.SECONDS));
+        verify(solrClient, times(2)).addBeans(anyCollection(), eq(5000));
+    }
+
+    @Test
+    public void batchesFailAfterMaxRetriesTest() throws Exception {
+        when(solrClient.addBeans(anyCollection(), eq(5000))).thenThrow(new IOException("unavailable"));
+        CompletableFuture<Boolean> result = writer.add(document("0000-0000-0000-0001", "name"));
+        writer.flush();
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getCause() instanceof IOException);
+        }
+        verify(solrClient, times(3)).addBeans(anyCollection(), eq(5000));
+    }
+
+    @Test
+    public void deleteDropsThePendingVersionTest() throws Exception {
+        CompletableFuture<Boolean> result = writer.add(document("0000-0000-0000-0001", "name"));
+        writer.delete("0000-0000-0000-0001");
+        assertFalse(result.get(10, TimeUnit.SECONDS));
+        writer.flush();
+        verify(solrClient, times(1)).deleteById("0000-0000-0000-0001", 5000);
+        verify(solrClient, never()).addBeans(anyCollection(), eq(5000));
+    }
+
+    private OrcidSolrDocument document(String orcid, String givenNames) {
+        OrcidSolrDocument document = new OrcidSolrDocument();
+        document.setOrcid(orcid);
+        document.setGivenNames(givenNames);
+        return document;
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.orcid.persistence.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -44,6 +45,11 @@ public interface ClientDetailsDao extends GenericDao<ClientDetailsEntity, String
     String getMemberName(String clientId);
     
     boolean existsAndIsNotPublicClient(String clientId);
+
+    /**
+     * @return the id and name of the given clients that are not public clients
+     */
+    List<Object[]> getNonPublicClientNames(Collection<String> clientIds);
     
     Date getLastModifiedIfNotPublicClient(String clientId);
     
@@ -1,5 +1,6 @@
 package org.orcid.persistence.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.orcid.persistence.jpa.entities.EmailEntity;
@@ -12,6 +13,12 @@ import org.orcid.persistence.jpa.entities.EmailEntity;
 public interface EmailDao extends GenericDao<EmailEntity, String> {
 
     boolean emailExists(String emailHash);
+
+    /**
+     * @return the hashes in the given collection that belong to an existing
+     *         email
+     */
+    List<String> findExistingEmailHashes(Collection<String> emailHashes);
     
     EmailEntity findByEmail(String email);
 
@@ -60,6 +67,8 @@ public interface EmailDao extends GenericDao<EmailEntity, String> {
     boolean isPrimaryEmail(String orcid, String email);
     
     EmailEntity findPrimaryEmail(String orcid);
+
+    List<EmailEntity> findPrimaryEmails(Collection<String> orcids);
     
     boolean hideAllEmails(String orcid);
 
@@ -8,6 +8,12 @@ public interface EmailScheduleDao extends GenericDao<EmailScheduleEntity, Long>
 
     Long getValidScheduleId();
 
+    /**
+     * @return the schedule that is started, not ended and not paused, without
+     *         checking when the latest email was sent, or null if there is none
+     */
+    EmailScheduleEntity findActiveSchedule();
+
     void updateLatestSent(Long scheduleId, Date latestSentDate);
 
 }
@@ -28,7 +28,19 @@ public interface NotificationDao extends GenericDao<NotificationEntity, Long> {
 
     List<Object[]> findRecordsWithUnsentNotifications();
 
+    /**
+     * Same as {@link #findRecordsWithUnsentNotifications()}, but returns at
+     * most maxResults records, starting after the given orcid
+     */
+    List<Object[]> findRecordsWithUnsentNotifications(String afterOrcid, int maxResults);
+
     List<NotificationEntity> findNotificationsToSend(Date effectiveDate, String orcid, Date recordActiveDate);
+
+    /**
+     * Same as {@link #findNotificationsToSend(Date, String, Date)} for a batch
+     * of records, taking the active date of each record from the profile table
+     */
+    List<NotificationEntity> findNotificationsToSend(Date effectiveDate, Collection<String> orcids);
     
     List<NotificationEntity> findNotificationsToSendLegacy(Date effectiveDate, String orcid, Float emailFrequency, Date recordActiveDate);
 
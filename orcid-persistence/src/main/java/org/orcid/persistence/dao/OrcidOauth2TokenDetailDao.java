@@ -13,6 +13,16 @@ public interface OrcidOauth2TokenDetailDao extends GenericDao<OrcidOauth2TokenDe
 
     OrcidOauth2TokenDetail findByTokenValue(String token);
 
+    /**
+     * Looks up the clients of the given tokens in a single query
+     * 
+     * @param tokenValues
+     *            the token values
+     * @return a list of token value and client details id pairs, tokens that
+     *         don't exist are not included
+     */
+    List<Object[]> findClientDetailsIdsByTokenValues(List<String> tokenValues);
+
     OrcidOauth2TokenDetail findNonDisabledByTokenValue(String tokenValue);    
 
     void removeByRefreshTokenValue(String refreshTokenValue);
@@ -19,18 +19,47 @@ public interface OrgDisambiguatedDao extends GenericDao<OrgDisambiguatedEntity,
     
     List<OrgDisambiguatedEntity> findBySourceType(String sourceType,int firstResult, int maxResults);
 
+    /**
+     * Keyset paged projection of the orgs of the given source type, ordered by
+     * id. Each row holds the id, source id, name, country, city, region, url,
+     * org type, status and source parent id of an org, so loaders can compare
+     * a whole source against its data file without loading the entities and
+     * their external identifiers
+     * 
+     * @param afterId
+     *            only orgs with an id greater than this one are returned, null
+     *            to start from the beginning
+     */
+    List<Object[]> findOrgDetailsBySourceType(String sourceType, Long afterId, int maxResults);
+
     OrgDisambiguatedEntity findBySourceIdAndSourceType(String sourceId, String sourceType);
 
     OrgDisambiguatedEntity findByNameCityRegionCountryAndSourceType(String name, String city, String region, String country, String sourceType);
 
     List<OrgDisambiguatedEntity> findByName(String name);
 
-    List<OrgDisambiguatedEntity> findOrgsToGroup(int firstResult, int maxResult);
+    /**
+     * Keyset paged version of the grouping query, ordered by id
+     * 
+     * @param afterId
+     *            only orgs with an id greater than this one are returned, null
+     *            to start from the beginning
+     */
+    List<OrgDisambiguatedEntity> findOrgsToGroup(Long afterId, int maxResult);
     
-    List<OrgDisambiguatedEntity> findOrgsPendingIndexing(int firstResult, int maxResult);
+    /**
+     * Keyset paged list of the orgs pending indexing, ordered by id
+     * 
+     * @param afterId
+     *            only orgs with an id greater than this one are returned, null
+     *            to start from the beginning
+     */
+    List<OrgDisambiguatedEntity> findOrgsPendingIndexing(Long afterId, int maxResult);
 
     void updateIndexingStatus(Long orgDisambiguatedId, IndexingStatus indexingStatus);
 
+    void updateIndexingStatus(List<Long> orgDisambiguatedIds, IndexingStatus indexingStatus);
+
     List<Pair<Long, Integer>> findDisambuguatedOrgsWithIncorrectPopularity(int maxResults);
 
     void updatePopularity(Long orgDisambiguatedId, Integer popularity);
@@ -12,5 +12,12 @@ public interface OrgDisambiguatedExternalIdentifierDao extends GenericDao<OrgDis
 
     List<OrgDisambiguatedExternalIdentifierEntity> findISNIsOfIncorrectLength(int batchSize);
 
-    List<OrgDisambiguatedExternalIdentifierEntity> findByIdentifierIdAndType(String identifier, String identifierType);    
+    List<OrgDisambiguatedExternalIdentifierEntity> findByIdentifierIdAndType(String identifier, String identifierType);
+
+    /**
+     * Projection of the external identifiers of the given orgs, each row holds
+     * the org disambiguated id, the external identifier id, type, value and
+     * preferred flag
+     */
+    List<Object[]> findExternalIdentifiers(List<Long> orgDisambiguatedIds);
 }
@@ -53,6 +53,31 @@ public interface ProfileDao extends GenericDao<ProfileEntity, String> {
      */
     List<String> findOrcidsByIndexingStatus(IndexingStatus indexingStatus, int maxResults, Collection<String> orcidsToExclude, Integer delay);
 
+    /**
+     * Get the ORCID ids and last modified dates of the records with the given
+     * indexing status, ordered by last modified date and ORCID id, starting
+     * after the given position, so the records can be paged through without
+     * the page boundaries moving while they are being processed
+     * 
+     * @param indexingStatus
+     *            The desired indexing status
+     * @param maxResults
+     *            Max number of results
+     * @param delay
+     *            A delay that will allow us to obtain records after no one is
+     *            modifying it anymore, so, we prevent processing the same
+     *            record several times
+     * @param afterLastModified
+     *            The last modified date of the last record of the previous
+     *            page. Records without last modified date come first.
+     * @param afterOrcid
+     *            The ORCID id of the last record of the previous page, or
+     *            null to get the first page
+     * @return a list of pairs where the left element contains the orcid id
+     *         and the right element contains the last modified date
+     */
+    List<Pair<String, Date>> findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus indexingStatus, int maxResults, Integer delay, Date afterLastModified, String afterOrcid);
+
     List<String> findUnclaimedNotIndexedAfterWaitPeriod(int waitPeriodDays, int maxDaysBack, int maxResults, Collection<String> orcidsToExclude);
 
     List<String> findUnclaimedNeedingReminder(int reminderAfterDays, int maxResults, Collection<String> orcidsToExclude);
@@ -141,6 +166,13 @@ public interface ProfileDao extends GenericDao<ProfileEntity, String> {
 
     List<ProfileEventEntity> getProfileEvents(String orcid, List<ProfileEventType> eventTypeNames);
 
+    /**
+     * @return the orcids in the given collection that belong to active
+     *         (not deactivated, deprecated or locked) records accepting
+     *         quarterly tips
+     */
+    List<String> findActiveOrcidsAcceptingQuarterlyTips(Collection<String> orcids);
+
     ProfileEntity getLockedReason(String orcid);
 
     int deleteProfilesOfType(String orcidType);
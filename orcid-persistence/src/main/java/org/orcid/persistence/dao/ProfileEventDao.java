@@ -1,5 +1,8 @@
 package org.orcid.persistence.dao;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.orcid.persistence.jpa.entities.ProfileEventEntity;
 import org.orcid.persistence.jpa.entities.ProfileEventType;
 
@@ -11,5 +14,12 @@ import org.orcid.persistence.jpa.entities.ProfileEventType;
 public interface ProfileEventDao extends GenericDao<ProfileEventEntity, Long> {
 
     boolean isAttemptSend(String orcid, ProfileEventType eventType);
+
+    List<ProfileEventEntity> findByOrcidsAndTypes(Collection<String> orcids, Collection<ProfileEventType> eventTypes);
+
+    /**
+     * Persists all the events in a single transaction
+     */
+    void persistAll(Collection<ProfileEventEntity> events);
     
 }
@@ -18,4 +18,18 @@ public interface WebhookDao extends GenericDao<WebhookEntity, WebhookEntityPk> {
     boolean markAsSent(String orcid, String uri);
     
     boolean markAsFailed(String orcid, String uri);
+
+    /**
+     * Marks the webhooks as sent in a single JDBC batch
+     * 
+     * @return the number of webhooks updated
+     */
+    int markAsSent(List<WebhookEntityPk> webhooks);
+
+    /**
+     * Marks the webhooks as failed in a single JDBC batch
+     * 
+     * @return the number of webhooks updated
+     */
+    int markAsFailed(List<WebhookEntityPk> webhooks);
 }
@@ -140,5 +140,22 @@ public interface WorkDao extends GenericDao<WorkEntity, Long> {
 
     List<Object[]> getWorksStartingFromWorkId(Long WorkId, int numberOfWorks);
 
+    /**
+     * Returns the put code and the external identifiers json of the works in
+     * the given record that belongs to the given source, to look for
+     * duplicated external identifiers without loading the full works
+     * 
+     * @param orcid
+     *            The record owner
+     * @param sourceId
+     *            The source orcid, if any
+     * @param clientSourceId
+     *            The source client id, if any
+     * @param assertionOriginClientSourceId
+     *            The member OBO client id, if any
+     * @return a list of [work_id, external_ids_json] rows
+     */
+    List<Object[]> getExternalIdentifiersBySource(String orcid, String sourceId, String clientSourceId, String assertionOriginClientSourceId);
 
+    long countWorks(String orcid);
 }
@@ -1,5 +1,7 @@
 package org.orcid.persistence.dao.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -196,6 +198,17 @@ public class ClientDetailsDaoImpl extends GenericDaoImpl<ClientDetailsEntity, St
         return (result != null && result > 0);
     }
 
+    @Override
+    public List<Object[]> getNonPublicClientNames(Collection<String> clientIds) {
+        if (clientIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery("select id, clientName from ClientDetailsEntity where id in :clientIds and clientType != :type", Object[].class);
+        query.setParameter("clientIds", clientIds);
+        query.setParameter("type", PUBLIC_CLIENT);
+        return query.getResultList();
+    }
+
     @Override
     public Date getLastModifiedIfNotPublicClient(String clientId) {
         Query query = entityManager.createQuery("SELECT lastModified FROM ClientDetailsEntity WHERE id = :id AND clientType != :type");
@@ -1,5 +1,7 @@
 package org.orcid.persistence.dao.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.persistence.Query;
@@ -36,6 +38,16 @@ public class EmailDaoImpl extends GenericDaoImpl<EmailEntity, String> implements
         Long result = query.getSingleResult();
         return (result != null && result > 0);
     }
+
+    @Override
+    public List<String> findExistingEmailHashes(Collection<String> emailHashes) {
+        if (emailHashes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<String> query = entityManager.createQuery("select id from EmailEntity where id in :emailHashes", String.class);
+        query.setParameter("emailHashes", emailHashes);
+        return query.getResultList();
+    }
     
     @Override
     public String findOrcidIdByEmailHash(String emailHash) {
@@ -246,6 +258,16 @@ public class EmailDaoImpl extends GenericDaoImpl<EmailEntity, String> implements
         return query.getSingleResult();
     }
 
+    @Override
+    public List<EmailEntity> findPrimaryEmails(Collection<String> orcids) {
+        if (orcids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<EmailEntity> query = entityManager.createQuery("from EmailEntity where orcid in :orcids and primary = true", EmailEntity.class);
+        query.setParameter("orcids", orcids);
+        return query.getResultList();
+    }
+
     @Override
     @Transactional
     public boolean hideAllEmails(String orcid) {
@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.List;
 
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
 import org.orcid.persistence.dao.EmailScheduleDao;
@@ -24,6 +25,16 @@ public class EmailScheduleDaoImpl extends GenericDaoImpl<EmailScheduleEntity, Lo
         return results.isEmpty() ? -1L : results.get(0).longValue();
     }
 
+    @Override
+    public EmailScheduleEntity findActiveSchedule() {
+        TypedQuery<EmailScheduleEntity> query = entityManager.createQuery(
+                "from EmailScheduleEntity where scheduleStart <= :now and (scheduleEnd is null or scheduleEnd > :now) and paused = false order by id", EmailScheduleEntity.class);
+        query.setParameter("now", new Date());
+        query.setMaxResults(1);
+        List<EmailScheduleEntity> results = query.getResultList();
+        return results.isEmpty() ? null : results.get(0);
+    }
+
     @Override
     @Transactional
     public void updateLatestSent(Long scheduleId, Date latestSentDate) {
@@ -204,6 +204,16 @@ public class NotificationDaoImpl extends GenericDaoImpl<NotificationEntity, Long
         query.setParameter("never", Float.MAX_VALUE);               
         return query.getResultList();
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Object[]> findRecordsWithUnsentNotifications(String afterOrcid, int maxResults) {
+        Query query = entityManager.createNamedQuery(NotificationEntity.FIND_ORCIDS_WITH_UNSENT_NOTIFICATIONS_AFTER_ORCID);
+        query.setParameter("never", Float.MAX_VALUE);
+        query.setParameter("after_orcid", afterOrcid == null ? "" : afterOrcid);
+        query.setMaxResults(maxResults);
+        return query.getResultList();
+    }
                
 
     @Override
@@ -226,6 +236,19 @@ public class NotificationDaoImpl extends GenericDaoImpl<NotificationEntity, Long
         query.setParameter("record_active_date", recordActiveDate);
         return query.getResultList();
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<NotificationEntity> findNotificationsToSend(Date effectiveDate, Collection<String> orcids) {
+        if (orcids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String unsentNotificationsQuery = notificationQueries.getProperty("notifications.unsent.batch");
+        Query query = entityManager.createNativeQuery(unsentNotificationsQuery, NotificationEntity.class);
+        query.setParameter("orcids", orcids);
+        query.setParameter("effective_date", effectiveDate);
+        return query.getResultList();
+    }
         
     @Override
     @Transactional
@@ -1,5 +1,6 @@
 package org.orcid.persistence.dao.impl;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -34,6 +35,17 @@ public class OrcidOauth2TokenDetailDaoImpl extends GenericDaoImpl<OrcidOauth2Tok
         return query.getSingleResult();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findClientDetailsIdsByTokenValues(List<String> tokenValues) {
+        if (tokenValues == null || tokenValues.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = entityManager.createQuery("select tokenValue, clientDetailsId from OrcidOauth2TokenDetail where tokenValue in :tokenValues");
+        query.setParameter("tokenValues", tokenValues);
+        return query.getResultList();
+    }
+
     @Override
     public OrcidOauth2TokenDetail findNonDisabledByTokenValue(String tokenValue) {
         Assert.hasText(tokenValue, "Attempt to retrieve a OrcidOauth2TokenDetail with a null or empty token value");
@@ -2,6 +2,7 @@ package org.orcid.persistence.dao.impl;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.persistence.Query;
@@ -50,6 +51,23 @@ public class OrgDisambiguatedDaoImpl extends GenericDaoImpl<OrgDisambiguatedEnti
         return query.getResultList();
     }
 
+    @Override
+    public List<Object[]> findOrgDetailsBySourceType(String sourceType, Long afterId, int maxResults) {
+        StringBuilder builder = new StringBuilder(
+                "select id, sourceId, name, country, city, region, url, orgType, status, sourceParentId from OrgDisambiguatedEntity where sourceType = :sourceType");
+        if (afterId != null) {
+            builder.append(" and id > :afterId");
+        }
+        builder.append(" order by id");
+        TypedQuery<Object[]> query = entityManager.createQuery(builder.toString(), Object[].class);
+        query.setParameter("sourceType", sourceType);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        query.setMaxResults(maxResults);
+        return query.getResultList();
+    }
+
     @Override
     public List<OrgDisambiguatedEntity> getChunk(int firstResult, int maxResults) {
         // Order by id so that we can page through in a predictable way
@@ -100,18 +118,32 @@ public class OrgDisambiguatedDaoImpl extends GenericDaoImpl<OrgDisambiguatedEnti
 
     @SuppressWarnings("unchecked")
     @Override
-    public List<OrgDisambiguatedEntity> findOrgsToGroup(int firstResult, int maxResult) {
-        Query query = entityManager.createNativeQuery(GROUPING_ORGS_QUERY, OrgDisambiguatedEntity.class);
-        query.setFirstResult(firstResult);
+    public List<OrgDisambiguatedEntity> findOrgsToGroup(Long afterId, int maxResult) {
+        // The grouping query is configurable, so page over it as a sub query
+        StringBuilder builder = new StringBuilder("select * from (" + GROUPING_ORGS_QUERY + ") orgs_to_group");
+        if (afterId != null) {
+            builder.append(" where orgs_to_group.id > :afterId");
+        }
+        builder.append(" order by orgs_to_group.id");
+        Query query = entityManager.createNativeQuery(builder.toString(), OrgDisambiguatedEntity.class);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
         query.setMaxResults(maxResult);
         return query.getResultList();
     }
 
     @Override
-    public List<OrgDisambiguatedEntity> findOrgsPendingIndexing(int firstResult, int maxResult) {
-        TypedQuery<OrgDisambiguatedEntity> query = entityManager.createQuery("from OrgDisambiguatedEntity where indexingStatus not in ('DONE', 'IGNORE')",
-                OrgDisambiguatedEntity.class);
-        query.setFirstResult(0);
+    public List<OrgDisambiguatedEntity> findOrgsPendingIndexing(Long afterId, int maxResult) {
+        StringBuilder builder = new StringBuilder("from OrgDisambiguatedEntity where indexingStatus not in ('DONE', 'IGNORE')");
+        if (afterId != null) {
+            builder.append(" and id > :afterId");
+        }
+        builder.append(" order by id");
+        TypedQuery<OrgDisambiguatedEntity> query = entityManager.createQuery(builder.toString(), OrgDisambiguatedEntity.class);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
         query.setMaxResults(maxResult);
         return query.getResultList();
     }
@@ -119,14 +151,23 @@ public class OrgDisambiguatedDaoImpl extends GenericDaoImpl<OrgDisambiguatedEnti
     @Override
     @Transactional
     public void updateIndexingStatus(Long orgDisambiguatedId, IndexingStatus indexingStatus) {
+        updateIndexingStatus(Collections.singletonList(orgDisambiguatedId), indexingStatus);
+    }
+
+    @Override
+    @Transactional
+    public void updateIndexingStatus(List<Long> orgDisambiguatedIds, IndexingStatus indexingStatus) {
+        if (orgDisambiguatedIds.isEmpty()) {
+            return;
+        }
         String queryString = null;
         if (IndexingStatus.DONE.equals(indexingStatus)) {
-            queryString = "update OrgDisambiguatedEntity set indexingStatus = :indexingStatus, lastIndexedDate = now() where id = :orgDisambiguatedId";
+            queryString = "update OrgDisambiguatedEntity set indexingStatus = :indexingStatus, lastIndexedDate = now() where id in :orgDisambiguatedIds";
         } else {
-            queryString = "update OrgDisambiguatedEntity set indexingStatus = :indexingStatus where id = :orgDisambiguatedId";
+            queryString = "update OrgDisambiguatedEntity set indexingStatus = :indexingStatus where id in :orgDisambiguatedIds";
         }
         Query query = entityManager.createQuery(queryString);
-        query.setParameter("orgDisambiguatedId", orgDisambiguatedId);
+        query.setParameter("orgDisambiguatedIds", orgDisambiguatedIds);
         query.setParameter("indexingStatus", indexingStatus);
         query.executeUpdate();
     }
@@ -1,5 +1,6 @@
 package org.orcid.persistence.dao.impl;
 
+import java.util.Collections;
 import java.util.List;
 
 import javax.persistence.NoResultException;
@@ -79,4 +80,16 @@ public class OrgDisambiguatedExternalIdentifierDaoImpl extends GenericDaoImpl<Or
         return query.getResultList();
     }
 
+    @Override
+    public List<Object[]> findExternalIdentifiers(List<Long> orgDisambiguatedIds) {
+        if (orgDisambiguatedIds == null || orgDisambiguatedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "SELECT orgDisambiguated.id, id, identifierType, identifier, preferred FROM OrgDisambiguatedExternalIdentifierEntity WHERE orgDisambiguated.id IN :orgDisambiguatedIds",
+                Object[].class);
+        query.setParameter("orgDisambiguatedIds", orgDisambiguatedIds);
+        return query.getResultList();
+    }
+
 }
@@ -1,5 +1,6 @@
 package org.orcid.persistence.dao.impl;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,6 +30,9 @@ public class ProfileDaoImpl extends GenericDaoImpl<ProfileEntity, String> implem
 
     private static final String PRIVATE_VISIBILITY = "PRIVATE";
 
+    // Used in place of missing last modified dates when paging records
+    private static final String NULL_LAST_MODIFIED = "1970-01-01 00:00:00";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ProfileDaoImpl.class);
 
     private static final String FIND_EMAILS_TO_SEND_VERIFICATION_REMINTER = "SELECT e.orcid, e.email, e.is_primary "
@@ -114,6 +118,39 @@ public class ProfileDaoImpl extends GenericDaoImpl<ProfileEntity, String> implem
         return query.getResultList();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Pair<String, Date>> findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus indexingStatus, int maxResults, Integer delay, Date afterLastModified,
+            String afterOrcid) {
+        StringBuilder builder = new StringBuilder("SELECT p.orcid, p.last_modified FROM profile p WHERE p.indexing_status = :indexingStatus ");
+        if (delay != null && delay > 0) {
+            builder.append(" AND (p.last_indexed_date is null OR p.last_indexed_date < now() - INTERVAL '" + delay + " min') ");
+        }
+        // Records without last modified date go first, so they don't end the paging
+        String lastModifiedOrDefault = "COALESCE(p.last_modified, TIMESTAMP '" + NULL_LAST_MODIFIED + "')";
+        if (afterOrcid != null) {
+            builder.append(" AND (" + lastModifiedOrDefault + " > :afterLastModified OR (" + lastModifiedOrDefault + " = :afterLastModified AND p.orcid > :afterOrcid)) ");
+        }
+        // Ordering by last modified so we get the oldest modified first
+        builder.append(" ORDER BY " + lastModifiedOrDefault + ", p.orcid");
+        Query query = entityManager.createNativeQuery(builder.toString());
+        query.setParameter("indexingStatus", indexingStatus.name());
+        if (afterOrcid != null) {
+            query.setParameter("afterLastModified", afterLastModified != null ? afterLastModified : Timestamp.valueOf(NULL_LAST_MODIFIED));
+            query.setParameter("afterOrcid", afterOrcid);
+        }
+        query.setMaxResults(maxResults);
+        // Sets a timeout for this query
+        query.setHint("javax.persistence.query.timeout", queryTimeout);
+        List<Object[]> results = query.getResultList();
+        List<Pair<String, Date>> orcidsAndLastModified = new ArrayList<>(results.size());
+        for (Object[] row : results) {
+            Date lastModified = row[1] == null ? null : new Date(((Date) row[1]).getTime());
+            orcidsAndLastModified.add(Pair.of((String) row[0], lastModified));
+        }
+        return orcidsAndLastModified;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<String> findUnclaimedNotIndexedAfterWaitPeriod(int waitPeriodDays, int maxDaysBack, int maxResults, Collection<String> orcidsToExclude) {
@@ -366,6 +403,13 @@ public class ProfileDaoImpl extends GenericDaoImpl<ProfileEntity, String> implem
         query.executeUpdate();
     }
 
+    private void updateWebhookProfileLastUpdate(List<String> orcids) {
+        Query query = entityManager.createNativeQuery(
+                "update webhook set profile_last_modified = (select p.last_modified from profile p where p.orcid = webhook.orcid) where orcid in :orcids");
+        query.setParameter("orcids", orcids);
+        query.executeUpdate();
+    }
+
     private void updateWebhookProfileLastUpdate(String orcid) {
         Query query = entityManager
                 .createNativeQuery("update webhook set profile_last_modified = (select last_modified from profile where orcid = :orcid ) where orcid = :orcid ");
@@ -706,6 +750,18 @@ public class ProfileDaoImpl extends GenericDaoImpl<ProfileEntity, String> implem
         return query.getResultList();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<String> findActiveOrcidsAcceptingQuarterlyTips(Collection<String> orcids) {
+        if (orcids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Query query = entityManager.createNativeQuery(
+                "SELECT p.orcid FROM profile p JOIN email_frequency f ON f.orcid = p.orcid WHERE p.orcid IN :orcids AND p.profile_deactivation_date IS NULL AND p.deprecated_date IS NULL AND p.record_locked = false AND f.send_quarterly_tips = true");
+        query.setParameter("orcids", orcids);
+        return query.getResultList();
+    }
+
     @Override
     public ProfileEntity getLockedReason(String orcid) {
         TypedQuery<ProfileEntity> query = entityManager.createQuery("FROM ProfileEntity where orcid = :orcid", ProfileEntity.class);
@@ -742,7 +798,7 @@ public class ProfileDaoImpl extends GenericDaoImpl<ProfileEntity, String> implem
         String queryString = null;
         if (IndexingStatus.DONE.equals(indexingStatus)) {
             queryString = "UPDATE profile SET indexing_status = :indexingStatus, last_indexed_date = now() WHERE orcid IN :ids";
-            ids.forEach(orcid -> updateWebhookProfileLastUpdate(orcid));
+            updateWebhookProfileLastUpdate(ids);
         } else {
             queryString = "UPDATE profile SET indexing_status = :indexingStatus WHERE orcid IN :ids";
         }
@@ -1,12 +1,17 @@
 package org.orcid.persistence.dao.impl;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
 import org.orcid.persistence.dao.ProfileEventDao;
 import org.orcid.persistence.jpa.entities.ProfileEventEntity;
 import org.orcid.persistence.jpa.entities.ProfileEventType;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  *
@@ -25,4 +30,24 @@ public class ProfileEventDaoImpl extends GenericDaoImpl<ProfileEventEntity, Long
         Long result = ((BigInteger)query.getSingleResult()).longValue();
         return (result != null && result > 0);
     }
+
+    @Override
+    public List<ProfileEventEntity> findByOrcidsAndTypes(Collection<String> orcids, Collection<ProfileEventType> eventTypes) {
+        if (orcids.isEmpty() || eventTypes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<ProfileEventEntity> query = entityManager.createQuery("from ProfileEventEntity where orcid IN :orcids and type IN :types", ProfileEventEntity.class);
+        query.setParameter("orcids", orcids);
+        query.setParameter("types", eventTypes);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional
+    public void persistAll(Collection<ProfileEventEntity> events) {
+        for (ProfileEventEntity event : events) {
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+    }
 }
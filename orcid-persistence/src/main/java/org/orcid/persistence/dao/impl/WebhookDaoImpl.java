@@ -1,24 +1,35 @@
 package org.orcid.persistence.dao.impl;
 
 import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
 import java.util.Date;
 import java.util.List;
 
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
+import org.hibernate.Session;
 import org.orcid.persistence.dao.WebhookDao;
 import org.orcid.persistence.jpa.entities.WebhookEntity;
 import org.orcid.persistence.jpa.entities.keys.WebhookEntityPk;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author Will Simpson
  */
 public class WebhookDaoImpl extends GenericDaoImpl<WebhookEntity, WebhookEntityPk> implements WebhookDao {
 
+    private static final String MARK_AS_SENT = "UPDATE webhook SET last_sent=now(), failed_attempt_count=0 where orcid = ? and uri = ?";
+
+    private static final String MARK_AS_FAILED = "UPDATE webhook SET last_failed=now(), failed_attempt_count=(failed_attempt_count + 1) where orcid = ? and uri = ?";
+
     @Value("${org.orcid.persistence.webhook.maxAttemptCount:25}")
     private int maxAttemptCount;
+
+    @Value("${org.orcid.persistence.webhook.maxRetryDelayMinutes:1440}")
+    private int maxRetryDelayMinutes;
     
     public WebhookDaoImpl() {
         super(WebhookEntity.class);
@@ -29,6 +40,7 @@ public class WebhookDaoImpl extends GenericDaoImpl<WebhookEntity, WebhookEntityP
         TypedQuery<WebhookEntity> query = entityManager.createNamedQuery(WebhookEntity.FIND_WEBHOOKS_READY_TO_PROCESS, WebhookEntity.class);
         query.setParameter("retryDelayMinutes", retryDelayMinutes);
         query.setParameter("maxAttemptCount", maxAttemptCount);
+        query.setParameter("maxRetryDelayMinutes", maxRetryDelayMinutes);
         return query.getResultList();
     }
 
@@ -37,6 +49,7 @@ public class WebhookDaoImpl extends GenericDaoImpl<WebhookEntity, WebhookEntityP
         TypedQuery<BigInteger> query = entityManager.createNamedQuery(WebhookEntity.COUNT_WEBHOOKS_READY_TO_PROCESS, BigInteger.class);
         query.setParameter("retryDelayMinutes", retryDelayMinutes);
         query.setParameter("maxAttemptCount", maxAttemptCount);
+        query.setParameter("maxRetryDelayMinutes", maxRetryDelayMinutes);
         return query.getSingleResult().longValue();
     }
 
@@ -56,4 +69,37 @@ public class WebhookDaoImpl extends GenericDaoImpl<WebhookEntity, WebhookEntityP
         return query.executeUpdate() > 0;
     }
 
+    @Override
+    @Transactional
+    public int markAsSent(List<WebhookEntityPk> webhooks) {
+        return executeBatch(MARK_AS_SENT, webhooks);
+    }
+
+    @Override
+    @Transactional
+    public int markAsFailed(List<WebhookEntityPk> webhooks) {
+        return executeBatch(MARK_AS_FAILED, webhooks);
+    }
+
+    private int executeBatch(String sql, List<WebhookEntityPk> webhooks) {
+        if (webhooks.isEmpty()) {
+            return 0;
+        }
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (WebhookEntityPk webhook : webhooks) {
+                    statement.setString(1, webhook.getProfile());
+                    statement.setString(2, webhook.getUri());
+                    statement.addBatch();
+                }
+                int updated = 0;
+                for (int count : statement.executeBatch()) {
+                    // Drivers may not report the count of each statement
+                    updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+                }
+                return updated;
+            }
+        });
+    }
+
 }
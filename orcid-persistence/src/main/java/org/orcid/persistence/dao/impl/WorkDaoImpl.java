@@ -409,5 +409,25 @@ public class WorkDaoImpl extends GenericDaoImpl<WorkEntity, Long> implements Wor
                 .addScalar("contributors_json", StringType.INSTANCE);
         return query.getResultList();
     }
-}
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Object[]> getExternalIdentifiersBySource(String orcid, String sourceId, String clientSourceId, String assertionOriginClientSourceId) {
+        // Empty and null source ids mean the same
+        Query query = entityManager.createQuery("SELECT id, externalIdentifiersJson FROM WorkEntity WHERE orcid = :orcid AND externalIdentifiersJson IS NOT NULL "
+                + "AND coalesce(sourceId, '') = :sourceId AND coalesce(clientSourceId, '') = :clientSourceId "
+                + "AND coalesce(assertionOriginClientSourceId, '') = :assertionOriginClientSourceId");
+        query.setParameter("orcid", orcid);
+        query.setParameter("sourceId", sourceId == null ? "" : sourceId);
+        query.setParameter("clientSourceId", clientSourceId == null ? "" : clientSourceId);
+        query.setParameter("assertionOriginClientSourceId", assertionOriginClientSourceId == null ? "" : assertionOriginClientSourceId);
+        return query.getResultList();
+    }
+
+    @Override
+    public long countWorks(String orcid) {
+        TypedQuery<Long> query = entityManager.createQuery("SELECT count(id) FROM WorkEntity WHERE orcid = :orcid", Long.class);
+        query.setParameter("orcid", orcid);
+        return query.getSingleResult();
+    }
+}
@@ -48,7 +48,7 @@ public class WebhookEntity extends BaseEntity<WebhookEntityPk>  {
             + "   WHERE w.enabled = 'true' "
             + "   AND w.failed_attempt_count < :maxAttemptCount "
             + "   AND (w.profile_last_modified >= w.last_sent OR (w.last_sent IS NULL AND w.profile_last_modified >= w.date_created))"
-            + "   AND (w.failed_attempt_count = 0 OR (unix_timestamp(w.last_failed) + w.failed_attempt_count * :retryDelayMinutes * 60) < unix_timestamp(now()))";
+            + "   AND (w.failed_attempt_count = 0 OR (unix_timestamp(w.last_failed) + LEAST(POWER(2, w.failed_attempt_count - 1) * :retryDelayMinutes, :maxRetryDelayMinutes) * 60) < unix_timestamp(now()))";
 
     @Override
     @Transient
@@ -5,8 +5,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Resource;
 
@@ -130,6 +134,19 @@ public class EmailDaoTest extends DBUnitTest {
         assertEquals("private_0000-0000-0000-0004@test.orcid.org", email.getEmail());
     }
 
+    @Test
+    public void testFindPrimaryEmails() {
+        List<EmailEntity> emails = emailDao.findPrimaryEmails(Arrays.asList("0000-0000-0000-0003", "0000-0000-0000-0004"));
+        assertEquals(2, emails.size());
+        Map<String, String> byOrcid = new HashMap<>();
+        for (EmailEntity email : emails) {
+            byOrcid.put(email.getOrcid(), email.getEmail());
+        }
+        assertEquals("public_0000-0000-0000-0003@test.orcid.org", byOrcid.get("0000-0000-0000-0003"));
+        assertEquals("private_0000-0000-0000-0004@test.orcid.org", byOrcid.get("0000-0000-0000-0004"));
+        assertTrue(emailDao.findPrimaryEmails(new ArrayList<>()).isEmpty());
+    }
+
     @Test
     public void testFindOrcidByVerifiedEmail() {
         String orcid = emailDao.findOrcidByVerifiedEmail("2965a4115f2639b43e5feb78adddfff52e5324813b6c12b4e25ebdac052f72df");
@@ -465,6 +465,43 @@ public class NotificationDaoTest extends DBUnitTest {
         assertEquals("ADMINISTRATIVE", results.get(4).getNotificationType());        
     }
 
+    @Test
+    public void testFindNotificationsToSendForBatchOfRecords() {
+        String orcid = "0000-0000-0000-0003";
+        ProfileEntity profile = profileDao.find(orcid);
+        Date recordActiveDate = profile.getCompletedDate() != null ? profile.getCompletedDate() : profile.getDateCreated();
+
+        Calendar c = Calendar.getInstance();
+        c.set(2018, 0, 6, 0, 0);
+        Date date1 = c.getTime();
+        c.set(2018, 1, 9, 0, 0);
+        Date date2 = c.getTime();
+
+        emailFrequencyDao.updateSendAdministrativeChangeNotifications(orcid, SendEmailFrequency.WEEKLY);
+        emailFrequencyDao.updateSendChangeNotifications(orcid, SendEmailFrequency.NEVER);
+        emailFrequencyDao.updateSendMemberUpdateRequests(orcid, SendEmailFrequency.IMMEDIATELY);
+
+        List<String> orcids = Arrays.asList(orcid, "0000-0000-0000-0002", "0000-0000-0000-0004");
+        for (Date date : Arrays.asList(date1, date2, new Date())) {
+            List<Long> expected = new ArrayList<>();
+            for (String o : orcids) {
+                ProfileEntity p = profileDao.find(o);
+                Date activeDate = p.getCompletedDate() != null ? p.getCompletedDate() : p.getDateCreated();
+                notificationDao.findNotificationsToSend(date, o, activeDate).forEach(n -> expected.add(n.getId()));
+            }
+            List<Long> results = new ArrayList<>();
+            notificationDao.findNotificationsToSend(date, orcids).forEach(n -> results.add(n.getId()));
+            Collections.sort(expected);
+            Collections.sort(results);
+            assertEquals(expected, results);
+        }
+
+        List<NotificationEntity> results = notificationDao.findNotificationsToSend(date2, Arrays.asList(orcid));
+        assertEquals(4, results.size());
+        assertEquals(results, notificationDao.findNotificationsToSend(date2, orcid, recordActiveDate));
+        assertTrue(notificationDao.findNotificationsToSend(date2, new ArrayList<String>()).isEmpty());
+    }
+
     @Test
     public void testServiceAnnouncementNotifications() {
         String orcid = "0000-0000-0000-0003";
@@ -58,6 +58,30 @@ public class NotificationDao_NoDBPrefillTest extends DBUnitTest {
         removeDBUnitData(reversedDataFiles);
     }
 
+    @Test
+    public void testFindRecordsWithUnsentNotificationsInPages() {
+        for (String orcid : Arrays.asList("0000-0000-0000-0003", "0000-0000-0000-0002")) {
+            emailFrequencyDao.updateSendAdministrativeChangeNotifications(orcid, SendEmailFrequency.IMMEDIATELY);
+            NotificationEntity n = new NotificationAdministrativeEntity();
+            n.setOrcid(orcid);
+            n.setNotificationType("ADMINISTRATIVE");
+            notificationDao.persist(n);
+        }
+
+        List<Object[]> page = notificationDao.findRecordsWithUnsentNotifications(null, 1);
+        assertEquals(1, page.size());
+        assertEquals("0000-0000-0000-0002", page.get(0)[0]);
+
+        page = notificationDao.findRecordsWithUnsentNotifications("0000-0000-0000-0002", 1);
+        assertEquals(1, page.size());
+        assertEquals("0000-0000-0000-0003", page.get(0)[0]);
+
+        page = notificationDao.findRecordsWithUnsentNotifications("0000-0000-0000-0003", 1);
+        assertTrue(page.isEmpty());
+
+        assertEquals(2, notificationDao.findRecordsWithUnsentNotifications(null, 10).size());
+    }
+
     @Test
     public void testFindRecordsWithUnsentNotifications() {
         String orcid = "0000-0000-0000-0003";
@@ -10,9 +10,12 @@ import static org.junit.Assert.fail;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.annotation.Resource;
 import javax.persistence.NoResultException;
@@ -74,6 +77,21 @@ public class OrcidOauth2TokenDetailDaoTest extends DBUnitTest {
         }
     }
 
+    @Test
+    public void findClientDetailsIdsByTokenValuesTest() {
+        List<Object[]> rows = orcidOauth2TokenDetailDao
+                .findClientDetailsIdsByTokenValues(Arrays.asList("00000000-0000-0000-0000-00000000000", "some-long-oauth2-token-value-1", "0"));
+        assertEquals(2, rows.size());
+        Map<String, String> clientsByToken = new HashMap<>();
+        for (Object[] row : rows) {
+            clientsByToken.put((String) row[0], (String) row[1]);
+        }
+        assertEquals("APP-5555555555555555", clientsByToken.get("00000000-0000-0000-0000-00000000000"));
+        assertEquals("4444-4444-4444-4441", clientsByToken.get("some-long-oauth2-token-value-1"));
+
+        assertTrue(orcidOauth2TokenDetailDao.findClientDetailsIdsByTokenValues(Collections.emptyList()).isEmpty());
+    }
+
     @Test
     public void findNonDisabledByTokenValueTest() throws ParseException {
         // Verify existing non disabled token works
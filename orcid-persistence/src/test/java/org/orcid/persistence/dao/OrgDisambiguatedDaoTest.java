@@ -17,6 +17,7 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.orcid.persistence.jpa.entities.IndexingStatus;
 import org.orcid.persistence.jpa.entities.OrgDisambiguatedEntity;
 import org.orcid.test.DBUnitTest;
 import org.orcid.test.OrcidJUnit4ClassRunner;
@@ -32,6 +33,9 @@ public class OrgDisambiguatedDaoTest extends DBUnitTest {
     @Resource
     private OrgDisambiguatedDao orgDisambiguatedDao;
 
+    @Resource
+    private OrgDisambiguatedExternalIdentifierDao orgDisambiguatedExternalIdentifierDao;
+
     @BeforeClass
     public static void initDBUnitData() throws Exception {
         initDBUnitData(DATA_FILES);
@@ -108,4 +112,59 @@ public class OrgDisambiguatedDaoTest extends DBUnitTest {
         assertEquals(e.getDateCreated(), e2.getDateCreated());
         assertEquals(e2.getDateCreated(), e2.getLastModified());
     }
+
+    @Test
+    public void testFindOrgsPendingIndexingPagesOnId() {
+        orgDisambiguatedDao.updateIndexingStatus(Arrays.asList(1L, 2L), IndexingStatus.PENDING);
+
+        List<OrgDisambiguatedEntity> firstPage = orgDisambiguatedDao.findOrgsPendingIndexing(null, 1);
+        assertEquals(1, firstPage.size());
+        assertEquals(Long.valueOf(1), firstPage.get(0).getId());
+        List<OrgDisambiguatedEntity> secondPage = orgDisambiguatedDao.findOrgsPendingIndexing(1L, 1);
+        assertEquals(1, secondPage.size());
+        assertEquals(Long.valueOf(2), secondPage.get(0).getId());
+
+        orgDisambiguatedDao.updateIndexingStatus(Arrays.asList(1L), IndexingStatus.DONE);
+        OrgDisambiguatedEntity indexed = orgDisambiguatedDao.find(1L);
+        assertEquals(IndexingStatus.DONE, indexed.getIndexingStatus());
+        assertNotNull(indexed.getLastIndexedDate());
+        assertEquals(Long.valueOf(2), orgDisambiguatedDao.findOrgsPendingIndexing(null, 1).get(0).getId());
+
+        orgDisambiguatedDao.updateIndexingStatus(Arrays.asList(2L), IndexingStatus.DONE);
+        for (OrgDisambiguatedEntity pending : orgDisambiguatedDao.findOrgsPendingIndexing(null, 10)) {
+            assertTrue(pending.getId() > 2L);
+        }
+    }
+
+    @Test
+    public void testFindOrgDetailsBySourceType() {
+        List<Object[]> firstPage = orgDisambiguatedDao.findOrgDetailsBySourceType("WDB", null, 1);
+        assertEquals(1, firstPage.size());
+        Object[] row = firstPage.get(0);
+        assertEquals(1L, ((Number) row[0]).longValue());
+        assertEquals("abc456", row[1]);
+        assertEquals("An Institution", row[2]);
+        assertEquals("GB", row[3]);
+        assertEquals("London", row[4]);
+
+        List<Object[]> secondPage = orgDisambiguatedDao.findOrgDetailsBySourceType("WDB", 1L, 10);
+        assertEquals(1, secondPage.size());
+        assertEquals("def456", secondPage.get(0)[1]);
+        assertTrue(orgDisambiguatedDao.findOrgDetailsBySourceType("WDB", 2L, 10).isEmpty());
+        assertTrue(orgDisambiguatedDao.findOrgDetailsBySourceType("ROR", null, 10).isEmpty());
+    }
+
+    @Test
+    public void testFindExternalIdentifiers() {
+        // There are no external identifiers in the test data
+        assertTrue(orgDisambiguatedExternalIdentifierDao.findExternalIdentifiers(Arrays.asList(1L, 2L)).isEmpty());
+        assertTrue(orgDisambiguatedExternalIdentifierDao.findExternalIdentifiers(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testFindOrgsToGroup() {
+        // There are no ROR orgs in the test data
+        assertTrue(orgDisambiguatedDao.findOrgsToGroup(null, 10).isEmpty());
+        assertTrue(orgDisambiguatedDao.findOrgsToGroup(1L, 10).isEmpty());
+    }
 }
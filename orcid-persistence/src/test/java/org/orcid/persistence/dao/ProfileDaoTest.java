@@ -213,6 +213,71 @@ public class ProfileDaoTest extends DBUnitTest {
         assertTrue(results.contains(o3));       
     }
 
+    @Test
+    public void testFindOrcidsAndLastModifiedByIndexingStatus() {
+        String o1 = "0000-0000-0000-0001";
+        String o2 = "4444-4444-4444-4445";
+        String o3 = "4444-4444-4444-4446";
+        
+        Calendar c = Calendar.getInstance();
+        Date d1 = new Date(c.getTimeInMillis());
+        Date d2 = new Date(c.getTimeInMillis() + 1000);
+               
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o1, d1, IndexingStatus.SOLR_UPDATE);
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o2, d2, IndexingStatus.SOLR_UPDATE);
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o3, d2, IndexingStatus.SOLR_UPDATE);
+        
+        List<Pair<String, Date>> firstPage = profileDao.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.SOLR_UPDATE, 2, 0, null, null);
+        assertEquals(2, firstPage.size());
+        assertEquals(o1, firstPage.get(0).getLeft());
+        assertEquals(d1.getTime(), firstPage.get(0).getRight().getTime());
+        assertEquals(o2, firstPage.get(1).getLeft());
+        assertEquals(d2.getTime(), firstPage.get(1).getRight().getTime());
+        
+        // Records with the same last modified date are not skipped
+        List<Pair<String, Date>> secondPage = profileDao.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.SOLR_UPDATE, 2, 0, firstPage.get(1).getRight(), o2);
+        assertEquals(1, secondPage.size());
+        assertEquals(o3, secondPage.get(0).getLeft());
+        
+        assertTrue(profileDao.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.SOLR_UPDATE, 2, 0, secondPage.get(0).getRight(), o3).isEmpty());
+        
+        profileDao.updateIndexingStatus(Arrays.asList(o1, o2, o3), IndexingStatus.DONE);
+        assertEquals(IndexingStatus.DONE, profileDao.retrieveIndexingStatus(o1));
+        assertEquals(IndexingStatus.DONE, profileDao.retrieveIndexingStatus(o3));
+    }
+
+    @Test
+    public void testFindOrcidsAndLastModifiedByIndexingStatusWithoutLastModified() {
+        String o1 = "0000-0000-0000-0001";
+        String o2 = "4444-4444-4444-4445";
+        String o3 = "4444-4444-4444-4446";
+        Date d1 = new Date();
+
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o1, d1, IndexingStatus.SOLR_UPDATE);
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o2, null, IndexingStatus.SOLR_UPDATE);
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o3, null, IndexingStatus.SOLR_UPDATE);
+
+        List<Pair<String, Date>> firstPage = profileDao.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.SOLR_UPDATE, 1, 0, null, null);
+        assertEquals(1, firstPage.size());
+        assertEquals(o2, firstPage.get(0).getLeft());
+        assertNull(firstPage.get(0).getRight());
+
+        List<Pair<String, Date>> secondPage = profileDao.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.SOLR_UPDATE, 1, 0, null, o2);
+        assertEquals(1, secondPage.size());
+        assertEquals(o3, secondPage.get(0).getLeft());
+
+        List<Pair<String, Date>> thirdPage = profileDao.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.SOLR_UPDATE, 1, 0, null, o3);
+        assertEquals(1, thirdPage.size());
+        assertEquals(o1, thirdPage.get(0).getLeft());
+        assertEquals(d1.getTime(), thirdPage.get(0).getRight().getTime());
+
+        assertTrue(profileDao.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.SOLR_UPDATE, 1, 0, d1, o1).isEmpty());
+
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o2, d1, IndexingStatus.DONE);
+        profileDao.updateLastModifiedDateAndIndexingStatusWithoutResult(o3, d1, IndexingStatus.DONE);
+        profileDao.updateIndexingStatus(Arrays.asList(o1), IndexingStatus.DONE);
+    }
+
     @Test
     public void testFindUnclaimedNotIndexedAfterWaitPeriod() {
         List<String> resultsList = profileDao.findUnclaimedNotIndexedAfterWaitPeriod(1, 100000, 10, Collections.<String> emptyList());
@@ -251,6 +316,33 @@ public class ProfileDaoTest extends DBUnitTest {
         assertEquals(2, results.size());
     }
 
+    @Test
+    @Rollback(true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void testFindActiveOrcidsAcceptingQuarterlyTips() {
+        // 444X is deprecated, 0005 has no email frequency
+        List<String> results = profileDao.findActiveOrcidsAcceptingQuarterlyTips(
+                Arrays.asList("0000-0000-0000-0003", "4444-4444-4444-4441", "4444-4444-4444-444X", "0000-0000-0000-0005"));
+        assertEquals(2, results.size());
+        assertTrue(results.contains("0000-0000-0000-0003"));
+        assertTrue(results.contains("4444-4444-4444-4441"));
+        assertTrue(profileDao.findActiveOrcidsAcceptingQuarterlyTips(Collections.<String> emptyList()).isEmpty());
+
+        ProfileEventEntity sent = new ProfileEventEntity();
+        sent.setOrcid("0000-0000-0000-0003");
+        sent.setType(ProfileEventType.MARCH_2019_SENT);
+        ProfileEventEntity skipped = new ProfileEventEntity();
+        skipped.setOrcid("4444-4444-4444-444X");
+        skipped.setType(ProfileEventType.MARCH_2019_SKIPPED);
+        profileEventDao.persistAll(Arrays.asList(sent, skipped));
+
+        List<ProfileEventEntity> events = profileEventDao.findByOrcidsAndTypes(Arrays.asList("0000-0000-0000-0003", "4444-4444-4444-4441"),
+                Arrays.asList(ProfileEventType.MARCH_2019_SENT, ProfileEventType.MARCH_2019_SKIPPED));
+        assertEquals(1, events.size());
+        assertEquals("0000-0000-0000-0003", events.get(0).getOrcid());
+        assertEquals(ProfileEventType.MARCH_2019_SENT, events.get(0).getType());
+    }
+
     @Test
     public void testUpdateIndexingStatus() {
         Date now = new Date();
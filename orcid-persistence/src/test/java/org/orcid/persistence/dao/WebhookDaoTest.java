@@ -135,6 +135,51 @@ public class WebhookDaoTest extends DBUnitTest {
         assertEquals(0, results.size());
     }
 
+    @Test
+    public void testFindWebhooksReadyToProcessBacksOffExponentially() {
+        Date now = new Date();
+        WebhookEntityPk pk = new WebhookEntityPk("4444-4444-4444-4443", "http://nowhere.com/orcid/4444-4444-4444-4443");
+        WebhookEntity original = webhookDao.find(pk);
+        try {
+            WebhookEntity webhook = webhookDao.find(pk);
+            // Third attempt waits 4 times the retry delay
+            webhook.setFailedAttemptCount(3);
+            webhook.setLastFailed(new Date(now.getTime() - 35 * 60 * 1000));
+            webhookDao.merge(webhook);
+            assertEquals(0, webhookDao.findWebhooksReadyToProcess(now, 10, 10).size());
+
+            webhook = webhookDao.find(pk);
+            webhook.setLastFailed(new Date(now.getTime() - 45 * 60 * 1000));
+            webhookDao.merge(webhook);
+            assertEquals(1, webhookDao.findWebhooksReadyToProcess(now, 10, 10).size());
+        } finally {
+            webhookDao.merge(original);
+        }
+    }
+
+    @Test
+    public void testMarkAsSentAndFailedInBatch() {
+        Date now = new Date();
+        WebhookEntityPk pk = new WebhookEntityPk("4444-4444-4444-4443", "http://nowhere.com/orcid/4444-4444-4444-4443");
+        WebhookEntity original = webhookDao.find(pk);
+        List<WebhookEntityPk> pks = Arrays.asList(pk, new WebhookEntityPk("4444-4444-4444-4443", "http://nowhere.com/unknown"));
+        try {
+            assertEquals(1, webhookDao.markAsFailed(pks));
+            WebhookEntity webhook = webhookDao.find(pk);
+            assertEquals(original.getFailedAttemptCount() + 1, webhook.getFailedAttemptCount());
+            assertNotNull(webhook.getLastFailed());
+            assertEquals(0, webhookDao.countWebhooksReadyToProcess(now, 5));
+
+            assertEquals(1, webhookDao.markAsSent(pks));
+            webhook = webhookDao.find(pk);
+            assertEquals(0, webhook.getFailedAttemptCount());
+            assertNotNull(webhook.getLastSent());
+            assertEquals(0, webhookDao.countWebhooksReadyToProcess(new Date(), 5));
+        } finally {
+            webhookDao.merge(original);
+        }
+    }
+
     @Test
     @Rollback(true)
     public void testCountWebhooksReadyToProcess() {
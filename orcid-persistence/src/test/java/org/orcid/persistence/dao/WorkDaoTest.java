@@ -73,6 +73,24 @@ public class WorkDaoTest extends DBUnitTest {
         assertTrue("Elements not found: " + existingIds, existingIds.isEmpty());
     }
 
+    @Test
+    public void getExternalIdentifiersBySourceTest() {
+        List<Object[]> rows = dao.getExternalIdentifiersBySource(OTHER_USER_ORCID, null, "APP-5555555555555555", null);
+        List<Long> ids = new ArrayList<Long>();
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+            assertTrue(((String) row[1]).contains("workExternalIdentifier"));
+        }
+        assertEquals(3, ids.size());
+        assertTrue(ids.containsAll(Arrays.asList(11L, 12L, 13L)));
+
+        rows = dao.getExternalIdentifiersBySource(OTHER_USER_ORCID, OTHER_USER_ORCID, null, null);
+        assertEquals(3, rows.size());
+        assertTrue(dao.getExternalIdentifiersBySource(OTHER_USER_ORCID, null, "APP-5555555555555555", "APP-5555555555555556").isEmpty());
+
+        assertEquals(6, dao.countWorks(OTHER_USER_ORCID));
+    }
+
     @Test
     public void testHasPublicWorks() {
         assertTrue(dao.hasPublicWorks("0000-0000-0000-0003"));
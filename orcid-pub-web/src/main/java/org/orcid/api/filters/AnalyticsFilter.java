@@ -9,6 +9,7 @@ import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.ext.Provider;
 
+import org.orcid.api.common.analytics.AnalyticsEventBuffer;
 import org.orcid.api.common.analytics.AnalyticsProcess;
 import org.orcid.api.common.analytics.client.AnalyticsClient;
 import org.orcid.core.manager.ClientDetailsEntityCacheManager;
@@ -21,7 +22,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 
@@ -43,8 +43,8 @@ public class AnalyticsFilter implements ContainerResponseFilter, InitializingBea
     @Autowired //@Inject @Named("profileEntityCacheManager")
     private ProfileEntityCacheManager profileEntityCacheManager;
     
-    @Autowired //@Inject @Named("apiAnalyticsTaskExecutor")
-    private ThreadPoolTaskExecutor apiAnalyticsTaskExecutor;
+    @Autowired //@Inject @Named("analyticsEventBuffer")
+    private AnalyticsEventBuffer analyticsEventBuffer;
     
     @Context
     private HttpServletRequest httpServletRequest;
@@ -56,7 +56,7 @@ public class AnalyticsFilter implements ContainerResponseFilter, InitializingBea
     public void filter(ContainerRequestContext request, ContainerResponseContext response) {
         if (enablePublicAPIAnalytics) {
             AnalyticsProcess analyticsProcess = getAnalyticsProcess(request, response);
-            apiAnalyticsTaskExecutor.execute(analyticsProcess);
+            analyticsEventBuffer.offer(analyticsProcess);
         }
         return ;
     }
@@ -9,6 +9,8 @@ import java.util.Map;
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.Response.Status;
 
 import org.orcid.api.common.util.v3.ActivityUtils;
@@ -655,22 +657,25 @@ public class PublicV3ApiServiceDelegatorImpl
     @Override
     public Response searchByQuery(Map<String, List<String>> solrParams) {
         validateSearchParams(solrParams);
-        Search search = orcidSearchManager.findOrcidIds(solrParams);
-        return Response.ok(search).build();
+        ResponseBuilder response = Response.ok();
+        Search search = orcidSearchManager.findOrcidIds(solrParams, nextCursorMark -> response.header(OrcidSearchManager.NEXT_CURSOR_MARK_HEADER, nextCursorMark));
+        return response.entity(search).build();
     }
     
     @Override
     public Response searchByQueryCSV(Map<String, List<String>> solrParams) {
         validateSearchParams(solrParams);
-        String search = orcidSearchManager.findOrcidIdsAsCSV(solrParams);
-        return Response.ok(search).build();
+        ResponseBuilder response = Response.ok();
+        StreamingOutput search = orcidSearchManager.findOrcidIdsAsCSV(solrParams, nextCursorMark -> response.header(OrcidSearchManager.NEXT_CURSOR_MARK_HEADER, nextCursorMark));
+        return response.entity(search).build();
     }
     
     @Override
     public Response expandedSearchByQuery(Map<String, List<String>> solrParams) {
         validateSearchParams(solrParams);
-        ExpandedSearch search = orcidSearchManager.expandedSearch(solrParams);
-        return Response.ok(search).build();
+        ResponseBuilder response = Response.ok();
+        ExpandedSearch search = orcidSearchManager.expandedSearch(solrParams, nextCursorMark -> response.header(OrcidSearchManager.NEXT_CURSOR_MARK_HEADER, nextCursorMark));
+        return response.entity(search).build();
     }
 
     @Override
@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.annotation.Resource;
 import javax.persistence.NoResultException;
@@ -1207,7 +1208,10 @@ public class PublicV3ApiServiceDelegatorTest extends DBUnitTest {
         result.setOrcidIdentifier(new OrcidIdentifier("some-orcid-id"));
         search.getResults().add(result);
         OrcidSearchManager orcidSearchManager = Mockito.mock(OrcidSearchManagerImpl.class);
-        Mockito.when(orcidSearchManager.findOrcidIds(Matchers.<Map<String, List<String>>> any())).thenReturn(search);
+        Mockito.when(orcidSearchManager.findOrcidIds(Matchers.<Map<String, List<String>>> any(), Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Consumer<String>> getArgument(1).accept("next-cursor");
+            return search;
+        });
 
         PublicV3ApiServiceDelegatorImpl delegator = new PublicV3ApiServiceDelegatorImpl();
         ReflectionTestUtils.setField(delegator, "orcidSearchManager", orcidSearchManager);
@@ -1223,6 +1227,7 @@ public class PublicV3ApiServiceDelegatorTest extends DBUnitTest {
         assertTrue(response.getEntity() instanceof Search);
         assertEquals(1, ((Search) response.getEntity()).getResults().size());
         assertEquals("some-orcid-id", ((Search) response.getEntity()).getResults().get(0).getOrcidIdentifier().getPath());
+        assertEquals("next-cursor", response.getMetadata().getFirst(OrcidSearchManager.NEXT_CURSOR_MARK_HEADER));
     }
 
     @Test(expected = OrcidBadRequestException.class)
@@ -1264,7 +1269,7 @@ public class PublicV3ApiServiceDelegatorTest extends DBUnitTest {
         Mockito.when(localeManager.resolveMessage(Mockito.anyString())).thenReturn("a message");
 
         OrcidSearchManager orcidSearchManager = Mockito.mock(OrcidSearchManagerImpl.class);
-        Mockito.when(orcidSearchManager.findOrcidIds(Mockito.anyMap())).thenReturn(new Search());
+        Mockito.when(orcidSearchManager.findOrcidIds(Mockito.anyMap(), Mockito.any())).thenReturn(new Search());
 
         OrcidSecurityManager orcidSecurityManager = Mockito.mock(OrcidSecurityManagerImpl.class);
         Mockito.when(orcidSecurityManager.getClientIdFromAPIRequest()).thenReturn(null);
@@ -2144,7 +2149,7 @@ public class PublicV3ApiServiceDelegatorTest extends DBUnitTest {
         ExpandedResult result = new ExpandedResult();
         search.getResults().add(result);
         OrcidSearchManager mockSearchManager = Mockito.mock(OrcidSearchManagerImpl.class);
-        Mockito.when(mockSearchManager.expandedSearch(Mockito.any())).thenReturn(search);
+        Mockito.when(mockSearchManager.expandedSearch(Mockito.any(), Mockito.any())).thenReturn(search);
         OrcidSearchManager orcidSearchManager = (OrcidSearchManager) ReflectionTestUtils.getField(serviceDelegator, "orcidSearchManager");
         ReflectionTestUtils.setField(serviceDelegator, "orcidSearchManager", mockSearchManager);
         
@@ -2152,7 +2157,7 @@ public class PublicV3ApiServiceDelegatorTest extends DBUnitTest {
         searchQuery.put("q", Arrays.asList("orcid"));
         serviceDelegator.expandedSearchByQuery(searchQuery);
         
-        Mockito.verify(mockSearchManager).expandedSearch(searchParamsCaptor.capture());
+        Mockito.verify(mockSearchManager).expandedSearch(searchParamsCaptor.capture(), Mockito.any());
         Map<String, List<String>> actualParams = searchParamsCaptor.getValue();
         assertNotNull(actualParams);
         assertNotNull(actualParams.keySet());
@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
@@ -76,6 +77,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import com.google.common.util.concurrent.RateLimiter;
+
 /**
  * 
  * @author Will Simpson
@@ -152,6 +155,12 @@ public class EmailMessageSenderImpl implements EmailMessageSender {
     @Value("${org.notifications.service_announcements.batchSize:60000}")
     private Integer batchSize;
 
+    @Value("${org.orcid.scheduler.email.digest.batchSize:500}")
+    private int digestBatchSize;
+
+    @Value("${org.orcid.scheduler.email.digest.maxEmailsPerSecond:20}")
+    private double digestMaxEmailsPerSecond;
+
     @Value("${org.notifications.max_elements_to_show:20}")
     private Integer maxNotificationsToShowPerClient;
 
@@ -297,42 +306,87 @@ public class EmailMessageSenderImpl implements EmailMessageSender {
 
     @Override
     public void sendEmailMessages() {
-        List<Object[]> orcidsWithUnsentNotifications = new ArrayList<Object[]>();
-        orcidsWithUnsentNotifications = notificationDaoReadOnly.findRecordsWithUnsentNotifications();
+        long startTime = System.currentTimeMillis();
+        RateLimiter rateLimiter = RateLimiter.create(digestMaxEmailsPerSecond);
+        String lastOrcid = null;
+        int sent = 0;
+        List<Object[]> orcidsWithUnsentNotifications;
+        do {
+            orcidsWithUnsentNotifications = notificationDaoReadOnly.findRecordsWithUnsentNotifications(lastOrcid, digestBatchSize);
+            if (orcidsWithUnsentNotifications.isEmpty()) {
+                break;
+            }
+            lastOrcid = (String) orcidsWithUnsentNotifications.get(orcidsWithUnsentNotifications.size() - 1)[0];
+            sent += sendDigests(orcidsWithUnsentNotifications, rateLimiter);
+        } while (orcidsWithUnsentNotifications.size() == digestBatchSize);
+        String timeTaken = DurationFormatUtils.formatDurationHMS(System.currentTimeMillis() - startTime);
+        LOGGER.info("Sent {} digest emails, TimeTaken={} (H:m:s.S)", sent, timeTaken);
+    }
 
-        for (final Object[] element : orcidsWithUnsentNotifications) {
-            String orcid = (String) element[0];
-            try {
-                Float emailFrequencyDays = null;
-                Date recordActiveDate = null;
-                recordActiveDate = (Date) element[1];
+    /**
+     * Renders and sends the digests of a batch of records on the pool, then
+     * flags all the notifications sent in a single statement
+     * 
+     * @return the number of digests sent
+     */
+    private int sendDigests(List<Object[]> records, RateLimiter rateLimiter) {
+        List<String> orcids = new ArrayList<String>(records.size());
+        for (Object[] element : records) {
+            orcids.add((String) element[0]);
+        }
+        Map<String, List<Notification>> notificationsByOrcid = notificationManager.findNotificationsToSend(orcids);
+        Map<String, String> primaryEmails = new HashMap<String, String>();
+        for (EmailEntity email : emailDao.findPrimaryEmails(notificationsByOrcid.keySet())) {
+            primaryEmails.put(email.getOrcid(), email.getEmail());
+        }
 
-                List<Notification> notifications = notificationManager.findNotificationsToSend(orcid, emailFrequencyDays, recordActiveDate);
+        List<CompletableFuture<List<Long>>> digests = new ArrayList<CompletableFuture<List<Long>>>();
+        for (Map.Entry<String, List<Notification>> entry : notificationsByOrcid.entrySet()) {
+            String orcid = entry.getKey();
+            String primaryEmail = primaryEmails.get(orcid);
+            if (primaryEmail == null) {
+                LOGGER.info("No primary email for orcid: " + orcid);
+                continue;
+            }
+            List<Notification> notifications = entry.getValue();
+            LOGGER.info("Found {} messages to send for orcid: {}", notifications.size(), orcid);
+            digests.add(CompletableFuture.supplyAsync(() -> sendDigest(orcid, primaryEmail, notifications, rateLimiter), pool));
+        }
 
-                EmailEntity primaryEmail = emailDao.findPrimaryEmail(orcid);
-                if (primaryEmail == null) {
-                    LOGGER.info("No primary email for orcid: " + orcid);
-                    return;
-                }
+        List<Long> sentPutCodes = new ArrayList<Long>();
+        int sent = 0;
+        for (CompletableFuture<List<Long>> digest : digests) {
+            List<Long> putCodes = digest.join();
+            if (!putCodes.isEmpty()) {
+                sentPutCodes.addAll(putCodes);
+                sent++;
+            }
+        }
+        if (!sentPutCodes.isEmpty()) {
+            notificationDao.flagAsSent(sentPutCodes);
+        }
+        return sent;
+    }
 
-                if (!notifications.isEmpty()) {
-                    LOGGER.info("Found {} messages to send for orcid: {}", notifications.size(), orcid);
-                    EmailMessage digestMessage = createDigest(orcid, notifications);
-                    digestMessage.setFrom(EmailConstants.DO_NOT_REPLY_NOTIFY_ORCID_ORG);
-                    digestMessage.setTo(primaryEmail.getEmail());
-
-                    boolean successfullySent = mailGunManager.sendEmail(digestMessage.getFrom(), digestMessage.getTo(), digestMessage.getSubject(),
-                            digestMessage.getBodyText(), digestMessage.getBodyHtml());
-                    if (successfullySent) {
-                        for (Notification notification : notifications) {
-                            notificationDao.flagAsSent(notification.getPutCode());
-                        }
-                    }
-                }
-            } catch (RuntimeException e) {
-                LOGGER.warn("Problem sending email message to user: " + orcid, e);
+    /**
+     * @return the put codes of the notifications sent, empty if the digest
+     *         could not be sent
+     */
+    private List<Long> sendDigest(String orcid, String primaryEmail, List<Notification> notifications, RateLimiter rateLimiter) {
+        try {
+            EmailMessage digestMessage = createDigest(orcid, notifications);
+            digestMessage.setFrom(EmailConstants.DO_NOT_REPLY_NOTIFY_ORCID_ORG);
+            digestMessage.setTo(primaryEmail);
+            rateLimiter.acquire();
+            boolean successfullySent = mailGunManager.sendEmail(digestMessage.getFrom(), digestMessage.getTo(), digestMessage.getSubject(),
+                    digestMessage.getBodyText(), digestMessage.getBodyHtml());
+            if (successfullySent) {
+                return notifications.stream().map(Notification::getPutCode).collect(Collectors.toList());
             }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Problem sending email message to user: " + orcid, e);
         }
+        return Collections.emptyList();
     }
 
     @Override
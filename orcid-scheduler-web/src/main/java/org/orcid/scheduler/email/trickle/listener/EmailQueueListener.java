@@ -1,23 +1,65 @@
 package org.orcid.scheduler.email.trickle.listener;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
 import org.orcid.core.email.trickle.producer.EmailTrickleItem;
 import org.orcid.scheduler.email.trickle.manager.TrickleManager;
 import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
 import org.springframework.messaging.handler.annotation.Payload;
 
 public class EmailQueueListener {
-    
+
     private static final String EMAIL_QUEUE = "email.queue";
-    
+
     private TrickleManager trickleManager;
 
+    private MessageConverter messageConverter = new SimpleMessageConverter();
+
+    private int batchSize = 1;
+
+    /**
+     * The extra items of the batch are received in the transacted session of
+     * the listener, so they are committed together with the first one, or
+     * all rolled back and redelivered if the batch fails
+     */
     @JmsListener(destination = EMAIL_QUEUE)
-    public void receiveMessage(@Payload EmailTrickleItem item) {
-        trickleManager.attemptSend(item);
+    public void receiveMessage(@Payload EmailTrickleItem item, Session session) throws JMSException {
+        List<EmailTrickleItem> items = new ArrayList<>();
+        items.add(item);
+        if (batchSize > 1) {
+            // Drain the items already waiting in the queue, so they are checked
+            // together
+            MessageConsumer consumer = session.createConsumer(session.createQueue(EMAIL_QUEUE));
+            try {
+                Message next;
+                while (items.size() < batchSize && (next = consumer.receiveNoWait()) != null) {
+                    items.add((EmailTrickleItem) messageConverter.fromMessage(next));
+                }
+            } finally {
+                consumer.close();
+            }
+        }
+        trickleManager.attemptSend(items);
     }
 
     public void setTrickleManager(TrickleManager trickleManager) {
         this.trickleManager = trickleManager;
     }
-    
+
+    public void setMessageConverter(MessageConverter messageConverter) {
+        this.messageConverter = messageConverter;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
 }
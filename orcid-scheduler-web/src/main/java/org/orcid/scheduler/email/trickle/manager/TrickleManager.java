@@ -1,9 +1,17 @@
 package org.orcid.scheduler.email.trickle.manager;
 
+import java.util.List;
+
 import org.orcid.core.email.trickle.producer.EmailTrickleItem;
 
 public interface TrickleManager {
-    
+
     void attemptSend(EmailTrickleItem item);
 
+    /**
+     * Sends the items, checking whether they can still be sent with a few
+     * queries for the whole batch
+     */
+    void attemptSend(List<EmailTrickleItem> items);
+
 }
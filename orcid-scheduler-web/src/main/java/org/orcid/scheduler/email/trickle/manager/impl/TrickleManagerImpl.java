@@ -1,20 +1,25 @@
 package org.orcid.scheduler.email.trickle.manager.impl;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Resource;
 
 import org.orcid.core.email.trickle.producer.EmailTrickleItem;
 import org.orcid.core.manager.v3.EmailMessage;
 import org.orcid.core.manager.v3.read_only.EmailManagerReadOnly;
-import org.orcid.persistence.dao.EmailFrequencyDao;
 import org.orcid.persistence.dao.EmailScheduleDao;
-import org.orcid.persistence.dao.GenericDao;
 import org.orcid.persistence.dao.ProfileDao;
 import org.orcid.persistence.dao.ProfileEventDao;
-import org.orcid.persistence.jpa.entities.ProfileEntity;
+import org.orcid.persistence.jpa.entities.EmailScheduleEntity;
 import org.orcid.persistence.jpa.entities.ProfileEventEntity;
 import org.orcid.persistence.jpa.entities.ProfileEventType;
 import org.orcid.scheduler.email.trickle.TrickleTooHeavyException;
@@ -22,8 +27,18 @@ import org.orcid.scheduler.email.trickle.manager.TrickleManager;
 import org.orcid.utils.email.MailGunManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Sends the trickle emails at the pace set by the active email schedule.
+ *
+ * The eligibility of the items is checked with a few queries per batch, and
+ * the pace is kept by a token bucket holding a single send slot, refilled
+ * every schedule interval, instead of a lock on the whole manager. The bucket
+ * starts from the latest sent date of the schedule, and is local to this
+ * instance, so a single scheduler should consume the email queue.
+ */
 @Component
 public class TrickleManagerImpl implements TrickleManager {
 
@@ -35,9 +50,6 @@ public class TrickleManagerImpl implements TrickleManager {
     @Resource
     private EmailScheduleDao emailScheduleDao;
 
-    @Resource(name = "emailFrequencyDaoReadOnly")
-    private EmailFrequencyDao emailFrequencyDaoReadOnly;
-
     @Resource(name = "profileDaoReadOnly")
     private ProfileDao profileDaoReadOnly;
 
@@ -50,34 +62,128 @@ public class TrickleManagerImpl implements TrickleManager {
     @Resource
     private MailGunManager mailGunManager;
 
+    @Value("${org.orcid.scheduler.email.trickle.scheduleRefreshSeconds:10}")
+    private int scheduleRefreshSeconds;
+
+    private final Object scheduleLock = new Object();
+
+    private EmailScheduleEntity schedule;
+
+    private long scheduleLoadedMillis;
+
+    private long nextSendMillis;
+
     @Override
-    public synchronized void attemptSend(EmailTrickleItem item) {
-        Long scheduleId = emailScheduleDaoReadOnly.getValidScheduleId();
-        if (scheduleId == -1L) {
+    public void attemptSend(EmailTrickleItem item) {
+        attemptSend(Collections.singletonList(item));
+    }
+
+    @Override
+    public void attemptSend(List<EmailTrickleItem> items) {
+        EmailScheduleEntity activeSchedule = getActiveSchedule();
+        if (activeSchedule == null) {
             throw new TrickleTooHeavyException();
         }
 
-        if (notAlreadySent(item)) {
-            if (canStillSend(item.getOrcid(), item.getEmailMessage().getTo())) {
-                Date now = new Date();
-                LOG.info("Cleared to send at {}", now);
+        Set<String> orcids = new LinkedHashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<ProfileEventType> types = EnumSet.noneOf(ProfileEventType.class);
+        for (EmailTrickleItem item : items) {
+            orcids.add(item.getOrcid());
+            emails.add(item.getEmailMessage().getTo());
+            types.add(item.getSuccessType());
+            types.add(item.getFailureType());
+            types.add(item.getSkippedType());
+        }
+
+        Map<String, Set<ProfileEventType>> attempted = new HashMap<>();
+        for (ProfileEventEntity event : profileEventDao.findByOrcidsAndTypes(orcids, types)) {
+            attempted.computeIfAbsent(event.getOrcid(), orcid -> EnumSet.noneOf(ProfileEventType.class)).add(event.getType());
+        }
+        Set<String> activeOrcids = new HashSet<>(profileDaoReadOnly.findActiveOrcidsAcceptingQuarterlyTips(orcids));
+        Set<String> existingEmails = emailManagerReadOnly.findExistingEmails(emails);
+
+        List<ProfileEventEntity> events = new ArrayList<>(items.size());
+        Date latestSent = null;
+        try {
+            for (EmailTrickleItem item : items) {
                 EmailMessage emailMessage = item.getEmailMessage();
+                Set<ProfileEventType> itemTypes = attempted.computeIfAbsent(item.getOrcid(), orcid -> EnumSet.noneOf(ProfileEventType.class));
+                if (itemTypes.contains(item.getSuccessType()) || itemTypes.contains(item.getFailureType()) || itemTypes.contains(item.getSkippedType())) {
+                    LOG.info("Attempt already made to send email to {}", emailMessage.getTo());
+                    continue;
+                }
+                itemTypes.add(item.getSkippedType());
+
+                if (!activeOrcids.contains(item.getOrcid()) || !existingEmails.contains(emailMessage.getTo())) {
+                    events.add(getProfileEventEntity(item.getSkippedType(), item.getOrcid()));
+                    continue;
+                }
+
+                Date now = awaitSendSlot(activeSchedule);
+                LOG.info("Cleared to send at {}", now);
                 LOG.info("Sending email from {} to {} with subject {}", new Object[] { emailMessage.getFrom(), emailMessage.getTo(), emailMessage.getSubject() });
                 if (send(emailMessage, item.isMarketingMail())) {
                     LOG.info("Email sent to {}", emailMessage.getTo());
-                    profileEventDao.merge(getProfileEventEntity(item.getSuccessType(), item.getOrcid()));
-                    emailScheduleDao.updateLatestSent(scheduleId, now);
+                    events.add(getProfileEventEntity(item.getSuccessType(), item.getOrcid()));
+                    latestSent = now;
                 } else {
-                    profileEventDao.merge(getProfileEventEntity(item.getFailureType(), item.getOrcid()));
+                    events.add(getProfileEventEntity(item.getFailureType(), item.getOrcid()));
                 }
-            } else {
-                profileEventDao.merge(getProfileEventEntity(item.getSkippedType(), item.getOrcid()));
             }
-        } else {
-            LOG.info("Attempt already made to send email to {}", item.getEmailMessage().getTo());
+        } finally {
+            if (!events.isEmpty()) {
+                profileEventDao.persistAll(events);
+            }
+            if (latestSent != null) {
+                emailScheduleDao.updateLatestSent(activeSchedule.getId(), latestSent);
+            }
         }
     }
 
+    private EmailScheduleEntity getActiveSchedule() {
+        synchronized (scheduleLock) {
+            long now = System.currentTimeMillis();
+            if (schedule == null || now - scheduleLoadedMillis >= scheduleRefreshSeconds * 1000L) {
+                EmailScheduleEntity loaded = emailScheduleDaoReadOnly.findActiveSchedule();
+                if (loaded != null && (schedule == null || !schedule.getId().equals(loaded.getId()))) {
+                    Date latestSent = loaded.getLatestSent();
+                    nextSendMillis = latestSent == null ? now : latestSent.getTime() + getInterval(loaded);
+                }
+                schedule = loaded;
+                scheduleLoadedMillis = now;
+            }
+            return schedule;
+        }
+    }
+
+    /**
+     * Takes the next send slot of the schedule, waiting until it starts
+     *
+     * @return the time of the slot
+     */
+    private Date awaitSendSlot(EmailScheduleEntity activeSchedule) {
+        long slot;
+        synchronized (scheduleLock) {
+            slot = Math.max(System.currentTimeMillis(), nextSendMillis);
+            nextSendMillis = slot + getInterval(activeSchedule);
+        }
+        long wait = slot - System.currentTimeMillis();
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TrickleTooHeavyException();
+            }
+        }
+        return new Date(slot);
+    }
+
+    private long getInterval(EmailScheduleEntity activeSchedule) {
+        return activeSchedule.getScheduleInterval() == null ? 0 : activeSchedule.getScheduleInterval();
+    }
+
     private boolean send(EmailMessage emailMessage, boolean marketing) {
         if (marketing) {
             return mailGunManager.sendMarketingEmail(emailMessage.getFrom(), emailMessage.getTo(), emailMessage.getSubject(), emailMessage.getBodyText(),
@@ -95,31 +201,4 @@ public class TrickleManagerImpl implements TrickleManager {
         return event;
     }
 
-    private boolean canStillSend(String orcid, String email) {
-        return emailStillExists(email) && emailPreferencesAllowSend(orcid) && profileStillActive(orcid);
-    }
-
-    private boolean profileStillActive(String orcid) {
-        ProfileEntity profileEntity = profileDaoReadOnly.find(orcid);
-        return profileEntity.getDeactivationDate() == null && profileEntity.getDeprecatedDate() == null && profileEntity.isAccountNonLocked();
-    }
-
-    private boolean emailStillExists(String email) {
-        return emailManagerReadOnly.emailExists(email);
-    }
-
-    private boolean emailPreferencesAllowSend(String orcid) {
-        return emailFrequencyDaoReadOnly.findByOrcid(orcid).getSendQuarterlyTips();
-    }
-
-    private boolean notAlreadySent(EmailTrickleItem item) {
-        List<ProfileEventEntity> events = profileDaoReadOnly.getProfileEvents(item.getOrcid(),
-                Arrays.asList(item.getSuccessType(), item.getFailureType(), item.getSkippedType()));
-        if (!events.isEmpty()) {
-            LOG.info("Found email event for {}: {} ({})", new Object[] { item.getOrcid(), events.get(0).getType().name(), events.get(0).getDateCreated() });
-            return false;
-        }
-        return true;
-    }
-
 }
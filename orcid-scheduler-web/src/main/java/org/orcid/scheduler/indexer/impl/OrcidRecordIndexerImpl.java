@@ -6,10 +6,10 @@ import java.util.List;
 
 import javax.annotation.Resource;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.orcid.core.messaging.JmsMessageSender;
 import org.orcid.core.utils.listener.LastModifiedMessage;
 import org.orcid.persistence.dao.ProfileDao;
-import org.orcid.persistence.dao.ProfileLastModifiedDao;
 import org.orcid.persistence.jpa.entities.IndexingStatus;
 import org.orcid.scheduler.indexer.OrcidRecordIndexer;
 import org.orcid.utils.alerting.SlackManager;
@@ -48,9 +48,6 @@ public class OrcidRecordIndexerImpl implements OrcidRecordIndexer {
     @Resource
     private ProfileDao profileDaoReadOnly;
     
-    @Resource
-    private ProfileLastModifiedDao profileLastModifiedDaoReadOnly;
-    
     @Resource(name = "jmsMessageSender")
     private JmsMessageSender messaging;
     
@@ -88,20 +85,24 @@ public class OrcidRecordIndexerImpl implements OrcidRecordIndexer {
         this.processProfilesWithFlagAndAddToMessageQueue(IndexingStatus.S3_UPDATE);
     }    
     
+    /**
+     * Pages through the records with the given flag using the last modified
+     * date and ORCID id of the last record of the previous page, so every
+     * page is a single query that also brings the last modified dates. Each
+     * page is sent to the message queues in a single JMS transaction and then
+     * flagged as DONE with a single update.
+     */
     private void processProfilesWithFlagAndAddToMessageQueue(IndexingStatus status) {
         LOG.info("processing profiles with " + status.name() + " flag.");
-        List<String> orcidsForIndexing = new ArrayList<>();
+        List<Pair<String, Date>> orcidsForIndexing = new ArrayList<>();
         boolean connectionIssue = false;
-        String solrQueue = (IndexingStatus.REINDEX.equals(status) ? reindexSolrQueueName : updateSolrQueueName);
-        String v2Queue = (IndexingStatus.REINDEX.equals(status) ? reindexV2RecordQueueName : updateV2RecordQueueName);
-        String v3Queue = (IndexingStatus.REINDEX.equals(status) ? reindexV3RecordQueueName : updateV3RecordQueueName);
-        do {            
+        List<String> queues = getQueues(status);
+        Integer delay = (IndexingStatus.REINDEX.equals(status) || IndexingStatus.S3_UPDATE.equals(status)) ? 0 : indexingDelay;
+        Date afterLastModified = null;
+        String afterOrcid = null;
+        do {
             try {
-                if (IndexingStatus.REINDEX.equals(status) || IndexingStatus.S3_UPDATE.equals(status)) {
-                    orcidsForIndexing = profileDaoReadOnly.findOrcidsByIndexingStatus(status, INDEXING_BATCH_SIZE, 0);
-                } else {
-                    orcidsForIndexing = profileDaoReadOnly.findOrcidsByIndexingStatus(status, INDEXING_BATCH_SIZE, indexingDelay);
-                }
+                orcidsForIndexing = profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(status, INDEXING_BATCH_SIZE, delay, afterLastModified, afterOrcid);
                 lastSlackNotification = null;
             } catch(Exception e) {
                 LOG.error("Exception fetching records to index", e);
@@ -110,51 +111,50 @@ public class OrcidRecordIndexerImpl implements OrcidRecordIndexer {
                     String message = String.format("Unable to fetch records with indexing status: %s, this causes that SOLR and S3 might be falling behind. For troubleshooting please refere to https://github.com/ORCID/ORCID-Internal/wiki/Problems-with-record-indexing-in-the-scheduler", status);                
                     slackManager.sendSystemAlert(message);
                     lastSlackNotification = new Date();
-                }                
+                }
+                // Try again on the next run
+                orcidsForIndexing = new ArrayList<>();
             }
             LOG.info(status.name() + " - processing batch of " + orcidsForIndexing.size());
+            if (orcidsForIndexing.isEmpty()) {
+                break;
+            }
 
-            for (String orcid : orcidsForIndexing) {
-                // TODO: Why do we need this? We should be able to fetch orcid + last_modified in the previous query
-                Date last = profileLastModifiedDaoReadOnly.retrieveLastModifiedDate(orcid);
-                LastModifiedMessage mess = new LastModifiedMessage(orcid, last);
-                
-                if(IndexingStatus.SOLR_UPDATE.equals(status)) {
-                    connectionIssue = index(mess, solrQueue);
-                } else if(IndexingStatus.S3_UPDATE.equals(orcid)) {
-                    connectionIssue = index(mess, v3Queue);                
-                    if(!connectionIssue)
-                        connectionIssue = index(mess, v2Queue);
-                } else {
-                    connectionIssue = index(mess, solrQueue);
-                    if(!connectionIssue)
-                        connectionIssue = index(mess, v3Queue);
-                    if(!connectionIssue)
-                        connectionIssue = index(mess, v2Queue);
-                }                
-                
-                if(!connectionIssue) {
-                    try {
-                        profileDao.updateIndexingStatus(orcid, IndexingStatus.DONE);
-                    } catch(Exception e) {
-                        LOG.error("Exception updating indexing status for record " + orcid, e);
-                        // Send a slack notification every 'slackIntervalMinutes' minutes
-                        if(lastSlackNotification == null || System.currentTimeMillis() > (lastSlackNotification.getTime() + (slackIntervalMinutes * 60 * 1000))) {
-                            String message = "Unable to update indexing status for record: " + orcid + ", error: " + e.getMessage() + "\nThis causes that SOLR and S3 might be falling behind. For troubleshooting please refere to https://github.com/ORCID/orcid-devops/wiki/Troubleshooting#indexing-status";
-                            slackManager.sendSystemAlert(message);
-                            lastSlackNotification = new Date();
-                        }                
+            List<LastModifiedMessage> messages = new ArrayList<>(orcidsForIndexing.size());
+            List<String> orcids = new ArrayList<>(orcidsForIndexing.size());
+            for (Pair<String, Date> orcidAndLastModified : orcidsForIndexing) {
+                messages.add(new LastModifiedMessage(orcidAndLastModified.getLeft(), orcidAndLastModified.getRight()));
+                orcids.add(orcidAndLastModified.getLeft());
+            }
+            Pair<String, Date> last = orcidsForIndexing.get(orcidsForIndexing.size() - 1);
+            afterOrcid = last.getLeft();
+            afterLastModified = last.getRight();
+
+            connectionIssue = !messaging.send(messages, queues);
+            if (connectionIssue) {
+                LOG.warn("ABORTED - couldnt send messages to queues " + queues);
+            } else {
+                try {
+                    profileDao.updateIndexingStatus(orcids, IndexingStatus.DONE);
+                } catch(Exception e) {
+                    LOG.error("Exception updating indexing status for a batch of " + orcids.size() + " records starting at " + orcids.get(0), e);
+                    // Send a slack notification every 'slackIntervalMinutes' minutes
+                    if(lastSlackNotification == null || System.currentTimeMillis() > (lastSlackNotification.getTime() + (slackIntervalMinutes * 60 * 1000))) {
+                        String message = "Unable to update indexing status for a batch of " + orcids.size() + " records starting at: " + orcids.get(0) + ", error: " + e.getMessage() + "\nThis causes that SOLR and S3 might be falling behind. For troubleshooting please refere to https://github.com/ORCID/orcid-devops/wiki/Troubleshooting#indexing-status";
+                        slackManager.sendSystemAlert(message);
+                        lastSlackNotification = new Date();
                     }
                 }
             }
-        } while (!connectionIssue && !orcidsForIndexing.isEmpty());
+        } while (!connectionIssue);
     }
-    
-    private boolean index(LastModifiedMessage mess, String queue) {
-        if (!messaging.send(mess, queue)) {
-            LOG.warn("ABORTED - couldnt send messages to queue ' " + queue + "'");                    
-            return true;
+
+    private List<String> getQueues(IndexingStatus status) {
+        if (IndexingStatus.SOLR_UPDATE.equals(status)) {
+            return List.of(updateSolrQueueName);
+        } else if (IndexingStatus.REINDEX.equals(status)) {
+            return List.of(reindexSolrQueueName, reindexV3RecordQueueName, reindexV2RecordQueueName);
         }
-        return false;
-    }        
+        return List.of(updateSolrQueueName, updateV3RecordQueueName, updateV2RecordQueueName);
+    }
 }
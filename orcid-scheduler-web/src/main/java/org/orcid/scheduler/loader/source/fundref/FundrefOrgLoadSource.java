@@ -4,17 +4,18 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Resource;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.commons.lang.StringUtils;
 import org.orcid.core.manager.OrgDisambiguatedManager;
@@ -36,11 +37,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -50,15 +49,18 @@ public class FundrefOrgLoadSource implements OrgLoadSource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FundrefOrgLoadSource.class);
 
-    private static final String CONCEPTS_EXPRESSION = "/RDF/ConceptScheme/hasTopConcept";
-    private static final String ITEM_EXPRESSION = "/RDF/Concept[@about='%s']";
-    private static final String ORG_NAME_EXPRESSION = "prefLabel/Label/literalForm";
-    private static final String ORG_COUNTRY_EXPRESSION = "country";
-    private static final String ORG_STATE_EXPRESSION = "state";
-    private static final String ORG_TYPE_EXPRESSION = "fundingBodyType";
-    private static final String ORG_SUBTYPE_EXPRESSION = "fundingBodySubType";
-    private static final String STATUS_EXPRESSION = "status";
-    private static final String IS_REPLACED_BY_EXPRESSION = "isReplacedBy";
+    private static final String RDF_NAMESPACE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+    private static final String CONCEPT_SCHEME_ELEMENT = "ConceptScheme";
+    private static final String TOP_CONCEPT_ELEMENT = "hasTopConcept";
+    private static final String CONCEPT_ELEMENT = "Concept";
+    private static final String ORG_NAME_PARENT_ELEMENT = "prefLabel";
+    private static final String ORG_NAME_ELEMENT = "literalForm";
+    private static final String ORG_COUNTRY_ELEMENT = "country";
+    private static final String ORG_STATE_ELEMENT = "state";
+    private static final String ORG_TYPE_ELEMENT = "fundingBodyType";
+    private static final String ORG_SUBTYPE_ELEMENT = "fundingBodySubType";
+    private static final String STATUS_ELEMENT = "status";
+    private static final String IS_REPLACED_BY_ELEMENT = "isReplacedBy";
     private static final String STATE_NAME = "STATE";
     private static final String STATE_ABBREVIATION = "abbr";
     private static final String DEPRECATED_INDICATOR = "http://data.crossref.org/fundingdata/vocabulary/Deprecated";
@@ -95,8 +97,14 @@ public class FundrefOrgLoadSource implements OrgLoadSource {
     
     @Resource
     private JerseyClientHelper jerseyClientHelper;
-    
-    private XPath xPath = XPathFactory.newInstance().newXPath();
+
+    @Value("${org.orcid.core.orgs.fundref.batchSize:1000}")
+    private int batchSize;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    private XMLInputFactory xmlInputFactory = createXmlInputFactory();
     
     @Override
     public String getSourceName() {
@@ -114,86 +122,43 @@ public class FundrefOrgLoadSource implements OrgLoadSource {
 
     private boolean importData() {
         Map<String, String> cache = new HashMap<String, String>();
-        InputStream stream = null;
-        try {
-            long start = System.currentTimeMillis();
-            stream = new FileInputStream(localFilePath);
-            DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = builderFactory.newDocumentBuilder();
-            Document xmlDocument = builder.parse(stream);
-
-            NodeList nodeList = (NodeList) xPath.compile(CONCEPTS_EXPRESSION).evaluate(xmlDocument, XPathConstants.NODESET);
-            for (int i = 0; i < nodeList.getLength(); i++) {
-                RDFOrganization rdfOrganization = getOrganization(xmlDocument, nodeList.item(i).getAttributes(), cache);
-                LOGGER.info("Processing organization from RDF, doi:{}", new String[] { rdfOrganization.doi });
-
-                OrgDisambiguatedEntity existingEntity = findById(rdfOrganization);
-                if (existingEntity != null) {
-                    if (entityChanged(rdfOrganization, existingEntity)) {
-                        existingEntity.setCity(rdfOrganization.city);
-                        Iso3166Country country = StringUtils.isNotBlank(rdfOrganization.country) ? Iso3166Country.fromValue(rdfOrganization.country) : null;
-                        existingEntity.setCountry(country == null ? null : country.name());
-                        existingEntity.setName(rdfOrganization.name);
-                        String orgType = getOrgType(rdfOrganization);
-                        existingEntity.setOrgType(orgType);
-                        existingEntity.setRegion(rdfOrganization.stateCode);
-                        existingEntity.setSourceId(rdfOrganization.doi);
-                        existingEntity.setSourceType(OrgDisambiguatedSourceType.FUNDREF.name());
-                        existingEntity.setSourceUrl(rdfOrganization.doi);
-                        existingEntity.setIndexingStatus(IndexingStatus.PENDING);
-                        if(!StringUtils.equals(existingEntity.getStatus(),OrganizationStatus.PART_OF_GROUP.name())){
-                            existingEntity.setStatus(rdfOrganization.status);
-                        }
-                        try {
-                            // mark group for indexing
-                            new OrgGrouping(existingEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
-
-                        } catch (Exception ex) {
-                            LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
-                        }
-                        orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
-                    } else if (statusChanged(rdfOrganization, existingEntity)) {
-                        existingEntity.setStatus(rdfOrganization.status);
-                        existingEntity.setIndexingStatus(IndexingStatus.PENDING);
-                        try {
-                            // mark group for indexing
-                            new OrgGrouping(existingEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
-
-                        } catch (Exception ex) {
-                            LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
+        long start = System.currentTimeMillis();
+        try (InputStream stream = new FileInputStream(localFilePath)) {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(stream);
+            try {
+                // The concept scheme, listing the top concepts, comes before
+                // the concepts
+                boolean conceptSchemeRead = false;
+                Set<String> topConcepts = new HashSet<String>();
+                List<RDFOrganization> rdfOrganizations = new ArrayList<RDFOrganization>(batchSize);
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if (CONCEPT_SCHEME_ELEMENT.equals(reader.getLocalName())) {
+                        readTopConcepts(reader, topConcepts);
+                        conceptSchemeRead = true;
+                    } else if (CONCEPT_ELEMENT.equals(reader.getLocalName())) {
+                        String itemDoi = reader.getAttributeValue(RDF_NAMESPACE, "about");
+                        if (!conceptSchemeRead) {
+                            // Every concept would be skipped
+                            LOGGER.error("Concept {} found before the concept scheme in {}, unable to import the file", itemDoi, localFilePath);
+                            return false;
                         }
-                        orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
-                    } else {
-                        if (StringUtils.isNotBlank(rdfOrganization.isReplacedBy)) {
-                            if (!rdfOrganization.isReplacedBy.equals(existingEntity.getSourceParentId())) {
-                                existingEntity.setSourceParentId(rdfOrganization.isReplacedBy);
-                                existingEntity.setStatus(OrganizationStatus.DEPRECATED.name());
-                                existingEntity.setIndexingStatus(IndexingStatus.PENDING);
-                                try {
-                                    // mark group for indexing
-                                    new OrgGrouping(existingEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
-
-                                } catch (Exception ex) {
-                                    LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
-                                }
-                                orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
+                        if (topConcepts.remove(itemDoi)) {
+                            rdfOrganizations.add(getOrganization(reader, itemDoi, cache));
+                            if (rdfOrganizations.size() == batchSize) {
+                                processOrganizations(rdfOrganizations);
+                                rdfOrganizations.clear();
                             }
+                        } else {
+                            skipElement(reader);
                         }
                     }
-                } else {
-                    OrgDisambiguatedEntity newEntity = createDisambiguatedOrg(rdfOrganization);
-                    try {
-                        try {
-                            // mark group for indexing
-                            new OrgGrouping(newEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
-
-                        } catch (Exception ex) {
-                            LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
-                        }
-                    } catch (Exception ex) {
-                        LOGGER.error("Error when grouping by ROR and removing related orgs solr index, eating the exception", ex);
-                    }
                 }
+                processOrganizations(rdfOrganizations);
+            } finally {
+                reader.close();
             }
             long end = System.currentTimeMillis();
             LOGGER.info("Time taken to process the files: {}", (end - start));
@@ -201,24 +166,100 @@ public class FundrefOrgLoadSource implements OrgLoadSource {
         } catch (FileNotFoundException fne) {
             LOGGER.error("Unable to read file {}", localFilePath);
             return false;
-        } catch (ParserConfigurationException pce) {
-            LOGGER.error("Unable to initialize the DocumentBuilder");
-            return false;
         } catch (IOException ioe) {
             LOGGER.error("Unable to parse document {}", localFilePath);
             return false;
-        } catch (SAXException se) {
-            LOGGER.error("Unable to parse document {}", localFilePath);
-            return false;
-        } catch (XPathExpressionException xpe) {
-            LOGGER.error("XPathExpressionException {}", xpe.getMessage());
+        } catch (XMLStreamException xse) {
+            LOGGER.error("Unable to parse document {}: {}", localFilePath, xse.getMessage());
             return false;
-        } finally {
+        }
+    }
+
+    /**
+     * Creates or updates the given organizations in a single transaction
+     */
+    private void processOrganizations(List<RDFOrganization> rdfOrganizations) {
+        if (rdfOrganizations.isEmpty()) {
+            return;
+        }
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (RDFOrganization rdfOrganization : rdfOrganizations) {
+                    processOrganization(rdfOrganization);
+                }
+            }
+        });
+    }
+
+    private void processOrganization(RDFOrganization rdfOrganization) {
+        LOGGER.info("Processing organization from RDF, doi:{}", new String[] { rdfOrganization.doi });
+
+        OrgDisambiguatedEntity existingEntity = findById(rdfOrganization);
+        if (existingEntity != null) {
+            if (entityChanged(rdfOrganization, existingEntity)) {
+                existingEntity.setCity(rdfOrganization.city);
+                Iso3166Country country = StringUtils.isNotBlank(rdfOrganization.country) ? Iso3166Country.fromValue(rdfOrganization.country) : null;
+                existingEntity.setCountry(country == null ? null : country.name());
+                existingEntity.setName(rdfOrganization.name);
+                String orgType = getOrgType(rdfOrganization);
+                existingEntity.setOrgType(orgType);
+                existingEntity.setRegion(rdfOrganization.stateCode);
+                existingEntity.setSourceId(rdfOrganization.doi);
+                existingEntity.setSourceType(OrgDisambiguatedSourceType.FUNDREF.name());
+                existingEntity.setSourceUrl(rdfOrganization.doi);
+                existingEntity.setIndexingStatus(IndexingStatus.PENDING);
+                if(!StringUtils.equals(existingEntity.getStatus(),OrganizationStatus.PART_OF_GROUP.name())){
+                    existingEntity.setStatus(rdfOrganization.status);
+                }
+                try {
+                    // mark group for indexing
+                    new OrgGrouping(existingEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
+
+                } catch (Exception ex) {
+                    LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
+                }
+                orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
+            } else if (statusChanged(rdfOrganization, existingEntity)) {
+                existingEntity.setStatus(rdfOrganization.status);
+                existingEntity.setIndexingStatus(IndexingStatus.PENDING);
+                try {
+                    // mark group for indexing
+                    new OrgGrouping(existingEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
+
+                } catch (Exception ex) {
+                    LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
+                }
+                orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
+            } else {
+                if (StringUtils.isNotBlank(rdfOrganization.isReplacedBy)) {
+                    if (!rdfOrganization.isReplacedBy.equals(existingEntity.getSourceParentId())) {
+                        existingEntity.setSourceParentId(rdfOrganization.isReplacedBy);
+                        existingEntity.setStatus(OrganizationStatus.DEPRECATED.name());
+                        existingEntity.setIndexingStatus(IndexingStatus.PENDING);
+                        try {
+                            // mark group for indexing
+                            new OrgGrouping(existingEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
+
+                        } catch (Exception ex) {
+                            LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
+                        }
+                        orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
+                    }
+                }
+            }
+        } else {
+            OrgDisambiguatedEntity newEntity = createDisambiguatedOrg(rdfOrganization);
             try {
-                stream.close();
-            } catch (IOException e) {
-                LOGGER.error("Error closing stream", e);
-                throw new RuntimeException(e);
+                try {
+                    // mark group for indexing
+                    new OrgGrouping(newEntity, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
+
+                } catch (Exception ex) {
+                    LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
+                }
+            } catch (Exception ex) {
+                LOGGER.error("Error when grouping by ROR and removing related orgs solr index, eating the exception", ex);
             }
         }
     }
@@ -228,72 +269,128 @@ public class FundrefOrgLoadSource implements OrgLoadSource {
      */
 
     /**
-     * Get an RDF organization from the given RDF file
+     * Get an RDF organization from the concept the reader is positioned at,
+     * leaves the reader at the end of the concept
      */
-    private RDFOrganization getOrganization(Document xmlDocument, NamedNodeMap attrs, Map<String, String> cache) {
-        RDFOrganization organization = new RDFOrganization();
-        try {
-            Node node = attrs.getNamedItem("rdf:resource");
-            String itemDoi = node.getNodeValue();
-            // Get item node
-            Node organizationNode = (Node) xPath.compile(ITEM_EXPRESSION.replace("%s", itemDoi)).evaluate(xmlDocument, XPathConstants.NODE);
-            organizationNode.getParentNode().removeChild(organizationNode);
-
-            // Get organization name
-            String orgName = (String) xPath.compile(ORG_NAME_EXPRESSION).evaluate(organizationNode, XPathConstants.STRING);
-
-            // Get status indicator
-            Node statusNode = (Node) xPath.compile(STATUS_EXPRESSION).evaluate(organizationNode, XPathConstants.NODE);
-            String status = null;
-            if (statusNode != null) {
-                NamedNodeMap statusAttrs = statusNode.getAttributes();
-                if (statusAttrs != null) {
-                    String statusAttribute = statusAttrs.getNamedItem("rdf:resource").getNodeValue();
-                    if (isDeprecatedStatus(statusAttribute)) {
-                        status = OrganizationStatus.DEPRECATED.name();
+    private RDFOrganization getOrganization(XMLStreamReader reader, String itemDoi, Map<String, String> cache) throws XMLStreamException {
+        String orgName = null;
+        String statusAttribute = null;
+        String countryGeonameUrl = null;
+        String stateGeoNameCode = null;
+        String orgType = null;
+        String orgSubType = null;
+        String isReplacedBy = null;
+
+        // Only the direct children of the concept and the name in the
+        // preferred label are read
+        int depth = 0;
+        String child = null;
+        while (depth >= 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String localName = reader.getLocalName();
+                if (depth == 0) {
+                    child = localName;
+                    switch (localName) {
+                    case STATUS_ELEMENT:
+                        statusAttribute = statusAttribute == null ? reader.getAttributeValue(RDF_NAMESPACE, "resource") : statusAttribute;
+                        break;
+                    case ORG_COUNTRY_ELEMENT:
+                        countryGeonameUrl = countryGeonameUrl == null ? reader.getAttributeValue(RDF_NAMESPACE, "resource") : countryGeonameUrl;
+                        break;
+                    case ORG_STATE_ELEMENT:
+                        stateGeoNameCode = stateGeoNameCode == null ? reader.getAttributeValue(RDF_NAMESPACE, "resource") : stateGeoNameCode;
+                        break;
+                    case IS_REPLACED_BY_ELEMENT:
+                        isReplacedBy = isReplacedBy == null ? reader.getAttributeValue(RDF_NAMESPACE, "resource") : isReplacedBy;
+                        break;
+                    case ORG_TYPE_ELEMENT:
+                        String type = reader.getElementText();
+                        orgType = orgType == null ? type : orgType;
+                        // getElementText moves to the end of the element
+                        continue;
+                    case ORG_SUBTYPE_ELEMENT:
+                        String subType = reader.getElementText();
+                        orgSubType = orgSubType == null ? subType : orgSubType;
+                        continue;
+                    default:
+                        break;
                     }
+                } else if (orgName == null && ORG_NAME_PARENT_ELEMENT.equals(child) && ORG_NAME_ELEMENT.equals(localName)) {
+                    orgName = reader.getElementText();
+                    continue;
                 }
+                depth++;
             }
+        }
 
-            // Get country code
-            Node countryNode = (Node) xPath.compile(ORG_COUNTRY_EXPRESSION).evaluate(organizationNode, XPathConstants.NODE);
-            NamedNodeMap countryAttrs = countryNode.getAttributes();
-            String countryGeonameUrl = countryAttrs.getNamedItem("rdf:resource").getNodeValue();
-            String countryCode = fetchFromGeoNames(countryGeonameUrl, "countryCode", cache);
-
-            // Get state name
-            Node stateNode = (Node) xPath.compile(ORG_STATE_EXPRESSION).evaluate(organizationNode, XPathConstants.NODE);
-            String stateCode = null;
-            if (stateNode != null) {
-                NamedNodeMap stateAttrs = stateNode.getAttributes();
-                String stateGeoNameCode = stateAttrs.getNamedItem("rdf:resource").getNodeValue();
-                stateCode = fetchFromGeoNames(stateGeoNameCode, STATE_NAME, cache);
-            }
+        // Get status indicator
+        String status = null;
+        if (statusAttribute != null && isDeprecatedStatus(statusAttribute)) {
+            status = OrganizationStatus.DEPRECATED.name();
+        }
 
-            String orgType = (String) xPath.compile(ORG_TYPE_EXPRESSION).evaluate(organizationNode, XPathConstants.STRING);
-            String orgSubType = (String) xPath.compile(ORG_SUBTYPE_EXPRESSION).evaluate(organizationNode, XPathConstants.STRING);
-            Node isReplacedByNode = (Node) xPath.compile(IS_REPLACED_BY_EXPRESSION).evaluate(organizationNode, XPathConstants.NODE);
-            String isReplacedBy = null;
-            if (isReplacedByNode != null) {
-                isReplacedBy = isReplacedByNode.getAttributes().getNamedItem("rdf:resource").getNodeValue();
-            }
+        // Get country code
+        String countryCode = null;
+        if (countryGeonameUrl != null) {
+            countryCode = fetchFromGeoNames(countryGeonameUrl, "countryCode", cache);
+        }
 
-            organization.doi = itemDoi;
-            organization.name = orgName;
-            organization.country = countryCode;
-            organization.stateCode = stateCode;
-            organization.city = stateCode;
-            organization.type = orgType;
-            organization.subtype = orgSubType;
-            organization.status = status;
-            organization.isReplacedBy = isReplacedBy;
-        } catch (XPathExpressionException xpe) {
-            LOGGER.error("XPathExpressionException {}", xpe.getMessage());
+        // Get state name
+        String stateCode = null;
+        if (stateGeoNameCode != null) {
+            stateCode = fetchFromGeoNames(stateGeoNameCode, STATE_NAME, cache);
         }
 
+        RDFOrganization organization = new RDFOrganization();
+        organization.doi = itemDoi;
+        organization.name = orgName == null ? "" : orgName;
+        organization.country = countryCode;
+        organization.stateCode = stateCode;
+        organization.city = stateCode;
+        organization.type = orgType == null ? "" : orgType;
+        organization.subtype = orgSubType == null ? "" : orgSubType;
+        organization.status = status;
+        organization.isReplacedBy = isReplacedBy;
         return organization;
     }
 
+    /**
+     * Collects the top concepts of the concept scheme the reader is
+     * positioned at, leaves the reader at the end of the concept scheme
+     */
+    private void readTopConcepts(XMLStreamReader reader, Set<String> topConcepts) throws XMLStreamException {
+        int depth = 0;
+        while (depth >= 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 0 && TOP_CONCEPT_ELEMENT.equals(reader.getLocalName())) {
+                    topConcepts.add(reader.getAttributeValue(RDF_NAMESPACE, "resource"));
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Moves the reader to the end of the element it is positioned at
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        while (depth >= 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
     /**
      * Indicates if an organization has been marked as deprecated
      */
@@ -537,6 +634,13 @@ public class FundrefOrgLoadSource implements OrgLoadSource {
         return enabled;
     }
 
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     private class RDFOrganization {
         String doi, name, country, stateCode, city, type, subtype, status, isReplacedBy;
     }
@@ -4,13 +4,16 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Map.Entry;
 import java.util.StringJoiner;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -20,6 +23,7 @@ import javax.annotation.Resource;
 import org.apache.commons.lang.StringUtils;
 import org.orcid.core.manager.OrgDisambiguatedManager;
 import org.orcid.core.orgs.OrgDisambiguatedSourceType;
+import org.orcid.core.orgs.extId.normalizer.OrgDisambiguatedExternalIdNormalizer;
 import org.orcid.core.orgs.grouping.OrgGrouping;
 import org.orcid.core.utils.JsonUtils;
 import org.orcid.jaxb.model.message.Iso3166Country;
@@ -39,9 +43,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 @Component
 public class RorOrgLoadSource implements OrgLoadSource {
@@ -83,8 +94,21 @@ public class RorOrgLoadSource implements OrgLoadSource {
     @Resource
     private FileRotator fileRotator;
 
+    @Value("${org.orcid.core.orgs.ror.batchSize:1000}")
+    private int batchSize;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private List<OrgDisambiguatedExternalIdNormalizer> orgDisambiguatedExternalIdNormalizers;
+
+    private Map<String, ExistingOrg> EXISTING_RORS;
+
     private Set<Long> UPDATED_RORS;
 
+    private Set<Long> OBSOLETE_RORS;
+
     @Override
     public String getSourceName() {
         return "ROR";
@@ -163,103 +187,195 @@ public class RorOrgLoadSource implements OrgLoadSource {
                 return false;
             }
 
-            // ror returns the JSON as Array of institutes
-            JsonNode rootNode = JsonUtils.read(fileToLoad);
+            EXISTING_RORS = loadExistingOrgs();
             UPDATED_RORS = new HashSet<Long>();
-
-            rootNode.forEach(institute -> {
-                String sourceId = institute.get("id").isNull() ? null : institute.get("id").asText();
-                String status = institute.get("status").isNull() ? null : institute.get("status").asText();
-                if ("active".equalsIgnoreCase(status) || "inactive".equalsIgnoreCase(status)) {
-                    ArrayNode namesNode = institute.get("names").isNull() ? null : (ArrayNode) institute.get("names");
-                    String name = null;
-                    String namesJson = null;
-
-                    if (namesNode != null) {
-                        for (JsonNode nameJson : namesNode) {
-                            ArrayNode nameTypes = nameJson.get("types").isNull() ? null : (ArrayNode) nameJson.get("types");
-                            for (JsonNode nameType : nameTypes) {
-                                if (StringUtils.equalsIgnoreCase(nameType.asText(), "ror_display")) {
-                                    name = nameJson.get("value").asText();
-                                    break;
-                                }
-                            }
-                        }
-                        namesJson = namesNode.toString();
+            OBSOLETE_RORS = new HashSet<Long>();
+
+            // ror returns the JSON as Array of institutes, stream it so only
+            // one chunk of institutes is kept in memory
+            try (JsonParser parser = JsonUtils.createParser(fileToLoad)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    LOGGER.error("File {} doesn't contain an array of institutes", localDataPath);
+                    return false;
+                }
+                List<JsonNode> institutes = new ArrayList<JsonNode>(batchSize);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    institutes.add(parser.readValueAsTree());
+                    if (institutes.size() == batchSize) {
+                        processInstitutes(institutes);
+                        institutes.clear();
                     }
+                }
+                processInstitutes(institutes);
+            }
 
-                    StringJoiner sj = new StringJoiner(",");
-                    String orgType = null;
-                    if (!institute.get("types").isNull()) {
-                        ((ArrayNode) institute.get("types")).forEach(x -> sj.add(x.textValue()));
-                        orgType = sj.toString();
-                    }
+            ungroupObsoleteRORs();
+            // Check if any RORs with external identifiers updated and group
+            // them
+            groupRORsWithUpdatedExternalModifiers();
 
-                    // location node
+            LOGGER.info("Time taken to process the data: {}", Duration.between(start, Instant.now()).toString());
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Error loading ROR data", e);
+            return false;
+        } finally {
+            EXISTING_RORS = null;
+            UPDATED_RORS = null;
+            OBSOLETE_RORS = null;
+        }
+    }
 
-                    ArrayNode locationsNode = institute.get("locations").isNull() ? null : (ArrayNode) institute.get("locations");
-                    Iso3166Country country = null;
-                    String region = null;
-                    String city = null;
+    /**
+     * Loads the id, status and a hash of the fields the loader maintains of
+     * every ROR org, so unchanged orgs can be skipped without querying the DB
+     */
+    private Map<String, ExistingOrg> loadExistingOrgs() {
+        Map<String, ExistingOrg> existingOrgs = new HashMap<String, ExistingOrg>();
+        Long lastId = null;
+        List<Object[]> rows;
+        do {
+            rows = orgDisambiguatedDao.findOrgDetailsBySourceType(OrgDisambiguatedSourceType.ROR.name(), lastId, batchSize);
+            for (Object[] row : rows) {
+                lastId = ((Number) row[0]).longValue();
+                long hash = hash((String) row[2], (String) row[3], (String) row[4], (String) row[5], (String) row[6], (String) row[7]);
+                existingOrgs.put((String) row[1], new ExistingOrg(lastId, hash, (String) row[8], (String) row[9]));
+            }
+        } while (rows.size() == batchSize);
+        LOGGER.info("Loaded {} existing ROR orgs", existingOrgs.size());
+        return existingOrgs;
+    }
 
-                    String locationsJson = null;
-                    if (locationsNode != null) {
-                        for (JsonNode locationJson : locationsNode) {
-                            JsonNode geoDetailsNode = locationJson.get("geonames_details").isNull() ? null : (JsonNode) locationJson.get("geonames_details");
+    /**
+     * Loads the external identifiers of the existing orgs of a chunk with a
+     * single query, keyed by org id and then by type and identifier
+     */
+    private Map<Long, Map<String, ExistingExternalIdentifier>> loadExternalIdentifiers(List<JsonNode> institutes) {
+        Set<Long> orgIds = new LinkedHashSet<Long>();
+        for (JsonNode institute : institutes) {
+            ExistingOrg existingOrg = EXISTING_RORS.get(getText(institute, "id"));
+            if (existingOrg != null) {
+                orgIds.add(existingOrg.id);
+            }
+        }
+        Map<Long, Map<String, ExistingExternalIdentifier>> externalIdentifiers = new HashMap<Long, Map<String, ExistingExternalIdentifier>>();
+        for (Object[] row : orgDisambiguatedExternalIdentifierDao.findExternalIdentifiers(new ArrayList<Long>(orgIds))) {
+            Long orgId = ((Number) row[0]).longValue();
+            String key = buildExternalIdentifierKey((String) row[2], (String) row[3]);
+            externalIdentifiers.computeIfAbsent(orgId, k -> new HashMap<String, ExistingExternalIdentifier>()).put(key,
+                    new ExistingExternalIdentifier(((Number) row[1]).longValue(), (Boolean) row[4]));
+        }
+        return externalIdentifiers;
+    }
 
-                            if (geoDetailsNode != null) {
-                                String countryCode = geoDetailsNode.get("country_code").isNull() ? null : geoDetailsNode.get("country_code").asText();
-                                country = StringUtils.isBlank(countryCode) ? null : Iso3166Country.fromValue(countryCode);
-                                // for now storing just the first location
-                                city = geoDetailsNode.get("name").isNull() ? null : geoDetailsNode.get("name").asText();
-                                if (country != null) {
-                                    break;
-                                }
-                            }
+    /**
+     * Processes a chunk of institutes in a single transaction, so the inserts
+     * and updates of the chunk are flushed together
+     */
+    private void processInstitutes(List<JsonNode> institutes) {
+        if (institutes.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<String, ExistingExternalIdentifier>> externalIdentifiers = loadExternalIdentifiers(institutes);
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (JsonNode institute : institutes) {
+                    processInstitute(institute, externalIdentifiers);
+                }
+            }
+        });
+    }
 
+    private void processInstitute(JsonNode institute, Map<Long, Map<String, ExistingExternalIdentifier>> externalIdentifiers) {
+        String sourceId = getText(institute, "id");
+        String status = getText(institute, "status");
+        if ("active".equalsIgnoreCase(status) || "inactive".equalsIgnoreCase(status)) {
+            ArrayNode namesNode = institute.get("names").isNull() ? null : (ArrayNode) institute.get("names");
+            String name = null;
+            String namesJson = null;
+
+            if (namesNode != null) {
+                for (JsonNode nameJson : namesNode) {
+                    ArrayNode nameTypes = nameJson.get("types").isNull() ? null : (ArrayNode) nameJson.get("types");
+                    for (JsonNode nameType : nameTypes) {
+                        if (StringUtils.equalsIgnoreCase(nameType.asText(), "ror_display")) {
+                            name = nameJson.get("value").asText();
+                            break;
                         }
-                        locationsJson = locationsNode.toString();
                     }
+                }
+                namesJson = namesNode.toString();
+            }
 
-                    ArrayNode urls = institute.get("links").isNull() ? null : (ArrayNode) institute.get("links");
-                    // Use the first URL
-                    String url = (urls != null && urls.size() > 0) ? urls.get(0).asText() : null;
+            StringJoiner sj = new StringJoiner(",");
+            String orgType = null;
+            if (!institute.get("types").isNull()) {
+                ((ArrayNode) institute.get("types")).forEach(x -> sj.add(x.textValue()));
+                orgType = sj.toString();
+            }
 
-                    // Creates or updates an institute
-                    OrgDisambiguatedEntity entity = processInstitute(sourceId, name, country, city, region, url, orgType, locationsJson, namesJson);
+            // location node
+
+            ArrayNode locationsNode = institute.get("locations").isNull() ? null : (ArrayNode) institute.get("locations");
+            Iso3166Country country = null;
+            String region = null;
+            String city = null;
+
+            String locationsJson = null;
+            if (locationsNode != null) {
+                for (JsonNode locationJson : locationsNode) {
+                    JsonNode geoDetailsNode = locationJson.get("geonames_details").isNull() ? null : (JsonNode) locationJson.get("geonames_details");
+
+                    if (geoDetailsNode != null) {
+                        String countryCode = geoDetailsNode.get("country_code").isNull() ? null : geoDetailsNode.get("country_code").asText();
+                        country = StringUtils.isBlank(countryCode) ? null : Iso3166Country.fromValue(countryCode);
+                        // for now storing just the first location
+                        city = geoDetailsNode.get("name").isNull() ? null : geoDetailsNode.get("name").asText();
+                        if (country != null) {
+                            break;
+                        }
+                    }
 
-                    // Creates external identifiers
-                    processExternalIdentifiers(entity, institute);
-                } else if ("redirected".equals(status)) {
-                    String primaryId = institute.get("redirect").isNull() ? null : institute.get("redirect").asText();
-                    deprecateOrg(sourceId, primaryId);
-                } else if ("withdrawn".equals(status) || "obsolete".equals(status)) {
-                    obsoleteOrg(sourceId);
-                } else {
-                    LOGGER.error("Illegal status '" + status + "' for institute " + sourceId);
                 }
-            });
-
-            // Check if any RORs with external identifiers updated and group
-            // them
-            groupRORsWithUpdatedExternalModifiers();
+                locationsJson = locationsNode.toString();
+            }
 
-            LOGGER.info("Time taken to process the data: {}", Duration.between(start, Instant.now()).toString());
-            return true;
-        } catch (Exception e) {
-            LOGGER.error("Error loading ROR data", e);
-            return false;
+            ArrayNode urls = institute.get("links").isNull() ? null : (ArrayNode) institute.get("links");
+            // Use the first URL
+            String url = (urls != null && urls.size() > 0) ? urls.get(0).asText() : null;
+
+            // Creates or updates an institute
+            OrgDisambiguatedEntity entity = processInstitute(sourceId, name, country, city, region, url, orgType, locationsJson, namesJson);
+            Long orgId = EXISTING_RORS.get(sourceId).id;
+
+            // Creates external identifiers
+            processExternalIdentifiers(orgId, entity, institute, externalIdentifiers.computeIfAbsent(orgId, k -> new HashMap<String, ExistingExternalIdentifier>()));
+        } else if ("redirected".equals(status)) {
+            String primaryId = getText(institute, "redirect");
+            deprecateOrg(sourceId, primaryId);
+        } else if ("withdrawn".equals(status) || "obsolete".equals(status)) {
+            obsoleteOrg(sourceId);
+        } else {
+            LOGGER.error("Illegal status '" + status + "' for institute " + sourceId);
         }
     }
 
-    private OrgDisambiguatedEntity processInstitute(String sourceId, String name, Iso3166Country country, String city,
-
-            String region, String url, String orgType, String locationsJson, String namesJson) {
-        OrgDisambiguatedEntity existingBySourceId = orgDisambiguatedDao.findBySourceIdAndSourceType(sourceId, OrgDisambiguatedSourceType.ROR.name());
-        if (existingBySourceId != null) {
-            if (entityChanged(existingBySourceId, name, country.value(), city, region, url, orgType) || indexAllEnabled) {
+    /**
+     * Creates or updates an institute
+     * 
+     * @return the created or updated entity, null if the institute didn't
+     *         change
+     */
+    private OrgDisambiguatedEntity processInstitute(String sourceId, String name, Iso3166Country country, String city, String region, String url, String orgType, String locationsJson,
+            String namesJson) {
+        long hash = hash(name, country != null ? country.name() : null, city, region, url, orgType);
+        ExistingOrg existingOrg = EXISTING_RORS.get(sourceId);
+        if (existingOrg != null) {
+            if (existingOrg.hash != hash || indexAllEnabled) {
+                OrgDisambiguatedEntity existingBySourceId = orgDisambiguatedDao.find(existingOrg.id);
                 existingBySourceId.setCity(city);
-                existingBySourceId.setCountry(country.name());
+                existingBySourceId.setCountry(country != null ? country.name() : null);
                 existingBySourceId.setName(name);
                 existingBySourceId.setOrgType(orgType);
                 existingBySourceId.setRegion(region);
@@ -268,30 +384,23 @@ public class RorOrgLoadSource implements OrgLoadSource {
                 existingBySourceId.setNamesJson(namesJson);
 
                 existingBySourceId.setIndexingStatus(IndexingStatus.PENDING);
-                try {
-                    // mark group for indexing
-                    new OrgGrouping(existingBySourceId, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
-
-                } catch (Exception ex) {
-                    LOGGER.error("Error when grouping by ROR and marking group orgs for reindexing, eating the exception", ex);
-                }
                 orgDisambiguatedManager.updateOrgDisambiguated(existingBySourceId);
+                existingOrg.hash = hash;
+                // group is marked for indexing once the whole file is loaded
+                UPDATED_RORS.add(existingOrg.id);
+                return existingBySourceId;
             }
-            return existingBySourceId;
+            return null;
         }
 
         // Create a new disambiguated org
         OrgDisambiguatedEntity newOrg = createDisambiguatedOrg(sourceId, name, orgType, country, city, region, url);
-        try {
-            // mark group for indexing
-            new OrgGrouping(newOrg, orgDisambiguatedManager).markGroupForIndexing(orgDisambiguatedDao);
-        } catch (Exception ex) {
-            LOGGER.error("Error when grouping by ROR and removing related orgs solr index, eating the exception", ex);
-        }
+        EXISTING_RORS.put(sourceId, new ExistingOrg(newOrg.getId(), hash, newOrg.getStatus(), newOrg.getSourceParentId()));
+        UPDATED_RORS.add(newOrg.getId());
         return newOrg;
     }
 
-    private void processExternalIdentifiers(OrgDisambiguatedEntity org, JsonNode institute) {
+    private void processExternalIdentifiers(Long orgId, OrgDisambiguatedEntity org, JsonNode institute, Map<String, ExistingExternalIdentifier> existingExternalIds) {
         ArrayNode nodes = institute.get("external_ids") == null ? null : (ArrayNode) institute.get("external_ids");
         if (nodes != null) {
             for (JsonNode entry : nodes) {
@@ -299,96 +408,65 @@ public class RorOrgLoadSource implements OrgLoadSource {
                 String preferredId = entry.get("preferred").isNull() ? null : entry.get("preferred").asText();
                 if (StringUtils.equalsIgnoreCase(OrgDisambiguatedSourceType.GRID.name(), identifierTypeName)) {
                     JsonNode extId = (JsonNode) entry.get("all");
-                    setExternalId(org, identifierTypeName, preferredId, extId);
-                    UPDATED_RORS.add(org.getId());
+                    setExternalId(orgId, org, identifierTypeName, preferredId, extId, existingExternalIds);
                 } else {
                     ArrayNode elements = (ArrayNode) entry.get("all");
                     for (JsonNode extId : elements) {
-                        setExternalId(org, identifierTypeName, preferredId, extId);
-                        UPDATED_RORS.add(org.getId());
+                        setExternalId(orgId, org, identifierTypeName, preferredId, extId, existingExternalIds);
                     }
                 }
             }
         }
     }
 
-    private void setExternalId(OrgDisambiguatedEntity org, String identifierTypeName, String preferredId, JsonNode extId) {
-        // If the external identifier doesn't exists yet
-        OrgDisambiguatedExternalIdentifierEntity existingExternalId = orgDisambiguatedExternalIdentifierDao.findByDetails(org.getId(), extId.asText(),
-                identifierTypeName);
+    private void setExternalId(Long orgId, OrgDisambiguatedEntity org, String identifierTypeName, String preferredId, JsonNode extId, Map<String, ExistingExternalIdentifier> existingExternalIds) {
+        String key = buildExternalIdentifierKey(identifierTypeName, normalizeExternalIdentifier(identifierTypeName, extId.asText()));
+        ExistingExternalIdentifier existingExternalId = existingExternalIds.get(key);
         Boolean preferred = extId.asText().equals(preferredId);
+        // If the external identifier doesn't exists yet
         if (existingExternalId == null) {
-            if (preferred) {
-                createExternalIdentifier(org, extId.asText(), identifierTypeName, true);
-            } else {
-                createExternalIdentifier(org, extId.asText(), identifierTypeName, false);
-            }
-        } else {
-            if (existingExternalId.getPreferred() != preferred) {
-                existingExternalId.setPreferred(preferred);
-                orgDisambiguatedManager.updateOrgDisambiguatedExternalIdentifier(existingExternalId);
-                LOGGER.info("External identifier for {} with ext id {} and type {} was updated", new Object[] { org.getId(), extId.asText(), identifierTypeName });
-            } else {
-                LOGGER.info("External identifier for {} with ext id {} and type {} already exists", new Object[] { org.getId(), extId.asText(), identifierTypeName });
-            }
+            createExternalIdentifier(org != null ? org : orgDisambiguatedDao.find(orgId), extId.asText(), identifierTypeName, preferred);
+            existingExternalIds.put(key, new ExistingExternalIdentifier(null, preferred));
+            UPDATED_RORS.add(orgId);
+        } else if (!preferred.equals(existingExternalId.preferred) && existingExternalId.id != null) {
+            OrgDisambiguatedExternalIdentifierEntity existingEntity = orgDisambiguatedExternalIdentifierDao.find(existingExternalId.id);
+            existingEntity.setPreferred(preferred);
+            orgDisambiguatedManager.updateOrgDisambiguatedExternalIdentifier(existingEntity);
+            existingExternalId.preferred = preferred;
+            UPDATED_RORS.add(orgId);
+            LOGGER.info("External identifier for {} with ext id {} and type {} was updated", new Object[] { orgId, extId.asText(), identifierTypeName });
         }
     }
 
     /**
-     * Indicates if an entity changed his address, url or org type
-     * 
-     * @return true if the entity has changed.
+     * Hash of the fields compared to decide if an org changed: name (ignoring
+     * case), country, city, region, url and org type, blank values being
+     * equal to null ones
      */
-    private boolean entityChanged(OrgDisambiguatedEntity entity, String name, String countryCode, String city, String region, String url, String orgType) {
-        // Check name
-        if (StringUtils.isNotBlank(name)) {
-            if (!name.equalsIgnoreCase(entity.getName()))
-                return true;
-        } else if (StringUtils.isNotBlank(entity.getName())) {
-            return true;
-        }
-        // Check country
-        if (StringUtils.isNotBlank(countryCode)) {
-            if (entity.getCountry() == null || !countryCode.equals(entity.getCountry())) {
-                return true;
-            }
-        } else if (entity.getCountry() != null) {
-            return true;
-        }
-        // Check city
-        if (StringUtils.isNotBlank(city)) {
-            if (entity.getCity() == null || !city.equals(entity.getCity())) {
-                return true;
-            }
-        } else if (StringUtils.isNotBlank(entity.getCity())) {
-            return true;
-        }
-        // Check region
-        if (StringUtils.isNotBlank(region)) {
-            if (entity.getRegion() == null || !region.equals(entity.getRegion())) {
-                return true;
-            }
-        } else if (StringUtils.isNotBlank(entity.getRegion())) {
-            return true;
+    private static long hash(String name, String countryCode, String city, String region, String url, String orgType) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (String value : new String[] { StringUtils.lowerCase(name), countryCode, city, region, url, orgType }) {
+            hasher.putString(StringUtils.isBlank(value) ? "" : value, StandardCharsets.UTF_8).putByte((byte) 0);
         }
-        // Check url
-        if (StringUtils.isNotBlank(url)) {
-            if (entity.getUrl() == null || !url.equals(entity.getUrl())) {
-                return true;
-            }
-        } else if (StringUtils.isNotBlank(entity.getUrl())) {
-            return true;
-        }
-        // Check org_type
-        if (StringUtils.isNotBlank(orgType)) {
-            if (entity.getOrgType() == null || !orgType.equals(entity.getOrgType())) {
-                return true;
+        return hasher.hash().asLong();
+    }
+
+    private String normalizeExternalIdentifier(String identifierType, String identifier) {
+        for (OrgDisambiguatedExternalIdNormalizer normalizer : orgDisambiguatedExternalIdNormalizers) {
+            if (normalizer.getType().equals(identifierType)) {
+                identifier = normalizer.normalize(identifier);
             }
-        } else if (StringUtils.isNotBlank(entity.getOrgType())) {
-            return true;
         }
+        return identifier;
+    }
 
-        return false;
+    private static String buildExternalIdentifierKey(String identifierType, String identifier) {
+        return identifierType + "::" + identifier;
+    }
+
+    private static String getText(JsonNode institute, String field) {
+        JsonNode node = institute.get(field);
+        return node == null || node.isNull() ? null : node.asText();
     }
 
     /**
@@ -428,17 +506,20 @@ public class RorOrgLoadSource implements OrgLoadSource {
      * Mark an existing org as DEPRECATED
      */
     private void deprecateOrg(String sourceId, String primarySourceId) {
-        LOGGER.info("Deprecating org {} for {}", sourceId, primarySourceId);
-        OrgDisambiguatedEntity existingEntity = orgDisambiguatedDao.findBySourceIdAndSourceType(sourceId, OrgDisambiguatedSourceType.ROR.name());
-        if (existingEntity != null) {
-            if (existingEntity.getStatus() == null || !existingEntity.getStatus().equals(OrganizationStatus.DEPRECATED.name())
-                    || !existingEntity.getSourceParentId().equals(primarySourceId)) {
+        ExistingOrg existingOrg = EXISTING_RORS.get(sourceId);
+        if (existingOrg != null) {
+            if (!OrganizationStatus.DEPRECATED.name().equals(existingOrg.status) || !StringUtils.equals(existingOrg.sourceParentId, primarySourceId)) {
+                LOGGER.info("Deprecating org {} for {}", sourceId, primarySourceId);
+                OrgDisambiguatedEntity existingEntity = orgDisambiguatedDao.find(existingOrg.id);
                 existingEntity.setStatus(OrganizationStatus.DEPRECATED.name());
                 existingEntity.setSourceParentId(primarySourceId);
                 existingEntity.setIndexingStatus(IndexingStatus.PENDING);
                 orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
+                existingOrg.status = OrganizationStatus.DEPRECATED.name();
+                existingOrg.sourceParentId = primarySourceId;
             }
         } else {
+            LOGGER.info("Deprecating org {} for {}", sourceId, primarySourceId);
             OrgDisambiguatedEntity deprecatedEntity = new OrgDisambiguatedEntity();
             deprecatedEntity.setSourceType(OrgDisambiguatedSourceType.ROR.name());
             deprecatedEntity.setStatus(OrganizationStatus.DEPRECATED.name());
@@ -447,6 +528,7 @@ public class RorOrgLoadSource implements OrgLoadSource {
             // We don't need to index it
             deprecatedEntity.setIndexingStatus(IndexingStatus.DONE);
             orgDisambiguatedManager.createOrgDisambiguated(deprecatedEntity);
+            EXISTING_RORS.put(sourceId, new ExistingOrg(deprecatedEntity.getId(), hash(null, null, null, null, null, null), deprecatedEntity.getStatus(), primarySourceId));
         }
     }
 
@@ -454,16 +536,20 @@ public class RorOrgLoadSource implements OrgLoadSource {
      * Mark an existing org as OBSOLETE
      */
     private void obsoleteOrg(String sourceId) {
-        LOGGER.info("Marking or as obsolete {}", sourceId);
-        OrgDisambiguatedEntity existingEntity = orgDisambiguatedDao.findBySourceIdAndSourceType(sourceId, OrgDisambiguatedSourceType.ROR.name());
-        if (existingEntity != null) {
-            if (existingEntity.getStatus() == null || !existingEntity.getStatus().equals(OrganizationStatus.OBSOLETE.name())) {
+        ExistingOrg existingOrg = EXISTING_RORS.get(sourceId);
+        if (existingOrg != null) {
+            if (!OrganizationStatus.OBSOLETE.name().equals(existingOrg.status)) {
+                LOGGER.info("Marking or as obsolete {}", sourceId);
+                OrgDisambiguatedEntity existingEntity = orgDisambiguatedDao.find(existingOrg.id);
                 existingEntity.setStatus(OrganizationStatus.OBSOLETE.name());
                 existingEntity.setIndexingStatus(IndexingStatus.PENDING);
                 orgDisambiguatedManager.updateOrgDisambiguated(existingEntity);
-                new OrgGrouping(existingEntity, orgDisambiguatedManager).ungroupObsoleteRorForIndexing(orgDisambiguatedDao);
+                existingOrg.status = OrganizationStatus.OBSOLETE.name();
+                // group is updated once the whole file is loaded
+                OBSOLETE_RORS.add(existingOrg.id);
             }
         } else {
+            LOGGER.info("Marking or as obsolete {}", sourceId);
             OrgDisambiguatedEntity obsoletedEntity = new OrgDisambiguatedEntity();
             obsoletedEntity.setSourceType(OrgDisambiguatedSourceType.ROR.name());
             obsoletedEntity.setStatus(OrganizationStatus.OBSOLETE.name());
@@ -471,7 +557,8 @@ public class RorOrgLoadSource implements OrgLoadSource {
             // We don't need to index it
             obsoletedEntity.setIndexingStatus(IndexingStatus.DONE);
             orgDisambiguatedManager.createOrgDisambiguated(obsoletedEntity);
-            new OrgGrouping(obsoletedEntity, orgDisambiguatedManager).ungroupObsoleteRorForIndexing(orgDisambiguatedDao);
+            EXISTING_RORS.put(sourceId, new ExistingOrg(obsoletedEntity.getId(), hash(null, null, null, null, null, null), obsoletedEntity.getStatus(), null));
+            OBSOLETE_RORS.add(obsoletedEntity.getId());
         }
     }
 
@@ -480,6 +567,19 @@ public class RorOrgLoadSource implements OrgLoadSource {
         return enabled;
     }
 
+    private void ungroupObsoleteRORs() {
+        for (Long id : OBSOLETE_RORS) {
+            OrgDisambiguatedEntity entity = orgDisambiguatedDao.find(id);
+            if (entity != null) {
+                try {
+                    new OrgGrouping(entity, orgDisambiguatedManager).ungroupObsoleteRorForIndexing(orgDisambiguatedDao);
+                } catch (Exception ex) {
+                    LOGGER.error("Error when ungrouping obsolete ROR and marking group orgs for reindexing, eating the exception", ex);
+                }
+            }
+        }
+    }
+
     private void groupRORsWithUpdatedExternalModifiers() {
         for (Long id : UPDATED_RORS) {
             OrgDisambiguatedEntity entity = orgDisambiguatedDao.find(id);
@@ -498,4 +598,32 @@ public class RorOrgLoadSource implements OrgLoadSource {
         }
     }
 
+    /**
+     * State of an org already in the DB, kept for the whole load instead of
+     * the entity
+     */
+    private static class ExistingOrg {
+        private final Long id;
+        private long hash;
+        private String status;
+        private String sourceParentId;
+
+        private ExistingOrg(Long id, long hash, String status, String sourceParentId) {
+            this.id = id;
+            this.hash = hash;
+            this.status = status;
+            this.sourceParentId = sourceParentId;
+        }
+    }
+
+    private static class ExistingExternalIdentifier {
+        private final Long id;
+        private Boolean preferred;
+
+        private ExistingExternalIdentifier(Long id, Boolean preferred) {
+            this.id = id;
+            this.preferred = preferred;
+        }
+    }
+
 }
\ No newline at end of file
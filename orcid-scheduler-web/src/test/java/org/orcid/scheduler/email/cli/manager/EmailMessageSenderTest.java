@@ -2,12 +2,19 @@ package org.orcid.scheduler.email.cli.manager;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +33,7 @@ import org.mockito.MockitoAnnotations;
 import org.orcid.core.manager.EmailMessage;
 import org.orcid.core.manager.EncryptionManager;
 import org.orcid.core.manager.ProfileEntityCacheManager;
+import org.orcid.core.manager.v3.NotificationManager;
 import org.orcid.core.manager.v3.RecordNameManager;
 import org.orcid.core.togglz.Features;
 import org.orcid.core.utils.DateUtils;
@@ -46,12 +54,17 @@ import org.orcid.jaxb.model.v3.release.notification.permission.Items;
 import org.orcid.jaxb.model.v3.release.notification.permission.NotificationPermission;
 import org.orcid.jaxb.model.v3.release.record.ExternalID;
 import org.orcid.jaxb.model.v3.release.record.ExternalIDs;
+import org.orcid.persistence.dao.EmailDao;
+import org.orcid.persistence.dao.NotificationDao;
 import org.orcid.persistence.dao.RecordNameDao;
+import org.orcid.persistence.jpa.entities.EmailEntity;
 import org.orcid.persistence.jpa.entities.ProfileEntity;
 import org.orcid.persistence.jpa.entities.RecordNameEntity;
 import org.orcid.test.OrcidJUnit4ClassRunner;
 import org.orcid.test.TargetProxyHelper;
+import org.orcid.utils.email.MailGunManager;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.togglz.junit.TogglzRule;
 
 /**
@@ -133,6 +146,66 @@ public class EmailMessageSenderTest {
         assertEquals(expectedBodyText, text);
     }
 
+    @Test
+    public void testSendEmailMessagesInBatches() {
+        Object target = TargetProxyHelper.unwrapProxy(emailMessageSender);
+        Map<String, Object> originals = new HashMap<>();
+        for (String field : Arrays.asList("notificationDao", "notificationDaoReadOnly", "notificationManager", "emailDao", "mailGunManager", "digestBatchSize")) {
+            originals.put(field, ReflectionTestUtils.getField(target, field));
+        }
+        try {
+            NotificationDao notificationDao = Mockito.mock(NotificationDao.class);
+            NotificationDao notificationDaoReadOnly = Mockito.mock(NotificationDao.class);
+            NotificationManager notificationManager = Mockito.mock(NotificationManager.class);
+            EmailDao emailDao = Mockito.mock(EmailDao.class);
+            MailGunManager mailGunManager = Mockito.mock(MailGunManager.class);
+            TargetProxyHelper.injectIntoProxy(emailMessageSender, "notificationDao", notificationDao);
+            TargetProxyHelper.injectIntoProxy(emailMessageSender, "notificationDaoReadOnly", notificationDaoReadOnly);
+            TargetProxyHelper.injectIntoProxy(emailMessageSender, "notificationManager", notificationManager);
+            TargetProxyHelper.injectIntoProxy(emailMessageSender, "emailDao", emailDao);
+            TargetProxyHelper.injectIntoProxy(emailMessageSender, "mailGunManager", mailGunManager);
+            TargetProxyHelper.injectIntoProxy(emailMessageSender, "digestBatchSize", 2);
+
+            List<Object[]> firstPage = Arrays.asList(new Object[] { "0000-0000-0000-0001", new Date() }, new Object[] { "0000-0000-0000-0002", new Date() });
+            List<Object[]> secondPage = Arrays.<Object[]> asList(new Object[] { "0000-0000-0000-0003", new Date() });
+            when(notificationDaoReadOnly.findRecordsWithUnsentNotifications(null, 2)).thenReturn(firstPage);
+            when(notificationDaoReadOnly.findRecordsWithUnsentNotifications("0000-0000-0000-0002", 2)).thenReturn(secondPage);
+
+            List<Notification> notifications = generateNotifications();
+            Map<String, List<Notification>> firstBatch = new HashMap<>();
+            firstBatch.put("0000-0000-0000-0001", notifications.subList(0, 2));
+            firstBatch.put("0000-0000-0000-0002", notifications.subList(2, 3));
+            Map<String, List<Notification>> secondBatch = new HashMap<>();
+            secondBatch.put("0000-0000-0000-0003", notifications.subList(3, 5));
+            when(notificationManager.findNotificationsToSend(Arrays.asList("0000-0000-0000-0001", "0000-0000-0000-0002"))).thenReturn(firstBatch);
+            when(notificationManager.findNotificationsToSend(Arrays.asList("0000-0000-0000-0003"))).thenReturn(secondBatch);
+
+            // 0000-0000-0000-0002 has no primary email
+            when(emailDao.findPrimaryEmails(anyCollection())).thenReturn(Arrays.asList(email("0000-0000-0000-0001", "one@test.orcid.org"), email("0000-0000-0000-0003", "three@test.orcid.org")));
+            when(mailGunManager.sendEmail(anyString(), eq("one@test.orcid.org"), anyString(), anyString(), anyString())).thenReturn(true);
+            when(mailGunManager.sendEmail(anyString(), eq("three@test.orcid.org"), anyString(), anyString(), anyString())).thenReturn(false);
+
+            emailMessageSender.sendEmailMessages();
+
+            verify(mailGunManager, times(2)).sendEmail(anyString(), anyString(), anyString(), anyString(), anyString());
+            // All the notifications sent in a batch are flagged at once
+            verify(notificationDao, times(1)).flagAsSent(anyCollection());
+            verify(notificationDao, times(1)).flagAsSent(Arrays.asList(1L, 2L));
+            verify(notificationDaoReadOnly, never()).findRecordsWithUnsentNotifications("0000-0000-0000-0003", 2);
+        } finally {
+            for (Map.Entry<String, Object> original : originals.entrySet()) {
+                TargetProxyHelper.injectIntoProxy(emailMessageSender, original.getKey(), original.getValue());
+            }
+        }
+    }
+
+    private EmailEntity email(String orcid, String address) {
+        EmailEntity email = new EmailEntity();
+        email.setOrcid(orcid);
+        email.setEmail(address);
+        return email;
+    }
+
     @Test
     public void testAddWorksToRecordEmail() throws IOException {
         EmailMessage emailMessage = emailMessageSender.createAddWorksToRecordEmail("email@orcid.org", "0000-0000-0000-0000");
@@ -0,0 +1,97 @@
+package org.orcid.scheduler.email.trickle.listener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.ObjectMessage;
+import javax.jms.Queue;
+import javax.jms.Session;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.orcid.core.email.trickle.producer.EmailTrickleItem;
+import org.orcid.scheduler.email.trickle.manager.TrickleManager;
+
+public class EmailQueueListenerTest {
+
+    private TrickleManager trickleManager;
+
+    private Session session;
+
+    private MessageConsumer consumer;
+
+    private EmailQueueListener listener;
+
+    @Before
+    public void before() throws JMSException {
+        trickleManager = Mockito.mock(TrickleManager.class);
+        session = Mockito.mock(Session.class);
+        consumer = Mockito.mock(MessageConsumer.class);
+        Queue queue = Mockito.mock(Queue.class);
+        Mockito.when(session.createQueue("email.queue")).thenReturn(queue);
+        Mockito.when(session.createConsumer(queue)).thenReturn(consumer);
+        listener = new EmailQueueListener();
+        listener.setTrickleManager(trickleManager);
+    }
+
+    @Test
+    public void receiveABatchInTheListenerSessionTest() throws JMSException {
+        listener.setBatchSize(3);
+        EmailTrickleItem first = new EmailTrickleItem();
+        EmailTrickleItem second = new EmailTrickleItem();
+        EmailTrickleItem third = new EmailTrickleItem();
+        ObjectMessage secondMessage = message(second);
+        ObjectMessage thirdMessage = message(third);
+        ObjectMessage overBatchMessage = message(new EmailTrickleItem());
+        Mockito.when(consumer.receiveNoWait()).thenReturn(secondMessage, thirdMessage, overBatchMessage);
+
+        listener.receiveMessage(first, session);
+
+        List<EmailTrickleItem> items = sentItems();
+        assertEquals(3, items.size());
+        assertSame(first, items.get(0));
+        assertSame(second, items.get(1));
+        assertSame(third, items.get(2));
+        Mockito.verify(consumer, Mockito.times(2)).receiveNoWait();
+        Mockito.verify(consumer).close();
+    }
+
+    @Test
+    public void stopWhenTheQueueIsEmptyTest() throws JMSException {
+        listener.setBatchSize(10);
+        Mockito.when(consumer.receiveNoWait()).thenReturn(null);
+
+        listener.receiveMessage(new EmailTrickleItem(), session);
+
+        assertEquals(1, sentItems().size());
+        Mockito.verify(consumer).close();
+    }
+
+    @Test
+    public void noExtraConsumerForSingleItemsTest() throws JMSException {
+        listener.receiveMessage(new EmailTrickleItem(), session);
+
+        assertEquals(1, sentItems().size());
+        Mockito.verify(session, Mockito.never()).createConsumer(Mockito.any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmailTrickleItem> sentItems() {
+        ArgumentCaptor<List<EmailTrickleItem>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(trickleManager).attemptSend(captor.capture());
+        return captor.getValue();
+    }
+
+    private ObjectMessage message(EmailTrickleItem item) throws JMSException {
+        ObjectMessage message = Mockito.mock(ObjectMessage.class);
+        Mockito.when(message.getObject()).thenReturn(item);
+        return message;
+    }
+
+}
@@ -1,10 +1,14 @@
 package org.orcid.scheduler.email.trickle.manager.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -16,16 +20,16 @@ import org.mockito.MockitoAnnotations;
 import org.orcid.core.email.trickle.producer.EmailTrickleItem;
 import org.orcid.core.manager.v3.EmailMessage;
 import org.orcid.core.manager.v3.read_only.EmailManagerReadOnly;
-import org.orcid.persistence.dao.EmailFrequencyDao;
 import org.orcid.persistence.dao.EmailScheduleDao;
 import org.orcid.persistence.dao.ProfileDao;
 import org.orcid.persistence.dao.ProfileEventDao;
-import org.orcid.persistence.jpa.entities.EmailFrequencyEntity;
-import org.orcid.persistence.jpa.entities.ProfileEntity;
+import org.orcid.persistence.jpa.entities.EmailScheduleEntity;
 import org.orcid.persistence.jpa.entities.ProfileEventEntity;
 import org.orcid.persistence.jpa.entities.ProfileEventType;
+import org.orcid.scheduler.email.trickle.TrickleTooHeavyException;
 import org.orcid.core.utils.DateFieldsOnBaseEntityUtils;
 import org.orcid.utils.email.MailGunManager;
+import org.springframework.test.util.ReflectionTestUtils;
 
 public class TrickleManagerImplTest {
 
@@ -35,9 +39,6 @@ public class TrickleManagerImplTest {
     @Mock
     private EmailScheduleDao emailScheduleDao;
 
-    @Mock
-    private EmailFrequencyDao emailFrequencyDaoReadOnly;
-
     @Mock
     private ProfileDao profileDaoReadOnly;
 
@@ -56,314 +57,157 @@ public class TrickleManagerImplTest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(trickleManager, "scheduleRefreshSeconds", 60);
+        Mockito.when(emailScheduleDaoReadOnly.findActiveSchedule()).thenReturn(getSchedule(0L));
+        Mockito.when(profileEventDao.findByOrcidsAndTypes(Mockito.anyCollection(), Mockito.anyCollection())).thenReturn(new ArrayList<>());
+        Mockito.when(profileDaoReadOnly.findActiveOrcidsAcceptingQuarterlyTips(Mockito.anyCollection())).thenReturn(Arrays.asList("orcid"));
+        Mockito.when(emailManagerReadOnly.findExistingEmails(Mockito.anyCollection())).thenAnswer(invocation -> new HashSet<>(invocation.<Collection<String>>getArgument(0)));
     }
 
     @Test
     public void testAttemptSendMarketingSuccess() throws IllegalAccessException {
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsEnabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(new ProfileEntity());
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-
-        ArgumentCaptor<String> fromCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> toCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> subjectCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> textCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> htmlCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-
         Mockito.when(mailGunManager.sendMarketingEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
                 .thenReturn(Boolean.TRUE);
         trickleManager.attemptSend(getMarketingEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.times(1)).sendMarketingEmail(fromCaptor.capture(), toCaptor.capture(), subjectCaptor.capture(), textCaptor.capture(),
-                htmlCaptor.capture());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
+        Mockito.verify(mailGunManager, Mockito.times(1)).sendMarketingEmail(Mockito.eq("me"), Mockito.eq("you"), Mockito.eq("hello"), Mockito.eq("hello"),
+                Mockito.eq("<p>hello</p>"));
         Mockito.verify(emailScheduleDao, Mockito.times(1)).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
-
-        assertEquals("me", fromCaptor.getValue());
-        assertEquals("you", toCaptor.getValue());
-        assertEquals("hello", subjectCaptor.getValue());
-        assertEquals("hello", textCaptor.getValue());
-        assertEquals("<p>hello</p>", htmlCaptor.getValue());
-
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_SENT, event.getType());
-        assertEquals("orcid", event.getOrcid());
+        assertEvents(ProfileEventType.MARCH_2019_SENT);
     }
     
     @Test
     public void testAttemptSendSuccess() throws IllegalAccessException {
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsEnabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(new ProfileEntity());
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-
-        ArgumentCaptor<String> fromCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> toCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> subjectCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> textCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> htmlCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-
         Mockito.when(mailGunManager.sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
                 .thenReturn(Boolean.TRUE);
         trickleManager.attemptSend(getEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.times(1)).sendEmail(fromCaptor.capture(), toCaptor.capture(), subjectCaptor.capture(), textCaptor.capture(),
-                htmlCaptor.capture());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
+        Mockito.verify(mailGunManager, Mockito.times(1)).sendEmail(Mockito.eq("me"), Mockito.eq("you"), Mockito.eq("hello"), Mockito.eq("hello"),
+                Mockito.eq("<p>hello</p>"));
+        Mockito.verify(mailGunManager, Mockito.never()).sendMarketingEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(profileEventDao, Mockito.times(1)).findByOrcidsAndTypes(Mockito.anyCollection(), Mockito.anyCollection());
+        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).findActiveSchedule();
         Mockito.verify(emailScheduleDao, Mockito.times(1)).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
-
-        assertEquals("me", fromCaptor.getValue());
-        assertEquals("you", toCaptor.getValue());
-        assertEquals("hello", subjectCaptor.getValue());
-        assertEquals("hello", textCaptor.getValue());
-        assertEquals("<p>hello</p>", htmlCaptor.getValue());
-
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_SENT, event.getType());
-        assertEquals("orcid", event.getOrcid());
+        assertEvents(ProfileEventType.MARCH_2019_SENT);
     }
     
     @Test
     public void testAttemptSendFailure() throws IllegalAccessException {
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsEnabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(new ProfileEntity());
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-
-        ArgumentCaptor<String> fromCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> toCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> subjectCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> textCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> htmlCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-
         Mockito.when(mailGunManager.sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
                 .thenReturn(Boolean.FALSE);
         trickleManager.attemptSend(getEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.times(1)).sendEmail(fromCaptor.capture(), toCaptor.capture(), subjectCaptor.capture(), textCaptor.capture(),
-                htmlCaptor.capture());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
-
-        assertEquals("me", fromCaptor.getValue());
-        assertEquals("you", toCaptor.getValue());
-        assertEquals("hello", subjectCaptor.getValue());
-        assertEquals("hello", textCaptor.getValue());
-        assertEquals("<p>hello</p>", htmlCaptor.getValue());
-
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_FAILED, event.getType());
-        assertEquals("orcid", event.getOrcid());
+        Mockito.verify(mailGunManager, Mockito.times(1)).sendEmail(Mockito.eq("me"), Mockito.eq("you"), Mockito.eq("hello"), Mockito.eq("hello"),
+                Mockito.eq("<p>hello</p>"));
+        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.anyLong(), Mockito.any(Date.class));
+        assertEvents(ProfileEventType.MARCH_2019_FAILED);
     }
     
     @Test
     public void testAttemptMarketingSendFailure() throws IllegalAccessException {
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsEnabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(new ProfileEntity());
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-
-        ArgumentCaptor<String> fromCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> toCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> subjectCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> textCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> htmlCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-
         Mockito.when(mailGunManager.sendMarketingEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
                 .thenReturn(Boolean.FALSE);
         trickleManager.attemptSend(getMarketingEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.times(1)).sendMarketingEmail(fromCaptor.capture(), toCaptor.capture(), subjectCaptor.capture(), textCaptor.capture(),
-                htmlCaptor.capture());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
-
-        assertEquals("me", fromCaptor.getValue());
-        assertEquals("you", toCaptor.getValue());
-        assertEquals("hello", subjectCaptor.getValue());
-        assertEquals("hello", textCaptor.getValue());
-        assertEquals("<p>hello</p>", htmlCaptor.getValue());
-
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_FAILED, event.getType());
-        assertEquals("orcid", event.getOrcid());
+        Mockito.verify(mailGunManager, Mockito.times(1)).sendMarketingEmail(Mockito.eq("me"), Mockito.eq("you"), Mockito.eq("hello"), Mockito.eq("hello"),
+                Mockito.eq("<p>hello</p>"));
+        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.anyLong(), Mockito.any(Date.class));
+        assertEvents(ProfileEventType.MARCH_2019_FAILED);
     }
 
     @Test
-    public void testAttemptSendSkipped() throws IllegalAccessException {
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsDisabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(new ProfileEntity());
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-
-        Mockito.when(mailGunManager.sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
-                .thenReturn(Boolean.FALSE);
+    public void testAttemptSendSkippedRecordNotActiveOrNotAcceptingTips() throws IllegalAccessException {
+        // Deactivated, deprecated, locked or not accepting quarterly tips
+        Mockito.when(profileDaoReadOnly.findActiveOrcidsAcceptingQuarterlyTips(Mockito.anyCollection())).thenReturn(new ArrayList<>());
         trickleManager.attemptSend(getMarketingEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.never()).sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
-
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_SKIPPED, event.getType());
-        assertEquals("orcid", event.getOrcid());
+        Mockito.verify(mailGunManager, Mockito.never()).sendMarketingEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).findActiveOrcidsAcceptingQuarterlyTips(Mockito.eq(new HashSet<>(Arrays.asList("orcid"))));
+        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.anyLong(), Mockito.any(Date.class));
+        assertEvents(ProfileEventType.MARCH_2019_SKIPPED);
     }
     
     @Test
-    public void testAttemptSendSkippedAccountDeprecated() throws IllegalAccessException {
-        ProfileEntity deprecatedProfile = new ProfileEntity();
-        deprecatedProfile.setDeprecatedDate(new Date());
-        
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsDisabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(deprecatedProfile);
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-        
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-
-        Mockito.when(mailGunManager.sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
-                .thenReturn(Boolean.FALSE);
+    public void testAttemptSendAlreadyProcessed() throws IllegalAccessException {
+        Mockito.when(profileEventDao.findByOrcidsAndTypes(Mockito.anyCollection(), Mockito.anyCollection()))
+                .thenReturn(Arrays.asList(getProfileEventEntity(ProfileEventType.MARCH_2019_SENT, "orcid")));
         trickleManager.attemptSend(getMarketingEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.never()).sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
-
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_SKIPPED, event.getType());
-        assertEquals("orcid", event.getOrcid());
+        Mockito.verify(mailGunManager, Mockito.never()).sendMarketingEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.anyLong(), Mockito.any(Date.class));
+        Mockito.verify(profileEventDao, Mockito.never()).persistAll(Mockito.anyCollection());
     }
     
     @Test
-    public void testAttemptSendSkippedAccountLocked() throws IllegalAccessException {
-        ProfileEntity deprecatedProfile = new ProfileEntity();
-        deprecatedProfile.setRecordLocked(true);
-        
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsDisabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(deprecatedProfile);
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-        
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-
-        Mockito.when(mailGunManager.sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
-                .thenReturn(Boolean.FALSE);
-        trickleManager.attemptSend(getMarketingEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.never()).sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
+    public void testAttemptSendEmailNoLongerExists() throws IllegalAccessException {
+        Mockito.when(emailManagerReadOnly.findExistingEmails(Mockito.anyCollection())).thenReturn(new HashSet<>());
+        trickleManager.attemptSend(getMarketingEmailTrickleItemWithMarch2019SkippedType());
+        Mockito.verify(mailGunManager, Mockito.never()).sendMarketingEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.anyLong(), Mockito.any(Date.class));
+        assertEvents(ProfileEventType.MARCH_2019_SKIPPED);
+    }
 
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_SKIPPED, event.getType());
-        assertEquals("orcid", event.getOrcid());
+    @Test(expected = TrickleTooHeavyException.class)
+    public void testAttemptSendNoActiveSchedule() {
+        Mockito.when(emailScheduleDaoReadOnly.findActiveSchedule()).thenReturn(null);
+        trickleManager.attemptSend(getEmailTrickleItem());
     }
-    
-    @Test
-    public void testAttemptSendSkippedAccountDeactivated() throws IllegalAccessException {
-        ProfileEntity deprecatedProfile = new ProfileEntity();
-        deprecatedProfile.setDeactivationDate(new Date());
-        
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsDisabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(deprecatedProfile);
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
-        
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
 
+    @Test
+    public void testAttemptSendBatch() throws IllegalAccessException {
+        Mockito.when(profileDaoReadOnly.findActiveOrcidsAcceptingQuarterlyTips(Mockito.anyCollection())).thenReturn(Arrays.asList("orcid", "orcid-2"));
         Mockito.when(mailGunManager.sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
-                .thenReturn(Boolean.FALSE);
-        trickleManager.attemptSend(getMarketingEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.never()).sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.times(1)).findByOrcid(Mockito.eq("orcid"));
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
-
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_SKIPPED, event.getType());
-        assertEquals("orcid", event.getOrcid());
+                .thenReturn(Boolean.TRUE);
+        EmailTrickleItem second = getEmailTrickleItem();
+        second.setOrcid("orcid-2");
+        EmailTrickleItem inactive = getEmailTrickleItem();
+        inactive.setOrcid("orcid-3");
+        // The same item twice in the batch is only sent once
+        trickleManager.attemptSend(Arrays.asList(getEmailTrickleItem(), second, inactive, getEmailTrickleItem()));
+
+        Mockito.verify(mailGunManager, Mockito.times(2)).sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).findActiveSchedule();
+        Mockito.verify(profileEventDao, Mockito.times(1)).findByOrcidsAndTypes(Mockito.anyCollection(), Mockito.anyCollection());
+        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).findActiveOrcidsAcceptingQuarterlyTips(Mockito.anyCollection());
+        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).findExistingEmails(Mockito.anyCollection());
+        Mockito.verify(emailScheduleDao, Mockito.times(1)).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
+        List<ProfileEventEntity> events = assertEvents(ProfileEventType.MARCH_2019_SENT, ProfileEventType.MARCH_2019_SENT, ProfileEventType.MARCH_2019_SKIPPED);
+        assertEquals("orcid-2", events.get(1).getOrcid());
+        assertEquals("orcid-3", events.get(2).getOrcid());
     }
-    
-    @Test
-    public void testAttemptSendAlreadyProcessed() throws IllegalAccessException {
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsEnabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(Arrays.asList(getProfileEventEntity(ProfileEventType.MARCH_2019_SENT, "orcid")));
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(new ProfileEntity());
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(true);
 
+    @Test
+    public void testAttemptSendKeepsTheScheduleInterval() {
+        Mockito.when(emailScheduleDaoReadOnly.findActiveSchedule()).thenReturn(getSchedule(100L));
+        Mockito.when(profileDaoReadOnly.findActiveOrcidsAcceptingQuarterlyTips(Mockito.anyCollection())).thenReturn(Arrays.asList("orcid", "orcid-2", "orcid-3"));
         Mockito.when(mailGunManager.sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
-                .thenReturn(Boolean.FALSE);
-        trickleManager.attemptSend(getMarketingEmailTrickleItem());
-        Mockito.verify(mailGunManager, Mockito.never()).sendEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.eq(2L), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.never()).findByOrcid(Mockito.eq("orcid"));
+                .thenReturn(Boolean.TRUE);
+        List<EmailTrickleItem> items = new ArrayList<>();
+        for (String orcid : Arrays.asList("orcid", "orcid-2", "orcid-3")) {
+            EmailTrickleItem item = getEmailTrickleItem();
+            item.setOrcid(orcid);
+            items.add(item);
+        }
+        long start = System.currentTimeMillis();
+        trickleManager.attemptSend(items);
+        // The first email goes straight away, the others wait an interval each
+        assertTrue(System.currentTimeMillis() - start >= 200);
+    }
+
+    private List<ProfileEventEntity> assertEvents(ProfileEventType... types) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ProfileEventEntity>> eventsCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(profileEventDao, Mockito.times(1)).persistAll(eventsCaptor.capture());
         Mockito.verify(profileEventDao, Mockito.never()).merge(Mockito.any(ProfileEventEntity.class));
-        Mockito.verify(emailManagerReadOnly, Mockito.never()).emailExists(Mockito.anyString());
+        List<ProfileEventEntity> events = new ArrayList<>(eventsCaptor.getValue());
+        assertEquals(types.length, events.size());
+        for (int i = 0; i < types.length; i++) {
+            assertEquals(types[i], events.get(i).getType());
+        }
+        assertEquals("orcid", events.get(0).getOrcid());
+        return events;
     }
-    
-    @Test
-    public void testAttemptSendEmailNoLongerExists() throws IllegalAccessException {
-        Mockito.when(emailScheduleDaoReadOnly.getValidScheduleId()).thenReturn(2L);
-        Mockito.when(emailFrequencyDaoReadOnly.findByOrcid(Mockito.eq("orcid"))).thenReturn(getEmailFrequencyQuarterlyTipsEnabled());
-        Mockito.when(profileDaoReadOnly.getProfileEvents(Mockito.eq("orcid"), Mockito.anyList())).thenReturn(new ArrayList<>());
-        Mockito.when(profileDaoReadOnly.find(Mockito.eq("orcid"))).thenReturn(new ProfileEntity());
-        Mockito.when(emailManagerReadOnly.emailExists(Mockito.anyString())).thenReturn(false);
 
-        trickleManager.attemptSend(getMarketingEmailTrickleItemWithMarch2019SkippedType());
-        Mockito.verify(mailGunManager, Mockito.never()).sendMarketingEmail(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(profileDaoReadOnly, Mockito.times(1)).getProfileEvents(Mockito.eq("orcid"), Mockito.anyList());
-        Mockito.verify(emailScheduleDaoReadOnly, Mockito.times(1)).getValidScheduleId();
-        Mockito.verify(emailScheduleDao, Mockito.never()).updateLatestSent(Mockito.anyLong(), Mockito.any(Date.class));
-        Mockito.verify(emailFrequencyDaoReadOnly, Mockito.never()).findByOrcid(Mockito.eq("orcid"));
-        
-        ArgumentCaptor<ProfileEventEntity> eventCaptor = ArgumentCaptor.forClass(ProfileEventEntity.class);
-        Mockito.verify(profileEventDao, Mockito.times(1)).merge(eventCaptor.capture());
-        ProfileEventEntity event = eventCaptor.getValue();
-        assertEquals(ProfileEventType.MARCH_2019_SKIPPED, event.getType());
-        
-        Mockito.verify(emailManagerReadOnly, Mockito.times(1)).emailExists(Mockito.anyString());
+    private EmailScheduleEntity getSchedule(Long interval) {
+        EmailScheduleEntity schedule = new EmailScheduleEntity();
+        schedule.setId(2L);
+        schedule.setScheduleStart(new Date());
+        schedule.setScheduleInterval(interval);
+        return schedule;
     }
 
     private EmailTrickleItem getMarketingEmailTrickleItem() {
@@ -390,17 +234,6 @@ public class TrickleManagerImplTest {
         return item;
     }
 
-    private EmailFrequencyEntity getEmailFrequencyQuarterlyTipsEnabled() throws IllegalAccessException {
-        EmailFrequencyEntity freq = new EmailFrequencyEntity();
-        DateFieldsOnBaseEntityUtils.setDateFields(freq, new Date());
-        freq.setOrcid("orcid");
-        freq.setSendAdministrativeChangeNotifications(0f);
-        freq.setSendChangeNotifications(0f);
-        freq.setSendMemberUpdateRequests(0f);
-        freq.setSendQuarterlyTips(Boolean.TRUE);
-        return freq;
-    }
-
     private EmailMessage getEmailMessage() {
         EmailMessage message = new EmailMessage();
         message.setFrom("me");
@@ -418,11 +251,5 @@ public class TrickleManagerImplTest {
         event.setType(type);
         return event;
     }
-    
-    private EmailFrequencyEntity getEmailFrequencyQuarterlyTipsDisabled() throws IllegalAccessException {
-        EmailFrequencyEntity freq = getEmailFrequencyQuarterlyTipsEnabled();
-        freq.setSendQuarterlyTips(Boolean.FALSE);
-        return freq;
-    }
 
 }
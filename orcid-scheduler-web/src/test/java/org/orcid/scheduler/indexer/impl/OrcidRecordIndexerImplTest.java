@@ -0,0 +1,121 @@
+package org.orcid.scheduler.indexer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.orcid.core.messaging.JmsMessageSender;
+import org.orcid.core.utils.listener.LastModifiedMessage;
+import org.orcid.persistence.dao.ProfileDao;
+import org.orcid.persistence.jpa.entities.IndexingStatus;
+import org.orcid.utils.alerting.SlackManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class OrcidRecordIndexerImplTest {
+
+    @Mock
+    private ProfileDao profileDao;
+
+    @Mock
+    private ProfileDao profileDaoReadOnly;
+
+    @Mock
+    private JmsMessageSender messaging;
+
+    @Mock
+    private SlackManager slackManager;
+
+    @InjectMocks
+    private OrcidRecordIndexerImpl orcidRecordIndexer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(orcidRecordIndexer, "INDEXING_BATCH_SIZE", 2);
+        ReflectionTestUtils.setField(orcidRecordIndexer, "indexingDelay", 5);
+        ReflectionTestUtils.setField(orcidRecordIndexer, "updateSolrQueueName", "updateSOLR");
+        ReflectionTestUtils.setField(orcidRecordIndexer, "reindexSolrQueueName", "reindexSOLR");
+        ReflectionTestUtils.setField(orcidRecordIndexer, "updateV2RecordQueueName", "updateV2Record");
+        ReflectionTestUtils.setField(orcidRecordIndexer, "reindexV2RecordQueueName", "reindexV2Record");
+        ReflectionTestUtils.setField(orcidRecordIndexer, "updateV3RecordQueueName", "updateV3Record");
+        ReflectionTestUtils.setField(orcidRecordIndexer, "reindexV3RecordQueueName", "reindexV3Record");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void pagesThroughRecordsByLastModifiedTest() {
+        Date d1 = new Date(1000L);
+        Date d2 = new Date(2000L);
+        Date d3 = new Date(3000L);
+        when(profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(eq(IndexingStatus.PENDING), eq(2), eq(5), isNull(), isNull()))
+                .thenReturn(List.of(Pair.of("0000-0000-0000-0001", d1), Pair.of("0000-0000-0000-0002", d2)));
+        when(profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.PENDING, 2, 5, d2, "0000-0000-0000-0002"))
+                .thenReturn(List.of(Pair.of("0000-0000-0000-0003", d3)));
+        when(profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.PENDING, 2, 5, d3, "0000-0000-0000-0003")).thenReturn(new ArrayList<>());
+        when(messaging.send(any(List.class), any(List.class))).thenReturn(true);
+
+        orcidRecordIndexer.processProfilesWithPendingFlagAndAddToMessageQueue();
+
+        ArgumentCaptor<List<LastModifiedMessage>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(messaging, times(2)).send(messagesCaptor.capture(), eq(List.of("updateSOLR", "updateV3Record", "updateV2Record")));
+        List<LastModifiedMessage> firstBatch = messagesCaptor.getAllValues().get(0);
+        assertEquals(2, firstBatch.size());
+        assertEquals("0000-0000-0000-0001", firstBatch.get(0).getOrcid());
+        assertEquals(d1, firstBatch.get(0).getLastUpdated());
+        assertEquals("0000-0000-0000-0003", messagesCaptor.getAllValues().get(1).get(0).getOrcid());
+
+        verify(profileDao, times(1)).updateIndexingStatus(List.of("0000-0000-0000-0001", "0000-0000-0000-0002"), IndexingStatus.DONE);
+        verify(profileDao, times(1)).updateIndexingStatus(List.of("0000-0000-0000-0003"), IndexingStatus.DONE);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void recordsWithoutLastModifiedDoNotEndThePagingTest() {
+        Date d3 = new Date(3000L);
+        List<Pair<String, Date>> firstPage = new ArrayList<>();
+        firstPage.add(Pair.of("0000-0000-0000-0001", null));
+        firstPage.add(Pair.of("0000-0000-0000-0002", null));
+        when(profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(eq(IndexingStatus.REINDEX), eq(2), eq(0), isNull(), isNull())).thenReturn(firstPage);
+        when(profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(eq(IndexingStatus.REINDEX), eq(2), eq(0), isNull(), eq("0000-0000-0000-0002")))
+                .thenReturn(List.of(Pair.of("0000-0000-0000-0003", d3)));
+        when(profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(IndexingStatus.REINDEX, 2, 0, d3, "0000-0000-0000-0003")).thenReturn(new ArrayList<>());
+        when(messaging.send(any(List.class), any(List.class))).thenReturn(true);
+
+        orcidRecordIndexer.processProfilesWithReindexFlagAndAddToMessageQueue();
+
+        verify(messaging, times(2)).send(any(List.class), eq(List.of("reindexSOLR", "reindexV3Record", "reindexV2Record")));
+        verify(profileDao, times(1)).updateIndexingStatus(List.of("0000-0000-0000-0001", "0000-0000-0000-0002"), IndexingStatus.DONE);
+        verify(profileDao, times(1)).updateIndexingStatus(List.of("0000-0000-0000-0003"), IndexingStatus.DONE);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void stopsOnConnectionIssueTest() {
+        when(profileDaoReadOnly.findOrcidsAndLastModifiedByIndexingStatus(eq(IndexingStatus.S3_UPDATE), anyInt(), eq(0), isNull(), isNull()))
+                .thenReturn(List.of(Pair.of("0000-0000-0000-0001", new Date(1000L))));
+        when(messaging.send(any(List.class), any(List.class))).thenReturn(false);
+
+        orcidRecordIndexer.reindexRecordsOnS3();
+
+        verify(messaging, times(1)).send(any(List.class), eq(List.of("updateSOLR", "updateV3Record", "updateV2Record")));
+        verify(profileDao, never()).updateIndexingStatus(any(List.class), any(IndexingStatus.class));
+        verify(profileDaoReadOnly, times(1)).findOrcidsAndLastModifiedByIndexingStatus(any(), anyInt(), any(), any(), any());
+    }
+}
@@ -0,0 +1,184 @@
+package org.orcid.scheduler.loader;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.orcid.core.manager.OrgDisambiguatedManager;
+import org.orcid.persistence.dao.OrgDisambiguatedDao;
+import org.orcid.persistence.jpa.entities.OrgDisambiguatedEntity;
+import org.orcid.scheduler.loader.source.fundref.FundrefOrgLoadSource;
+import org.orcid.utils.jersey.JerseyClientHelper;
+import org.orcid.utils.jersey.JerseyClientResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads a synthetic FundRef RDF of 50k concepts with FundrefOrgLoadSource on
+ * top of DAO and geonames stubs, and reports the wall time and peak heap of
+ * the import. Parsing the whole file into a DOM, as the loader used to do
+ * before evaluating its XPath expressions, is reported as a reference.
+ *
+ * The sampled peak includes garbage not yet collected, limit the heap to see
+ * what each one needs: with MAVEN_OPTS=-Xmx24m the import completes, about 10
+ * MB above the baseline, while the DOM needs more than 128 MB.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.orcid.scheduler.loader.FundrefOrgLoadSourceBenchmark
+ * -Dexec.args="50000"
+ */
+public class FundrefOrgLoadSourceBenchmark {
+
+    private static final String RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+    private static final String SKOS = "http://www.w3.org/2004/02/skos/core#";
+    private static final String SKOSXL = "http://www.w3.org/2008/05/skos-xl#";
+    private static final String SVF = "http://data.crossref.org/fundingdata/xml/schema/grant/grant-1.2/";
+    private static final String DOI_PREFIX = "http://dx.doi.org/10.13039/";
+
+    public static void main(String[] args) throws Exception {
+        int concepts = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        Configurator.setLevel("org.orcid", Level.WARN);
+
+        File file = File.createTempFile("fundref-benchmark", ".rdf");
+        file.deleteOnExit();
+        writeSyntheticRdf(file, concepts);
+        System.out.println(String.format("Synthetic FundRef RDF: %d concepts, %d MB", concepts, file.length() / (1024 * 1024)));
+
+        AtomicLong created = new AtomicLong();
+        HeapBenchmark.measure("Import", () -> newLoadSource(file, created).loadOrgData());
+        System.out.println(String.format("  orgs: %d", created.get()));
+
+        try {
+            HeapBenchmark.measure("DOM of the whole file", () -> DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file));
+        } catch (OutOfMemoryError e) {
+            System.out.println(String.format("DOM of the whole file: out of memory with a max heap of %d MB", Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        }
+    }
+
+    private static void writeSyntheticRdf(File file, int concepts) throws Exception {
+        try (OutputStream out = new FileOutputStream(file)) {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.setPrefix("rdf", RDF);
+            writer.setPrefix("skos", SKOS);
+            writer.setPrefix("skosxl", SKOSXL);
+            writer.setPrefix("svf", SVF);
+            writer.writeStartElement(RDF, "RDF");
+            writer.writeNamespace("rdf", RDF);
+            writer.writeNamespace("skos", SKOS);
+            writer.writeNamespace("skosxl", SKOSXL);
+            writer.writeNamespace("svf", SVF);
+
+            writer.writeStartElement(SKOS, "ConceptScheme");
+            writer.writeAttribute(RDF, "about", "http://data.crossref.org/fundingdata/vocabulary/SciValFunders");
+            for (int i = 0; i < concepts; i++) {
+                writer.writeEmptyElement(SKOS, "hasTopConcept");
+                writer.writeAttribute(RDF, "resource", DOI_PREFIX + (100000000 + i));
+            }
+            writer.writeEndElement();
+
+            for (int i = 0; i < concepts; i++) {
+                writer.writeStartElement(SKOS, "Concept");
+                writer.writeAttribute(RDF, "about", DOI_PREFIX + (100000000 + i));
+                writeLabel(writer, "prefLabel", "Synthetic Funder " + i);
+                writeLabel(writer, "altLabel", "The Synthetic Funder " + i);
+                writeLabel(writer, "altLabel", "SF" + i);
+                // Like the real registry, each funder points to a few others
+                for (int j = 1; j <= 10; j++) {
+                    writer.writeEmptyElement(SKOS, "narrower");
+                    writer.writeAttribute(RDF, "resource", DOI_PREFIX + (100000000 + (i + j) % concepts));
+                }
+                writeText(writer, "fundingBodyType", i % 2 == 0 ? "gov" : "pri");
+                writeText(writer, "region", "Americas");
+                writer.writeEmptyElement(SVF, "country");
+                writer.writeAttribute(RDF, "resource", "http://sws.geonames.org/6252001/");
+                writer.writeEmptyElement(SVF, "state");
+                writer.writeAttribute(RDF, "resource", "http://sws.geonames.org/" + (4000000 + i % 50) + "/");
+                writeText(writer, "fundingBodySubType", "National government");
+                // One in a hundred funders is deprecated
+                if (i % 100 == 99) {
+                    writer.writeEmptyElement(SVF, "status");
+                    writer.writeAttribute(RDF, "resource", "http://data.crossref.org/fundingdata/vocabulary/Deprecated");
+                    writer.writeEmptyElement(SVF, "isReplacedBy");
+                    writer.writeAttribute(RDF, "resource", DOI_PREFIX + (100000000 + i - 1));
+                }
+                writer.writeEndElement();
+            }
+
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        }
+    }
+
+    private static void writeLabel(XMLStreamWriter writer, String labelType, String value) throws Exception {
+        writer.writeStartElement(SKOSXL, labelType);
+        writer.writeStartElement(SKOSXL, "Label");
+        writer.writeStartElement(SKOSXL, "literalForm");
+        writer.writeAttribute("xml:lang", "en");
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    private static void writeText(XMLStreamWriter writer, String element, String value) throws Exception {
+        writer.writeStartElement(SVF, element);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    /**
+     * The stubs don't record invocations, so they don't count towards the
+     * heap of the loader
+     */
+    private static FundrefOrgLoadSource newLoadSource(File file, AtomicLong created) {
+        OrgDisambiguatedDao orgDisambiguatedDao = mock(OrgDisambiguatedDao.class, withSettings().stubOnly());
+        OrgDisambiguatedManager orgDisambiguatedManager = mock(OrgDisambiguatedManager.class, withSettings().stubOnly());
+        when(orgDisambiguatedManager.createOrgDisambiguated(any(OrgDisambiguatedEntity.class))).thenAnswer(invocation -> {
+            OrgDisambiguatedEntity entity = invocation.getArgument(0);
+            entity.setId(created.incrementAndGet());
+            return entity;
+        });
+        JerseyClientHelper jerseyClientHelper = mock(JerseyClientHelper.class, withSettings().stubOnly());
+        when(jerseyClientHelper.executeGetRequest(anyString(), anyMap())).thenAnswer(invocation -> {
+            Map<String, String> params = invocation.getArgument(1);
+            String json = "6252001".equals(params.get("geonameId")) ? "{\"countryCode\":\"US\"}"
+                    : "{\"alternateNames\":[{\"name\":\"S" + params.get("geonameId") + "\",\"lang\":\"abbr\"}]}";
+            return new JerseyClientResponse<String, String>(200, json, null);
+        });
+
+        FundrefOrgLoadSource fundrefOrgLoadSource = new FundrefOrgLoadSource();
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "enabled", true);
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "localFilePath", file.getAbsolutePath());
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "geonamesApiUrl", "https://test/url");
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "batchSize", 1000);
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "orgDisambiguatedDao", orgDisambiguatedDao);
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "orgDisambiguatedManager", orgDisambiguatedManager);
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "jerseyClientHelper", jerseyClientHelper);
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "transactionTemplate", new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        });
+        return fundrefOrgLoadSource;
+    }
+
+}
@@ -2,6 +2,7 @@ package org.orcid.scheduler.loader;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -11,9 +12,14 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -37,6 +43,8 @@ import org.orcid.utils.jersey.JerseyClientHelper;
 import org.orcid.utils.jersey.JerseyClientResponse;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @RunWith(OrcidJUnit4ClassRunner.class)
 @ContextConfiguration(locations = { "classpath:test-orcid-scheduler-context.xml" })
@@ -61,6 +69,8 @@ public class FundrefOrgLoadSourceTest {
     private FundrefOrgLoadSource fundrefOrgLoadSource;
     
     private String localFilePath = "/something/random";
+
+    private AtomicInteger transactions = new AtomicInteger();
     
     
     @Before
@@ -72,9 +82,26 @@ public class FundrefOrgLoadSourceTest {
         ReflectionTestUtils.setField(fundrefOrgLoadSource, "userAgent", "userAgent");
         ReflectionTestUtils.setField(fundrefOrgLoadSource, "fundrefDataUrl", "url");
         
-        JerseyClientResponse<String, String> response = new JerseyClientResponse<String, String>(200, "test", null);
-        when(mockJerseyClientHelper.executeGetRequest(anyString(), anyMap())).thenReturn(response);
+        Map<String, String> geonames = new HashMap<String, String>();
+        geonames.put("6252001", "{\"countryCode\":\"US\"}");
+        geonames.put("6254928", "{\"alternateNames\":[{\"name\":\"Virginia\",\"lang\":\"en\"},{\"name\":\"VA\",\"lang\":\"abbr\"}]}");
+        geonames.put("4361885", "{\"alternateNames\":[{\"name\":\"MD\",\"lang\":\"abbr\"}]}");
+        when(mockJerseyClientHelper.executeGetRequest(anyString(), anyMap())).thenAnswer(invocation -> {
+            Map<String, String> params = invocation.getArgument(1);
+            String json = geonames.containsKey(params.get("geonameId")) ? geonames.get(params.get("geonameId")) : "test";
+            return new JerseyClientResponse<String, String>(200, json, null);
+        });
         ReflectionTestUtils.setField(fundrefOrgLoadSource, "jerseyClientHelper", mockJerseyClientHelper);
+
+        transactions.set(0);
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "batchSize", 1000);
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "transactionTemplate", new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                transactions.incrementAndGet();
+                return action.doInTransaction(null);
+            }
+        });
     }
 
     @Test
@@ -123,6 +150,54 @@ public class FundrefOrgLoadSourceTest {
         assertEquals("FUNDREF", entities.get(1).getSourceType());
         assertEquals("http://dx.doi.org/10.13039/100000003", entities.get(2).getSourceId());
         assertEquals("FUNDREF", entities.get(2).getSourceType());
+
+        assertEquals("National Science Foundation", entities.get(0).getName());
+        assertEquals("US", entities.get(0).getCountry());
+        assertEquals("VA", entities.get(0).getRegion());
+        assertEquals("VA", entities.get(0).getCity());
+        assertEquals("gov/National government", entities.get(0).getOrgType());
+        assertEquals("http://dx.doi.org/10.13039/100000001", entities.get(0).getSourceUrl());
+        assertNull(entities.get(0).getStatus());
+        assertNull(entities.get(0).getSourceParentId());
+        assertEquals("National Institutes of Health", entities.get(1).getName());
+        assertEquals("MD", entities.get(1).getRegion());
+        assertEquals("Boeing", entities.get(2).getName());
+        assertEquals("US", entities.get(2).getCountry());
+        // The state is unknown to geonames
+        assertNull(entities.get(2).getRegion());
+        assertEquals("pri/For-profit companies (industry)", entities.get(2).getOrgType());
+
+        assertEquals(1, transactions.get());
+    }
+
+    @Test
+    public void testLoadFailsWhenConceptsComeBeforeTheConceptScheme() throws Exception {
+        Path path = Paths.get(FundrefOrgLoadSourceTest.class.getClassLoader().getResource("fundref/fundref-test.rdf").toURI());
+        String rdf = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        int schemeStart = rdf.indexOf("<skos:ConceptScheme");
+        int schemeEnd = rdf.indexOf("</skos:ConceptScheme>") + "</skos:ConceptScheme>".length();
+        String scheme = rdf.substring(schemeStart, schemeEnd);
+        rdf = rdf.substring(0, schemeStart) + rdf.substring(schemeEnd);
+        rdf = rdf.replace("</rdf:RDF>", scheme + "</rdf:RDF>");
+        File data = File.createTempFile("fundref-scheme-last", ".rdf");
+        data.deleteOnExit();
+        Files.write(data.toPath(), rdf.getBytes(StandardCharsets.UTF_8));
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "localFilePath", data.getAbsolutePath());
+
+        assertFalse(fundrefOrgLoadSource.loadOrgData());
+        verify(mockOrgDisambiguatedManager, Mockito.never()).createOrgDisambiguated(Mockito.any());
+    }
+
+    @Test
+    public void testLoadLatestOrgsInChunks() throws URISyntaxException {
+        Path path = Paths.get(FundrefOrgLoadSourceTest.class.getClassLoader().getResource("fundref/fundref-test.rdf").toURI());
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "localFilePath", path.toFile().getAbsolutePath());
+        ReflectionTestUtils.setField(fundrefOrgLoadSource, "batchSize", 2);
+
+        assertTrue(fundrefOrgLoadSource.loadOrgData());
+
+        verify(mockOrgDisambiguatedManager, Mockito.times(3)).createOrgDisambiguated(Mockito.any(OrgDisambiguatedEntity.class));
+        assertEquals(2, transactions.get());
     }
     
     @Test
@@ -0,0 +1,49 @@
+package org.orcid.scheduler.loader;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports the wall time and peak heap of the tasks run by the loader
+ * benchmarks
+ */
+public final class HeapBenchmark {
+
+    private HeapBenchmark() {
+    }
+
+    /**
+     * Runs the task while sampling the used heap, the result is kept until
+     * the sampling stops so it counts towards the peak
+     */
+    public static void measure(String name, Callable<Object> task) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+        long start = System.nanoTime();
+        Object result = task.call();
+        long elapsed = System.nanoTime() - start;
+        running.set(false);
+        sampler.join();
+        System.out.println(String.format("%s: %d ms, peak heap %d MB (baseline %d MB), result %s", name, elapsed / 1000000, peak.get() / (1024 * 1024),
+                baseline / (1024 * 1024), result instanceof Boolean ? result : result.getClass().getSimpleName()));
+    }
+
+}
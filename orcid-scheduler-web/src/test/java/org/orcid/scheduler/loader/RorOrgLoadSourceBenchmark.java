@@ -0,0 +1,266 @@
+package org.orcid.scheduler.loader;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.orcid.core.manager.OrgDisambiguatedManager;
+import org.orcid.core.orgs.extId.normalizer.impl.ISNIOrgDisambiguatedExternalIdNormalizer;
+import org.orcid.core.utils.JsonUtils;
+import org.orcid.persistence.dao.OrgDisambiguatedDao;
+import org.orcid.persistence.dao.OrgDisambiguatedExternalIdentifierDao;
+import org.orcid.persistence.jpa.entities.OrgDisambiguatedEntity;
+import org.orcid.persistence.jpa.entities.OrgDisambiguatedExternalIdentifierEntity;
+import org.orcid.scheduler.loader.source.ror.RorOrgLoadSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Loads a synthetic ROR dump of 100k orgs with RorOrgLoadSource on top of
+ * in-memory DAO stubs, and reports the wall time and peak heap of a first
+ * import, where every org is new, and of a reload of the same file, where
+ * every org is unchanged. Reading the whole file into a Jackson tree, as the
+ * loader used to do, is reported as a reference.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.orcid.scheduler.loader.RorOrgLoadSourceBenchmark
+ * -Dexec.args="100000"
+ */
+public class RorOrgLoadSourceBenchmark {
+
+    private static final String[] COUNTRIES = { "US", "GB", "DE", "FR", "AU", "JP", "BR", "IN", "ES", "CA" };
+
+    public static void main(String[] args) throws Exception {
+        int orgs = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Configurator.setLevel("org.orcid", Level.WARN);
+
+        File file = File.createTempFile("ror-benchmark", ".json");
+        file.deleteOnExit();
+        writeSyntheticDump(file, orgs);
+        System.out.println(String.format("Synthetic ROR dump: %d orgs, %d MB", orgs, file.length() / (1024 * 1024)));
+
+        HeapBenchmark.measure("Jackson tree of the whole file", () -> JsonUtils.read(file));
+
+        InMemoryOrgs db = new InMemoryOrgs();
+        HeapBenchmark.measure("First import", () -> db.newLoadSource(file).loadOrgData());
+        System.out.println(String.format("  orgs: %d, external identifiers: %d", db.orgs.size(), db.externalIdentifiers.size()));
+        long writes = db.writes.get();
+        HeapBenchmark.measure("Reload of unchanged file", () -> db.newLoadSource(file).loadOrgData());
+        System.out.println(String.format("  writes: %d", db.writes.get() - writes));
+    }
+
+    private static void writeSyntheticDump(File file, int orgs) throws Exception {
+        try (JsonGenerator generator = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (int i = 0; i < orgs; i++) {
+                String country = COUNTRIES[i % COUNTRIES.length];
+                generator.writeStartObject();
+                generator.writeStringField("id", "https://ror.org/0" + Integer.toString(i, 36));
+                // One in a hundred orgs is redirected and one in a hundred
+                // withdrawn
+                if (i % 100 == 98) {
+                    generator.writeStringField("status", "redirected");
+                    generator.writeStringField("redirect", "https://ror.org/0" + Integer.toString(i - 1, 36));
+                    generator.writeEndObject();
+                    continue;
+                } else if (i % 100 == 99) {
+                    generator.writeStringField("status", "withdrawn");
+                    generator.writeEndObject();
+                    continue;
+                }
+                generator.writeStringField("status", i % 10 == 0 ? "inactive" : "active");
+                generator.writeNumberField("established", 1800 + i % 200);
+
+                generator.writeArrayFieldStart("names");
+                writeName(generator, "Synthetic Organization " + i, "ror_display", "label");
+                writeName(generator, "SO" + i, "acronym");
+                writeName(generator, "Organisation Synthetique " + i, "alias");
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("types");
+                generator.writeString(i % 3 == 0 ? "education" : "facility");
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("locations");
+                generator.writeStartObject();
+                generator.writeNumberField("geonames_id", 2000000 + i);
+                generator.writeObjectFieldStart("geonames_details");
+                generator.writeStringField("country_code", country);
+                generator.writeStringField("country_name", country);
+                generator.writeNumberField("lat", (i % 180) - 90.0);
+                generator.writeNumberField("lng", (i % 360) - 180.0);
+                generator.writeStringField("name", "City " + (i % 5000));
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("links");
+                generator.writeString("https://www.org" + i + ".example.org");
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("domains");
+                generator.writeString("org" + i + ".example.org");
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("relationships");
+                generator.writeStartObject();
+                generator.writeStringField("type", "related");
+                generator.writeStringField("label", "Synthetic Organization " + (i + 1));
+                generator.writeStringField("id", "https://ror.org/0" + Integer.toString(i + 1, 36));
+                generator.writeEndObject();
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("external_ids");
+                writeExternalId(generator, "isni", null, String.format("0000 0004 %04d %04d", (i / 10000) % 10000, i % 10000));
+                writeExternalId(generator, "fundref", "50110000" + i, "50110000" + i, "50120000" + i);
+                writeExternalId(generator, "wikidata", "Q" + (1000000 + i), "Q" + (1000000 + i));
+                generator.writeStartObject();
+                generator.writeStringField("type", "grid");
+                generator.writeStringField("preferred", "grid." + i + ".1");
+                generator.writeStringField("all", "grid." + i + ".1");
+                generator.writeEndObject();
+                generator.writeEndArray();
+
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeName(JsonGenerator generator, String value, String... types) throws Exception {
+        generator.writeStartObject();
+        generator.writeStringField("value", value);
+        generator.writeArrayFieldStart("types");
+        for (String type : types) {
+            generator.writeString(type);
+        }
+        generator.writeEndArray();
+        generator.writeNullField("lang");
+        generator.writeEndObject();
+    }
+
+    private static void writeExternalId(JsonGenerator generator, String type, String preferred, String... all) throws Exception {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        if (preferred == null) {
+            generator.writeNullField("preferred");
+        } else {
+            generator.writeStringField("preferred", preferred);
+        }
+        generator.writeArrayFieldStart("all");
+        for (String value : all) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Keeps the org_disambiguated and org_disambiguated_external_identifier
+     * rows the loader reads through its projection queries. The stubs don't
+     * record invocations, so they don't count towards the heap of the loader.
+     */
+    private static class InMemoryOrgs {
+
+        private final TreeMap<Long, Object[]> orgs = new TreeMap<Long, Object[]>();
+
+        private final Map<Long, List<Object[]>> externalIdentifiersByOrg = new HashMap<Long, List<Object[]>>();
+
+        private final List<Object[]> externalIdentifiers = new ArrayList<Object[]>();
+
+        private final AtomicLong ids = new AtomicLong();
+
+        private final AtomicLong writes = new AtomicLong();
+
+        private RorOrgLoadSource newLoadSource(File file) {
+            OrgDisambiguatedDao orgDisambiguatedDao = mock(OrgDisambiguatedDao.class, withSettings().stubOnly());
+            when(orgDisambiguatedDao.findOrgDetailsBySourceType(anyString(), nullable(Long.class), anyInt())).thenAnswer(invocation -> {
+                Long afterId = invocation.getArgument(1);
+                int maxResults = invocation.getArgument(2);
+                Map<Long, Object[]> page = afterId == null ? orgs : orgs.tailMap(afterId, false);
+                List<Object[]> rows = new ArrayList<Object[]>(maxResults);
+                for (Object[] row : page.values()) {
+                    if (rows.size() == maxResults) {
+                        break;
+                    }
+                    rows.add(row);
+                }
+                return rows;
+            });
+            OrgDisambiguatedExternalIdentifierDao orgDisambiguatedExternalIdentifierDao = mock(OrgDisambiguatedExternalIdentifierDao.class, withSettings().stubOnly());
+            when(orgDisambiguatedExternalIdentifierDao.findExternalIdentifiers(anyList())).thenAnswer(invocation -> {
+                List<Long> orgIds = invocation.getArgument(0);
+                List<Object[]> rows = new ArrayList<Object[]>();
+                for (Long orgId : orgIds) {
+                    rows.addAll(externalIdentifiersByOrg.getOrDefault(orgId, Collections.emptyList()));
+                }
+                return rows;
+            });
+
+            OrgDisambiguatedManager orgDisambiguatedManager = mock(OrgDisambiguatedManager.class, withSettings().stubOnly());
+            when(orgDisambiguatedManager.createOrgDisambiguated(any(OrgDisambiguatedEntity.class))).thenAnswer(invocation -> {
+                OrgDisambiguatedEntity entity = invocation.getArgument(0);
+                entity.setId(ids.incrementAndGet());
+                orgs.put(entity.getId(), new Object[] { entity.getId(), entity.getSourceId(), entity.getName(), entity.getCountry(), entity.getCity(),
+                        entity.getRegion(), entity.getUrl(), entity.getOrgType(), entity.getStatus(), entity.getSourceParentId() });
+                writes.incrementAndGet();
+                return entity;
+            });
+            when(orgDisambiguatedManager.updateOrgDisambiguated(any(OrgDisambiguatedEntity.class))).thenAnswer(invocation -> {
+                writes.incrementAndGet();
+                return invocation.getArgument(0);
+            });
+            ISNIOrgDisambiguatedExternalIdNormalizer isniNormalizer = new ISNIOrgDisambiguatedExternalIdNormalizer();
+            doAnswer(invocation -> {
+                OrgDisambiguatedExternalIdentifierEntity entity = invocation.getArgument(0);
+                Long orgId = entity.getOrgDisambiguated().getId();
+                String identifier = isniNormalizer.getType().equals(entity.getIdentifierType()) ? isniNormalizer.normalize(entity.getIdentifier())
+                        : entity.getIdentifier();
+                Object[] row = new Object[] { orgId, ids.incrementAndGet(), entity.getIdentifierType(), identifier, entity.getPreferred() };
+                externalIdentifiersByOrg.computeIfAbsent(orgId, k -> new ArrayList<Object[]>()).add(row);
+                externalIdentifiers.add(row);
+                writes.incrementAndGet();
+                return null;
+            }).when(orgDisambiguatedManager).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
+
+            RorOrgLoadSource rorOrgLoadSource = new RorOrgLoadSource();
+            ReflectionTestUtils.setField(rorOrgLoadSource, "enabled", true);
+            ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", file.getAbsolutePath());
+            ReflectionTestUtils.setField(rorOrgLoadSource, "batchSize", 1000);
+            ReflectionTestUtils.setField(rorOrgLoadSource, "orgDisambiguatedDao", orgDisambiguatedDao);
+            ReflectionTestUtils.setField(rorOrgLoadSource, "orgDisambiguatedExternalIdentifierDao", orgDisambiguatedExternalIdentifierDao);
+            ReflectionTestUtils.setField(rorOrgLoadSource, "orgDisambiguatedManager", orgDisambiguatedManager);
+            ReflectionTestUtils.setField(rorOrgLoadSource, "orgDisambiguatedExternalIdNormalizers", Collections.singletonList(isniNormalizer));
+            ReflectionTestUtils.setField(rorOrgLoadSource, "transactionTemplate", new TransactionTemplate() {
+                @Override
+                public <T> T execute(TransactionCallback<T> action) {
+                    return action.doInTransaction(null);
+                }
+            });
+            return rorOrgLoadSource;
+        }
+    }
+
+}
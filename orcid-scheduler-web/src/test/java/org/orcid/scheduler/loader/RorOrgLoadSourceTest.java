@@ -17,7 +17,11 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -31,6 +35,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.orcid.core.manager.OrgDisambiguatedManager;
 import org.orcid.core.orgs.OrgDisambiguatedSourceType;
+import org.orcid.core.orgs.extId.normalizer.impl.ISNIOrgDisambiguatedExternalIdNormalizer;
 import org.orcid.jaxb.model.message.Iso3166Country;
 import org.orcid.persistence.constants.OrganizationStatus;
 import org.orcid.persistence.dao.OrgDisambiguatedDao;
@@ -49,6 +54,8 @@ import org.orcid.scheduler.loader.source.ror.RorOrgLoadSource;
 import org.orcid.test.OrcidJUnit4ClassRunner;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @RunWith(OrcidJUnit4ClassRunner.class)
 @ContextConfiguration(locations = { "classpath:test-orcid-scheduler-context.xml" })
@@ -72,6 +79,8 @@ public class RorOrgLoadSourceTest {
     @InjectMocks
     private RorOrgLoadSource rorOrgLoadSource;
 
+    private Map<Long, OrgDisambiguatedEntity> created = new HashMap<>();
+
     @Before
     public void before() throws URISyntaxException {
         MockitoAnnotations.initMocks(this);
@@ -88,6 +97,24 @@ public class RorOrgLoadSourceTest {
         Path path = Paths.get(getClass().getClassLoader().getResource("ror/dummy.zip").toURI());
         File testFile = path.toFile();
         ReflectionTestUtils.setField(rorOrgLoadSource, "zipFilePath", testFile.getAbsolutePath());
+
+        // Assign ids to the created orgs as the DAO would
+        AtomicLong ids = new AtomicLong(1000);
+        when(orgDisambiguatedManager.createOrgDisambiguated(any(OrgDisambiguatedEntity.class))).thenAnswer(invocation -> {
+            OrgDisambiguatedEntity entity = invocation.getArgument(0);
+            entity.setId(ids.incrementAndGet());
+            created.put(entity.getId(), entity);
+            return entity;
+        });
+
+        ReflectionTestUtils.setField(rorOrgLoadSource, "batchSize", 1000);
+        ReflectionTestUtils.setField(rorOrgLoadSource, "orgDisambiguatedExternalIdNormalizers", Collections.emptyList());
+        ReflectionTestUtils.setField(rorOrgLoadSource, "transactionTemplate", new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        });
     }
     
     @Test
@@ -118,9 +145,7 @@ public class RorOrgLoadSourceTest {
 
     @Test
     public void execute_Stats_Test_1() throws URISyntaxException {
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_1_org_5_external_identifiers.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        setDataFile("ror/ror_1_org_5_external_identifiers.json");
 
         rorOrgLoadSource.loadOrgData();
 
@@ -137,40 +162,42 @@ public class RorOrgLoadSourceTest {
 
     @Test
     public void execute_Stats_Test_2() throws URISyntaxException {
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_4_orgs_27_external_identifiers.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        // grid.1 is twice in the file, the second one updates the org created
+        // from the first one
+        when(orgDisambiguatedDao.find(Mockito.anyLong())).thenAnswer(invocation -> created.get(invocation.getArgument(0)));
+        setDataFile("ror/ror_4_orgs_27_external_identifiers.json");
         rorOrgLoadSource.loadOrgData();
 
         ArgumentCaptor<OrgDisambiguatedEntity> captor = ArgumentCaptor.forClass(OrgDisambiguatedEntity.class);
-        verify(orgDisambiguatedManager, Mockito.times(4)).createOrgDisambiguated(captor.capture());
+        verify(orgDisambiguatedManager, Mockito.times(3)).createOrgDisambiguated(captor.capture());
         for (OrgDisambiguatedEntity persisted : captor.getAllValues()) {
             assertNotEquals(OrganizationStatus.DEPRECATED.name(), persisted.getStatus());
             assertNotEquals(OrganizationStatus.OBSOLETE.name(), persisted.getStatus());
         }
+        assertEquals("org_1", captor.getAllValues().get(0).getName());
 
         verify(orgDisambiguatedManager, times(24)).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
-        verify(orgDisambiguatedManager, never()).updateOrgDisambiguated(any(OrgDisambiguatedEntity.class));
+        // The rename of grid.1 plus marking the 3 orgs for indexing
+        verify(orgDisambiguatedManager, times(4)).updateOrgDisambiguated(any(OrgDisambiguatedEntity.class));
         verify(orgDisambiguatedExternalIdentifierDao, never()).merge(any(OrgDisambiguatedExternalIdentifierEntity.class));
     }
 
     @Test
     public void execute_Stats_Test_3() throws URISyntaxException {
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.r.1", OrgDisambiguatedSourceType.ROR.name())).thenReturn(new OrgDisambiguatedEntity());
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.r.2", OrgDisambiguatedSourceType.ROR.name())).thenReturn(new OrgDisambiguatedEntity());
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.o.1", OrgDisambiguatedSourceType.ROR.name())).thenReturn(new OrgDisambiguatedEntity());
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.o.2", OrgDisambiguatedSourceType.ROR.name())).thenReturn(new OrgDisambiguatedEntity());
+        existingOrgs(org(1L, "ror.r.1"), org(2L, "ror.r.2"), org(3L, "ror.o.1"), org(4L, "ror.o.2"));
+        when(orgDisambiguatedDao.find(1L)).thenReturn(new OrgDisambiguatedEntity());
+        when(orgDisambiguatedDao.find(2L)).thenReturn(new OrgDisambiguatedEntity());
+        when(orgDisambiguatedDao.find(3L)).thenReturn(new OrgDisambiguatedEntity());
+        when(orgDisambiguatedDao.find(4L)).thenReturn(new OrgDisambiguatedEntity());
 
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_2_deprecated_2_obsoleted_orgs.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        setDataFile("ror/ror_2_deprecated_2_obsoleted_orgs.json");
         rorOrgLoadSource.loadOrgData();
 
         verify(orgDisambiguatedDao, Mockito.never()).persist(Mockito.any(OrgDisambiguatedEntity.class));
         verify(orgDisambiguatedExternalIdentifierDao, never()).persist(any(OrgDisambiguatedExternalIdentifierEntity.class));
 
         ArgumentCaptor<OrgDisambiguatedEntity> captor = ArgumentCaptor.forClass(OrgDisambiguatedEntity.class);
-        verify(orgDisambiguatedManager, times(3)).updateOrgDisambiguated(captor.capture());
+        verify(orgDisambiguatedManager, times(4)).updateOrgDisambiguated(captor.capture());
 
         int deprecated = 0;
         int obsolete = 0;
@@ -183,55 +210,37 @@ public class RorOrgLoadSourceTest {
             }
         }
         assertEquals(2L, deprecated);
-        assertEquals(1L, obsolete);
+        assertEquals(2L, obsolete);
 
         verify(orgDisambiguatedExternalIdentifierDao, never()).merge(any(OrgDisambiguatedExternalIdentifierEntity.class));
     }
 
     @Test
     public void execute_JustAddOneExeternalIdentifier_Test() throws URISyntaxException {
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.1", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
-            @Override
-            public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
-                OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
-                entity.setId(1L);
-                entity.setName("org_1");
-                entity.setSourceId("ror.1");
-                entity.setCity("City One");
-                entity.setCountry(Iso3166Country.US.name());
-                entity.setOrgType("type_1");
-                entity.setRegion("Alabama");
-                entity.setSourceType(OrgDisambiguatedSourceType.ROR.name());
-                entity.setUrl("http://link1.com");
-                return entity;
-            }
-        });
-        OrgDisambiguatedExternalIdentifierEntity extId = new OrgDisambiguatedExternalIdentifierEntity();
-        extId.setPreferred(Boolean.FALSE);
-        OrgDisambiguatedExternalIdentifierEntity extIdPreferred = new OrgDisambiguatedExternalIdentifierEntity();
-        extIdPreferred.setPreferred(Boolean.TRUE);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "ISNI1", "ISNI")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "FUNDREF1", OrgDisambiguatedSourceType.FUNDREF.name())).thenReturn(extIdPreferred);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "ORGREF1", "ORGREF")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "WIKIDATA1", "WIKIDATA")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "http://en.wikipedia.org/wiki/org_1", "WIKIPEDIA_URL")).thenReturn(extId);
-
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_1_org_6_external_identifiers.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        existingOrgs(org(1L, "ror.1", "org_1", "AU", "Adelaide", "http://link1.com", "type_1"));
+        when(orgDisambiguatedDao.find(1L)).thenReturn(new OrgDisambiguatedEntity());
+        existingExternalIdentifiers(extId(1L, 11L, "ISNI", "ISNI1", false), extId(1L, 12L, "FUNDREF", "FUNDREF1", true), extId(1L, 13L, "ORGREF", "ORGREF1", false),
+                extId(1L, 14L, "WIKIDATA", "WIKIDATA1", false));
+
+        setDataFile("ror/ror_1_org_6_external_identifiers.json");
         rorOrgLoadSource.loadOrgData();
 
-        verify(orgDisambiguatedManager, times(1)).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        ArgumentCaptor<OrgDisambiguatedExternalIdentifierEntity> captor = ArgumentCaptor.forClass(OrgDisambiguatedExternalIdentifierEntity.class);
+        verify(orgDisambiguatedManager, times(1)).createOrgDisambiguatedExternalIdentifier(captor.capture());
+        assertEquals("FUNDREF2", captor.getValue().getIdentifier());
+        assertEquals(Boolean.FALSE, captor.getValue().getPreferred());
 
         verify(orgDisambiguatedDao, never()).persist(Mockito.any(OrgDisambiguatedEntity.class));
-        verify(orgDisambiguatedManager, times(1)).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        verify(orgDisambiguatedManager, never()).createOrgDisambiguated(any(OrgDisambiguatedEntity.class));
         verify(orgDisambiguatedDao, never()).merge(any(OrgDisambiguatedEntity.class));
         verify(orgDisambiguatedExternalIdentifierDao, never()).merge(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        verify(orgDisambiguatedManager, never()).updateOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
     }
 
     @Test
     public void execute_UpdateExistingInstitute_Test() throws URISyntaxException {
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.1", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
+        existingOrgs(org(1L, "ror.1", "org_1", "AU", "Adelaide", "http://link1.com", "type_1"));
+        when(orgDisambiguatedDao.find(1L)).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
             @Override
             public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
                 OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
@@ -247,28 +256,23 @@ public class RorOrgLoadSourceTest {
                 return entity;
             }
         });
-        OrgDisambiguatedExternalIdentifierEntity extId = new OrgDisambiguatedExternalIdentifierEntity();
-        extId.setPreferred(Boolean.FALSE);
-        OrgDisambiguatedExternalIdentifierEntity extIdPreferred = new OrgDisambiguatedExternalIdentifierEntity();
-        extIdPreferred.setPreferred(Boolean.TRUE);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "ISNI1", "ISNI")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "FUNDREF1", OrgDisambiguatedSourceType.FUNDREF.name())).thenReturn(extIdPreferred);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "ORGREF1", "ORGREF")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "WIKIDATA1", "WIKIDATA")).thenReturn(extId);
- 
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_1_org_updated_5_external_identifiers.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        existingExternalIdentifiers(extId(1L, 11L, "ISNI", "ISNI1", false), extId(1L, 12L, "FUNDREF", "FUNDREF1", true), extId(1L, 13L, "ORGREF", "ORGREF1", false),
+                extId(1L, 14L, "WIKIDATA", "WIKIDATA1", false));
+
+        setDataFile("ror/ror_1_org_updated_5_external_identifiers.json");
         rorOrgLoadSource.loadOrgData();
 
         verify(orgDisambiguatedDao, never()).persist(Mockito.any(OrgDisambiguatedEntity.class));
         verify(orgDisambiguatedExternalIdentifierDao, never()).persist(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        verify(orgDisambiguatedManager, never()).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
 
+        // The org is updated with the file data, then marked for indexing
+        // along with its group
         ArgumentCaptor<OrgDisambiguatedEntity> captor = ArgumentCaptor.forClass(OrgDisambiguatedEntity.class);
-        verify(orgDisambiguatedManager, times(1)).updateOrgDisambiguated(captor.capture());
+        verify(orgDisambiguatedManager, times(2)).updateOrgDisambiguated(captor.capture());
         verify(orgDisambiguatedExternalIdentifierDao, never()).merge(any(OrgDisambiguatedExternalIdentifierEntity.class));
 
-        OrgDisambiguatedEntity orgToBeUpdated = captor.getValue();
+        OrgDisambiguatedEntity orgToBeUpdated = captor.getAllValues().get(0);
         assertNotEquals(OrganizationStatus.DEPRECATED.name(), orgToBeUpdated.getStatus());
         assertNotEquals(OrganizationStatus.OBSOLETE.name(), orgToBeUpdated.getStatus());
         assertEquals(Iso3166Country.AU.name(), orgToBeUpdated.getCountry());
@@ -284,46 +288,72 @@ public class RorOrgLoadSourceTest {
 
     @Test
     public void execute_NothingToCreateNothingToUpdate_Test() throws URISyntaxException {
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.1", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
-            @Override
-            public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
-                OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
-                entity.setId(1L);
-                entity.setName("org_1");
-                entity.setSourceId("ror.1");
-                entity.setCity("City One");
-                entity.setCountry(Iso3166Country.US.name());
-                entity.setOrgType("type_1");
-                entity.setRegion("Alabama");
-                entity.setSourceType(OrgDisambiguatedSourceType.ROR.name());
-                entity.setUrl("http://link1.com");
-                return entity;
-            }
-        });
-        OrgDisambiguatedExternalIdentifierEntity extId = new OrgDisambiguatedExternalIdentifierEntity();
-        extId.setPreferred(Boolean.FALSE);
-        OrgDisambiguatedExternalIdentifierEntity extIdPreferred = new OrgDisambiguatedExternalIdentifierEntity();
-        extIdPreferred.setPreferred(Boolean.TRUE);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "ISNI1", "ISNI")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "FUNDREF1", OrgDisambiguatedSourceType.FUNDREF.name())).thenReturn(extIdPreferred);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "ORGREF1", "ORGREF")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "WIKIDATA1", "WIKIDATA")).thenReturn(extId);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "http://en.wikipedia.org/wiki/org_1", "WIKIPEDIA_URL")).thenReturn(extId);
+        existingOrgs(org(1L, "ror.1", "ORG_1", "AU", "Adelaide", "http://link1.com", "type_1"));
+        existingExternalIdentifiers(extId(1L, 11L, "ISNI", "ISNI1", false), extId(1L, 12L, "FUNDREF", "FUNDREF1", true), extId(1L, 13L, "ORGREF", "ORGREF1", false),
+                extId(1L, 14L, "WIKIDATA", "WIKIDATA1", false));
 
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_1_org_5_external_identifiers.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        setDataFile("ror/ror_1_org_5_external_identifiers.json");
         rorOrgLoadSource.loadOrgData();
 
         verify(orgDisambiguatedDao, never()).persist(Mockito.any(OrgDisambiguatedEntity.class));
         verify(orgDisambiguatedExternalIdentifierDao, never()).persist(any(OrgDisambiguatedExternalIdentifierEntity.class));
         verify(orgDisambiguatedDao, never()).merge(any(OrgDisambiguatedEntity.class));
         verify(orgDisambiguatedExternalIdentifierDao, never()).merge(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        verify(orgDisambiguatedManager, never()).createOrgDisambiguated(any(OrgDisambiguatedEntity.class));
+        verify(orgDisambiguatedManager, never()).updateOrgDisambiguated(any(OrgDisambiguatedEntity.class));
+        verify(orgDisambiguatedManager, never()).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        verify(orgDisambiguatedManager, never()).updateOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        // Unchanged orgs are not loaded
+        verify(orgDisambiguatedDao, never()).find(Mockito.anyLong());
+        verify(orgDisambiguatedDao, never()).findBySourceIdAndSourceType(Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void execute_NormalizedExternalIdentifiersAreNotCreatedAgain_Test() throws URISyntaxException {
+        ReflectionTestUtils.setField(rorOrgLoadSource, "orgDisambiguatedExternalIdNormalizers",
+                Arrays.asList(new ISNIOrgDisambiguatedExternalIdNormalizer()));
+        existingOrgs(org(1L, "ror.1", "org_1", "AU", "Adelaide", "http://link1.com", "type_1"));
+        // ISNIs are stored normalized
+        existingExternalIdentifiers(extId(1L, 11L, "ISNI", "0000000000000001", false), extId(1L, 12L, "FUNDREF", "FUNDREF1", true),
+                extId(1L, 13L, "ORGREF", "ORGREF1", false), extId(1L, 14L, "WIKIDATA", "WIKIDATA1", false));
+
+        setDataFile("ror/ror_1_org_5_external_identifiers.json");
+        rorOrgLoadSource.loadOrgData();
+
+        verify(orgDisambiguatedManager, never()).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
+        verify(orgDisambiguatedManager, never()).updateOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
+    }
+
+    @Test
+    public void execute_LoadsExternalIdentifiersOncePerChunk_Test() throws URISyntaxException {
+        ReflectionTestUtils.setField(rorOrgLoadSource, "batchSize", 2);
+        when(orgDisambiguatedDao.findOrgDetailsBySourceType(Mockito.eq(OrgDisambiguatedSourceType.ROR.name()), Mockito.isNull(), Mockito.eq(2)))
+                .thenReturn(Arrays.asList(org(1L, "grid.1"), org(2L, "grid.2")));
+        when(orgDisambiguatedDao.findOrgDetailsBySourceType(Mockito.eq(OrgDisambiguatedSourceType.ROR.name()), Mockito.eq(2L), Mockito.eq(2)))
+                .thenReturn(Collections.singletonList(org(3L, "grid.3")));
+        for (long id = 1; id <= 3; id++) {
+            when(orgDisambiguatedDao.find(id)).thenReturn(new OrgDisambiguatedEntity());
+        }
+
+        setDataFile("ror/ror_4_orgs_27_external_identifiers.json");
+        rorOrgLoadSource.loadOrgData();
+
+        ArgumentCaptor<List<Long>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orgDisambiguatedExternalIdentifierDao, times(2)).findExternalIdentifiers(captor.capture());
+        // The file has grid.1 twice, then grid.2 and grid.3
+        assertEquals(Arrays.asList(1L), captor.getAllValues().get(0));
+        assertEquals(Arrays.asList(2L, 3L), captor.getAllValues().get(1));
+        // The existing orgs are preloaded in pages
+        verify(orgDisambiguatedDao, times(2)).findOrgDetailsBySourceType(Mockito.eq(OrgDisambiguatedSourceType.ROR.name()), Mockito.any(), Mockito.eq(2));
+        verify(orgDisambiguatedDao, never()).findBySourceIdAndSourceType(Mockito.anyString(), Mockito.anyString());
+        verify(orgDisambiguatedManager, never()).createOrgDisambiguated(any(OrgDisambiguatedEntity.class));
+        verify(orgDisambiguatedManager, times(24)).createOrgDisambiguatedExternalIdentifier(any(OrgDisambiguatedExternalIdentifierEntity.class));
     }
 
     @Test
     public void execute_DeprecatedObsoleteInstitutes_1_Test() throws URISyntaxException {
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.o.1", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
+        existingOrgs(org(1L, "ror.o.1"), org(2L, "ror.o.2"), org(3L, "ror.r.1"), org(4L, "ror.r.2"));
+        when(orgDisambiguatedDao.find(1L)).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
             @Override
             public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
                 OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
@@ -332,7 +362,7 @@ public class RorOrgLoadSourceTest {
                 return entity;
             }
         });
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.o.2", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
+        when(orgDisambiguatedDao.find(2L)).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
             @Override
             public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
                 OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
@@ -341,7 +371,7 @@ public class RorOrgLoadSourceTest {
                 return entity;
             }
         });
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.r.1", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
+        when(orgDisambiguatedDao.find(3L)).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
             @Override
             public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
                 OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
@@ -351,7 +381,7 @@ public class RorOrgLoadSourceTest {
             }
         });
 
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.r.2", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
+        when(orgDisambiguatedDao.find(4L)).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
             @Override
             public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
                 OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
@@ -361,9 +391,7 @@ public class RorOrgLoadSourceTest {
             }
         });
 
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_2_deprecated_2_obsoleted_orgs.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        setDataFile("ror/ror_2_deprecated_2_obsoleted_orgs.json");
         rorOrgLoadSource.loadOrgData();
 
         verify(orgDisambiguatedDao, never()).persist(any(OrgDisambiguatedEntity.class));
@@ -373,7 +401,7 @@ public class RorOrgLoadSourceTest {
         verify(orgDisambiguatedExternalIdentifierDao, times(0)).persist(any(OrgDisambiguatedExternalIdentifierEntity.class));
 
         ArgumentCaptor<OrgDisambiguatedEntity> captor = ArgumentCaptor.forClass(OrgDisambiguatedEntity.class);
-        verify(orgDisambiguatedManager, times(3)).updateOrgDisambiguated(captor.capture());
+        verify(orgDisambiguatedManager, times(4)).updateOrgDisambiguated(captor.capture());
 
         int obsoleteCount = 0;
         int deprecatedCount = 0;
@@ -400,14 +428,12 @@ public class RorOrgLoadSourceTest {
             }
         }
         assertEquals(2, deprecatedCount);
-        assertEquals(1, obsoleteCount);
+        assertEquals(2, obsoleteCount);
     }
 
     @Test
     public void execute_DeprecatedObsoleteInstitutes_2_Test() throws URISyntaxException {
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_2_deprecated_2_obsoleted_orgs.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+        setDataFile("ror/ror_2_deprecated_2_obsoleted_orgs.json");
         rorOrgLoadSource.loadOrgData();
 
         verify(orgDisambiguatedDao, never()).merge(any(OrgDisambiguatedEntity.class));
@@ -437,23 +463,8 @@ public class RorOrgLoadSourceTest {
 
     @Test
     public void execute_UpdatePreferredIndicator_Test() throws URISyntaxException {
-        when(orgDisambiguatedDao.findBySourceIdAndSourceType("ror.1", OrgDisambiguatedSourceType.ROR.name())).thenAnswer(new Answer<OrgDisambiguatedEntity>() {
-            @Override
-            public OrgDisambiguatedEntity answer(InvocationOnMock invocation) throws Throwable {
-                OrgDisambiguatedEntity entity = new OrgDisambiguatedEntity();
-                entity.setId(1L);
-                entity.setName("org_1");
-                entity.setSourceId("ror.1");
-                entity.setCity("City One");
-                entity.setCountry(Iso3166Country.US.name());
-                entity.setOrgType("type_1");
-                entity.setRegion("Alabama");
-                entity.setSourceType(OrgDisambiguatedSourceType.ROR.name());
-                entity.setUrl("http://link1.com");
-                return entity;
-            }
-        });
-        
+        existingOrgs(org(1L, "ror.1", "org_1", "AU", "Adelaide", "http://link1.com", "type_1"));
+
         // On DB WIKIDATA1 is preferred, but in the file WIKIDATA2 is the
         // preferred one
         OrgDisambiguatedExternalIdentifierEntity wikidata1 = new OrgDisambiguatedExternalIdentifierEntity();
@@ -466,13 +477,12 @@ public class RorOrgLoadSourceTest {
         wikidata2.setIdentifierType("WIKIDATA");
         wikidata2.setPreferred(Boolean.FALSE);
 
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "WIKIDATA1", "WIKIDATA")).thenReturn(wikidata1);
-        when(orgDisambiguatedExternalIdentifierDao.findByDetails(1L, "WIKIDATA2", "WIKIDATA")).thenReturn(wikidata2);
+        existingExternalIdentifiers(extId(1L, 11L, "WIKIDATA", "WIKIDATA1", true), extId(1L, 12L, "WIKIDATA", "WIKIDATA2", false));
+        when(orgDisambiguatedExternalIdentifierDao.find(11L)).thenReturn(wikidata1);
+        when(orgDisambiguatedExternalIdentifierDao.find(12L)).thenReturn(wikidata2);
+
+        setDataFile("ror/ror_1_org_2_ext_ids_#2_preferred.json");
 
-        Path path = Paths.get(getClass().getClassLoader().getResource("ror/ror_1_org_2_ext_ids_#2_preferred.json").toURI());
-        File testFile = path.toFile();
-        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
-        
         rorOrgLoadSource.loadOrgData();
 
         verify(orgDisambiguatedDao, never()).merge(any(OrgDisambiguatedEntity.class));
@@ -497,7 +507,33 @@ public class RorOrgLoadSourceTest {
         assertEquals("WIKIDATA", wikidata2ExtId.getIdentifierType());
         assertEquals(Boolean.TRUE, wikidata2ExtId.getPreferred());
     }
-    
+
+    private void setDataFile(String resource) throws URISyntaxException {
+        Path path = Paths.get(getClass().getClassLoader().getResource(resource).toURI());
+        File testFile = path.toFile();
+        ReflectionTestUtils.setField(rorOrgLoadSource, "localDataPath", testFile.getAbsolutePath());
+    }
+
+    private void existingOrgs(Object[]... orgs) {
+        when(orgDisambiguatedDao.findOrgDetailsBySourceType(Mockito.eq(OrgDisambiguatedSourceType.ROR.name()), Mockito.isNull(), Mockito.anyInt()))
+                .thenReturn(Arrays.asList(orgs));
+    }
+
+    private void existingExternalIdentifiers(Object[]... extIds) {
+        when(orgDisambiguatedExternalIdentifierDao.findExternalIdentifiers(Mockito.anyList())).thenReturn(Arrays.asList(extIds));
+    }
+
+    private Object[] org(Long id, String sourceId) {
+        return org(id, sourceId, null, null, null, null, null);
+    }
+
+    private Object[] org(Long id, String sourceId, String name, String country, String city, String url, String orgType) {
+        return new Object[] { id, sourceId, name, country, city, null, url, orgType, null, null };
+    }
+
+    private Object[] extId(Long orgId, Long id, String type, String identifier, boolean preferred) {
+        return new Object[] { orgId, id, type, identifier, preferred };
+    }
 
     private FigshareCollectionArticleSummary getFigsharerorCollectionArticleSummary(int id, String date) {
         FigshareCollectionArticleSummary summary = new FigshareCollectionArticleSummary();
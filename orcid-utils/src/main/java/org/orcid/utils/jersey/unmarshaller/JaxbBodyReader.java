@@ -0,0 +1,54 @@
+package org.orcid.utils.jersey.unmarshaller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Base class of the ORCID model body readers, safe to share between all the
+ * threads of a Jersey client
+ */
+public abstract class JaxbBodyReader<T> implements MessageBodyReader<T> {
+
+    private final Class<T> type;
+
+    private final JaxbReaders readers;
+
+    protected JaxbBodyReader(Class<T> type, JaxbReaders readers) {
+        if (!readers.contains(type)) {
+            throw new IllegalArgumentException(type + " is not part of the model version");
+        }
+        this.type = type;
+        this.readers = readers;
+        try {
+            readers.getContext();
+        } catch (JAXBException jaxbException) {
+            throw new ProcessingException("Error deserializing a " + type, jaxbException);
+        }
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == this.type;
+    }
+
+    @Override
+    public T readFrom(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
+            InputStream entityStream) throws IOException, WebApplicationException {
+        try {
+            return readers.unmarshal(this.type, entityStream);
+        } catch (JAXBException | XMLStreamException e) {
+            throw new ProcessingException("Error deserializing a " + this.type, e);
+        }
+    }
+
+}
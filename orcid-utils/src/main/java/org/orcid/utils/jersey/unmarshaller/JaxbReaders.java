@@ -0,0 +1,109 @@
+package org.orcid.utils.jersey.unmarshaller;
+
+import java.io.InputStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Shared unmarshalling state for one version of the ORCID model.
+ *
+ * The JAXBContext is expensive to build and thread safe, so a single one is
+ * built, on first use, for all the classes of the version. Unmarshallers are
+ * cheap but not thread safe, so each Jersey client thread keeps its own. The
+ * body is read through a StAX stream reader, the factory is configured once
+ * and only used to create readers afterwards.
+ */
+public final class JaxbReaders {
+
+    public static final JaxbReaders V2 = new JaxbReaders(org.orcid.jaxb.model.record.summary_v2.ActivitiesSummary.class,
+            org.orcid.jaxb.model.record_v2.Education.class, org.orcid.jaxb.model.record_v2.Employment.class, org.orcid.jaxb.model.record_v2.Funding.class,
+            org.orcid.jaxb.model.error_v2.OrcidError.class, org.orcid.jaxb.model.record_v2.PeerReview.class, org.orcid.jaxb.model.record_v2.Record.class,
+            org.orcid.jaxb.model.record_v2.Work.class);
+
+    public static final JaxbReaders V3 = new JaxbReaders(org.orcid.jaxb.model.v3.release.record.summary.ActivitiesSummary.class,
+            org.orcid.jaxb.model.v3.release.record.Distinction.class, org.orcid.jaxb.model.v3.release.record.Education.class,
+            org.orcid.jaxb.model.v3.release.record.Employment.class, org.orcid.jaxb.model.v3.release.record.Funding.class,
+            org.orcid.jaxb.model.v3.release.record.InvitedPosition.class, org.orcid.jaxb.model.v3.release.record.Membership.class,
+            org.orcid.jaxb.model.v3.release.error.OrcidError.class, org.orcid.jaxb.model.v3.release.record.PeerReview.class,
+            org.orcid.jaxb.model.v3.release.record.Qualification.class, org.orcid.jaxb.model.v3.release.record.Record.class,
+            org.orcid.jaxb.model.v3.release.record.ResearchResource.class, org.orcid.jaxb.model.v3.release.record.summary.ResearchResources.class,
+            org.orcid.jaxb.model.v3.release.record.Service.class, org.orcid.jaxb.model.v3.release.record.Work.class);
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final Class<?>[] classes;
+
+    private volatile JAXBContext context;
+
+    private final ThreadLocal<Unmarshaller> unmarshallers = new ThreadLocal<>();
+
+    private JaxbReaders(Class<?>... classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * Reads the body as the given type, the root element of the document must
+     * be the one of the type
+     */
+    public <T> T unmarshal(Class<T> type, InputStream entityStream) throws JAXBException, XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(entityStream);
+        try {
+            JAXBElement<T> element = getUnmarshaller().unmarshal(reader, type);
+            // Unmarshalling to a declared type accepts any root element
+            QName expected = getContext().createJAXBIntrospector().getElementName(element.getValue());
+            if (expected != null && !expected.equals(element.getName())) {
+                throw new UnmarshalException("Unexpected root element " + element.getName() + ", expected " + expected);
+            }
+            return element.getValue();
+        } finally {
+            reader.close();
+        }
+    }
+
+    public JAXBContext getContext() throws JAXBException {
+        JAXBContext result = context;
+        if (result == null) {
+            synchronized (this) {
+                result = context;
+                if (result == null) {
+                    result = JAXBContext.newInstance(classes);
+                    context = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean contains(Class<?> type) {
+        for (Class<?> c : classes) {
+            if (c == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.get();
+        if (unmarshaller == null) {
+            unmarshaller = getContext().createUnmarshaller();
+            unmarshallers.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+}
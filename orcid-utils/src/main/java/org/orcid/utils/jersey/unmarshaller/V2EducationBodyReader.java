@@ -1,54 +1,16 @@
 package org.orcid.utils.jersey.unmarshaller;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Type;
-
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
-import org.orcid.jaxb.model.record_v2.Education;
-
 import javax.ws.rs.Consumes;
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.Provider;
 
+import org.orcid.jaxb.model.record_v2.Education;
+
 @Provider
-@Consumes({"application/xml", "application/json"})
-public class V2EducationBodyReader implements MessageBodyReader<Education> {
+@Consumes({ "application/xml", "application/json" })
+public class V2EducationBodyReader extends JaxbBodyReader<Education> {
 
-    private final Unmarshaller unmarshaller;
-    
     public V2EducationBodyReader() {
-        try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(Education.class);
-            unmarshaller = jaxbContext.createUnmarshaller();            
-        } catch (JAXBException jaxbException) {
-            throw new ProcessingException("Error deserializing a " + Education.class,
-                jaxbException);
-        }
-    }
-    
-    @Override
-    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return type == Education.class;
-    }
-
-    @Override
-    public Education readFrom(Class<Education> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
-            InputStream entityStream) throws IOException, WebApplicationException {
-        try {
-            return (Education) unmarshaller.unmarshal(entityStream);
-        } catch (JAXBException jaxbException) {
-            throw new ProcessingException("Error deserializing a " + Education.class,
-                jaxbException);
-        }
+        super(Education.class, JaxbReaders.V2);
     }
 
 }
@@ -1,52 +1,16 @@
 package org.orcid.utils.jersey.unmarshaller;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Type;
-
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
-import org.orcid.jaxb.model.v3.release.record.Distinction;
-
 import javax.ws.rs.Consumes;
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.Provider;
 
+import org.orcid.jaxb.model.v3.release.record.Distinction;
+
 @Provider
 @Consumes({ "application/xml", "application/json" })
-public class V3DistinctionBodyReader implements MessageBodyReader<Distinction> {
-
-    private final Unmarshaller unmarshaller;
+public class V3DistinctionBodyReader extends JaxbBodyReader<Distinction> {
 
     public V3DistinctionBodyReader() {
-        try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(Distinction.class);
-            unmarshaller = jaxbContext.createUnmarshaller();
-        } catch (JAXBException jaxbException) {
-            throw new ProcessingException("Error deserializing a " + Distinction.class, jaxbException);
-        }
-    }
-
-    @Override
-    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return type == Distinction.class;
-    }
-
-    @Override
-    public Distinction readFrom(Class<Distinction> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
-            InputStream entityStream) throws IOException, WebApplicationException {
-        try {
-            return (Distinction) unmarshaller.unmarshal(entityStream);
-        } catch (JAXBException e) {
-            throw new ProcessingException("Error deserializing a " + Distinction.class, e);
-        }
+        super(Distinction.class, JaxbReaders.V3);
     }
 
 }
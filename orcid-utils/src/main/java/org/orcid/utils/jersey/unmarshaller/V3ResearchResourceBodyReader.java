@@ -1,52 +1,16 @@
 package org.orcid.utils.jersey.unmarshaller;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Type;
-
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
-import org.orcid.jaxb.model.v3.release.record.ResearchResource;
-
 import javax.ws.rs.Consumes;
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.Provider;
 
+import org.orcid.jaxb.model.v3.release.record.ResearchResource;
+
 @Provider
 @Consumes({ "application/xml", "application/json" })
-public class V3ResearchResourceBodyReader implements MessageBodyReader<ResearchResource> {
-
-    private final Unmarshaller unmarshaller;
+public class V3ResearchResourceBodyReader extends JaxbBodyReader<ResearchResource> {
 
     public V3ResearchResourceBodyReader() {
-        try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(ResearchResource.class);
-            unmarshaller = jaxbContext.createUnmarshaller();
-        } catch (JAXBException jaxbException) {
-            throw new ProcessingException("Error deserializing a " + ResearchResource.class, jaxbException);
-        }
-    }
-
-    @Override
-    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return type == ResearchResource.class;
-    }
-
-    @Override
-    public ResearchResource readFrom(Class<ResearchResource> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
-            InputStream entityStream) throws IOException, WebApplicationException {
-        try {
-            return (ResearchResource) unmarshaller.unmarshal(entityStream);
-        } catch (JAXBException e) {
-            throw new ProcessingException("Error deserializing a " + ResearchResource.class, e);
-        }
+        super(ResearchResource.class, JaxbReaders.V3);
     }
 
 }
@@ -1,55 +1,16 @@
 package org.orcid.utils.jersey.unmarshaller;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Type;
-
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
-import org.orcid.jaxb.model.v3.release.record.Record;
-import org.orcid.jaxb.model.v3.release.record.summary.ResearchResources;
-
 import javax.ws.rs.Consumes;
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.Provider;
 
+import org.orcid.jaxb.model.v3.release.record.summary.ResearchResources;
+
 @Provider
-@Consumes({"application/xml", "application/json"})
-public class V3ResearchResourcesBodyReader implements MessageBodyReader<ResearchResources> {
+@Consumes({ "application/xml", "application/json" })
+public class V3ResearchResourcesBodyReader extends JaxbBodyReader<ResearchResources> {
 
-    private final Unmarshaller unmarshaller;
-    
     public V3ResearchResourcesBodyReader() {
-        try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(ResearchResources.class);
-            unmarshaller = jaxbContext.createUnmarshaller();            
-        } catch (JAXBException jaxbException) {
-            throw new ProcessingException("Error deserializing a " + Record.class,
-                jaxbException);
-        }
-    }
-    
-    @Override
-    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return type == ResearchResources.class;
-    }
-
-    @Override
-    public ResearchResources readFrom(Class<ResearchResources> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
-            InputStream entityStream) throws IOException, WebApplicationException {
-        try {
-            return (ResearchResources) unmarshaller.unmarshal(entityStream);
-        } catch (JAXBException jaxbException) {
-            throw new ProcessingException("Error deserializing a " + Record.class,
-                jaxbException);
-        }
+        super(ResearchResources.class, JaxbReaders.V3);
     }
 
 }
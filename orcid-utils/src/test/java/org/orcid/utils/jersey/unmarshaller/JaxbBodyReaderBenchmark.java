@@ -0,0 +1,73 @@
+package org.orcid.utils.jersey.unmarshaller;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.jaxb.model.v3.release.record.Work;
+
+/**
+ * Works parsed per second with one shared unmarshaller behind a lock, as the
+ * listener threads had to do, against the shared body reader, for 1, 2, 4 and
+ * 8 threads.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.orcid.utils.jersey.unmarshaller.JaxbBodyReaderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JaxbBodyReaderBenchmark {
+
+    private byte[] body;
+
+    private Unmarshaller sharedUnmarshaller;
+
+    private V3WorkBodyReader reader;
+
+    @Setup
+    public void setup() throws Exception {
+        body = JaxbBodyReaderTest.toXml(JaxbBodyReaderTest.work("A work parsed by the listener", 1L));
+        sharedUnmarshaller = JAXBContext.newInstance(Work.class).createUnmarshaller();
+        reader = new V3WorkBodyReader();
+    }
+
+    @Benchmark
+    public Object lockedUnmarshaller() throws Exception {
+        synchronized (sharedUnmarshaller) {
+            return sharedUnmarshaller.unmarshal(new ByteArrayInputStream(body));
+        }
+    }
+
+    @Benchmark
+    public Work bodyReader() throws Exception {
+        return reader.readFrom(Work.class, Work.class, null, null, null, new ByteArrayInputStream(body));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] { 1, 2, 4, 8 }) {
+            Options options = new OptionsBuilder().include(JaxbBodyReaderBenchmark.class.getSimpleName()).threads(threads).build();
+            new Runner(options).run();
+        }
+    }
+
+}
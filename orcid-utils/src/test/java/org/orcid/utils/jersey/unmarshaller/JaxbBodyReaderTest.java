@@ -0,0 +1,116 @@
+package org.orcid.utils.jersey.unmarshaller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.ProcessingException;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+
+import org.junit.Test;
+import org.orcid.jaxb.model.common.WorkType;
+import org.orcid.jaxb.model.v3.release.common.Title;
+import org.orcid.jaxb.model.v3.release.record.Funding;
+import org.orcid.jaxb.model.v3.release.record.Work;
+import org.orcid.jaxb.model.v3.release.record.WorkTitle;
+
+public class JaxbBodyReaderTest {
+
+    @Test
+    public void testIsReadable() {
+        V3WorkBodyReader reader = new V3WorkBodyReader();
+        assertTrue(reader.isReadable(Work.class, Work.class, null, null));
+        assertFalse(reader.isReadable(org.orcid.jaxb.model.record_v2.Work.class, org.orcid.jaxb.model.record_v2.Work.class, null, null));
+        V2WorkBodyReader v2Reader = new V2WorkBodyReader();
+        assertTrue(v2Reader.isReadable(org.orcid.jaxb.model.record_v2.Work.class, org.orcid.jaxb.model.record_v2.Work.class, null, null));
+        assertFalse(v2Reader.isReadable(Work.class, Work.class, null, null));
+    }
+
+    @Test
+    public void testReadFromSharedBetweenThreads() throws Exception {
+        V3WorkBodyReader reader = new V3WorkBodyReader();
+        List<byte[]> bodies = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bodies.add(toXml(work("Work " + i, (long) i)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < bodies.size(); i++) {
+                    final int index = i;
+                    results.add(executor.submit(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() throws Exception {
+                            Work work = reader.readFrom(Work.class, Work.class, null, null, null, new ByteArrayInputStream(bodies.get(index)));
+                            return ("Work " + index).equals(work.getWorkTitle().getTitle().getContent()) && work.getPutCode() == index;
+                        }
+                    }));
+                }
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReadFromInvalidXml() throws Exception {
+        V3WorkBodyReader reader = new V3WorkBodyReader();
+        try {
+            reader.readFrom(Work.class, Work.class, null, null, null, new ByteArrayInputStream("<work:work".getBytes(StandardCharsets.UTF_8)));
+        } catch (ProcessingException e) {
+            assertEquals("Error deserializing a " + Work.class, e.getMessage());
+            // The reader is still usable by the same thread
+            Work work = reader.readFrom(Work.class, Work.class, null, null, null, new ByteArrayInputStream(toXml(work("Title", 1L))));
+            assertEquals("Title", work.getWorkTitle().getTitle().getContent());
+            return;
+        }
+        throw new AssertionError("Invalid XML was deserialized");
+    }
+
+    @Test
+    public void testReadFromUnexpectedRootElement() throws Exception {
+        V3WorkBodyReader reader = new V3WorkBodyReader();
+        Funding funding = new Funding();
+        funding.setPutCode(1L);
+        try {
+            reader.readFrom(Work.class, Work.class, null, null, null, new ByteArrayInputStream(toXml(funding)));
+        } catch (ProcessingException e) {
+            assertEquals("Error deserializing a " + Work.class, e.getMessage());
+            return;
+        }
+        throw new AssertionError("A funding was deserialized as a work");
+    }
+
+    static Work work(String title, Long putCode) {
+        Work work = new Work();
+        work.setPutCode(putCode);
+        work.setWorkType(WorkType.JOURNAL_ARTICLE);
+        WorkTitle workTitle = new WorkTitle();
+        workTitle.setTitle(new Title(title));
+        work.setWorkTitle(workTitle);
+        return work;
+    }
+
+    static byte[] toXml(Object entity) throws Exception {
+        Marshaller marshaller = JAXBContext.newInstance(entity.getClass()).createMarshaller();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.marshal(entity, out);
+        return out.toByteArray();
+    }
+
+}